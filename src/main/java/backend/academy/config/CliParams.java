@@ -1,8 +1,19 @@
 package backend.academy.config;
 
+import backend.academy.logObservers.ExactDistinctIpsObserver;
+import backend.academy.logObservers.GroupByObserver;
+import backend.academy.logObservers.HyperLogLog;
+import backend.academy.logObservers.TrafficSeriesObserver;
+import backend.academy.logObservers.UniqueUsersObserver;
+import backend.academy.logParseComponents.AnalysisContext;
+import backend.academy.logParseComponents.LogParser;
 import backend.academy.logParseComponents.Logic;
 import com.beust.jcommander.Parameter;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import lombok.extern.log4j.Log4j2;
 
@@ -11,10 +22,12 @@ public class CliParams {
     @Parameter(names = {"--path"}, description = "Path to the file or URL to collect statistics from", required = true)
     private String fileOrUrl;
 
-    @Parameter(names = {"--from"}, description = "Start date in the format dd/MMM/yyyy HH:mm:ss. Optional.")
+    @Parameter(names = {"--from"},
+        description = "Start date (UTC, inclusive) in the format dd/MMM/yyyy HH:mm:ss. Optional.")
     private String fromDate;
 
-    @Parameter(names = {"--to"}, description = "End date in the format dd/MMM/yyyy HH:mm:ss. Optional.")
+    @Parameter(names = {"--to"},
+        description = "End date (UTC, exclusive) in the format dd/MMM/yyyy HH:mm:ss. Optional.")
     private String toDate;
 
     @Parameter(names = {"--filter-field"}, description = "Field to filter the logs. Optional.")
@@ -26,13 +39,116 @@ public class CliParams {
     @Parameter(names = {"--format"}, description = "Output format (e.g., markdown, adoc). Optional.")
     private String format = "adoc"; // Default format
 
-    public void run() {
+    @Parameter(names = {"--log-format"},
+        description = "nginx log_format directive of the input, e.g. '$remote_addr - $remote_user [$time_local] ...',"
+            + " or 'json' for JSON lines written with escape=json. Optional.")
+    private String logFormat;
+
+    @Parameter(names = {"--quarantine"}, description = "File to write malformed log lines to. Optional.")
+    private String quarantineFile;
+
+    @Parameter(names = {"--path-template"},
+        description = "Path template to count requests by, e.g. '/api/users/{id}'. Repeatable. Optional.")
+    private List<String> pathTemplates = new ArrayList<>();
+
+    @Parameter(names = {"--simd"},
+        description = "Split the logs into lines and fields with the JDK Vector API. Needs the JVM option"
+            + " --add-modules jdk.incubator.vector. Optional.")
+    private boolean simd;
+
+    @Parameter(names = {"--max-line-length"},
+        description = "Maximum length of a log line; longer lines are counted as malformed. Optional.")
+    private int maxLineLength = LogParser.DEFAULT_MAX_LINE_LENGTH;
+
+    @Parameter(names = {"--top-users"}, description = "Number of most active clients in the report. Optional.")
+    private int topUsers = UniqueUsersObserver.DEFAULT_TOP_USERS;
+
+    @Parameter(names = {"--distinct"},
+        description = "Fields to count distinct values of, estimated with HyperLogLog past "
+            + HyperLogLog.DEFAULT_EXACT_THRESHOLD + " values: ip, user_agent, path. Comma-separated. Optional.")
+    private List<String> distinctFields = new ArrayList<>();
+
+    @Parameter(names = {"--hll-precision"},
+        description = "Precision of the HyperLogLog sketches, from 4 to 18; 14 gives a 0.81% standard error. Optional.")
+    private int hllPrecision = HyperLogLog.DEFAULT_PRECISION;
+
+    @Parameter(names = {"--group-by"},
+        description = "Fields to aggregate requests by: status, method, path, ip, referrer, user_agent."
+            + " Comma-separated. Optional.")
+    private List<String> groupByFields = new ArrayList<>();
+
+    @Parameter(names = {"--agg"},
+        description = "Aggregates of the --group-by groups: count, or sum, min, max or avg of size, e.g. sum(size)."
+            + " Comma-separated; groups are ranked by the first one. Optional, count by default.")
+    private List<String> groupByAggregates = new ArrayList<>();
+
+    @Parameter(names = {"--top-groups"},
+        description = "Number of --group-by groups in the report. Optional.")
+    private int topGroups = GroupByObserver.DEFAULT_TOP_GROUPS;
+
+    @Parameter(names = {"--exact-distinct-ips"},
+        description = "Count the exact number of distinct client IP addresses per day. Optional.")
+    private boolean exactDistinctIps;
+
+    @Parameter(names = {"--ip-set-dir"},
+        description = "Directory to save the distinct client IP addresses of each day to, merged with the files"
+            + " already saved for that day; implies --exact-distinct-ips. Optional.")
+    private String ipSetDirectory;
+
+    @Parameter(names = {"--frequency-sketch"},
+        description = "Estimate the most frequent URLs and referrers in fixed memory with a Count-Min sketch"
+            + " instead of counting every distinct value. Optional.")
+    private boolean frequencySketch;
+
+    @Parameter(names = {"--series"},
+        description = "Report requests, bytes and errors per time bucket in a traffic table of up to "
+            + TrafficSeriesObserver.DEFAULT_BUCKETS + " rows. Optional.")
+    private boolean trafficSeries;
+
+    @Parameter(names = {"--series-bucket"},
+        description = "Width in seconds of the buckets of the --series traffic table, e.g. 1 or 60. Optional.")
+    private int seriesBucketSeconds = TrafficSeriesObserver.DEFAULT_BUCKET_SECONDS;
+
+    @Parameter(names = {"--fused"},
+        description = "Update the observers in a single generated loop instead of one call per observer. Optional.")
+    private boolean fused;
+
+    @Parameter(names = {"--profile-observers"},
+        description = "Report the CPU time, allocations and retained memory of each observer in a Cost section."
+            + " Slows parsing down. Optional.")
+    private boolean profileObservers;
+
+    public void run() throws IOException {
         // Parse dates using Logic.parseDateTime
         Optional<LocalDateTime> startDate = Logic.parseDateTime(fromDate);
         Optional<LocalDateTime> endDate = Logic.parseDateTime(toDate);
 
+        // Compile the custom log format, if any
+        AnalysisContext context = new AnalysisContext();
+        context.useLogFormat(logFormat);
+
+        // Opt in to SIMD delimiter scanning, falling back to scalar scanning if the Vector API is unavailable
+        if (simd) {
+            context.useVectorScanning(true);
+        }
+        context.maxLineLength(maxLineLength);
+        context.fuseObservers(fused);
+        context.profileObservers(profileObservers);
+
+        // Write malformed lines to the quarantine file, if any
+        context.quarantineMalformedLines(quarantineFile);
+
         // Setup observers
-        LoggerConfig.setupObservers();
+        LoggerConfig.setupObservers(context,
+            new LoggerConfig.ObserverOptions(pathTemplates, topUsers, frequencySketch));
+        if (trafficSeries) {
+            LoggerConfig.setupTrafficSeries(context, seriesBucketSeconds);
+        }
+        LoggerConfig.setupDistinctCounts(context, distinctFields, hllPrecision);
+        LoggerConfig.setupGroupBy(context, groupByFields, groupByAggregates, topGroups);
+        ExactDistinctIpsObserver exactIps = exactDistinctIps || ipSetDirectory != null
+            ? LoggerConfig.setupExactDistinctIps(context)
+            : null;
 
         // Ensure lack or dependence of register
         if (filterField != null) {
@@ -43,9 +159,14 @@ public class CliParams {
         }
 
         // Call Logic.startLogic with parsed parameters
-        Logic.startLogic(fileOrUrl, startDate, endDate,
+        Logic.startLogic(context, fileOrUrl, startDate, endDate,
             filterField, filterValue, format.toLowerCase());
 
+        // Keep the addresses of each day, to be combined into weekly or monthly counts
+        if (exactIps != null && ipSetDirectory != null) {
+            exactIps.saveDays(Path.of(ipSetDirectory));
+        }
+
         log.info("Log parsing and report generation completed.");
     }
 }
@@ -2,24 +2,138 @@ package backend.academy.config;
 
 import backend.academy.logObservers.AverageResponseSizeObserver;
 import backend.academy.logObservers.CodeStatusesObserver;
+import backend.academy.logObservers.DistinctCountObserver;
+import backend.academy.logObservers.ExactDistinctIpsObserver;
+import backend.academy.logObservers.FrequencySketchObserver;
+import backend.academy.logObservers.GroupByObserver;
+import backend.academy.logObservers.HyperLogLog;
+import backend.academy.logObservers.MalformedLinesObserver;
 import backend.academy.logObservers.RecourseRequestsObserver;
+import backend.academy.logObservers.RequestLineObserver;
 import backend.academy.logObservers.RequestsObservers;
 import backend.academy.logObservers.ResponseSizePercentileObserver;
 import backend.academy.logObservers.TotalRequestObserver;
+import backend.academy.logObservers.TrafficSeriesObserver;
 import backend.academy.logObservers.UniqueUsersObserver;
-import backend.academy.logParseComponents.LogParser;
+import backend.academy.logObservers.UserAgentObserver;
+import backend.academy.logParseComponents.AnalysisContext;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
 import lombok.experimental.UtilityClass;
 
 @UtilityClass
 public class LoggerConfig {
 
-    public static void setupObservers() {
-        LogParser.addObserver(new TotalRequestObserver());
-        LogParser.addObserver(new CodeStatusesObserver());
-        LogParser.addObserver(new RecourseRequestsObserver());
-        LogParser.addObserver(new AverageResponseSizeObserver());
-        LogParser.addObserver(new ResponseSizePercentileObserver());
-        LogParser.addObserver(new RequestsObservers());
-        LogParser.addObserver(new UniqueUsersObserver());
+    /**
+     * Options of the default observers registered by {@link #setupObservers(AnalysisContext, ObserverOptions)}.
+     *
+     * @param pathTemplates   the path templates to count requests by, e.g. {@code /api/users/{id}}; may be empty
+     * @param topUsers        the number of clients in the report
+     * @param frequencySketch whether to count requests and referrers in fixed memory with
+     *                        {@link FrequencySketchObserver}; the path templates are then not used
+     */
+    public record ObserverOptions(List<String> pathTemplates, int topUsers, boolean frequencySketch) {
+
+        /**
+         * Exact counts without path templates, reporting {@link UniqueUsersObserver#DEFAULT_TOP_USERS} clients.
+         */
+        public static final ObserverOptions DEFAULTS =
+            new ObserverOptions(List.of(), UniqueUsersObserver.DEFAULT_TOP_USERS, false);
+
+        public ObserverOptions {
+            pathTemplates = List.copyOf(pathTemplates);
+        }
+    }
+
+    /**
+     * Registers the default observers. The traffic table, distinct counts, exact daily addresses and groups are
+     * opt-in and registered by the other {@code setup} methods.
+     *
+     * @param context the analysis to register the observers with
+     * @param options the options of the observers, e.g. {@link ObserverOptions#DEFAULTS}
+     */
+    public static void setupObservers(AnalysisContext context, ObserverOptions options) {
+        context.usePathTemplates(options.pathTemplates());
+        context.addObserver(new TotalRequestObserver());
+        context.addObserver(new CodeStatusesObserver());
+        context.addObserver(new RequestLineObserver());
+        if (!options.frequencySketch()) {
+            context.addObserver(new RecourseRequestsObserver(context));
+        }
+        context.addObserver(new AverageResponseSizeObserver());
+        context.addObserver(new ResponseSizePercentileObserver());
+        context.addObserver(options.frequencySketch()
+            ? new FrequencySketchObserver()
+            : new RequestsObservers(context));
+        context.addObserver(new UniqueUsersObserver(options.topUsers()));
+        context.addObserver(new UserAgentObserver());
+        context.addObserver(new MalformedLinesObserver());
+    }
+
+    /**
+     * Registers an observer recording the traffic per time bucket over a window of
+     * {@link TrafficSeriesObserver#DEFAULT_BUCKETS} buckets, i.e. a report table of up to as many rows.
+     *
+     * @param context       the analysis to register the observer with
+     * @param bucketSeconds the width of a bucket in seconds, e.g. 60 for a per-minute series
+     * @throws IllegalArgumentException if the width is not positive
+     */
+    public static void setupTrafficSeries(AnalysisContext context, int bucketSeconds) {
+        context.addObserver(new TrafficSeriesObserver(bucketSeconds, TrafficSeriesObserver.DEFAULT_BUCKETS));
+    }
+
+    /**
+     * Registers an observer counting the distinct values of the given fields, if any.
+     *
+     * @param context    the analysis to register the observer with
+     * @param fieldNames the names of the fields, e.g. {@code ip}, {@code user_agent} or {@code path}; may be empty
+     * @param precision  the precision of the HyperLogLog sketches
+     * @throws IllegalArgumentException if a field name is unknown or the precision is out of range
+     */
+    public static void setupDistinctCounts(AnalysisContext context, List<String> fieldNames, int precision) {
+        if (fieldNames.isEmpty()) {
+            return;
+        }
+        Set<DistinctCountObserver.Field> fields = EnumSet.noneOf(DistinctCountObserver.Field.class);
+        for (String fieldName : fieldNames) {
+            fields.add(DistinctCountObserver.Field.fromName(fieldName));
+        }
+        context.addObserver(new DistinctCountObserver(fields, precision, HyperLogLog.DEFAULT_EXACT_THRESHOLD));
+    }
+
+    /**
+     * Registers an observer counting the exact number of distinct client addresses per day.
+     *
+     * @param context the analysis to register the observer with
+     * @return the registered observer, whose daily address sets can be saved after the analysis
+     */
+    public static ExactDistinctIpsObserver setupExactDistinctIps(AnalysisContext context) {
+        ExactDistinctIpsObserver observer = new ExactDistinctIpsObserver();
+        context.addObserver(observer);
+        return observer;
+    }
+
+    /**
+     * Registers an observer aggregating requests by the given fields, if any.
+     *
+     * @param context        the analysis to register the observer with
+     * @param fieldNames     the names of the grouped fields, e.g. {@code status} and {@code path}; may be empty
+     * @param aggregateTexts the aggregates, e.g. {@code count} and {@code sum(size)}; {@code count} if empty
+     * @param topGroups      the number of groups in the report
+     * @throws IllegalArgumentException if a field or an aggregate is invalid
+     */
+    public static void setupGroupBy(AnalysisContext context, List<String> fieldNames, List<String> aggregateTexts,
+        int topGroups) {
+        if (fieldNames.isEmpty()) {
+            return;
+        }
+        List<GroupByObserver.Dimension> dimensions = fieldNames.stream()
+            .map(GroupByObserver.Dimension::fromName)
+            .toList();
+        List<GroupByObserver.Aggregate> aggregates = aggregateTexts.isEmpty()
+            ? List.of(new GroupByObserver.Aggregate(GroupByObserver.Function.COUNT, null))
+            : aggregateTexts.stream().map(GroupByObserver.Aggregate::parse).toList();
+        context.addObserver(new GroupByObserver(dimensions, aggregates, topGroups, context));
     }
 }
@@ -0,0 +1,123 @@
+package backend.academy.logObservers;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash set of packed client addresses (see {@link backend.academy.logParseComponents.IpAddresses})
+ * that gives each distinct address a dense id, in order of first appearance.
+ *
+ * <p>The two words of each address are kept in parallel {@code long[]} arrays indexed by id, and the hash slots
+ * only hold ids, so the table allocates nothing per address; observers keep their per-address values in arrays
+ * indexed by the same ids. This replaces maps of maps keyed by the high word, which allocate a map per distinct
+ * high word, i.e. per client for IPv6 addresses with privacy extensions.</p>
+ */
+final class AddressTable {
+
+    /**
+     * Value returned by {@link #find(long, long)} for addresses not in the table.
+     */
+    static final int ABSENT = -1;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] slots = newSlots(2 * INITIAL_CAPACITY);
+    private long[] highs = new long[INITIAL_CAPACITY];
+    private long[] lows = new long[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Returns the id of an address, adding it on first sight.
+     *
+     * @param high the high 64 bits of the address
+     * @param low  the low 64 bits of the address
+     * @return the id of the address, from 0 to {@link #size()} - 1
+     */
+    int add(long high, long low) {
+        int mask = slots.length - 1;
+        int slot = (int) Hashes.hash(high, low) & mask;
+        for (int id = slots[slot]; id != ABSENT; id = slots[slot]) {
+            if (highs[id] == high && lows[id] == low) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if (size == highs.length) {
+            highs = Arrays.copyOf(highs, 2 * size);
+            lows = Arrays.copyOf(lows, 2 * size);
+        }
+        highs[size] = high;
+        lows[size] = low;
+        slots[slot] = size;
+        if (++size * 2 > slots.length) {
+            rehash(2 * slots.length); // Keeps the load factor at most 1/2
+        }
+        return size - 1;
+    }
+
+    /**
+     * Returns the id of an address.
+     *
+     * @param high the high 64 bits of the address
+     * @param low  the low 64 bits of the address
+     * @return the id of the address, or {@link #ABSENT} if it is not in the table
+     */
+    int find(long high, long low) {
+        int mask = slots.length - 1;
+        int slot = (int) Hashes.hash(high, low) & mask;
+        for (int id = slots[slot]; id != ABSENT; id = slots[slot]) {
+            if (highs[id] == high && lows[id] == low) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return ABSENT;
+    }
+
+    /**
+     * Returns the number of distinct addresses.
+     *
+     * @return the number of ids given out
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the high word of an address.
+     *
+     * @param id the id of the address
+     * @return the high 64 bits of the address
+     */
+    long high(int id) {
+        return highs[id];
+    }
+
+    /**
+     * Returns the low word of an address.
+     *
+     * @param id the id of the address
+     * @return the low 64 bits of the address
+     */
+    long low(int id) {
+        return lows[id];
+    }
+
+    private void rehash(int capacity) {
+        slots = newSlots(capacity);
+        int mask = capacity - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = (int) Hashes.hash(highs[id], lows[id]) & mask;
+            while (slots[slot] != ABSENT) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = id;
+        }
+    }
+
+    private static int[] newSlots(int capacity) {
+        int[] slots = new int[capacity];
+        Arrays.fill(slots, ABSENT);
+        return slots;
+    }
+}
@@ -1,28 +1,57 @@
 package backend.academy.logObservers;
 
+import backend.academy.logParseComponents.LogBatch;
 import backend.academy.logParseComponents.LogReport;
-import lombok.Getter;
-import lombok.extern.log4j.Log4j2;
 
-@Log4j2
-public class AverageResponseSizeObserver implements LogObserver {
-    private @Getter long averageResponseSize = 0;
+public class AverageResponseSizeObserver implements MergeableObserver<AverageResponseSizeObserver> {
     private long totalResponseSize = 0;
     private long totalRequests = 0;
 
     @Override
     public void update(LogReport logger) {
-        try {
-            long responseSize = Long.parseLong(logger.responseSize());
-            totalResponseSize += responseSize;
-            totalRequests++;  // Only increment if the response size is valid
-
-            // Update the average response size, ensuring no division by zero
-            averageResponseSize = totalRequests > 0 ? totalResponseSize / totalRequests : 0;
-        } catch (NumberFormatException e) {
-            // Log the error but don't alter totalRequests or average
-            log.error("Invalid response size: {}", logger.responseSize(), e);
+        // The response size is validated by the parser, so every report can be counted
+        totalResponseSize += logger.responseSize();
+        totalRequests++;
+    }
+
+    @Override
+    public void updateBatch(LogBatch batch) {
+        long[] sizes = batch.responseSizes();
+        long sum = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            sum += sizes[i];
         }
+        addResponseSizes(sum, batch.size());
+    }
+
+    /**
+     * Counts responses observed elsewhere, e.g. by a fused observer.
+     *
+     * @param responseSizeSum the sum of the response sizes
+     * @param requests        the number of responses
+     */
+    void addResponseSizes(long responseSizeSum, long requests) {
+        totalResponseSize += responseSizeSum;
+        totalRequests += requests;
+    }
+
+    @Override
+    public AverageResponseSizeObserver emptyCopy() {
+        return new AverageResponseSizeObserver();
     }
-}
 
+    @Override
+    public void merge(AverageResponseSizeObserver other) {
+        totalResponseSize += other.totalResponseSize;
+        totalRequests += other.totalRequests;
+    }
+
+    /**
+     * Returns the average response size, computed on demand instead of on every update.
+     *
+     * @return the average response size in bytes, or 0 if no logs were observed
+     */
+    public long averageResponseSize() {
+        return totalRequests > 0 ? totalResponseSize / totalRequests : 0;
+    }
+}
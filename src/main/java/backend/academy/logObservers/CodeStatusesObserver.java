@@ -1,17 +1,86 @@
 package backend.academy.logObservers;
 
+import backend.academy.logParseComponents.LogBatch;
 import backend.academy.logParseComponents.LogReport;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import lombok.Getter;
 
-@Getter
-public class CodeStatusesObserver implements LogObserver {
-    private final Map<String, Integer> codeStatuses = new HashMap<>();
+/**
+ * Observer counting requests per HTTP status code and per status class ({@code 2xx}, {@code 4xx}, ...).
+ *
+ * <p>Status codes are validated by the parser to three digits, so they are counted in a flat {@code long[]}
+ * indexed by the code itself: no hashing and no boxing per request, and no overflow before 2^63 requests.
+ * The maps are only built when the report asks for them.</p>
+ */
+public class CodeStatusesObserver implements MergeableObserver<CodeStatusesObserver> {
+    private static final int STATUS_CODES = 1000;
+    private static final int STATUS_CLASS_DIVISOR = 100;
+
+    private final long[] codeStatuses = new long[STATUS_CODES];
 
     @Override
     public void update(LogReport log) {
-        String statusCode = log.httpStatusCode();
-        codeStatuses.merge(statusCode, 1, Integer::sum);
+        count(log.httpStatusCode());
+    }
+
+    @Override
+    public void updateBatch(LogBatch batch) {
+        int[] statusCodes = batch.statusCodes();
+        for (int i = 0; i < batch.size(); i++) {
+            count(statusCodes[i]);
+        }
+    }
+
+    void count(int statusCode) {
+        if (statusCode >= 0 && statusCode < STATUS_CODES) {
+            codeStatuses[statusCode]++;
+        }
+    }
+
+    @Override
+    public CodeStatusesObserver emptyCopy() {
+        return new CodeStatusesObserver();
+    }
+
+    @Override
+    public void merge(CodeStatusesObserver other) {
+        for (int i = 0; i < STATUS_CODES; i++) {
+            codeStatuses[i] += other.codeStatuses[i];
+        }
+    }
+
+    /**
+     * Returns the number of requests per status code that occurred at least once.
+     *
+     * @return the request counts keyed by status code, in ascending order
+     */
+    public Map<Integer, Long> codeStatuses() {
+        Map<Integer, Long> counts = new LinkedHashMap<>();
+        for (int statusCode = 0; statusCode < STATUS_CODES; statusCode++) {
+            if (codeStatuses[statusCode] > 0) {
+                counts.put(statusCode, codeStatuses[statusCode]);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Returns the number of requests per status class that occurred at least once.
+     *
+     * @return the request counts keyed by status class, e.g. {@code 4xx}, in ascending order
+     */
+    public Map<String, Long> statusClasses() {
+        long[] classes = new long[STATUS_CODES / STATUS_CLASS_DIVISOR];
+        for (int statusCode = 0; statusCode < STATUS_CODES; statusCode++) {
+            classes[statusCode / STATUS_CLASS_DIVISOR] += codeStatuses[statusCode];
+        }
+
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (int statusClass = 0; statusClass < classes.length; statusClass++) {
+            if (classes[statusClass] > 0) {
+                counts.put(statusClass + "xx", classes[statusClass]);
+            }
+        }
+        return counts;
     }
 }
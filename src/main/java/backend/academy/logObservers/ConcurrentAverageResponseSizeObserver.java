@@ -0,0 +1,54 @@
+package backend.academy.logObservers;
+
+import backend.academy.logParseComponents.LogBatch;
+import backend.academy.logParseComponents.LogReport;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe variant of {@link AverageResponseSizeObserver}, for one instance shared by several ingestion
+ * threads. The sum and the count are {@link LongAdder}s, so concurrent updates do not contend on one field.
+ */
+public class ConcurrentAverageResponseSizeObserver
+    implements MergeableObserver<ConcurrentAverageResponseSizeObserver> {
+    private final LongAdder totalResponseSize = new LongAdder();
+    private final LongAdder totalRequests = new LongAdder();
+
+    @Override
+    public void update(LogReport log) {
+        totalResponseSize.add(log.responseSize());
+        totalRequests.increment();
+    }
+
+    @Override
+    public void updateBatch(LogBatch batch) {
+        long[] sizes = batch.responseSizes();
+        long sum = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            sum += sizes[i];
+        }
+        totalResponseSize.add(sum);
+        totalRequests.add(batch.size());
+    }
+
+    @Override
+    public ConcurrentAverageResponseSizeObserver emptyCopy() {
+        return new ConcurrentAverageResponseSizeObserver();
+    }
+
+    @Override
+    public void merge(ConcurrentAverageResponseSizeObserver other) {
+        totalResponseSize.add(other.totalResponseSize.sum());
+        totalRequests.add(other.totalRequests.sum());
+    }
+
+    /**
+     * Returns the average response size. While updates are running, the sum and the count are read one after
+     * the other, so the result is approximate until the updates are complete.
+     *
+     * @return the average response size in bytes, or 0 if no logs were observed
+     */
+    public long averageResponseSize() {
+        long requests = totalRequests.sum();
+        return requests > 0 ? totalResponseSize.sum() / requests : 0;
+    }
+}
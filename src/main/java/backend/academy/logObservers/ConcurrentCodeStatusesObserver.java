@@ -0,0 +1,93 @@
+package backend.academy.logObservers;
+
+import backend.academy.logParseComponents.LogBatch;
+import backend.academy.logParseComponents.LogReport;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe variant of {@link CodeStatusesObserver}, for one instance shared by several ingestion threads.
+ *
+ * <p>Each status code has its own {@link LongAdder}, so threads counting different codes never share a
+ * counter, and threads counting the same code, usually {@code 200}, are spread over the cells of its adder.
+ * A batch is first tallied in a thread-local array, then added with one adder update per distinct code; the
+ * codes seen in the batch are listed as they are first counted, so only those are flushed.</p>
+ */
+public class ConcurrentCodeStatusesObserver implements MergeableObserver<ConcurrentCodeStatusesObserver> {
+    private static final int STATUS_CODES = 1000;
+
+    private static final ThreadLocal<BatchTally> BATCH_TALLY = ThreadLocal.withInitial(BatchTally::new);
+
+    private final LongAdder[] codeStatuses = new LongAdder[STATUS_CODES];
+
+    public ConcurrentCodeStatusesObserver() {
+        for (int i = 0; i < STATUS_CODES; i++) {
+            codeStatuses[i] = new LongAdder();
+        }
+    }
+
+    @Override
+    public void update(LogReport log) {
+        int statusCode = log.httpStatusCode();
+        if (statusCode >= 0 && statusCode < STATUS_CODES) {
+            codeStatuses[statusCode].increment();
+        }
+    }
+
+    @Override
+    public void updateBatch(LogBatch batch) {
+        BatchTally tally = BATCH_TALLY.get();
+        long[] counts = tally.counts;
+        int[] touched = tally.touched;
+        int touchedCount = 0;
+        int[] statusCodes = batch.statusCodes();
+        for (int i = 0; i < batch.size(); i++) {
+            int statusCode = statusCodes[i];
+            if (statusCode >= 0 && statusCode < STATUS_CODES && counts[statusCode]++ == 0) {
+                touched[touchedCount++] = statusCode;
+            }
+        }
+        for (int i = 0; i < touchedCount; i++) {
+            int statusCode = touched[i];
+            codeStatuses[statusCode].add(counts[statusCode]);
+            counts[statusCode] = 0;
+        }
+    }
+
+    @Override
+    public ConcurrentCodeStatusesObserver emptyCopy() {
+        return new ConcurrentCodeStatusesObserver();
+    }
+
+    @Override
+    public void merge(ConcurrentCodeStatusesObserver other) {
+        for (int i = 0; i < STATUS_CODES; i++) {
+            codeStatuses[i].add(other.codeStatuses[i].sum());
+        }
+    }
+
+    /**
+     * Returns the number of requests per status code that occurred at least once.
+     *
+     * @return the request counts keyed by status code, in ascending order
+     */
+    public Map<Integer, Long> codeStatuses() {
+        Map<Integer, Long> counts = new LinkedHashMap<>();
+        for (int statusCode = 0; statusCode < STATUS_CODES; statusCode++) {
+            long count = codeStatuses[statusCode].sum();
+            if (count > 0) {
+                counts.put(statusCode, count);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Per-thread tally of a batch: the count of each status code, and the codes with a non-zero count.
+     */
+    private static final class BatchTally {
+        private final long[] counts = new long[STATUS_CODES];
+        private final int[] touched = new int[STATUS_CODES];
+    }
+}
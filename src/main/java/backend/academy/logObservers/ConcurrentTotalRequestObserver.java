@@ -0,0 +1,44 @@
+package backend.academy.logObservers;
+
+import backend.academy.logParseComponents.LogBatch;
+import backend.academy.logParseComponents.LogReport;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe variant of {@link TotalRequestObserver}, for one instance shared by several ingestion threads.
+ *
+ * <p>The count is a {@link LongAdder}: threads that collide on it are spread over separate cells instead of
+ * retrying on one contended field, and the cells are summed when the count is read.</p>
+ */
+public class ConcurrentTotalRequestObserver implements MergeableObserver<ConcurrentTotalRequestObserver> {
+    private final LongAdder totalRequests = new LongAdder();
+
+    @Override
+    public void update(LogReport log) {
+        totalRequests.increment();
+    }
+
+    @Override
+    public void updateBatch(LogBatch batch) {
+        totalRequests.add(batch.size());
+    }
+
+    @Override
+    public ConcurrentTotalRequestObserver emptyCopy() {
+        return new ConcurrentTotalRequestObserver();
+    }
+
+    @Override
+    public void merge(ConcurrentTotalRequestObserver other) {
+        totalRequests.add(other.totalRequests.sum());
+    }
+
+    /**
+     * Returns the number of requests observed so far. Concurrent updates may or may not be included.
+     *
+     * @return the total number of requests
+     */
+    public long totalRequests() {
+        return totalRequests.sum();
+    }
+}
@@ -0,0 +1,165 @@
+package backend.academy.logObservers;
+
+/**
+ * Count-Min sketch: approximate frequencies of 64-bit hashes in a fixed {@code depth × width} table of counters.
+ *
+ * <p>Each value increments one counter per row, chosen by double hashing, and its frequency is estimated as
+ * the smallest of those counters. Estimates never undercount; with {@code width = 2^ceil(log2(e / epsilon))}
+ * and {@code depth = ceil(ln(1 / delta))}, an estimate exceeds the true frequency by more than
+ * {@code epsilon × N}, where {@code N} is the total count, with probability at most {@code delta}. Memory only
+ * depends on epsilon and delta, never on the number of distinct values.</p>
+ *
+ * <p>Sketches of the same dimensions are merged by adding their counters, which gives the same table as one
+ * sketch fed with both inputs.</p>
+ */
+public class CountMinSketch {
+
+    /**
+     * Default error, relative to the total count.
+     */
+    public static final double DEFAULT_EPSILON = 0.0001;
+
+    /**
+     * Default probability that an estimate exceeds the error.
+     */
+    public static final double DEFAULT_DELTA = 0.001;
+
+    private static final long MAX_COUNTERS = 1L << 28;
+
+    private final int width;
+    private final int depth;
+    private final long[] counts;
+    private long totalCount;
+
+    /**
+     * Creates a sketch with the default error bounds.
+     */
+    public CountMinSketch() {
+        this(DEFAULT_EPSILON, DEFAULT_DELTA);
+    }
+
+    /**
+     * Creates a sketch sized for the given error bounds.
+     *
+     * @param epsilon the error of an estimate, relative to the total count, e.g. 0.0001
+     * @param delta   the probability that an estimate exceeds that error, e.g. 0.001
+     * @throws IllegalArgumentException if epsilon or delta is not strictly between 0 and 1,
+     *                                  or if they are too small for the sketch to fit in 2 GiB
+     */
+    public CountMinSketch(double epsilon, double delta) {
+        if (!(epsilon > 0 && epsilon < 1) || !(delta > 0 && delta < 1)) {
+            throw new IllegalArgumentException("Epsilon and delta must be between 0 and 1: " + epsilon + ", " + delta);
+        }
+        double minWidth = Math.ceil(Math.E / epsilon);
+        double minDepth = Math.ceil(Math.log(1 / delta));
+        if (minWidth * minDepth > MAX_COUNTERS / 2) { // The width is rounded up to at most twice the minimum
+            throw new IllegalArgumentException("Epsilon and delta are too small: " + epsilon + ", " + delta);
+        }
+        this.width = Integer.highestOneBit((int) minWidth - 1) << 1; // Power of two, so that rows are masked
+        this.depth = (int) minDepth;
+        this.counts = new long[width * depth];
+    }
+
+    private CountMinSketch(int width, int depth) {
+        this.width = width;
+        this.depth = depth;
+        this.counts = new long[width * depth];
+    }
+
+    /**
+     * Returns an empty sketch with the same dimensions.
+     *
+     * @return a fresh sketch that can be merged with this one
+     */
+    public CountMinSketch emptyCopy() {
+        return new CountMinSketch(width, depth);
+    }
+
+    /**
+     * Counts one occurrence of a value.
+     *
+     * @param hash the well-mixed 64-bit hash of the value
+     * @return the estimated frequency of the value, including this occurrence
+     */
+    public long add(long hash) {
+        totalCount++;
+        long estimate = Long.MAX_VALUE;
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> Integer.SIZE) | 1; // Odd, so that the rows use different columns
+        for (int row = 0; row < depth; row++) {
+            int index = row * width + ((h1 + row * h2) & (width - 1));
+            estimate = Math.min(estimate, ++counts[index]);
+        }
+        return estimate;
+    }
+
+    /**
+     * Returns the estimated frequency of a value.
+     *
+     * @param hash the well-mixed 64-bit hash of the value
+     * @return the estimated frequency, never less than the true frequency
+     */
+    public long estimate(long hash) {
+        long estimate = Long.MAX_VALUE;
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> Integer.SIZE) | 1;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counts[row * width + ((h1 + row * h2) & (width - 1))]);
+        }
+        return estimate;
+    }
+
+    /**
+     * Adds the counts of another sketch to this one. The other sketch is not modified.
+     *
+     * @param other a sketch with the same dimensions
+     * @throws IllegalArgumentException if the dimensions differ
+     */
+    public void merge(CountMinSketch other) {
+        if (other.width != width || other.depth != depth) {
+            throw new IllegalArgumentException("Cannot merge sketches of " + other.depth + "×" + other.width
+                + " and " + depth + "×" + width + " counters");
+        }
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+    }
+
+    /**
+     * Returns the number of values counted.
+     *
+     * @return the total count
+     */
+    public long totalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Returns the error of an estimate, relative to the total count, that holds with probability
+     * {@code 1 - delta}.
+     *
+     * @return {@code e / width}
+     */
+    public double epsilon() {
+        return Math.E / width;
+    }
+
+    /**
+     * Returns the probability that an estimate exceeds the error.
+     *
+     * @return {@code e^-depth}
+     */
+    public double delta() {
+        return Math.exp(-depth);
+    }
+
+    /**
+     * Returns the absolute error of an estimate for the values counted so far.
+     *
+     * @return {@code epsilon × totalCount}, rounded up
+     */
+    public long errorBound() {
+        return (long) Math.ceil(epsilon() * totalCount);
+    }
+}
@@ -0,0 +1,167 @@
+package backend.academy.logObservers;
+
+import backend.academy.logParseComponents.LogReport;
+import backend.academy.logParseComponents.RequestLine;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Observer counting the distinct values of selected fields, e.g. daily distinct client addresses, with
+ * one {@link HyperLogLog} per field.
+ *
+ * <p>Counts are exact up to the exact threshold and estimated with a bounded relative error above it, in
+ * memory that does not grow with the number of distinct values. Values are hashed straight from the log
+ * report: addresses in their packed form, paths from their range of the request line. Observers of
+ * different partitions or files are merged by merging their sketches.</p>
+ */
+public class DistinctCountObserver implements MergeableObserver<DistinctCountObserver> {
+    private static final double PERCENT = 100.0;
+
+    /**
+     * Fields whose distinct values can be counted.
+     */
+    public enum Field {
+        /**
+         * The client IP address.
+         */
+        IP("ip"),
+        /**
+         * The raw user agent.
+         */
+        USER_AGENT("user_agent"),
+        /**
+         * The request path, without the query string; the whole request for lines that are not HTTP requests.
+         */
+        PATH("path");
+
+        private final String fieldName;
+
+        Field(String fieldName) {
+            this.fieldName = fieldName;
+        }
+
+        /**
+         * Returns the name of the field, as used on the command line.
+         *
+         * @return the field name, e.g. {@code user_agent}
+         */
+        public String fieldName() {
+            return fieldName;
+        }
+
+        /**
+         * Returns the field with the given name.
+         *
+         * @param fieldName the field name, case-insensitive
+         * @return the field
+         * @throws IllegalArgumentException if no field has that name
+         */
+        public static Field fromName(String fieldName) {
+            for (Field field : values()) {
+                if (field.fieldName.equalsIgnoreCase(fieldName.trim())) {
+                    return field;
+                }
+            }
+            throw new IllegalArgumentException("Unknown distinct count field '" + fieldName + "', expected one of "
+                + Arrays.stream(values()).map(Field::fieldName).toList());
+        }
+    }
+
+    private final Map<Field, HyperLogLog> counters = new EnumMap<>(Field.class);
+    private final int precision;
+    private final int exactThreshold;
+
+    /**
+     * Creates an observer counting every field with the default precision and exact threshold.
+     */
+    public DistinctCountObserver() {
+        this(Set.of(Field.values()), HyperLogLog.DEFAULT_PRECISION, HyperLogLog.DEFAULT_EXACT_THRESHOLD);
+    }
+
+    /**
+     * Creates an observer counting the given fields.
+     *
+     * @param fields         the fields whose distinct values are counted
+     * @param precision      the precision of the sketches, see {@link HyperLogLog#HyperLogLog(int, int)}
+     * @param exactThreshold the number of distinct values counted exactly, per field
+     * @throws IllegalArgumentException if the precision or the threshold is out of range
+     */
+    public DistinctCountObserver(Set<Field> fields, int precision, int exactThreshold) {
+        this.precision = precision;
+        this.exactThreshold = exactThreshold;
+        for (Field field : fields) {
+            counters.put(field, new HyperLogLog(precision, exactThreshold));
+        }
+    }
+
+    @Override
+    public void update(LogReport log) {
+        for (Map.Entry<Field, HyperLogLog> counter : counters.entrySet()) {
+            if (counter.getKey() != Field.IP || log.hasAddress()) { // Entries without an address are no client
+                counter.getValue().add(hash(counter.getKey(), log));
+            }
+        }
+    }
+
+    @Override
+    public DistinctCountObserver emptyCopy() {
+        return new DistinctCountObserver(counters.keySet(), precision, exactThreshold);
+    }
+
+    @Override
+    public void merge(DistinctCountObserver other) {
+        for (Map.Entry<Field, HyperLogLog> counter : counters.entrySet()) {
+            HyperLogLog otherCounter = other.counters.get(counter.getKey());
+            if (otherCounter != null) {
+                counter.getValue().merge(otherCounter);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of distinct values of a field.
+     *
+     * @param field the field
+     * @return the exact or estimated count, or 0 if the field is not counted
+     */
+    public long distinctCount(Field field) {
+        HyperLogLog counter = counters.get(field);
+        return counter == null ? 0 : counter.estimate();
+    }
+
+    /**
+     * Returns the number of distinct values of each counted field, with its error bound.
+     *
+     * @return e.g. {@code 1203456 ± 0.81%} or {@code 42 (exact)}, keyed by field name
+     */
+    public Map<String, String> distinctCounts() {
+        Map<String, String> distinctCounts = new LinkedHashMap<>();
+        for (Map.Entry<Field, HyperLogLog> counter : counters.entrySet()) {
+            HyperLogLog hyperLogLog = counter.getValue();
+            String count = hyperLogLog.isExact()
+                ? hyperLogLog.estimate() + " (exact)"
+                : String.format(Locale.ROOT, "%d ± %.2f%%", hyperLogLog.estimate(),
+                    hyperLogLog.relativeStandardError() * PERCENT);
+            distinctCounts.put(counter.getKey().fieldName(), count);
+        }
+        return distinctCounts;
+    }
+
+    private static long hash(Field field, LogReport log) {
+        return switch (field) {
+            case IP -> Hashes.hash(log.ipHigh(), log.ipLow());
+            case USER_AGENT -> log.userAgent() == null ? 0 : Hashes.hash(log.userAgent(), 0, log.userAgent().length());
+            case PATH -> {
+                String request = log.request() == null ? "" : log.request();
+                int methodEnd = RequestLine.methodEnd(request);
+                yield methodEnd < 0
+                    ? Hashes.hash(request, 0, request.length())
+                    : Hashes.hash(request, methodEnd + 1, RequestLine.pathEnd(request, methodEnd));
+            }
+        };
+    }
+}
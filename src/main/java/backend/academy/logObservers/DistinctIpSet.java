@@ -0,0 +1,198 @@
+package backend.academy.logObservers;
+
+import backend.academy.logParseComponents.IpAddresses;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Exact set of client addresses: IPv4 addresses in an {@link Ipv4Bitmap}, IPv6 addresses, which are rare and
+ * spread over a space too large for a bitmap, in an {@link AddressTable}, which allocates nothing per address.
+ *
+ * <p>Sets are combined with {@link #or(DistinctIpSet)} and saved with {@link #writeTo(DataOutput)}, so that the
+ * sets of each day can be kept and OR-ed into the exact count of a week or a month.</p>
+ */
+public class DistinctIpSet {
+    private static final int FORMAT_VERSION = 1;
+
+    private final Ipv4Bitmap ipv4;
+    private final AddressTable ipv6 = new AddressTable();
+
+    /**
+     * Creates an empty set.
+     */
+    public DistinctIpSet() {
+        this(new Ipv4Bitmap());
+    }
+
+    private DistinctIpSet(Ipv4Bitmap ipv4) {
+        this.ipv4 = ipv4;
+    }
+
+    /**
+     * Adds an address to the set.
+     *
+     * @param high the high 64 bits of the address, see {@link IpAddresses}
+     * @param low  the low 64 bits of the address
+     * @return {@code true} if the address was not in the set yet
+     */
+    public boolean add(long high, long low) {
+        if (IpAddresses.isIpv4(high, low)) {
+            return ipv4.add((int) low);
+        }
+        int size = ipv6.size();
+        return ipv6.add(high, low) == size; // Ids are dense, so a new address gets the next one
+    }
+
+    /**
+     * Checks whether an address is in the set.
+     *
+     * @param high the high 64 bits of the address
+     * @param low  the low 64 bits of the address
+     * @return {@code true} if the address is in the set
+     */
+    public boolean contains(long high, long low) {
+        if (IpAddresses.isIpv4(high, low)) {
+            return ipv4.contains((int) low);
+        }
+        return ipv6.find(high, low) != AddressTable.ABSENT;
+    }
+
+    /**
+     * Returns the number of addresses in the set.
+     *
+     * @return the exact number of distinct IPv4 and IPv6 addresses
+     */
+    public long cardinality() {
+        return ipv4.cardinality() + ipv6Cardinality();
+    }
+
+    /**
+     * Returns the number of IPv6 addresses in the set.
+     *
+     * @return the exact number of distinct IPv6 addresses
+     */
+    public long ipv6Cardinality() {
+        return ipv6.size();
+    }
+
+    /**
+     * Adds every address of another set to this set.
+     *
+     * @param other the set to add; it is not modified
+     */
+    public void or(DistinctIpSet other) {
+        ipv4.or(other.ipv4);
+        for (int id = 0; id < other.ipv6.size(); id++) {
+            ipv6.add(other.ipv6.high(id), other.ipv6.low(id));
+        }
+    }
+
+    /**
+     * Writes the set: a format version, the IPv4 bitmap, then the number of IPv6 groups and each group as its
+     * high word, its size and its sorted low words.
+     *
+     * @param out the output
+     * @throws IOException if the output cannot be written
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeByte(FORMAT_VERSION);
+        ipv4.writeTo(out);
+        int[] ids = new int[ipv6.size()];
+        for (int id = 0; id < ids.length; id++) {
+            ids[id] = id;
+        }
+        IntArrays.quickSort(ids, (left, right) -> {
+            int byHigh = Long.compare(ipv6.high(left), ipv6.high(right));
+            return byHigh != 0 ? byHigh : Long.compare(ipv6.low(left), ipv6.low(right));
+        });
+
+        int groups = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (i == 0 || ipv6.high(ids[i]) != ipv6.high(ids[i - 1])) {
+                groups++;
+            }
+        }
+        out.writeInt(groups);
+        int start = 0;
+        while (start < ids.length) {
+            long high = ipv6.high(ids[start]);
+            int end = start + 1;
+            while (end < ids.length && ipv6.high(ids[end]) == high) {
+                end++;
+            }
+            out.writeLong(high);
+            out.writeInt(end - start);
+            for (int i = start; i < end; i++) {
+                out.writeLong(ipv6.low(ids[i]));
+            }
+            start = end;
+        }
+    }
+
+    /**
+     * Reads a set written by {@link #writeTo(DataOutput)}.
+     *
+     * @param in the input
+     * @return the set
+     * @throws IOException if the input cannot be read or does not hold a valid set
+     */
+    public static DistinctIpSet readFrom(DataInput in) throws IOException {
+        int version = in.readUnsignedByte();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported address set format version: " + version);
+        }
+        DistinctIpSet set = new DistinctIpSet(Ipv4Bitmap.readFrom(in));
+        int groups = in.readInt();
+        if (groups < 0) {
+            throw new IOException("Invalid number of IPv6 groups: " + groups);
+        }
+        for (int i = 0; i < groups; i++) {
+            long high = in.readLong();
+            int size = in.readInt();
+            if (size <= 0) {
+                throw new IOException("Invalid IPv6 group size: " + size);
+            }
+            for (int j = 0; j < size; j++) {
+                set.ipv6.add(high, in.readLong());
+            }
+        }
+        return set;
+    }
+
+    /**
+     * Writes the set to a file, replacing it.
+     *
+     * @param file the path of the file
+     * @throws IOException if the file cannot be written
+     */
+    public void save(Path file) throws IOException {
+        try (OutputStream stream = Files.newOutputStream(file);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream))) {
+            writeTo(out);
+        }
+    }
+
+    /**
+     * Reads a set from a file written by {@link #save(Path)}.
+     *
+     * @param file the path of the file
+     * @return the set
+     * @throws IOException if the file cannot be read or does not hold a valid set
+     */
+    public static DistinctIpSet load(Path file) throws IOException {
+        try (InputStream stream = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(stream))) {
+            return readFrom(in);
+        }
+    }
+}
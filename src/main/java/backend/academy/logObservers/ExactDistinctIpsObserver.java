@@ -0,0 +1,159 @@
+package backend.academy.logObservers;
+
+import backend.academy.logParseComponents.LogBatch;
+import backend.academy.logParseComponents.LogReport;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Observer counting the exact number of distinct client addresses per UTC day, e.g. for compliance reports,
+ * with one {@link DistinctIpSet} per day.
+ *
+ * <p>Unlike {@link DistinctCountObserver}, counts are never estimated. The addresses of a day are kept in a
+ * compressed bitmap: about 2 bytes per address clustered in a few /16 networks and 1 bit in dense ranges, but
+ * about 50 bytes per address when they are scattered one per /16 chunk (see {@link Ipv4Bitmap}). The sets of
+ * each day can be saved with {@link #saveDays(Path)} and combined later into weekly or monthly counts with
+ * {@link DistinctIpSet#or}.
+ * Entries without a timestamp are counted in the total only, and entries without a client address are not
+ * counted.</p>
+ */
+public class ExactDistinctIpsObserver implements MergeableObserver<ExactDistinctIpsObserver> {
+
+    /**
+     * Prefix of the files written by {@link #saveDays(Path)}, followed by the ISO date of the day.
+     */
+    public static final String DAY_FILE_PREFIX = "distinct-ips-";
+
+    /**
+     * Suffix of the files written by {@link #saveDays(Path)}.
+     */
+    public static final String DAY_FILE_SUFFIX = ".bin";
+
+    private static final long SECONDS_PER_DAY = 86_400;
+
+    private final Long2ObjectOpenHashMap<DistinctIpSet> days = new Long2ObjectOpenHashMap<>();
+    private final DistinctIpSet undated = new DistinctIpSet();
+
+    // Set of the day of the last entry, as consecutive entries are usually of the same day
+    private long lastDay = LogReport.NO_TIMESTAMP;
+    private DistinctIpSet lastDaySet = undated;
+
+    @Override
+    public void update(LogReport log) {
+        if (log.hasAddress()) {
+            count(log.epochSecond(), log.ipHigh(), log.ipLow());
+        }
+    }
+
+    @Override
+    public void updateBatch(LogBatch batch) {
+        long[] epochSeconds = batch.epochSeconds();
+        long[] highs = batch.ipHighs();
+        long[] lows = batch.ipLows();
+        boolean[] hasAddresses = batch.hasAddresses();
+        for (int i = 0; i < batch.size(); i++) {
+            if (hasAddresses[i]) {
+                count(epochSeconds[i], highs[i], lows[i]);
+            }
+        }
+    }
+
+    private void count(long epochSecond, long high, long low) {
+        long day = epochSecond == LogReport.NO_TIMESTAMP
+            ? LogReport.NO_TIMESTAMP
+            : Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+        if (day != lastDay) {
+            lastDay = day;
+            lastDaySet = day == LogReport.NO_TIMESTAMP
+                ? undated
+                : days.computeIfAbsent(day, key -> new DistinctIpSet());
+        }
+        lastDaySet.add(high, low);
+    }
+
+    @Override
+    public ExactDistinctIpsObserver emptyCopy() {
+        return new ExactDistinctIpsObserver();
+    }
+
+    @Override
+    public void merge(ExactDistinctIpsObserver other) {
+        for (Long2ObjectMap.Entry<DistinctIpSet> day : other.days.long2ObjectEntrySet()) {
+            days.computeIfAbsent(day.getLongKey(), key -> new DistinctIpSet()).or(day.getValue());
+        }
+        undated.or(other.undated);
+    }
+
+    /**
+     * Returns the number of distinct client addresses over all days.
+     *
+     * @return the exact number of distinct addresses
+     */
+    public long exactDistinctIps() {
+        DistinctIpSet all = new DistinctIpSet();
+        all.or(undated);
+        for (DistinctIpSet day : days.values()) {
+            all.or(day);
+        }
+        return all.cardinality();
+    }
+
+    /**
+     * Returns the number of distinct client addresses of each day, the earliest first.
+     *
+     * @return the exact counts, keyed by ISO date
+     */
+    public Map<String, Long> exactDistinctIpsPerDay() {
+        Map<String, Long> perDay = new LinkedHashMap<>();
+        for (long day : sortedDays()) {
+            perDay.put(LocalDate.ofEpochDay(day).toString(), days.get(day).cardinality());
+        }
+        return perDay;
+    }
+
+    /**
+     * Returns the addresses of a day. The set is live: it keeps changing while entries of that day are observed.
+     *
+     * @param date the UTC day
+     * @return the addresses of that day, empty if no entry of that day was observed
+     */
+    public DistinctIpSet daySet(LocalDate date) {
+        DistinctIpSet day = days.get(date.toEpochDay());
+        return day == null ? new DistinctIpSet() : day;
+    }
+
+    /**
+     * Saves the addresses of each day to a file of the given directory, named after the day, e.g.
+     * {@code distinct-ips-2015-05-17.bin}. A file that already exists, e.g. written for another log file of the
+     * same day, is OR-ed with the addresses of the day instead of being replaced.
+     *
+     * @param directory the directory of the files, created if needed
+     * @throws IOException if a file cannot be read or written
+     */
+    public void saveDays(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (long day : sortedDays()) {
+            Path file = directory.resolve(DAY_FILE_PREFIX + LocalDate.ofEpochDay(day) + DAY_FILE_SUFFIX);
+            DistinctIpSet addresses = days.get(day);
+            if (Files.exists(file)) {
+                DistinctIpSet saved = DistinctIpSet.load(file);
+                saved.or(addresses);
+                addresses = saved;
+            }
+            addresses.save(file);
+        }
+    }
+
+    private long[] sortedDays() {
+        long[] sortedDays = days.keySet().toLongArray();
+        Arrays.sort(sortedDays);
+        return sortedDays;
+    }
+}
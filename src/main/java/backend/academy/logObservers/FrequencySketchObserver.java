@@ -0,0 +1,204 @@
+package backend.academy.logObservers;
+
+import backend.academy.logParseComponents.LogReport;
+import backend.academy.logParseComponents.RequestLine;
+import it.unimi.dsi.fastutil.longs.Long2LongMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Observer estimating the most frequent request URLs and referrers in fixed memory, as an alternative to
+ * {@link RequestsObservers} and {@link RecourseRequestsObserver} for logs with millions of distinct values.
+ *
+ * <p>Each field is counted in a {@link CountMinSketch}, whose estimates exceed the true counts by at most
+ * {@code epsilon × N} with probability {@code 1 - delta}, and the values with the highest estimates are kept
+ * as candidates in a table of at most {@code topN} entries. Values are hashed straight from the log report;
+ * a value is only copied into a {@code String} when it becomes a candidate. Observers of different threads or
+ * files are merged by adding their sketches and re-ranking the union of their candidates.</p>
+ */
+public class FrequencySketchObserver implements MergeableObserver<FrequencySketchObserver> {
+
+    /**
+     * Default number of values reported per field.
+     */
+    public static final int DEFAULT_TOP_N = 20;
+
+    private static final double PERCENT = 100.0;
+
+    private final TopCandidates urls;
+    private final TopCandidates referrers;
+
+    /**
+     * Creates an observer with the default error bounds and number of reported values.
+     */
+    public FrequencySketchObserver() {
+        this(CountMinSketch.DEFAULT_EPSILON, CountMinSketch.DEFAULT_DELTA, DEFAULT_TOP_N);
+    }
+
+    /**
+     * Creates an observer with the given error bounds and number of reported values.
+     *
+     * @param epsilon the error of an estimate, relative to the number of requests
+     * @param delta   the probability that an estimate exceeds that error
+     * @param topN    the number of values reported per field
+     * @throws IllegalArgumentException if the error bounds are out of range or {@code topN} is not positive
+     */
+    public FrequencySketchObserver(double epsilon, double delta, int topN) {
+        if (topN <= 0) {
+            throw new IllegalArgumentException("Number of reported values must be positive: " + topN);
+        }
+        this.urls = new TopCandidates(new CountMinSketch(epsilon, delta), topN);
+        this.referrers = new TopCandidates(new CountMinSketch(epsilon, delta), topN);
+    }
+
+    private FrequencySketchObserver(TopCandidates urls, TopCandidates referrers) {
+        this.urls = urls;
+        this.referrers = referrers;
+    }
+
+    @Override
+    public void update(LogReport log) {
+        String request = log.request() == null ? "" : log.request();
+        int methodEnd = RequestLine.methodEnd(request);
+        if (methodEnd < 0) {
+            urls.add(request, 0, request.length()); // Not an HTTP request line, counted as is
+        } else {
+            urls.add(request, methodEnd + 1, RequestLine.targetEnd(request, methodEnd));
+        }
+
+        String referrer = log.referrer() == null ? "-" : log.referrer();
+        referrers.add(referrer, 0, referrer.length());
+    }
+
+    @Override
+    public FrequencySketchObserver emptyCopy() {
+        return new FrequencySketchObserver(urls.emptyCopy(), referrers.emptyCopy());
+    }
+
+    @Override
+    public void merge(FrequencySketchObserver other) {
+        urls.merge(other.urls);
+        referrers.merge(other.referrers);
+    }
+
+    /**
+     * Returns the estimated number of requests of the most requested URLs, the most requested first.
+     *
+     * @return the estimated counts keyed by request target, including the query string
+     */
+    public Map<String, Long> topUrls() {
+        return urls.top();
+    }
+
+    /**
+     * Returns the estimated number of requests of the most frequent referrers, the most frequent first.
+     *
+     * @return the estimated counts keyed by referrer
+     */
+    public Map<String, Long> topReferrers() {
+        return referrers.top();
+    }
+
+    /**
+     * Returns how much the estimated counts may exceed the true counts.
+     *
+     * @return e.g. {@code +0..12 with probability 99.9%}
+     */
+    public String frequencyErrorBound() {
+        CountMinSketch sketch = urls.sketch;
+        return String.format(Locale.ROOT, "+0..%d with probability %.1f%%", sketch.errorBound(),
+            (1 - sketch.delta()) * PERCENT);
+    }
+
+    /**
+     * A sketch of the frequencies of one field and the values with the highest estimates.
+     */
+    private static final class TopCandidates {
+        private final CountMinSketch sketch;
+        private final int capacity;
+        private final Long2LongOpenHashMap counts = new Long2LongOpenHashMap();
+        private final Long2ObjectOpenHashMap<String> values = new Long2ObjectOpenHashMap<>();
+        // Lower bound of the smallest candidate count; counts only grow, so it stays a lower bound
+        private long minCount = 0;
+
+        TopCandidates(CountMinSketch sketch, int capacity) {
+            this.sketch = sketch;
+            this.capacity = capacity;
+        }
+
+        TopCandidates emptyCopy() {
+            return new TopCandidates(sketch.emptyCopy(), capacity);
+        }
+
+        void add(String text, int from, int to) {
+            long hash = Hashes.hash(text, from, to);
+            long estimate = sketch.add(hash);
+            if (counts.containsKey(hash)) {
+                counts.put(hash, estimate);
+            } else if (counts.size() < capacity) {
+                counts.put(hash, estimate);
+                values.put(hash, text.substring(from, to));
+            } else if (estimate > minCount) {
+                long minHash = minCandidate();
+                if (estimate > minCount) {
+                    counts.remove(minHash);
+                    values.remove(minHash);
+                    counts.put(hash, estimate);
+                    values.put(hash, text.substring(from, to));
+                }
+            }
+        }
+
+        void merge(TopCandidates other) {
+            sketch.merge(other.sketch);
+            for (Long2LongMap.Entry entry : other.counts.long2LongEntrySet()) {
+                values.putIfAbsent(entry.getLongKey(), other.values.get(entry.getLongKey()));
+            }
+
+            // Re-rank the union of the candidates with the merged sketch
+            LongList ranked = new LongArrayList(values.keySet());
+            ranked.sort((left, right) -> Long.compare(sketch.estimate(right), sketch.estimate(left)));
+            counts.clear();
+            for (int i = 0; i < ranked.size(); i++) {
+                long hash = ranked.getLong(i);
+                if (i < capacity) {
+                    counts.put(hash, sketch.estimate(hash));
+                } else {
+                    values.remove(hash);
+                }
+            }
+            minCount = 0;
+        }
+
+        Map<String, Long> top() {
+            LongList ranked = new LongArrayList(counts.keySet());
+            ranked.sort((left, right) -> Long.compare(sketch.estimate(right), sketch.estimate(left)));
+            Map<String, Long> top = new LinkedHashMap<>();
+            for (int i = 0; i < ranked.size(); i++) {
+                long hash = ranked.getLong(i);
+                top.put(values.get(hash), sketch.estimate(hash));
+            }
+            return top;
+        }
+
+        /**
+         * Finds the candidate with the smallest count and updates {@link #minCount}.
+         */
+        private long minCandidate() {
+            long minHash = 0;
+            minCount = Long.MAX_VALUE;
+            for (Long2LongMap.Entry entry : counts.long2LongEntrySet()) {
+                if (entry.getLongValue() < minCount) {
+                    minCount = entry.getLongValue();
+                    minHash = entry.getLongKey();
+                }
+            }
+            return minHash;
+        }
+    }
+}
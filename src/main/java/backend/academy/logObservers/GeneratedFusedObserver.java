@@ -0,0 +1,123 @@
+package backend.academy.logObservers;
+
+import backend.academy.logParseComponents.LogBatch;
+import backend.academy.logParseComponents.LogReport;
+import backend.academy.logParseComponents.MalformedReason;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Base class for the fused observers generated by {@link ObserverFusion}.
+ *
+ * <p>A generated subclass implements {@link #updateBatch(LogBatch)} as a single loop over the columns of the
+ * batch whose body updates every numeric observer in turn, through the static helpers of this class, followed
+ * by one {@link LogObserver#updateBatch(LogBatch)} call per other observer. Single entries and malformed lines
+ * are rare, so they are simply passed on to each observer.</p>
+ *
+ * <p>Each helper catches and logs the failures of its observer, so that an observer failing on an entry only
+ * misses that entry, as with separate observers, and the other observers still see the whole batch.</p>
+ */
+@Log4j2
+public abstract class GeneratedFusedObserver implements LogObserver {
+
+    /**
+     * The fused observers, in registration order. The generated code reads its observers from this array.
+     */
+    protected final LogObserver[] observers;
+
+    protected GeneratedFusedObserver(LogObserver[] observers) {
+        this.observers = observers.clone();
+    }
+
+    @Override
+    public void update(LogReport log) {
+        for (LogObserver observer : observers) {
+            observer.update(log);
+        }
+    }
+
+    @Override
+    public void updateMalformed(MalformedReason reason) {
+        for (LogObserver observer : observers) {
+            observer.updateMalformed(reason);
+        }
+    }
+
+    /**
+     * Updates every observer with a batch. Implemented by generated code.
+     *
+     * @param batch the entries
+     */
+    @Override
+    public abstract void updateBatch(LogBatch batch);
+
+    protected static void addRequests(TotalRequestObserver observer, long requests) {
+        try {
+            observer.addRequests(requests);
+        } catch (RuntimeException e) {
+            failed(observer, e);
+        }
+    }
+
+    protected static void addResponseSizes(AverageResponseSizeObserver observer, long responseSizeSum,
+        long requests) {
+        try {
+            observer.addResponseSizes(responseSizeSum, requests);
+        } catch (RuntimeException e) {
+            failed(observer, e);
+        }
+    }
+
+    protected static void countStatus(CodeStatusesObserver observer, int statusCode) {
+        try {
+            observer.count(statusCode);
+        } catch (RuntimeException e) {
+            failed(observer, e);
+        }
+    }
+
+    protected static void recordResponseSize(ResponseSizePercentileObserver observer, long responseSize) {
+        try {
+            observer.record(responseSize);
+        } catch (RuntimeException e) {
+            failed(observer, e);
+        }
+    }
+
+    protected static void countUser(UniqueUsersObserver observer, boolean hasAddress, long ipHigh, long ipLow) {
+        try {
+            if (hasAddress) {
+                observer.count(ipHigh, ipLow);
+            }
+        } catch (RuntimeException e) {
+            failed(observer, e);
+        }
+    }
+
+    protected static void recordTraffic(TrafficSeriesObserver observer, long epochSecond, int statusCode,
+        long responseSize) {
+        try {
+            observer.record(epochSecond, statusCode, responseSize);
+        } catch (RuntimeException e) {
+            failed(observer, e);
+        }
+    }
+
+    /**
+     * Updates an observer that is not fused with the batch.
+     *
+     * @param observer the observer
+     * @param batch    the entries
+     */
+    protected static void updateUnfused(LogObserver observer, LogBatch batch) {
+        try {
+            observer.updateBatch(batch);
+        } catch (RuntimeException e) {
+            log.error("Error notifying observer {}, up to {} entries of the batch are missing from it: {}",
+                observer.getClass().getSimpleName(), batch.size(), e.getMessage(), e);
+        }
+    }
+
+    private static void failed(LogObserver observer, RuntimeException e) {
+        log.error("Error notifying observer {}: {}", observer.getClass().getSimpleName(), e.getMessage(), e);
+    }
+}
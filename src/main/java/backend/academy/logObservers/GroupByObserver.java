@@ -0,0 +1,765 @@
+package backend.academy.logObservers;
+
+import backend.academy.logParseComponents.AnalysisContext;
+import backend.academy.logParseComponents.IpAddresses;
+import backend.academy.logParseComponents.LogBatch;
+import backend.academy.logParseComponents.LogReport;
+import backend.academy.logParseComponents.PathTemplater;
+import backend.academy.logParseComponents.RequestLine;
+import backend.academy.logParseComponents.SymbolTable;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntHeapPriorityQueue;
+import it.unimi.dsi.fastutil.ints.IntList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Observer aggregating requests by any combination of fields, declared on the command line, e.g.
+ * {@code --group-by status,path --agg count,sum(size)}, and reporting the largest groups.
+ *
+ * <p>Each field value of an entry is turned into a small integer code: the status code itself, the
+ * {@link SymbolTable} id of a text field, or the id of a client address in a dictionary of this observer. The
+ * codes of the grouped fields are packed into one {@code long} key, so grouping an entry allocates nothing.
+ * Groups live in an open-addressing table of primitive columns: the keys, the request counts and one column per
+ * aggregate. Keys are only turned back into strings for the top groups, when {@link #groups()} is called.</p>
+ *
+ * <p>An observer created from an {@link AnalysisContext} groups batches straight from their id columns, using
+ * the methods, templated paths, referrers and user agents interned by the parser, so it hashes no text per
+ * entry.</p>
+ *
+ * <p>The status takes 10 bits of the key and the other fields share the remaining bits equally, up to 31 bits
+ * each. A field with more distinct values than its bits can tell apart groups the extra values under
+ * {@value #OTHER}: the first overflow of each field is logged, and {@link #foldedEntries()} counts the entries
+ * grouped that way.</p>
+ */
+@Log4j2
+public class GroupByObserver implements MergeableObserver<GroupByObserver> {
+
+    /**
+     * Default number of groups in the report.
+     */
+    public static final int DEFAULT_TOP_GROUPS = 20;
+
+    /**
+     * Label of the values of a field beyond the capacity of its bits in the key.
+     */
+    public static final String OTHER = "(other)";
+
+    private static final int KEY_BITS = Long.SIZE - 1; // Keys are non-negative, so EMPTY cannot be a key
+    private static final int STATUS_BITS = 10;
+    private static final int MAX_FIELD_BITS = Integer.SIZE - 1;
+    private static final long EMPTY = -1;
+    private static final int INITIAL_CAPACITY = 1 << 10;
+    private static final int MAX_LOAD_PERCENT = 75;
+    private static final int PERCENT = 100;
+    private static final String MISSING = "-";
+    private static final String KEY_SEPARATOR = ", ";
+    private static final int NO_ADDRESS_CODE = 0;
+
+    /**
+     * Fields requests can be grouped by.
+     */
+    public enum Dimension {
+        /**
+         * The HTTP status code.
+         */
+        STATUS("status"),
+        /**
+         * The request method, {@code -} for lines that are not HTTP requests.
+         */
+        METHOD("method"),
+        /**
+         * The templated request path, without the query string, as counted by {@link RequestsObservers}; the
+         * whole request for lines that are not HTTP requests.
+         */
+        PATH("path"),
+        /**
+         * The client IP address, {@code -} for entries without one.
+         */
+        IP("ip"),
+        /**
+         * The referrer.
+         */
+        REFERRER("referrer"),
+        /**
+         * The raw user agent.
+         */
+        USER_AGENT("user_agent");
+
+        private final String fieldName;
+
+        Dimension(String fieldName) {
+            this.fieldName = fieldName;
+        }
+
+        /**
+         * Returns the name of the field, as used on the command line.
+         *
+         * @return the field name, e.g. {@code user_agent}
+         */
+        public String fieldName() {
+            return fieldName;
+        }
+
+        /**
+         * Returns the field with the given name.
+         *
+         * @param fieldName the field name, case-insensitive
+         * @return the field
+         * @throws IllegalArgumentException if no field has that name
+         */
+        public static Dimension fromName(String fieldName) {
+            for (Dimension dimension : values()) {
+                if (dimension.fieldName.equalsIgnoreCase(fieldName.trim())) {
+                    return dimension;
+                }
+            }
+            throw new IllegalArgumentException("Unknown group-by field '" + fieldName + "', expected one of "
+                + Arrays.stream(values()).map(Dimension::fieldName).toList());
+        }
+    }
+
+    /**
+     * Aggregate functions computed per group: the number of requests, and the sum, minimum, maximum or average of
+     * a field.
+     */
+    public enum Function {
+        COUNT, SUM, MIN, MAX, AVG
+    }
+
+    /**
+     * Numeric fields aggregated per group.
+     */
+    public enum Measure {
+        /**
+         * The response size in bytes.
+         */
+        SIZE("size");
+
+        private final String fieldName;
+
+        Measure(String fieldName) {
+            this.fieldName = fieldName;
+        }
+
+        private static Measure fromName(String fieldName) {
+            for (Measure measure : values()) {
+                if (measure.fieldName.equalsIgnoreCase(fieldName.trim())) {
+                    return measure;
+                }
+            }
+            throw new IllegalArgumentException("Unknown aggregated field '" + fieldName + "', expected one of "
+                + Arrays.stream(values()).map(measure -> measure.fieldName).toList());
+        }
+
+        private long value(LogReport log) {
+            return switch (this) {
+                case SIZE -> log.responseSize();
+            };
+        }
+
+        private long value(LogBatch batch, int entry) {
+            return switch (this) {
+                case SIZE -> batch.responseSizes()[entry];
+            };
+        }
+    }
+
+    /**
+     * An aggregate of the report, e.g. {@code count} or {@code sum(size)}.
+     *
+     * @param function the aggregate function
+     * @param measure  the aggregated field, {@code null} for {@link Function#COUNT}
+     */
+    public record Aggregate(Function function, Measure measure) {
+        private static final Pattern SYNTAX = Pattern.compile("\\s*(\\w+)\\s*(?:\\(\\s*(\\w+)\\s*\\))?\\s*");
+
+        /**
+         * Creates an aggregate.
+         *
+         * @throws IllegalArgumentException if a field is given to {@link Function#COUNT} or missing for another
+         *                                  function
+         */
+        public Aggregate {
+            if ((function == Function.COUNT) != (measure == null)) {
+                throw new IllegalArgumentException(function == Function.COUNT
+                    ? "count takes no field"
+                    : function.name().toLowerCase(Locale.ROOT) + " needs a field, e.g. sum(size)");
+            }
+        }
+
+        /**
+         * Parses an aggregate.
+         *
+         * @param text {@code count}, or a function applied to a field, e.g. {@code sum(size)} or {@code avg(size)}
+         * @return the aggregate
+         * @throws IllegalArgumentException if the text is not a valid aggregate
+         */
+        public static Aggregate parse(String text) {
+            Matcher matcher = SYNTAX.matcher(text);
+            if (!matcher.matches()) {
+                throw new IllegalArgumentException("Invalid aggregate '" + text + "', expected e.g. sum(size)");
+            }
+            Function function;
+            try {
+                function = Function.valueOf(matcher.group(1).toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown aggregate function '" + matcher.group(1)
+                    + "', expected one of " + Arrays.stream(Function.values())
+                    .map(value -> value.name().toLowerCase(Locale.ROOT)).toList(), e);
+            }
+            String field = matcher.group(2);
+            return new Aggregate(function, field == null ? null : Measure.fromName(field));
+        }
+
+        @Override
+        public String toString() {
+            String name = function.name().toLowerCase(Locale.ROOT);
+            return measure == null ? name : name + '(' + measure.fieldName + ')';
+        }
+    }
+
+    private final List<Dimension> dimensions;
+    private final List<Aggregate> aggregates;
+    private final int topGroups;
+    private final boolean groupsByRequest;
+    private final PathTemplater pathTemplater;
+    private final SymbolTable symbols;
+    private final StringBuilder templatedPath = new StringBuilder();
+    // Whether the path ids interned at parse time were templated with the same templater
+    private final boolean parsedPathIds;
+    // Dense ids of the client addresses grouped by; the IP code of an address is its id plus one, and
+    // NO_ADDRESS_CODE stands for entries without an address
+    private final AddressTable addresses = new AddressTable();
+    private final boolean[] overflowed; // Whether each field has had a value grouped as OTHER
+    private long foldedEntries;
+
+    // Bit layout of the key: the shift and the width of each dimension's code
+    private final int[] shifts;
+    private final int[] widths;
+
+    // Open-addressing table: a key, a request count and one value per aggregate in each slot
+    private long[] keys;
+    private long[] counts;
+    private long[][] values;
+    private int size;
+
+    /**
+     * Creates an observer grouping by the given fields, with the ids interned by the parser of an analysis and
+     * paths templated with its {@link AnalysisContext#pathTemplater() path templater}.
+     *
+     * @param dimensions the grouped fields, in key order
+     * @param aggregates the aggregates computed per group; the groups are ranked by the first one
+     * @param topGroups  the number of groups in the report
+     * @param context    the analysis the observer is registered with
+     * @throws IllegalArgumentException if no field or no aggregate is given, a field is repeated or the number of
+     *                                  groups is not positive
+     */
+    public GroupByObserver(List<Dimension> dimensions, List<Aggregate> aggregates, int topGroups,
+        AnalysisContext context) {
+        this(dimensions, aggregates, topGroups, context.pathTemplater(), context.symbolTable(), true);
+    }
+
+    /**
+     * Creates an observer grouping by the given fields, with paths templated by the given templater.
+     *
+     * @param dimensions    the grouped fields, in key order
+     * @param aggregates    the aggregates computed per group; the groups are ranked by the first one
+     * @param topGroups     the number of groups in the report
+     * @param pathTemplater the templater applied to every request path
+     * @param symbols       the table mapping text fields to ids
+     * @throws IllegalArgumentException if no field or no aggregate is given, a field is repeated or the number of
+     *                                  groups is not positive
+     */
+    public GroupByObserver(List<Dimension> dimensions, List<Aggregate> aggregates, int topGroups,
+        PathTemplater pathTemplater, SymbolTable symbols) {
+        this(dimensions, aggregates, topGroups, pathTemplater, symbols, false);
+    }
+
+    /**
+     * Creates an observer grouping by the given fields, with paths templated by a templater without templates,
+     * which only replaces identifier segments.
+     *
+     * @param dimensions the grouped fields, in key order
+     * @param aggregates the aggregates computed per group; the groups are ranked by the first one
+     * @param topGroups  the number of groups in the report
+     * @param symbols    the table mapping text fields to ids
+     * @throws IllegalArgumentException if no field or no aggregate is given, a field is repeated or the number of
+     *                                  groups is not positive
+     */
+    public GroupByObserver(List<Dimension> dimensions, List<Aggregate> aggregates, int topGroups,
+        SymbolTable symbols) {
+        this(dimensions, aggregates, topGroups, new PathTemplater(List.of()), symbols);
+    }
+
+    private GroupByObserver(List<Dimension> dimensions, List<Aggregate> aggregates, int topGroups,
+        PathTemplater pathTemplater, SymbolTable symbols, boolean parsedPathIds) {
+        if (dimensions.isEmpty() || aggregates.isEmpty()) {
+            throw new IllegalArgumentException("Group-by needs at least one field and one aggregate");
+        }
+        if (dimensions.stream().distinct().count() != dimensions.size()) {
+            throw new IllegalArgumentException("Group-by fields must be distinct: " + dimensions);
+        }
+        if (topGroups <= 0) {
+            throw new IllegalArgumentException("Number of top groups must be positive: " + topGroups);
+        }
+        this.dimensions = List.copyOf(dimensions);
+        this.aggregates = List.copyOf(aggregates);
+        this.topGroups = topGroups;
+        this.groupsByRequest = dimensions.contains(Dimension.METHOD) || dimensions.contains(Dimension.PATH);
+        this.pathTemplater = pathTemplater;
+        this.symbols = symbols;
+        this.parsedPathIds = parsedPathIds;
+
+        this.shifts = new int[dimensions.size()];
+        this.widths = new int[dimensions.size()];
+        this.overflowed = new boolean[dimensions.size()];
+        int others = (int) dimensions.stream().filter(dimension -> dimension != Dimension.STATUS).count();
+        int statusBits = others == dimensions.size() ? 0 : STATUS_BITS;
+        int otherBits = others == 0 ? 0 : Math.min(MAX_FIELD_BITS, (KEY_BITS - statusBits) / others);
+        int shift = 0;
+        for (int i = dimensions.size() - 1; i >= 0; i--) {
+            widths[i] = dimensions.get(i) == Dimension.STATUS ? STATUS_BITS : otherBits;
+            shifts[i] = shift;
+            shift += widths[i];
+        }
+
+        this.keys = new long[INITIAL_CAPACITY];
+        Arrays.fill(keys, EMPTY);
+        this.counts = new long[INITIAL_CAPACITY];
+        this.values = new long[aggregates.size()][INITIAL_CAPACITY];
+    }
+
+    @Override
+    public void update(LogReport log) {
+        String request = log.request() == null ? MISSING : log.request();
+        int methodEnd = groupsByRequest ? RequestLine.methodEnd(request) : -1;
+        boolean hasIds = log.hasIdsIn(symbols);
+        long key = 0;
+        for (int i = 0; i < shifts.length; i++) {
+            key |= fitCode(i, code(dimensions.get(i), log, hasIds, request, methodEnd));
+        }
+
+        int slot = countEntry(key);
+        for (int i = 0; i < values.length; i++) {
+            Aggregate aggregate = aggregates.get(i);
+            if (aggregate.measure() != null) {
+                values[i][slot] = combine(aggregate.function(), values[i][slot], aggregate.measure().value(log));
+            }
+        }
+    }
+
+    /**
+     * Groups a batch by the id columns when they belong to this observer's table, and entry by entry otherwise.
+     *
+     * @param batch the entries
+     */
+    @Override
+    public void updateBatch(LogBatch batch) {
+        if (batch.symbols() != symbols) {
+            MergeableObserver.super.updateBatch(batch);
+            return;
+        }
+        int missingId = symbols.id(MISSING);
+        for (int entry = 0; entry < batch.size(); entry++) {
+            long key = 0;
+            for (int i = 0; i < shifts.length; i++) {
+                key |= fitCode(i, code(dimensions.get(i), batch, entry, missingId));
+            }
+
+            int slot = countEntry(key);
+            for (int i = 0; i < values.length; i++) {
+                Aggregate aggregate = aggregates.get(i);
+                if (aggregate.measure() != null) {
+                    values[i][slot] = combine(aggregate.function(), values[i][slot],
+                        aggregate.measure().value(batch, entry));
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns an empty observer with the same grouping and path templater, with its own symbol table so that it
+     * can be updated on another thread.
+     *
+     * @return a fresh, empty observer
+     */
+    @Override
+    public GroupByObserver emptyCopy() {
+        return new GroupByObserver(dimensions, aggregates, topGroups, pathTemplater, new SymbolTable());
+    }
+
+    @Override
+    public void merge(GroupByObserver other) {
+        foldedEntries += other.foldedEntries;
+        for (int otherSlot = 0; otherSlot < other.keys.length; otherSlot++) {
+            long otherKey = other.keys[otherSlot];
+            if (otherKey == EMPTY) {
+                continue;
+            }
+            long key = 0;
+            for (int i = 0; i < shifts.length; i++) {
+                int code = other.decode(otherKey, i);
+                key |= code == other.otherCode(i)
+                    ? (long) otherCode(i) << shifts[i]
+                    : fitCode(i, translate(other, dimensions.get(i), code));
+            }
+            if (isFolded(key) && !other.isFolded(otherKey)) {
+                foldedEntries += other.counts[otherSlot];
+            }
+
+            int slot = slot(key);
+            counts[slot] += other.counts[otherSlot];
+            for (int i = 0; i < values.length; i++) {
+                Function function = aggregates.get(i).function();
+                values[i][slot] = function == Function.MIN || function == Function.MAX
+                    ? combine(function, values[i][slot], other.values[i][otherSlot])
+                    : values[i][slot] + other.values[i][otherSlot];
+            }
+        }
+    }
+
+    /**
+     * Returns the number of groups.
+     *
+     * @return the number of distinct combinations of the grouped fields
+     */
+    public long groupCount() {
+        return size;
+    }
+
+    /**
+     * Returns the number of entries grouped under {@value #OTHER} because a field had more distinct values than
+     * its bits in the key can tell apart.
+     *
+     * @return the number of entries with at least one field grouped as {@value #OTHER}
+     */
+    public long foldedEntries() {
+        return foldedEntries;
+    }
+
+    /**
+     * Returns the aggregates of the largest groups by the first aggregate, the largest first, and groups of the
+     * same size in the order of their values, so that merged partitions report the same groups as one observer.
+     * Averages are rounded to the nearest integer.
+     *
+     * @return the aggregates of at most the top N groups, keyed by the values of the grouped fields
+     */
+    public Map<String, Map<String, Long>> groups() {
+        // Labels are only built for ties and the reported groups, at most once per slot
+        String[] labels = new String[keys.length];
+        // Min-heap of the N best slots seen so far; its head is the slot to beat
+        IntHeapPriorityQueue top = new IntHeapPriorityQueue(topGroups + 1,
+            (left, right) -> compareRanks(left, right, labels));
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != EMPTY) {
+                top.enqueue(slot);
+                if (top.size() > topGroups) {
+                    top.dequeueInt();
+                }
+            }
+        }
+        IntList slots = new IntArrayList(top.size());
+        while (!top.isEmpty()) {
+            slots.add(top.dequeueInt());
+        }
+
+        Map<String, Map<String, Long>> groups = new LinkedHashMap<>();
+        for (int i = slots.size() - 1; i >= 0; i--) {
+            int slot = slots.getInt(i);
+            Map<String, Long> row = new LinkedHashMap<>();
+            for (int j = 0; j < aggregates.size(); j++) {
+                row.put(aggregates.get(j).toString(), value(slot, j));
+            }
+            groups.put(label(slot, labels), row);
+        }
+        return groups;
+    }
+
+    private int compareRanks(int left, int right, String[] labels) {
+        int byRank = Long.compare(rank(left), rank(right));
+        // Ties are broken on the labels, not on the keys, whose codes depend on the order values were seen in;
+        // the later label ranks lower
+        return byRank != 0 ? byRank : label(right, labels).compareTo(label(left, labels));
+    }
+
+    private long rank(int slot) {
+        return value(slot, 0);
+    }
+
+    private long value(int slot, int aggregate) {
+        return switch (aggregates.get(aggregate).function()) {
+            case COUNT -> counts[slot];
+            case AVG -> Math.round((double) values[aggregate][slot] / counts[slot]);
+            default -> values[aggregate][slot];
+        };
+    }
+
+    private String label(int slot, String[] labels) {
+        if (labels[slot] == null) {
+            labels[slot] = label(keys[slot]);
+        }
+        return labels[slot];
+    }
+
+    private String label(long key) {
+        StringBuilder label = new StringBuilder();
+        for (int i = 0; i < shifts.length; i++) {
+            if (i > 0) {
+                label.append(KEY_SEPARATOR);
+            }
+            int code = decode(key, i);
+            label.append(code == otherCode(i) ? OTHER : text(dimensions.get(i), code));
+        }
+        return label.toString();
+    }
+
+    /**
+     * Returns the code of a field value, reusing the ids interned at parse time when they come from this
+     * observer's table, and otherwise looking text values up without copying them. Paths are templated, so
+     * that paths with identifiers do not grow the table; their parse-time ids are used only if they were
+     * templated with the same templater.
+     *
+     * @param dimension the field
+     * @param log       the entry
+     * @param hasIds    whether the ids of the entry belong to this observer's table
+     * @param request   the request of the entry, {@code -} if it has none
+     * @param methodEnd the end of the method of the request, -1 if it is not an HTTP request line or was not
+     *                  looked for
+     * @return the status code, or the id of the value
+     */
+    private int code(Dimension dimension, LogReport log, boolean hasIds, String request, int methodEnd) {
+        return switch (dimension) {
+            case STATUS -> log.httpStatusCode();
+            case METHOD -> {
+                if (hasIds && log.methodId() != LogReport.NO_ID) {
+                    yield log.methodId();
+                }
+                yield methodEnd < 0 ? symbols.id(MISSING) : symbols.id(request, 0, methodEnd);
+            }
+            case PATH -> {
+                if (hasIds && parsedPathIds) {
+                    yield log.pathId();
+                }
+                yield pathCode(request, methodEnd);
+            }
+            case IP -> log.hasAddress() ? addresses.add(log.ipHigh(), log.ipLow()) + 1 : NO_ADDRESS_CODE;
+            case REFERRER -> hasIds ? log.referrerId() : symbols.id(log.referrer() == null ? MISSING : log.referrer());
+            case USER_AGENT -> hasIds
+                ? log.userAgentId()
+                : symbols.id(log.userAgent() == null ? MISSING : log.userAgent());
+        };
+    }
+
+    /**
+     * Returns the code of a field value of a batch whose ids belong to this observer's table.
+     *
+     * @param dimension the field
+     * @param batch     the entries
+     * @param entry     the index of the entry in the batch
+     * @param missingId the id of {@code -}, the method of requests that are not HTTP request lines
+     * @return the status code, or the id of the value
+     */
+    private int code(Dimension dimension, LogBatch batch, int entry, int missingId) {
+        return switch (dimension) {
+            case STATUS -> batch.statusCodes()[entry];
+            case METHOD -> batch.methodIds()[entry] == LogReport.NO_ID ? missingId : batch.methodIds()[entry];
+            case PATH -> {
+                if (parsedPathIds) {
+                    yield batch.pathIds()[entry];
+                }
+                String request = batch.report(entry).request() == null ? MISSING : batch.report(entry).request();
+                yield pathCode(request, RequestLine.methodEnd(request));
+            }
+            case IP -> batch.hasAddresses()[entry]
+                ? addresses.add(batch.ipHighs()[entry], batch.ipLows()[entry]) + 1
+                : NO_ADDRESS_CODE;
+            case REFERRER -> batch.referrerIds()[entry];
+            case USER_AGENT -> batch.userAgentIds()[entry];
+        };
+    }
+
+    /**
+     * Returns the id of the templated path of a request, or of the whole request if it is not an HTTP request
+     * line.
+     *
+     * @param request   the request
+     * @param methodEnd the end of its method, as returned by {@link RequestLine#methodEnd(String)}
+     * @return the path id
+     */
+    private int pathCode(String request, int methodEnd) {
+        return methodEnd < 0
+            ? symbols.id(request)
+            : pathTemplater.templateId(request, methodEnd + 1, RequestLine.pathEnd(request, methodEnd), symbols,
+                templatedPath);
+    }
+
+    /**
+     * Fits the code of a field into its bits of the key, logging the first overflow of the field.
+     *
+     * @param dimension the index of the field
+     * @param code      the code of the value
+     * @return the code, or the {@value #OTHER} code, shifted into place
+     */
+    private long fitCode(int dimension, int code) {
+        int fitted = fit(code, widths[dimension]);
+        if (fitted == otherCode(dimension)) {
+            warnOverflow(dimension);
+        }
+        return (long) fitted << shifts[dimension];
+    }
+
+    /**
+     * Counts an entry in the group of a key.
+     *
+     * @param key the packed key of the entry
+     * @return the slot of the group, for the aggregates
+     */
+    private int countEntry(long key) {
+        if (isFolded(key)) {
+            foldedEntries++;
+        }
+        int slot = slot(key);
+        counts[slot]++;
+        return slot;
+    }
+
+    /**
+     * Logs the first time a field has a value grouped as {@value #OTHER}.
+     *
+     * @param dimension the index of the field
+     */
+    private void warnOverflow(int dimension) {
+        if (!overflowed[dimension]) {
+            overflowed[dimension] = true;
+            log.warn("Group-by field {} has more than {} distinct values; further values are grouped as {}",
+                dimensions.get(dimension).fieldName(), otherCode(dimension), OTHER);
+        }
+    }
+
+    private boolean isFolded(long key) {
+        for (int i = 0; i < shifts.length; i++) {
+            if (decode(key, i) == otherCode(i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String text(Dimension dimension, int code) {
+        return switch (dimension) {
+            case STATUS -> String.valueOf(code);
+            case IP -> code == NO_ADDRESS_CODE
+                ? LogReport.NO_ADDRESS
+                : IpAddresses.format(addresses.high(code - 1), addresses.low(code - 1));
+            default -> symbols.symbol(code);
+        };
+    }
+
+    private int translate(GroupByObserver other, Dimension dimension, int code) {
+        return switch (dimension) {
+            case STATUS -> code;
+            case IP -> code == NO_ADDRESS_CODE
+                ? NO_ADDRESS_CODE
+                : addresses.add(other.addresses.high(code - 1), other.addresses.low(code - 1)) + 1;
+            default -> other.symbols == symbols ? code : symbols.id(other.symbols.symbol(code));
+        };
+    }
+
+    private int decode(long key, int dimension) {
+        return (int) (key >>> shifts[dimension] & otherCode(dimension));
+    }
+
+    private int otherCode(int dimension) {
+        return (int) ((1L << widths[dimension]) - 1);
+    }
+
+    /**
+     * Keeps a code within its width, grouping the codes that do not fit, and the all-ones code, as
+     * {@value #OTHER}.
+     *
+     * @param code  the code of a field value
+     * @param width the number of bits of the field in the key
+     * @return the code, or the all-ones code of the width
+     */
+    private static int fit(int code, int width) {
+        long otherCode = (1L << width) - 1;
+        return code < 0 || code >= otherCode ? (int) otherCode : code;
+    }
+
+    private static long combine(Function function, long current, long value) {
+        return switch (function) {
+            case MIN -> Math.min(current, value);
+            case MAX -> Math.max(current, value);
+            default -> current + value;
+        };
+    }
+
+    /**
+     * Finds the slot of a key, inserting the key with initial aggregates if it is new.
+     *
+     * @param key the packed key
+     * @return the slot of the key
+     */
+    private int slot(long key) {
+        int mask = keys.length - 1;
+        int slot = (int) Hashes.mix(key) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if ((size + 1) * PERCENT > keys.length * MAX_LOAD_PERCENT) {
+            grow();
+            return slot(key);
+        }
+        keys[slot] = key;
+        for (int i = 0; i < values.length; i++) {
+            values[i][slot] = initialValue(aggregates.get(i).function());
+        }
+        size++;
+        return slot;
+    }
+
+    private static long initialValue(Function function) {
+        return switch (function) {
+            case MIN -> Long.MAX_VALUE;
+            case MAX -> Long.MIN_VALUE;
+            default -> 0;
+        };
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        long[] oldCounts = counts;
+        long[][] oldValues = values;
+        int capacity = oldKeys.length * 2;
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        counts = new long[capacity];
+        values = new long[oldValues.length][capacity];
+
+        int mask = capacity - 1;
+        for (int oldSlot = 0; oldSlot < oldKeys.length; oldSlot++) {
+            if (oldKeys[oldSlot] == EMPTY) {
+                continue;
+            }
+            int slot = (int) Hashes.mix(oldKeys[oldSlot]) & mask;
+            while (keys[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = oldKeys[oldSlot];
+            counts[slot] = oldCounts[oldSlot];
+            for (int i = 0; i < values.length; i++) {
+                values[i][slot] = oldValues[i][oldSlot];
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package backend.academy.logObservers;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * 64-bit hashes for the sketches of the observers, which need all 64 bits to be well mixed:
+ * {@link String#hashCode()} has too few bits and too little diffusion.
+ */
+@UtilityClass
+class Hashes {
+    private static final long GOLDEN_GAMMA = 0x9E37_79B9_7F4A_7C15L;
+    private static final long MIX_MULTIPLIER_1 = 0xBF58_476D_1CE4_E5B9L;
+    private static final long MIX_MULTIPLIER_2 = 0x94D0_49BB_1331_11EBL;
+    private static final int SHIFT_1 = 30;
+    private static final int SHIFT_2 = 27;
+    private static final int SHIFT_3 = 31;
+
+    /**
+     * Mixes the bits of a value with the SplitMix64 finalizer, so that every input bit affects every output bit.
+     *
+     * @param value the value
+     * @return the mixed value
+     */
+    static long mix(long value) {
+        long z = value;
+        z = (z ^ (z >>> SHIFT_1)) * MIX_MULTIPLIER_1;
+        z = (z ^ (z >>> SHIFT_2)) * MIX_MULTIPLIER_2;
+        return z ^ (z >>> SHIFT_3);
+    }
+
+    /**
+     * Hashes a packed IP address.
+     *
+     * @param high the high word of the address
+     * @param low  the low word of the address
+     * @return the hash of the address
+     */
+    static long hash(long high, long low) {
+        return mix(mix(high) + GOLDEN_GAMMA * low);
+    }
+
+    /**
+     * Hashes a range of characters without copying it.
+     *
+     * @param text the text
+     * @param from the start of the range (inclusive)
+     * @param to   the end of the range (exclusive)
+     * @return the hash of the range
+     */
+    static long hash(CharSequence text, int from, int to) {
+        long hash = to - from;
+        for (int i = from; i < to; i++) {
+            hash = (hash + text.charAt(i)) * GOLDEN_GAMMA;
+        }
+        return mix(hash);
+    }
+}
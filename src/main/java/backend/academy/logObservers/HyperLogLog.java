@@ -0,0 +1,206 @@
+package backend.academy.logObservers;
+
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+
+/**
+ * Distinct count of 64-bit hashes: exact for small sets, then a HyperLogLog sketch.
+ *
+ * <p>Up to {@code exactThreshold} distinct hashes are kept in a set and counted exactly. Past the threshold the
+ * set is folded into {@code 2^precision} one-byte registers, each holding the longest run of leading zeros
+ * seen among the hashes routed to it, and the count becomes an estimate with a relative standard error of
+ * {@code 1.04 / sqrt(2^precision)}: 0.81% for the default precision of 14, in 16 KiB. Memory is bounded by
+ * the larger of the set at the threshold and the registers, however many values are added.</p>
+ *
+ * <p>Two counters with the same precision are merged by taking the union of their sets, or the maximum of
+ * their registers, which gives the same result as one counter fed with both inputs.</p>
+ */
+public class HyperLogLog {
+
+    /**
+     * Default number of index bits.
+     */
+    public static final int DEFAULT_PRECISION = 14;
+
+    /**
+     * Default number of distinct values counted exactly.
+     */
+    public static final int DEFAULT_EXACT_THRESHOLD = 10_000;
+
+    /**
+     * Lowest supported precision.
+     */
+    public static final int MIN_PRECISION = 4;
+
+    /**
+     * Highest supported precision, for 256 KiB of registers.
+     */
+    public static final int MAX_PRECISION = 18;
+
+    private static final double STANDARD_ERROR_FACTOR = 1.04;
+    private static final double ALPHA_FACTOR = 0.7213;
+    private static final double ALPHA_CORRECTION = 1.079;
+    private static final double SMALL_RANGE_FACTOR = 2.5;
+
+    private final int precision;
+    private final int exactThreshold;
+    private LongOpenHashSet exactHashes = new LongOpenHashSet();
+    private byte[] registers;
+
+    /**
+     * Creates a counter with the default precision and exact threshold.
+     */
+    public HyperLogLog() {
+        this(DEFAULT_PRECISION, DEFAULT_EXACT_THRESHOLD);
+    }
+
+    /**
+     * Creates an empty counter.
+     *
+     * @param precision      the number of index bits, from {@link #MIN_PRECISION} to {@link #MAX_PRECISION}
+     * @param exactThreshold the number of distinct values counted exactly before switching to the sketch;
+     *                       0 to use the sketch from the start
+     * @throws IllegalArgumentException if the precision is out of range or the threshold is negative
+     */
+    public HyperLogLog(int precision, int exactThreshold) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Precision must be between " + MIN_PRECISION + " and "
+                + MAX_PRECISION + ": " + precision);
+        }
+        if (exactThreshold < 0) {
+            throw new IllegalArgumentException("Exact threshold must not be negative: " + exactThreshold);
+        }
+        this.precision = precision;
+        this.exactThreshold = exactThreshold;
+        if (exactThreshold == 0) {
+            switchToSketch();
+        }
+    }
+
+    /**
+     * Adds a value, given as a well-mixed 64-bit hash.
+     *
+     * @param hash the hash of the value
+     */
+    public void add(long hash) {
+        if (exactHashes != null) {
+            exactHashes.add(hash);
+            if (exactHashes.size() > exactThreshold) {
+                switchToSketch();
+            }
+        } else {
+            addToRegisters(hash);
+        }
+    }
+
+    /**
+     * Adds the values counted by another counter to this one. The other counter is not modified.
+     *
+     * @param other a counter with the same precision
+     * @throws IllegalArgumentException if the precisions differ
+     */
+    public void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Cannot merge counters of precision " + other.precision + " and "
+                + precision);
+        }
+        if (other.exactHashes != null) {
+            LongIterator hashes = other.exactHashes.iterator();
+            while (hashes.hasNext()) {
+                add(hashes.nextLong());
+            }
+            return;
+        }
+
+        if (exactHashes != null) {
+            switchToSketch();
+        }
+        for (int i = 0; i < registers.length; i++) {
+            registers[i] = (byte) Math.max(registers[i], other.registers[i]);
+        }
+    }
+
+    /**
+     * Returns the number of distinct values added.
+     *
+     * @return the exact count below the threshold, the estimated count above it
+     */
+    public long estimate() {
+        if (exactHashes != null) {
+            return exactHashes.size();
+        }
+
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += Math.scalb(1.0, -register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double alpha = ALPHA_FACTOR / (1 + ALPHA_CORRECTION / m);
+        double estimate = alpha * m * m / sum;
+        if (estimate <= SMALL_RANGE_FACTOR * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros); // Linear counting is more accurate for small counts
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * Returns whether the count is still exact.
+     *
+     * @return {@code true} while the number of distinct values is at most the exact threshold
+     */
+    public boolean isExact() {
+        return exactHashes != null;
+    }
+
+    /**
+     * Returns the relative standard error of {@link #estimate()}.
+     *
+     * @return 0 while the count is exact, {@code 1.04 / sqrt(2^precision)} afterwards
+     */
+    public double relativeStandardError() {
+        return exactHashes != null ? 0 : STANDARD_ERROR_FACTOR / Math.sqrt(1 << precision);
+    }
+
+    /**
+     * Returns the number of index bits.
+     *
+     * @return the precision of the sketch
+     */
+    public int precision() {
+        return precision;
+    }
+
+    /**
+     * Returns the number of distinct values counted exactly.
+     *
+     * @return the exact threshold
+     */
+    public int exactThreshold() {
+        return exactThreshold;
+    }
+
+    private void switchToSketch() {
+        registers = new byte[1 << precision];
+        if (exactHashes != null) {
+            LongIterator hashes = exactHashes.iterator();
+            while (hashes.hasNext()) {
+                addToRegisters(hashes.nextLong());
+            }
+        }
+        exactHashes = null;
+    }
+
+    private void addToRegisters(long hash) {
+        int index = (int) (hash >>> (Long.SIZE - precision));
+        // The guard bit bounds the rank when the remaining bits are all zero
+        long remaining = hash << precision | 1L << (precision - 1);
+        byte rank = (byte) (Long.numberOfLeadingZeros(remaining) + 1);
+        if (rank > registers[index]) {
+            registers[index] = rank;
+        }
+    }
+}
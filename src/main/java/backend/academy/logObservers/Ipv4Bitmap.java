@@ -0,0 +1,357 @@
+package backend.academy.logObservers;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Exact set of IPv4 addresses in a compressed bitmap, laid out like a Roaring bitmap.
+ *
+ * <p>The 32-bit address space is split into 65536 chunks by the high 16 bits of the address. Each chunk holding
+ * at least one address has a container of its low 16 bits: a sorted {@code char} array while it holds at most
+ * {@link #ARRAY_CONTAINER_MAX} addresses, then a 65536-bit bitmap. Both take at most 8 KB per chunk. Chunks are
+ * found by binary search over their sorted keys.</p>
+ *
+ * <p>In memory, each non-empty chunk has a fixed cost of about 50 bytes on a 64-bit JVM with compressed
+ * references: the container object, the header of its array and its slots in the key and container arrays.
+ * Each further address of the chunk then costs 2 bytes in an array container, or 1 bit once the chunk is a
+ * bitmap. Addresses clustered in a few /16 networks thus take about 2 bytes each and dense ranges 1 bit each,
+ * but addresses scattered over the whole space, one per chunk, take about 50 bytes each. Serialized, a chunk
+ * costs 4 bytes plus its values, so scattered addresses take 6 bytes each on disk.</p>
+ *
+ * <p>Union is computed container by container, OR-ing bitmaps word by word, and the serialized form is the
+ * containers themselves, so sets of different files or days can be saved and combined cheaply.</p>
+ */
+public class Ipv4Bitmap {
+
+    /**
+     * Maximum number of addresses in an array container; fuller containers are bitmaps of the same size.
+     */
+    public static final int ARRAY_CONTAINER_MAX = 4096;
+
+    private static final int LOW_BITS = 16;
+    private static final int LOW_MASK = 0xFFFF;
+    private static final int BITMAP_WORDS = (1 << LOW_BITS) / Long.SIZE;
+    private static final int WORD_SHIFT = 6;
+    private static final int INITIAL_CONTAINERS = 4;
+    private static final int INITIAL_ARRAY = 4;
+
+    private char[] keys = new char[INITIAL_CONTAINERS];
+    private Container[] containers = new Container[INITIAL_CONTAINERS];
+    private int size;
+    private long cardinality;
+
+    /**
+     * Adds an address to the set.
+     *
+     * @param address the IPv4 address, in network order, e.g. {@code 0x0A000001} for 10.0.0.1
+     * @return {@code true} if the address was not in the set yet
+     */
+    public boolean add(int address) {
+        char key = (char) (address >>> LOW_BITS);
+        int index = Arrays.binarySearch(keys, 0, size, key);
+        if (index < 0) {
+            index = -index - 1;
+            insertContainer(index, key, new Container());
+        }
+        if (containers[index].add((char) (address & LOW_MASK))) {
+            cardinality++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether an address is in the set.
+     *
+     * @param address the IPv4 address, in network order
+     * @return {@code true} if the address was added to this set or to a set merged into it
+     */
+    public boolean contains(int address) {
+        int index = Arrays.binarySearch(keys, 0, size, (char) (address >>> LOW_BITS));
+        return index >= 0 && containers[index].contains((char) (address & LOW_MASK));
+    }
+
+    /**
+     * Returns the number of addresses in the set.
+     *
+     * @return the exact number of distinct addresses
+     */
+    public long cardinality() {
+        return cardinality;
+    }
+
+    /**
+     * Adds every address of another set to this set.
+     *
+     * @param other the set to add; it is not modified
+     */
+    public void or(Ipv4Bitmap other) {
+        int capacity = Math.max(size + other.size, INITIAL_CONTAINERS);
+        char[] mergedKeys = new char[capacity];
+        Container[] mergedContainers = new Container[capacity];
+        int merged = 0;
+        int i = 0;
+        int j = 0;
+        while (i < size || j < other.size) {
+            if (j == other.size || i < size && keys[i] < other.keys[j]) {
+                mergedKeys[merged] = keys[i];
+                mergedContainers[merged++] = containers[i++];
+            } else if (i == size || other.keys[j] < keys[i]) {
+                mergedKeys[merged] = other.keys[j];
+                mergedContainers[merged++] = other.containers[j++].copy();
+            } else {
+                containers[i].or(other.containers[j++]);
+                mergedKeys[merged] = keys[i];
+                mergedContainers[merged++] = containers[i++];
+            }
+        }
+
+        keys = mergedKeys;
+        containers = mergedContainers;
+        size = merged;
+        cardinality = 0;
+        for (int k = 0; k < size; k++) {
+            cardinality += containers[k].cardinality;
+        }
+    }
+
+    /**
+     * Writes the set: the number of containers, then each container as its key, its cardinality minus one
+     * and either its sorted low bits or its bitmap words.
+     *
+     * @param out the output
+     * @throws IOException if the output cannot be written
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            out.writeChar(keys[i]);
+            containers[i].writeTo(out);
+        }
+    }
+
+    /**
+     * Reads a set written by {@link #writeTo(DataOutput)}.
+     *
+     * @param in the input
+     * @return the set
+     * @throws IOException if the input cannot be read or does not hold a valid set
+     */
+    public static Ipv4Bitmap readFrom(DataInput in) throws IOException {
+        Ipv4Bitmap bitmap = new Ipv4Bitmap();
+        int size = in.readInt();
+        if (size < 0 || size > 1 << LOW_BITS) {
+            throw new IOException("Invalid number of bitmap containers: " + size);
+        }
+        bitmap.keys = new char[Math.max(size, INITIAL_CONTAINERS)];
+        bitmap.containers = new Container[bitmap.keys.length];
+        for (int i = 0; i < size; i++) {
+            char key = in.readChar();
+            if (i > 0 && key <= bitmap.keys[i - 1]) {
+                throw new IOException("Bitmap containers are not sorted: " + (int) key);
+            }
+            bitmap.keys[i] = key;
+            bitmap.containers[i] = Container.readFrom(in);
+            bitmap.cardinality += bitmap.containers[i].cardinality;
+        }
+        bitmap.size = size;
+        return bitmap;
+    }
+
+    /**
+     * Returns the number of bytes written by {@link #writeTo(DataOutput)}.
+     *
+     * @return the serialized size of the set
+     */
+    public long serializedSize() {
+        long serializedSize = Integer.BYTES;
+        for (int i = 0; i < size; i++) {
+            serializedSize += Character.BYTES + containers[i].serializedSize();
+        }
+        return serializedSize;
+    }
+
+    private void insertContainer(int index, char key, Container container) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = key;
+        containers[index] = container;
+        size++;
+    }
+
+    /**
+     * Low 16 bits of the addresses of one chunk: a sorted array, or a bitmap once {@link #ARRAY_CONTAINER_MAX}
+     * addresses are exceeded.
+     */
+    private static final class Container {
+        private char[] values;
+        private long[] words;
+        private int cardinality;
+
+        private Container() {
+            this.values = new char[INITIAL_ARRAY];
+        }
+
+        private Container(char[] values, long[] words, int cardinality) {
+            this.values = values;
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        private Container copy() {
+            return words == null
+                ? new Container(Arrays.copyOf(values, cardinality), null, cardinality)
+                : new Container(null, words.clone(), cardinality);
+        }
+
+        private boolean add(char low) {
+            if (words != null) {
+                return setBit(low);
+            }
+            int index = Arrays.binarySearch(values, 0, cardinality, low);
+            if (index >= 0) {
+                return false;
+            }
+            if (cardinality == ARRAY_CONTAINER_MAX) {
+                toBitmap();
+                return setBit(low);
+            }
+            index = -index - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(cardinality * 2, ARRAY_CONTAINER_MAX));
+            }
+            System.arraycopy(values, index, values, index + 1, cardinality - index);
+            values[index] = low;
+            cardinality++;
+            return true;
+        }
+
+        private boolean contains(char low) {
+            return words == null
+                ? Arrays.binarySearch(values, 0, cardinality, low) >= 0
+                : (words[low >>> WORD_SHIFT] & 1L << low) != 0;
+        }
+
+        private void or(Container other) {
+            if (words == null && other.words == null) {
+                orArrays(other);
+            } else if (other.words == null) {
+                for (int i = 0; i < other.cardinality; i++) {
+                    setBit(other.values[i]);
+                }
+            } else {
+                if (words == null) {
+                    toBitmap();
+                }
+                int merged = 0;
+                for (int i = 0; i < BITMAP_WORDS; i++) {
+                    words[i] |= other.words[i];
+                    merged += Long.bitCount(words[i]);
+                }
+                cardinality = merged;
+            }
+        }
+
+        /**
+         * Merges two sorted arrays, switching to a bitmap if the union is too large for an array.
+         *
+         * @param other an array container
+         */
+        private void orArrays(Container other) {
+            char[] merged = new char[cardinality + other.cardinality];
+            int count = 0;
+            int i = 0;
+            int j = 0;
+            while (i < cardinality && j < other.cardinality) {
+                char value = values[i];
+                char otherValue = other.values[j];
+                if (value <= otherValue) {
+                    i++;
+                }
+                if (otherValue <= value) {
+                    j++;
+                }
+                merged[count++] = value <= otherValue ? value : otherValue;
+            }
+            while (i < cardinality) {
+                merged[count++] = values[i++];
+            }
+            while (j < other.cardinality) {
+                merged[count++] = other.values[j++];
+            }
+
+            values = merged;
+            cardinality = count;
+            if (count > ARRAY_CONTAINER_MAX) {
+                toBitmap();
+            }
+        }
+
+        private boolean setBit(char low) {
+            int word = low >>> WORD_SHIFT;
+            long bit = 1L << low;
+            if ((words[word] & bit) != 0) {
+                return false;
+            }
+            words[word] |= bit;
+            cardinality++;
+            return true;
+        }
+
+        private void toBitmap() {
+            words = new long[BITMAP_WORDS];
+            for (int i = 0; i < cardinality; i++) {
+                words[values[i] >>> WORD_SHIFT] |= 1L << values[i];
+            }
+            values = null;
+        }
+
+        private void writeTo(DataOutput out) throws IOException {
+            out.writeChar(cardinality - 1);
+            if (words == null) {
+                for (int i = 0; i < cardinality; i++) {
+                    out.writeChar(values[i]);
+                }
+            } else {
+                for (long word : words) {
+                    out.writeLong(word);
+                }
+            }
+        }
+
+        private static Container readFrom(DataInput in) throws IOException {
+            int cardinality = in.readChar() + 1;
+            if (cardinality <= ARRAY_CONTAINER_MAX) {
+                char[] values = new char[cardinality];
+                for (int i = 0; i < cardinality; i++) {
+                    values[i] = in.readChar();
+                    if (i > 0 && values[i] <= values[i - 1]) {
+                        throw new IOException("Array container values are not sorted: " + (int) values[i]);
+                    }
+                }
+                return new Container(values, null, cardinality);
+            }
+            long[] words = new long[BITMAP_WORDS];
+            int bits = 0;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                words[i] = in.readLong();
+                bits += Long.bitCount(words[i]);
+            }
+            if (bits != cardinality) {
+                throw new IOException("Bitmap container holds " + bits + " addresses, expected " + cardinality);
+            }
+            return new Container(null, words, cardinality);
+        }
+
+        private long serializedSize() {
+            long content = words == null ? (long) cardinality * Character.BYTES : (long) BITMAP_WORDS * Long.BYTES;
+            return Character.BYTES + content;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package backend.academy.logObservers;
+
+/**
+ * Histogram of non-negative {@code long} values in logarithmic buckets, in the style of HdrHistogram.
+ *
+ * <p>Values below {@code 2^precisionBits} get a bucket each and are recorded exactly. Above that, each power
+ * of two is split into {@code 2^(precisionBits - 1)} equal buckets, so a bucket is never wider than
+ * {@code 2^(1 - precisionBits)} of the values it holds: that is the maximum relative error of a reported
+ * quantile. The number of buckets only depends on the precision, so memory stays constant however many
+ * values are recorded, and recording is a few shifts and an array increment.</p>
+ *
+ * <p>Quantiles are reported as the highest value of their bucket, clamped to the exact minimum and maximum.
+ * Two histograms with the same precision are merged by adding their bucket counts.</p>
+ */
+public class LogBucketHistogram {
+
+    /**
+     * Highest supported precision; a histogram of this precision holds about 400 thousand buckets.
+     */
+    public static final int MAX_PRECISION_BITS = 14;
+
+    private final int precisionBits;
+    private final long[] counts;
+    private long totalCount;
+    private long min = Long.MAX_VALUE;
+    private long max = 0;
+
+    /**
+     * Creates an empty histogram.
+     *
+     * @param precisionBits the number of significant bits kept of each value, from 1 to
+     *                      {@link #MAX_PRECISION_BITS}; 8 bits give a relative error below 1%
+     * @throws IllegalArgumentException if the precision is out of range
+     */
+    public LogBucketHistogram(int precisionBits) {
+        if (precisionBits < 1 || precisionBits > MAX_PRECISION_BITS) {
+            throw new IllegalArgumentException("Precision must be between 1 and " + MAX_PRECISION_BITS
+                + " bits: " + precisionBits);
+        }
+        this.precisionBits = precisionBits;
+        // Exact buckets below 2^precisionBits, then half as many per power of two up to 2^63
+        this.counts = new long[(Long.SIZE + 1 - precisionBits) << (precisionBits - 1)];
+    }
+
+    /**
+     * Records a value.
+     *
+     * @param value the value to record
+     * @throws IllegalArgumentException if the value is negative
+     */
+    public void record(long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Value must not be negative: " + value);
+        }
+        counts[bucketIndex(value)]++;
+        totalCount++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Adds the values recorded by another histogram to this one. The other histogram is not modified.
+     *
+     * @param other a histogram with the same precision
+     * @throws IllegalArgumentException if the precisions differ
+     */
+    public void merge(LogBucketHistogram other) {
+        if (other.precisionBits != precisionBits) {
+            throw new IllegalArgumentException("Cannot merge histograms of " + other.precisionBits + " and "
+                + precisionBits + " bits of precision");
+        }
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Returns the value at a quantile, using the nearest-rank definition: the smallest recorded value such that
+     * at least the given fraction of all values are less than or equal to it.
+     *
+     * @param quantile the quantile, from 0 to 1, e.g. 0.999 for the 99.9th percentile
+     * @return the value at the quantile, within the relative error of the histogram, or 0 if it is empty
+     * @throws IllegalArgumentException if the quantile is out of range
+     */
+    public long valueAtQuantile(double quantile) {
+        if (quantile < 0 || quantile > 1 || Double.isNaN(quantile)) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1: " + quantile);
+        }
+        if (totalCount == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(quantile * totalCount));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.clamp(highestValueOf(i), min, max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return the total count
+     */
+    public long totalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Returns the number of significant bits kept of each value.
+     *
+     * @return the precision of this histogram
+     */
+    public int precisionBits() {
+        return precisionBits;
+    }
+
+    /**
+     * Returns the maximum relative error of the values returned by {@link #valueAtQuantile(double)}.
+     *
+     * @return the error bound, e.g. 0.0078125 for 8 bits of precision
+     */
+    public double maxRelativeError() {
+        return Math.scalb(1.0, 1 - precisionBits);
+    }
+
+    /**
+     * Returns the bucket of a value: the value itself below {@code 2^precisionBits}, otherwise the number of
+     * halved powers of two below it plus its {@code precisionBits} most significant bits.
+     */
+    private int bucketIndex(long value) {
+        int shift = Math.max(0, Long.SIZE - Long.numberOfLeadingZeros(value) - precisionBits);
+        return (shift << (precisionBits - 1)) + (int) (value >>> shift);
+    }
+
+    /**
+     * Returns the highest value that falls into a bucket.
+     */
+    private long highestValueOf(int index) {
+        if (index < 1 << precisionBits) {
+            return index;
+        }
+        int shift = (index >> (precisionBits - 1)) - 1;
+        long mantissa = index - ((long) shift << (precisionBits - 1));
+        return (mantissa << shift) + (1L << shift) - 1; // Wraps to Long.MAX_VALUE for the last bucket
+    }
+}
@@ -1,7 +1,29 @@
 package backend.academy.logObservers;
 
+import backend.academy.logParseComponents.LogBatch;
 import backend.academy.logParseComponents.LogReport;
+import backend.academy.logParseComponents.MalformedReason;
 
 public interface LogObserver {
     void update(LogReport log);
+
+    /**
+     * Called with a block of parsed log entries, in log order. Calls {@link #update(LogReport)} for each entry
+     * by default; observers of numeric fields override it with a loop over the columns of the batch.
+     *
+     * @param batch the entries; only valid during the call, as the batch is reused
+     */
+    default void updateBatch(LogBatch batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            update(batch.report(i));
+        }
+    }
+
+    /**
+     * Called for every log line rejected by the parser. Ignored by default.
+     *
+     * @param reason the reason the line was rejected
+     */
+    default void updateMalformed(MalformedReason reason) {
+    }
 }
@@ -0,0 +1,69 @@
+package backend.academy.logObservers;
+
+import backend.academy.logParseComponents.LogBatch;
+import backend.academy.logParseComponents.LogReport;
+import backend.academy.logParseComponents.MalformedReason;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Observer counting the log lines that were rejected by the parser, per {@link MalformedReason}.
+ */
+public class MalformedLinesObserver implements MergeableObserver<MalformedLinesObserver> {
+    private final long[] counts = new long[MalformedReason.values().length];
+
+    @Override
+    public void update(LogReport log) {
+        // Only malformed lines are counted
+    }
+
+    @Override
+    public void updateBatch(LogBatch batch) {
+        // Only malformed lines are counted
+    }
+
+    @Override
+    public void updateMalformed(MalformedReason reason) {
+        counts[reason.ordinal()]++;
+    }
+
+    @Override
+    public MalformedLinesObserver emptyCopy() {
+        return new MalformedLinesObserver();
+    }
+
+    @Override
+    public void merge(MalformedLinesObserver other) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+    }
+
+    /**
+     * Returns the total number of malformed lines.
+     *
+     * @return the number of rejected lines
+     */
+    public long malformedLines() {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Returns the number of malformed lines for each reason that occurred at least once.
+     *
+     * @return the counts keyed by reason description, in {@link MalformedReason} order
+     */
+    public Map<String, Long> malformedLinesByReason() {
+        Map<String, Long> byReason = new LinkedHashMap<>();
+        for (MalformedReason reason : MalformedReason.values()) {
+            if (counts[reason.ordinal()] > 0) {
+                byReason.put(reason.description(), counts[reason.ordinal()]);
+            }
+        }
+        return byReason;
+    }
+}
@@ -0,0 +1,29 @@
+package backend.academy.logObservers;
+
+/**
+ * A {@link LogObserver} whose state can be split and combined, so that a log can be aggregated in
+ * partitions by independent workers, without locks, and the partial results combined at the end.
+ *
+ * <p>{@link #merge} must be associative: merging the observers of consecutive partitions in any grouping
+ * gives the same result as one observer updated with all the partitions in order. Observers that report
+ * entries in order of first appearance keep that order as long as the left partition is merged with the
+ * right one.</p>
+ *
+ * @param <T> the type of the observer itself
+ */
+public interface MergeableObserver<T extends MergeableObserver<T>> extends LogObserver {
+
+    /**
+     * Returns a new observer with the same configuration as this one and no observed data.
+     *
+     * @return a fresh, empty observer
+     */
+    T emptyCopy();
+
+    /**
+     * Adds the data observed by another observer to this one. The other observer is not modified.
+     *
+     * @param other an observer created by {@link #emptyCopy()} of this observer or of the same prototype
+     */
+    void merge(T other);
+}
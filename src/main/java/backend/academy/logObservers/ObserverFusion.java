@@ -0,0 +1,356 @@
+package backend.academy.logObservers;
+
+import backend.academy.logParseComponents.LogBatch;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.experimental.UtilityClass;
+import lombok.extern.log4j.Log4j2;
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.asm.AsmVisitorWrapper;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import net.bytebuddy.dynamic.scaffold.subclass.ConstructorStrategy;
+import net.bytebuddy.implementation.Implementation;
+import net.bytebuddy.implementation.bytecode.ByteCodeAppender;
+import net.bytebuddy.jar.asm.ClassWriter;
+import net.bytebuddy.jar.asm.Label;
+import net.bytebuddy.jar.asm.MethodVisitor;
+import net.bytebuddy.jar.asm.Opcodes;
+import net.bytebuddy.jar.asm.Type;
+import net.bytebuddy.matcher.ElementMatchers;
+
+/**
+ * Utility class that fuses a set of observers into one generated observer, so that a batch of log entries is
+ * aggregated in a single loop instead of one call and one loop per observer.
+ *
+ * <p>A subclass of {@link GeneratedFusedObserver} is generated at runtime with Byte Buddy for the classes of the
+ * observers. Its {@code updateBatch} loads each column of the {@link LogBatch} that some observer needs once,
+ * then runs one loop whose body reads each field of the entry once and updates every numeric observer with it,
+ * as straight-line code. Work shared by several observers runs once: the request count is the batch size and
+ * the sum of the response sizes is accumulated in a local variable, for {@link TotalRequestObserver} and
+ * {@link AverageResponseSizeObserver}. Observers of text fields, and observers of other classes, including
+ * subclasses of the fused ones, are called with the batch after the loop.</p>
+ *
+ * <p>A fused observer updates the given observer instances, so their metrics are reported as usual.</p>
+ */
+@Log4j2
+@UtilityClass
+public final class ObserverFusion {
+
+    // Generated classes by observer classes, so each combination is generated only once per JVM
+    private static final Map<List<Class<?>>, Constructor<? extends GeneratedFusedObserver>> COMPILED_CLASSES =
+        new ConcurrentHashMap<>();
+    private static final AtomicInteger GENERATED_CLASS_COUNTER = new AtomicInteger();
+
+    // Local variable indices of the generated updateBatch(LogBatch) method
+    private static final int BATCH_VARIABLE = 1;
+    private static final int FIRST_FREE_VARIABLE = 2;
+    private static final int MAX_STACK = 8;
+
+    /**
+     * Returns an observer updating all the given observers, with the numeric ones fused into a single loop.
+     *
+     * @param observers the observers to update, e.g. the ones registered with the parser
+     * @return a generated observer forwarding every update to the given observers
+     */
+    public static LogObserver fuse(List<? extends LogObserver> observers) {
+        List<Class<?>> classes = new ArrayList<>(observers.size());
+        for (LogObserver observer : observers) {
+            classes.add(observer.getClass());
+        }
+        Constructor<? extends GeneratedFusedObserver> constructor =
+            COMPILED_CLASSES.computeIfAbsent(List.copyOf(classes), ObserverFusion::generate);
+
+        try {
+            return constructor.newInstance((Object) observers.toArray(LogObserver[]::new));
+        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Failed to instantiate fused observer " + constructor.getName(), e);
+        }
+    }
+
+    /**
+     * Generates a {@link GeneratedFusedObserver} subclass for observers of the given classes.
+     *
+     * @param classes the classes of the observers, in order
+     * @return the constructor of the generated class, taking the observers
+     */
+    private static Constructor<? extends GeneratedFusedObserver> generate(List<Class<?>> classes) {
+        String className = GeneratedFusedObserver.class.getName()
+            + "$Fused" + GENERATED_CLASS_COUNTER.incrementAndGet();
+        List<Kernel> kernels = new ArrayList<>(classes.size());
+        for (Class<?> observerClass : classes) {
+            kernels.add(Kernel.of(observerClass));
+        }
+
+        try {
+            Class<? extends GeneratedFusedObserver> fusedClass = new ByteBuddy()
+                .subclass(GeneratedFusedObserver.class, ConstructorStrategy.Default.IMITATE_SUPER_CLASS_OPENING)
+                .name(className)
+                .method(ElementMatchers.named("updateBatch"))
+                .intercept(new Implementation.Simple(new UpdateBatchAppender(kernels)))
+                .visit(new AsmVisitorWrapper.ForDeclaredMethods().writerFlags(ClassWriter.COMPUTE_FRAMES))
+                .make()
+                .load(GeneratedFusedObserver.class.getClassLoader(), ClassLoadingStrategy.Default.WRAPPER)
+                .getLoaded();
+
+            log.info("Generated fused observer {} for {} observers ({} in the loop)", className, kernels.size(),
+                kernels.stream().filter(kernel -> kernel != null && !kernel.columns.isEmpty()).count());
+            return fusedClass.getDeclaredConstructor(LogObserver[].class);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("Failed to generate fused observer " + className, e);
+        }
+    }
+
+    /**
+     * A column of a {@link LogBatch} read by the fused loop.
+     */
+    private enum Column {
+        RESPONSE_SIZE("responseSizes", long.class),
+        STATUS_CODE("statusCodes", int.class),
+        EPOCH_SECOND("epochSeconds", long.class),
+        IP_HIGH("ipHighs", long.class),
+        IP_LOW("ipLows", long.class),
+        HAS_ADDRESS("hasAddresses", boolean.class);
+
+        private final String getter;
+        private final Class<?> type;
+
+        Column(String getter, Class<?> type) {
+            this.getter = getter;
+            this.type = type;
+        }
+
+        boolean isLong() {
+            return type == long.class;
+        }
+
+        int arrayLoadOpcode() {
+            if (isLong()) {
+                return Opcodes.LALOAD;
+            }
+            return type == boolean.class ? Opcodes.BALOAD : Opcodes.IALOAD;
+        }
+    }
+
+    /**
+     * A value computed once per batch and passed to the observers after the loop.
+     */
+    private enum BatchValue {
+        REQUESTS,
+        RESPONSE_SIZE_SUM
+    }
+
+    /**
+     * How an observer class is fused: the helper of {@link GeneratedFusedObserver} called with the observer,
+     * and either the columns passed to it for each entry or the values passed to it once per batch.
+     */
+    private enum Kernel {
+        REQUESTS(TotalRequestObserver.class, "addRequests", List.of(), List.of(BatchValue.REQUESTS)),
+        RESPONSE_SIZES(AverageResponseSizeObserver.class, "addResponseSizes", List.of(),
+            List.of(BatchValue.RESPONSE_SIZE_SUM, BatchValue.REQUESTS)),
+        STATUS_CODES(CodeStatusesObserver.class, "countStatus", List.of(Column.STATUS_CODE), List.of()),
+        RESPONSE_SIZE_PERCENTILES(ResponseSizePercentileObserver.class, "recordResponseSize",
+            List.of(Column.RESPONSE_SIZE), List.of()),
+        USERS(UniqueUsersObserver.class, "countUser", List.of(Column.HAS_ADDRESS, Column.IP_HIGH, Column.IP_LOW),
+            List.of()),
+        TRAFFIC(TrafficSeriesObserver.class, "recordTraffic",
+            List.of(Column.EPOCH_SECOND, Column.STATUS_CODE, Column.RESPONSE_SIZE), List.of());
+
+        private final Class<?> observerClass;
+        private final String helper;
+        private final List<Column> columns;
+        private final List<BatchValue> batchValues;
+
+        Kernel(Class<?> observerClass, String helper, List<Column> columns, List<BatchValue> batchValues) {
+            this.observerClass = observerClass;
+            this.helper = helper;
+            this.columns = columns;
+            this.batchValues = batchValues;
+        }
+
+        /**
+         * Returns the kernel of an observer class, or {@code null} if the observer is called with the batch.
+         * Subclasses are not fused, as they may override the update methods.
+         */
+        static Kernel of(Class<?> observerClass) {
+            for (Kernel kernel : values()) {
+                if (kernel.observerClass == observerClass) {
+                    return kernel;
+                }
+            }
+            return null;
+        }
+
+        String helperDescriptor() {
+            List<Class<?>> parameterTypes = new ArrayList<>();
+            parameterTypes.add(observerClass);
+            columns.forEach(column -> parameterTypes.add(column.type));
+            batchValues.forEach(value -> parameterTypes.add(long.class));
+            try {
+                Method method = GeneratedFusedObserver.class.getDeclaredMethod(helper,
+                    parameterTypes.toArray(Class<?>[]::new));
+                return Type.getMethodDescriptor(method);
+            } catch (NoSuchMethodException e) {
+                throw new IllegalStateException("Missing fusion helper: " + helper, e);
+            }
+        }
+    }
+
+    /**
+     * Emits the body of {@code updateBatch(LogBatch batch)}:
+     * <pre>
+     * int size = batch.size();
+     * long[] responseSizes = batch.responseSizes(); ...               // each column used, once
+     * CodeStatusesObserver observer1 = (CodeStatusesObserver) observers[1]; ...
+     * long responseSizeSum = 0;
+     * for (int i = 0; i &lt; size; i++) {
+     *     long responseSize = responseSizes[i]; ...                  // each field used, once
+     *     responseSizeSum += responseSize;
+     *     countStatus(observer1, statusCode); ...
+     * }
+     * addRequests(observer0, size); ...
+     * updateUnfused(observers[7], batch); ...
+     * </pre>
+     */
+    private static final class UpdateBatchAppender implements ByteCodeAppender {
+        private final List<Kernel> kernels;
+        private final String ownerName = Type.getInternalName(GeneratedFusedObserver.class);
+        private final String batchName = Type.getInternalName(LogBatch.class);
+        private final String observersDescriptor = Type.getDescriptor(LogObserver[].class);
+
+        UpdateBatchAppender(List<Kernel> kernels) {
+            this.kernels = new ArrayList<>(kernels);
+        }
+
+        @Override
+        public Size apply(MethodVisitor visitor, Implementation.Context context, MethodDescription method) {
+            Set<Column> columns = EnumSet.noneOf(Column.class);
+            boolean sumsResponseSizes = false;
+            for (Kernel kernel : kernels) {
+                if (kernel != null) {
+                    columns.addAll(kernel.columns);
+                    sumsResponseSizes |= kernel.batchValues.contains(BatchValue.RESPONSE_SIZE_SUM);
+                }
+            }
+            if (sumsResponseSizes) {
+                columns.add(Column.RESPONSE_SIZE);
+            }
+
+            int nextVariable = FIRST_FREE_VARIABLE;
+            int sizeVariable = nextVariable++;
+            visitor.visitVarInsn(Opcodes.ALOAD, BATCH_VARIABLE);
+            visitor.visitMethodInsn(Opcodes.INVOKEVIRTUAL, batchName, "size", "()I", false);
+            visitor.visitVarInsn(Opcodes.ISTORE, sizeVariable);
+
+            // Columns and typed observers are loaded once, before the loop
+            int[] columnVariables = new int[Column.values().length];
+            for (Column column : columns) {
+                columnVariables[column.ordinal()] = nextVariable++;
+                visitor.visitVarInsn(Opcodes.ALOAD, BATCH_VARIABLE);
+                visitor.visitMethodInsn(Opcodes.INVOKEVIRTUAL, batchName, column.getter,
+                    "()[" + Type.getDescriptor(column.type), false);
+                visitor.visitVarInsn(Opcodes.ASTORE, columnVariables[column.ordinal()]);
+            }
+            int[] observerVariables = new int[kernels.size()];
+            for (int i = 0; i < kernels.size(); i++) {
+                if (kernels.get(i) != null) {
+                    observerVariables[i] = nextVariable++;
+                    loadObserver(visitor, i);
+                    visitor.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(kernels.get(i).observerClass));
+                    visitor.visitVarInsn(Opcodes.ASTORE, observerVariables[i]);
+                }
+            }
+            int sumVariable = nextVariable;
+            nextVariable += 2;
+            visitor.visitInsn(Opcodes.LCONST_0);
+            visitor.visitVarInsn(Opcodes.LSTORE, sumVariable);
+            int[] valueVariables = new int[Column.values().length];
+            for (Column column : columns) {
+                valueVariables[column.ordinal()] = nextVariable;
+                nextVariable += column.isLong() ? 2 : 1;
+            }
+            int indexVariable = nextVariable++;
+
+            // for (int i = 0; i < size; i++)
+            Label loop = new Label();
+            Label end = new Label();
+            visitor.visitInsn(Opcodes.ICONST_0);
+            visitor.visitVarInsn(Opcodes.ISTORE, indexVariable);
+            visitor.visitLabel(loop);
+            visitor.visitVarInsn(Opcodes.ILOAD, indexVariable);
+            visitor.visitVarInsn(Opcodes.ILOAD, sizeVariable);
+            visitor.visitJumpInsn(Opcodes.IF_ICMPGE, end);
+
+            for (Column column : columns) {
+                visitor.visitVarInsn(Opcodes.ALOAD, columnVariables[column.ordinal()]);
+                visitor.visitVarInsn(Opcodes.ILOAD, indexVariable);
+                visitor.visitInsn(column.arrayLoadOpcode());
+                visitor.visitVarInsn(column.isLong() ? Opcodes.LSTORE : Opcodes.ISTORE,
+                    valueVariables[column.ordinal()]);
+            }
+            if (sumsResponseSizes) {
+                visitor.visitVarInsn(Opcodes.LLOAD, sumVariable);
+                visitor.visitVarInsn(Opcodes.LLOAD, valueVariables[Column.RESPONSE_SIZE.ordinal()]);
+                visitor.visitInsn(Opcodes.LADD);
+                visitor.visitVarInsn(Opcodes.LSTORE, sumVariable);
+            }
+            for (int i = 0; i < kernels.size(); i++) {
+                Kernel kernel = kernels.get(i);
+                if (kernel != null && !kernel.columns.isEmpty()) {
+                    visitor.visitVarInsn(Opcodes.ALOAD, observerVariables[i]);
+                    for (Column column : kernel.columns) {
+                        visitor.visitVarInsn(column.isLong() ? Opcodes.LLOAD : Opcodes.ILOAD,
+                            valueVariables[column.ordinal()]);
+                    }
+                    visitor.visitMethodInsn(Opcodes.INVOKESTATIC, ownerName, kernel.helper, kernel.helperDescriptor(),
+                        false);
+                }
+            }
+
+            visitor.visitIincInsn(indexVariable, 1);
+            visitor.visitJumpInsn(Opcodes.GOTO, loop);
+            visitor.visitLabel(end);
+
+            // Per-batch values, then the observers that are not fused
+            for (int i = 0; i < kernels.size(); i++) {
+                Kernel kernel = kernels.get(i);
+                if (kernel == null) {
+                    loadObserver(visitor, i);
+                    visitor.visitVarInsn(Opcodes.ALOAD, BATCH_VARIABLE);
+                    visitor.visitMethodInsn(Opcodes.INVOKESTATIC, ownerName, "updateUnfused",
+                        "(" + Type.getDescriptor(LogObserver.class) + Type.getDescriptor(LogBatch.class) + ")V", false);
+                } else if (!kernel.batchValues.isEmpty()) {
+                    visitor.visitVarInsn(Opcodes.ALOAD, observerVariables[i]);
+                    for (BatchValue value : kernel.batchValues) {
+                        if (value == BatchValue.REQUESTS) {
+                            visitor.visitVarInsn(Opcodes.ILOAD, sizeVariable);
+                            visitor.visitInsn(Opcodes.I2L);
+                        } else {
+                            visitor.visitVarInsn(Opcodes.LLOAD, sumVariable);
+                        }
+                    }
+                    visitor.visitMethodInsn(Opcodes.INVOKESTATIC, ownerName, kernel.helper, kernel.helperDescriptor(),
+                        false);
+                }
+            }
+
+            visitor.visitInsn(Opcodes.RETURN);
+            return new Size(MAX_STACK, nextVariable);
+        }
+
+        private void loadObserver(MethodVisitor visitor, int index) {
+            visitor.visitVarInsn(Opcodes.ALOAD, 0);
+            visitor.visitFieldInsn(Opcodes.GETFIELD, ownerName, "observers", observersDescriptor);
+            visitor.visitLdcInsn(index);
+            visitor.visitInsn(Opcodes.AALOAD);
+        }
+    }
+}
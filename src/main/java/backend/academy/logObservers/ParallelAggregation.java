@@ -0,0 +1,118 @@
+package backend.academy.logObservers;
+
+import backend.academy.logParseComponents.LogBatch;
+import backend.academy.logParseComponents.LogReport;
+import java.io.Serial;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Aggregates log reports in parallel with {@link MergeableObserver}s.
+ *
+ * <p>The reports are split into contiguous partitions. Each partition is observed by its own
+ * {@link MergeableObserver#emptyCopy() empty copy} of a prototype observer, on a fork/join worker and without
+ * locks, and the partial observers are combined with a balanced tree reduction: neighbouring partitions are
+ * merged pairwise, left into right, so the reduction has logarithmic depth and keeps the order of the log.</p>
+ *
+ * <p>This is a library-only entry point: the command line streams files through one set of observers and
+ * does not call it. It serves callers that already hold the reports in memory.</p>
+ */
+@UtilityClass
+public class ParallelAggregation {
+
+    /**
+     * Observes the reports in parallel partitions and merges the partial results.
+     *
+     * @param prototype  the observer whose empty copies observe the partitions; it is not modified
+     * @param reports    the reports to observe, in log order
+     * @param partitions the number of partitions, usually the number of workers
+     * @param <T>        the type of the observer
+     * @return a new observer holding the result of observing every report
+     * @throws IllegalArgumentException if the number of partitions is not positive
+     */
+    public static <T extends MergeableObserver<T>> T aggregate(T prototype, List<LogReport> reports, int partitions) {
+        if (partitions <= 0) {
+            throw new IllegalArgumentException("Number of partitions must be positive: " + partitions);
+        }
+        int partitionSize = Math.max(1, (reports.size() + partitions - 1) / partitions);
+        return ForkJoinPool.commonPool().invoke(new PartitionTask<>(prototype, reports, 0, reports.size(),
+            partitionSize));
+    }
+
+    /**
+     * Merges partial observers with a balanced tree reduction, preserving their order.
+     *
+     * @param partials the partial observers, in log order; the first one receives the result
+     * @param <T>      the type of the observer
+     * @return the first observer, holding the merged result
+     * @throws IllegalArgumentException if there are no partial observers
+     */
+    public static <T extends MergeableObserver<T>> T reduce(List<T> partials) {
+        if (partials.isEmpty()) {
+            throw new IllegalArgumentException("Nothing to reduce");
+        }
+        List<T> level = partials;
+        while (level.size() > 1) {
+            List<T> next = new ArrayList<>((level.size() + 1) / 2);
+            for (int i = 0; i < level.size(); i += 2) {
+                T left = level.get(i);
+                if (i + 1 < level.size()) {
+                    left.merge(level.get(i + 1));
+                }
+                next.add(left);
+            }
+            level = next;
+        }
+        return level.getFirst();
+    }
+
+    /**
+     * Observes a range of reports, splitting it in halves until it fits in a partition.
+     */
+    private static final class PartitionTask<T extends MergeableObserver<T>> extends RecursiveTask<T> {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final transient T prototype;
+        private final transient List<LogReport> reports;
+        private final int from;
+        private final int to;
+        private final int partitionSize;
+
+        PartitionTask(T prototype, List<LogReport> reports, int from, int to, int partitionSize) {
+            this.prototype = prototype;
+            this.reports = reports;
+            this.from = from;
+            this.to = to;
+            this.partitionSize = partitionSize;
+        }
+
+        @Override
+        protected T compute() {
+            if (to - from <= partitionSize) {
+                T observer = prototype.emptyCopy();
+                LogBatch batch = new LogBatch(Math.clamp(to - from, 1, LogBatch.DEFAULT_CAPACITY));
+                for (int i = from; i < to; i++) {
+                    batch.add(reports.get(i));
+                    if (batch.isFull() || i == to - 1) {
+                        observer.updateBatch(batch);
+                        batch.clear();
+                    }
+                }
+                return observer;
+            }
+
+            // Split on a partition boundary, so that the partitions are the same whatever the depth
+            int partitions = (to - from + partitionSize - 1) / partitionSize;
+            int middle = from + partitions / 2 * partitionSize;
+            PartitionTask<T> right = new PartitionTask<>(prototype, reports, middle, to, partitionSize);
+            right.fork();
+            T left = new PartitionTask<>(prototype, reports, from, middle, partitionSize).compute();
+            left.merge(right.join());
+            return left;
+        }
+    }
+}
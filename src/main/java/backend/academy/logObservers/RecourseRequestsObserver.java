@@ -1,16 +1,86 @@
 package backend.academy.logObservers;
 
+import backend.academy.logParseComponents.AnalysisContext;
+import backend.academy.logParseComponents.LogBatch;
 import backend.academy.logParseComponents.LogReport;
+import backend.academy.logParseComponents.SymbolTable;
+import it.unimi.dsi.fastutil.ints.Int2LongMap;
+import it.unimi.dsi.fastutil.ints.Int2LongOpenHashMap;
 import java.util.HashMap;
 import java.util.Map;
-import lombok.Getter;
 
-@Getter
-public class RecourseRequestsObserver implements LogObserver {
-    private final Map<String, Integer> resourceRequests = new HashMap<>();
+/**
+ * Observer counting requests per referrer. Referrers are counted by their {@link SymbolTable} id and only
+ * turned back into strings when {@link #resourceRequests()} is called. Entries parsed into the same table
+ * carry the id already, so the referrer is not hashed again; other entries are interned on update.
+ */
+public class RecourseRequestsObserver implements MergeableObserver<RecourseRequestsObserver> {
+    private final Int2LongOpenHashMap counts = new Int2LongOpenHashMap();
+    private final SymbolTable symbols;
+
+    /**
+     * Creates an observer counting by the ids interned by the parser of an analysis.
+     *
+     * @param context the analysis the observer is registered with
+     */
+    public RecourseRequestsObserver(AnalysisContext context) {
+        this(context.symbolTable());
+    }
+
+    /**
+     * Creates an observer using the given symbol table.
+     *
+     * @param symbols the table mapping referrers to ids
+     */
+    public RecourseRequestsObserver(SymbolTable symbols) {
+        this.symbols = symbols;
+    }
 
     @Override
     public void update(LogReport log) {
-        resourceRequests.merge(log.referrer(), 1, Integer::sum);
+        counts.addTo(log.hasIdsIn(symbols) ? log.referrerId() : symbols.id(log.referrer()), 1);
+    }
+
+    @Override
+    public void updateBatch(LogBatch batch) {
+        if (batch.symbols() != symbols) {
+            MergeableObserver.super.updateBatch(batch);
+            return;
+        }
+        int[] referrerIds = batch.referrerIds();
+        for (int i = 0; i < batch.size(); i++) {
+            counts.addTo(referrerIds[i], 1);
+        }
+    }
+
+    /**
+     * Returns an empty observer with its own symbol table, so that it can be updated on another thread.
+     *
+     * @return a fresh, empty observer
+     */
+    @Override
+    public RecourseRequestsObserver emptyCopy() {
+        return new RecourseRequestsObserver(new SymbolTable());
+    }
+
+    @Override
+    public void merge(RecourseRequestsObserver other) {
+        for (Int2LongMap.Entry entry : other.counts.int2LongEntrySet()) {
+            int id = other.symbols == symbols ? entry.getIntKey() : symbols.id(other.symbols.symbol(entry.getIntKey()));
+            counts.addTo(id, entry.getLongValue());
+        }
+    }
+
+    /**
+     * Returns the number of requests per referrer.
+     *
+     * @return the request counts keyed by referrer
+     */
+    public Map<String, Long> resourceRequests() {
+        Map<String, Long> resourceRequests = new HashMap<>();
+        for (Int2LongMap.Entry entry : counts.int2LongEntrySet()) {
+            resourceRequests.put(symbols.symbol(entry.getIntKey()), entry.getLongValue());
+        }
+        return resourceRequests;
     }
 }
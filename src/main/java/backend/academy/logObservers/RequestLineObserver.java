@@ -0,0 +1,107 @@
+package backend.academy.logObservers;
+
+import backend.academy.logParseComponents.LogReport;
+import backend.academy.logParseComponents.RequestLine;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Observer counting requests per HTTP method and per protocol version.
+ *
+ * <p>Both fields have a small, known set of values, so they are counted in flat {@code long[]} arrays indexed
+ * by the position of the value in that set. The method and the protocol are matched in place in the request
+ * line, without copying them. Unknown methods and protocols, and lines that are not HTTP requests, are
+ * counted as {@link #OTHER}.</p>
+ */
+public class RequestLineObserver implements MergeableObserver<RequestLineObserver> {
+
+    /**
+     * Key of the requests whose method or protocol is not a known one.
+     */
+    public static final String OTHER = "other";
+
+    /**
+     * Key of the requests without a protocol, as sent by HTTP/0.9 clients and some scanners.
+     */
+    public static final String NO_PROTOCOL = "none";
+
+    private static final String[] METHODS = {
+        "GET", "HEAD", "POST", "PUT", "DELETE", "CONNECT", "OPTIONS", "TRACE", "PATCH"
+    };
+    private static final String[] PROTOCOLS = {"HTTP/1.0", "HTTP/1.1", "HTTP/2.0", "HTTP/3.0", NO_PROTOCOL};
+
+    private final long[] methods = new long[METHODS.length + 1];
+    private final long[] protocols = new long[PROTOCOLS.length + 1];
+
+    @Override
+    public void update(LogReport log) {
+        String request = log.request();
+        RequestLine requestLine = request == null ? null : RequestLine.parse(request);
+        if (requestLine == null) {
+            methods[METHODS.length]++;
+            protocols[PROTOCOLS.length]++;
+            return;
+        }
+
+        methods[indexOf(METHODS, request, 0, requestLine.methodEnd())]++;
+        protocols[requestLine.protocolStart() == request.length()
+            ? PROTOCOLS.length - 1
+            : indexOf(PROTOCOLS, request, requestLine.protocolStart(), request.length())]++;
+    }
+
+    @Override
+    public RequestLineObserver emptyCopy() {
+        return new RequestLineObserver();
+    }
+
+    @Override
+    public void merge(RequestLineObserver other) {
+        for (int i = 0; i < methods.length; i++) {
+            methods[i] += other.methods[i];
+        }
+        for (int i = 0; i < protocols.length; i++) {
+            protocols[i] += other.protocols[i];
+        }
+    }
+
+    /**
+     * Returns the number of requests per HTTP method that occurred at least once.
+     *
+     * @return the request counts keyed by method, e.g. {@code GET}
+     */
+    public Map<String, Long> httpMethods() {
+        return toMap(METHODS, methods);
+    }
+
+    /**
+     * Returns the number of requests per protocol version that occurred at least once.
+     *
+     * @return the request counts keyed by protocol, e.g. {@code HTTP/1.1}
+     */
+    public Map<String, Long> protocols() {
+        return toMap(PROTOCOLS, protocols);
+    }
+
+    /**
+     * Returns the index of the value held in a range of the request line, or the index of {@link #OTHER}.
+     */
+    private static int indexOf(String[] values, String request, int from, int to) {
+        int length = to - from;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i].length() == length && request.regionMatches(from, values[i], 0, length)) {
+                return i;
+            }
+        }
+        return values.length;
+    }
+
+    private static Map<String, Long> toMap(String[] values, long[] counts) {
+        Map<String, Long> map = new LinkedHashMap<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                map.put(i < values.length ? values[i] : OTHER, counts[i]);
+            }
+        }
+        return map;
+    }
+}
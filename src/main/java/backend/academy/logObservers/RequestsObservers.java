@@ -1,16 +1,138 @@
 package backend.academy.logObservers;
 
+import backend.academy.logParseComponents.AnalysisContext;
+import backend.academy.logParseComponents.LogBatch;
 import backend.academy.logParseComponents.LogReport;
+import backend.academy.logParseComponents.PathTemplater;
+import backend.academy.logParseComponents.RequestLine;
+import backend.academy.logParseComponents.SymbolTable;
+import it.unimi.dsi.fastutil.longs.Long2LongLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2LongMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
-import lombok.Getter;
 
-@Getter
-public class RequestsObservers implements LogObserver {
-    private final Map<String, Integer> requests = new LinkedHashMap<>();
+/**
+ * Observer counting requests by method and templated path, e.g. {@code GET /api/users/{id}}.
+ * The query string and the protocol are not part of the key, which keeps the number of distinct
+ * keys close to the number of endpoints rather than the number of distinct URLs.
+ *
+ * <p>The method and the templated path are counted by their {@link SymbolTable} ids, packed into one
+ * {@code long} key. An observer created from an {@link AnalysisContext} uses the ids interned by its parser,
+ * so it hashes nothing per line. Otherwise both are looked up straight from their range of the request line,
+ * without splitting or copying it; only paths with identifiers are templated into a buffer of the observer.
+ * Keys are only turned back into strings when {@link #requests()} is called.</p>
+ */
+public class RequestsObservers implements MergeableObserver<RequestsObservers> {
+    private static final long ID_MASK = 0xFFFF_FFFFL;
+    private static final int NO_METHOD = LogReport.NO_ID;
+
+    private final Long2LongLinkedOpenHashMap counts = new Long2LongLinkedOpenHashMap();
+    private final PathTemplater pathTemplater;
+    private final SymbolTable symbols;
+    private final StringBuilder templatedPath = new StringBuilder();
+
+    // Whether the path ids interned at parse time were templated with the same templater
+    private final boolean parsedPathIds;
+
+    /**
+     * Creates an observer counting by the method and path ids interned by the parser of an analysis, templated
+     * with its {@link AnalysisContext#pathTemplater() path templater}.
+     *
+     * @param context the analysis the observer is registered with
+     */
+    public RequestsObservers(AnalysisContext context) {
+        this(context.pathTemplater(), context.symbolTable(), true);
+    }
+
+    /**
+     * Creates an observer that templates paths with the given templater and counts them by symbol id.
+     *
+     * @param pathTemplater the templater applied to every request path
+     * @param symbols       the table mapping request keys to ids
+     */
+    public RequestsObservers(PathTemplater pathTemplater, SymbolTable symbols) {
+        this(pathTemplater, symbols, false);
+    }
+
+    private RequestsObservers(PathTemplater pathTemplater, SymbolTable symbols, boolean parsedPathIds) {
+        this.pathTemplater = pathTemplater;
+        this.symbols = symbols;
+        this.parsedPathIds = parsedPathIds;
+    }
 
     @Override
     public void update(LogReport log) {
-        requests.merge(log.request(), 1, Integer::sum);
+        long key = parsedPathIds && log.hasIdsIn(symbols)
+            ? pack(log.methodId(), log.pathId())
+            : requestKey(log.request());
+        counts.addTo(key, 1);
+    }
+
+    @Override
+    public void updateBatch(LogBatch batch) {
+        if (!parsedPathIds || batch.symbols() != symbols) {
+            MergeableObserver.super.updateBatch(batch);
+            return;
+        }
+        int[] methodIds = batch.methodIds();
+        int[] pathIds = batch.pathIds();
+        for (int i = 0; i < batch.size(); i++) {
+            counts.addTo(pack(methodIds[i], pathIds[i]), 1);
+        }
+    }
+
+    /**
+     * Returns an empty observer sharing the path templater, with its own symbol table so that it can be
+     * updated on another thread.
+     *
+     * @return a fresh, empty observer
+     */
+    @Override
+    public RequestsObservers emptyCopy() {
+        return new RequestsObservers(pathTemplater, new SymbolTable());
+    }
+
+    @Override
+    public void merge(RequestsObservers other) {
+        for (Long2LongMap.Entry entry : other.counts.long2LongEntrySet()) {
+            long key = entry.getLongKey();
+            if (other.symbols != symbols) {
+                int methodId = (int) (key >> Integer.SIZE);
+                int pathId = symbols.id(other.symbols.symbol((int) (key & ID_MASK)));
+                key = pack(methodId == NO_METHOD ? NO_METHOD : symbols.id(other.symbols.symbol(methodId)), pathId);
+            }
+            counts.addTo(key, entry.getLongValue());
+        }
+    }
+
+    /**
+     * Returns the number of requests per method and templated path, in order of first appearance.
+     *
+     * @return the request counts keyed by method and templated path
+     */
+    public Map<String, Long> requests() {
+        Map<String, Long> requests = new LinkedHashMap<>();
+        for (Long2LongMap.Entry entry : counts.long2LongEntrySet()) {
+            int methodId = (int) (entry.getLongKey() >> Integer.SIZE);
+            String path = symbols.symbol((int) (entry.getLongKey() & ID_MASK));
+            String key = methodId == NO_METHOD ? path : symbols.symbol(methodId) + ' ' + path;
+            requests.put(key, entry.getLongValue());
+        }
+        return requests;
+    }
+
+    private long requestKey(String request) {
+        int methodEnd = RequestLine.methodEnd(request);
+        if (methodEnd < 0) {
+            return pack(NO_METHOD, symbols.id(request)); // Not an HTTP request line, counted as is
+        }
+        int methodId = symbols.id(request, 0, methodEnd);
+        int pathId = pathTemplater.templateId(request, methodEnd + 1, RequestLine.pathEnd(request, methodEnd),
+            symbols, templatedPath);
+        return pack(methodId, pathId);
+    }
+
+    private static long pack(int methodId, int pathId) {
+        return (long) methodId << Integer.SIZE | pathId & ID_MASK;
     }
 }
@@ -1,50 +1,105 @@
 package backend.academy.logObservers;
 
+import backend.academy.logParseComponents.LogBatch;
 import backend.academy.logParseComponents.LogReport;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-import lombok.Getter;
-import lombok.extern.log4j.Log4j2;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
- * Observer to calculate the 95th percentile of response sizes.
+ * Observer reporting percentiles of response sizes.
+ *
+ * <p>Sizes are recorded in a {@link LogBucketHistogram}, so memory is constant and updates are O(1) whatever
+ * the number of lines, and any percentile can be computed at report time within the histogram's relative
+ * error. Observers are merged by adding their histograms.</p>
  */
-@Log4j2
-public class ResponseSizePercentileObserver implements LogObserver {
+public class ResponseSizePercentileObserver implements MergeableObserver<ResponseSizePercentileObserver> {
 
-    private final List<Long> responseSizePercentiles = new ArrayList<>();
+    /**
+     * Default precision of the histogram, for a relative error below 1%.
+     */
+    public static final int DEFAULT_PRECISION_BITS = 8;
 
     private static final double PERCENTILE = 0.95;
+    private static final double PERCENT = 100.0;
+    private static final String[] REPORTED_PERCENTILES = {"p50", "p90", "p95", "p99", "p99.9"};
+    private static final double[] REPORTED_QUANTILES = {0.5, 0.9, 0.95, 0.99, 0.999};
 
-    private boolean isSorted = false;
+    private final LogBucketHistogram responseSizes;
 
-    @Getter
-    private double percentile95 = 0;
+    /**
+     * Creates an observer with the default precision.
+     */
+    public ResponseSizePercentileObserver() {
+        this(DEFAULT_PRECISION_BITS);
+    }
+
+    /**
+     * Creates an observer keeping the given number of significant bits of each response size.
+     *
+     * @param precisionBits the precision of the histogram, see {@link LogBucketHistogram#LogBucketHistogram(int)}
+     * @throws IllegalArgumentException if the precision is out of range
+     */
+    public ResponseSizePercentileObserver(int precisionBits) {
+        this.responseSizes = new LogBucketHistogram(precisionBits);
+    }
 
     @Override
     public void update(LogReport logger) {
-        try {
-            long responseSize = Long.parseLong(logger.responseSize());
-            responseSizePercentiles.add(responseSize);
-            isSorted = false; // Mark the data as unsorted after adding a new entry
-            percentile95 = calculatePercentile95();
-        } catch (NumberFormatException e) {
-            log.error("Invalid response size: {}", logger.responseSize(), e);
-        }
+        responseSizes.record(logger.responseSize());
     }
 
-    private double calculatePercentile95() {
-        if (responseSizePercentiles.isEmpty()) {
-            return 0;
+    @Override
+    public void updateBatch(LogBatch batch) {
+        long[] sizes = batch.responseSizes();
+        for (int i = 0; i < batch.size(); i++) {
+            record(sizes[i]);
         }
+    }
 
-        if (!isSorted) {
-            Collections.sort(responseSizePercentiles);
-            isSorted = true; // Mark the data as sorted
-        }
+    void record(long responseSize) {
+        responseSizes.record(responseSize);
+    }
 
-        int index = (int) Math.ceil(PERCENTILE * responseSizePercentiles.size()) - 1;
-        return responseSizePercentiles.get(index);
+    @Override
+    public ResponseSizePercentileObserver emptyCopy() {
+        return new ResponseSizePercentileObserver(responseSizes.precisionBits());
+    }
+
+    @Override
+    public void merge(ResponseSizePercentileObserver other) {
+        responseSizes.merge(other.responseSizes);
+    }
+
+    /**
+     * Returns the 95th percentile of the observed response sizes.
+     *
+     * @return the 95th percentile of response sizes, or 0 if no logs were observed
+     */
+    public double percentile95() {
+        return responseSizes.valueAtQuantile(PERCENTILE);
+    }
+
+    /**
+     * Returns an arbitrary percentile of the observed response sizes.
+     *
+     * @param percentile the percentile, from 0 to 100, e.g. 99.9
+     * @return the response size at the percentile, or 0 if no logs were observed
+     * @throws IllegalArgumentException if the percentile is out of range
+     */
+    public long percentile(double percentile) {
+        return responseSizes.valueAtQuantile(percentile / PERCENT);
+    }
+
+    /**
+     * Returns the usual percentiles of the observed response sizes, from the median to the 99.9th percentile.
+     *
+     * @return the response sizes keyed by percentile name, e.g. {@code p99}
+     */
+    public Map<String, Long> responseSizePercentiles() {
+        Map<String, Long> percentiles = new LinkedHashMap<>();
+        for (int i = 0; i < REPORTED_PERCENTILES.length; i++) {
+            percentiles.put(REPORTED_PERCENTILES[i], responseSizes.valueAtQuantile(REPORTED_QUANTILES[i]));
+        }
+        return percentiles;
     }
 }
@@ -0,0 +1,137 @@
+package backend.academy.logObservers;
+
+import backend.academy.logParseComponents.LogBatch;
+import backend.academy.logParseComponents.LogReport;
+import backend.academy.logParseComponents.MalformedReason;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread-safe wrapper sharing any {@link MergeableObserver} between several ingestion threads without a global
+ * lock, e.g. around {@link UniqueUsersObserver} or {@link UserAgentObserver}, whose primitive maps cannot be
+ * updated concurrently.
+ *
+ * <p>The wrapper holds a power-of-two number of stripes, each an {@link MergeableObserver#emptyCopy() empty
+ * copy} of the prototype guarded by its own lock. A thread starts at the stripe selected by the hash of its id
+ * and, like the cells of a {@code LongAdder}, moves on to the next stripe whenever the current one is held by
+ * another thread, so threads rarely wait for each other. The stripes are merged into a {@link #snapshot()}
+ * when the result is read.</p>
+ *
+ * <p>Entries of different threads are observed in no particular order, so observers reporting entries in
+ * order of first appearance may report them in a different order than a sequential run.</p>
+ *
+ * @param <T> the type of the observer
+ */
+public class StripedObserver<T extends MergeableObserver<T>> implements LogObserver {
+    private final T prototype;
+    private final List<T> stripes;
+    private final ReentrantLock[] locks;
+
+    /**
+     * Creates a wrapper with one stripe per available processor, rounded up to a power of two.
+     *
+     * @param prototype the observer whose empty copies are the stripes; it is not modified
+     */
+    public StripedObserver(T prototype) {
+        this(prototype, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a wrapper with the given number of stripes, rounded up to a power of two.
+     *
+     * @param prototype the observer whose empty copies are the stripes; it is not modified
+     * @param stripes   the minimum number of stripes, usually the number of ingestion threads
+     * @throws IllegalArgumentException if the number of stripes is not positive
+     */
+    public StripedObserver(T prototype, int stripes) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("Number of stripes must be positive: " + stripes);
+        }
+        int stripeCount = stripes == 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.prototype = prototype;
+        this.stripes = new ArrayList<>(stripeCount);
+        this.locks = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            this.stripes.add(prototype.emptyCopy());
+            this.locks[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public void update(LogReport log) {
+        int stripe = lockStripe();
+        try {
+            stripes.get(stripe).update(log);
+        } finally {
+            locks[stripe].unlock();
+        }
+    }
+
+    @Override
+    public void updateBatch(LogBatch batch) {
+        int stripe = lockStripe();
+        try {
+            stripes.get(stripe).updateBatch(batch);
+        } finally {
+            locks[stripe].unlock();
+        }
+    }
+
+    @Override
+    public void updateMalformed(MalformedReason reason) {
+        int stripe = lockStripe();
+        try {
+            stripes.get(stripe).updateMalformed(reason);
+        } finally {
+            locks[stripe].unlock();
+        }
+    }
+
+    /**
+     * Returns the number of stripes.
+     *
+     * @return a power of two
+     */
+    public int stripeCount() {
+        return locks.length;
+    }
+
+    /**
+     * Merges the stripes into a new observer. Each stripe is locked while it is merged, so the snapshot
+     * includes every update completed before the call and possibly some concurrent ones.
+     *
+     * @return a new observer holding the result of every stripe
+     */
+    public T snapshot() {
+        T snapshot = prototype.emptyCopy();
+        for (int i = 0; i < locks.length; i++) {
+            locks[i].lock();
+            try {
+                snapshot.merge(stripes.get(i));
+            } finally {
+                locks[i].unlock();
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Locks a stripe for the current thread: the first free stripe from the thread's home stripe on,
+     * or the home stripe, waiting for it, if all of them are held.
+     *
+     * @return the index of the locked stripe
+     */
+    private int lockStripe() {
+        int mask = locks.length - 1;
+        int home = (int) Hashes.mix(Thread.currentThread().threadId()) & mask;
+        for (int i = 0; i <= mask; i++) {
+            int stripe = (home + i) & mask;
+            if (locks[stripe].tryLock()) {
+                return stripe;
+            }
+        }
+        locks[home].lock();
+        return home;
+    }
+}
@@ -1,15 +1,40 @@
 package backend.academy.logObservers;
 
+import backend.academy.logParseComponents.LogBatch;
 import backend.academy.logParseComponents.LogReport;
 import lombok.Getter;
 
 @Getter
-public class TotalRequestObserver implements LogObserver {
+public class TotalRequestObserver implements MergeableObserver<TotalRequestObserver> {
     private long totalRequests = 0;
 
     @Override
     public void update(LogReport log) {
         totalRequests++;
     }
+
+    @Override
+    public void updateBatch(LogBatch batch) {
+        addRequests(batch.size());
+    }
+
+    /**
+     * Counts requests observed elsewhere, e.g. by a fused observer.
+     *
+     * @param requests the number of requests
+     */
+    void addRequests(long requests) {
+        totalRequests += requests;
+    }
+
+    @Override
+    public TotalRequestObserver emptyCopy() {
+        return new TotalRequestObserver();
+    }
+
+    @Override
+    public void merge(TotalRequestObserver other) {
+        totalRequests += other.totalRequests;
+    }
 }
 
@@ -0,0 +1,214 @@
+package backend.academy.logObservers;
+
+import backend.academy.logParseComponents.LogBatch;
+import backend.academy.logParseComponents.LogReport;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Observer recording traffic over time: requests, bytes, and 4xx and 5xx responses per time bucket,
+ * e.g. per minute or per second.
+ *
+ * <p>Buckets are kept in primitive ring arrays indexed by {@code epochBucket % buckets}, with one array per
+ * measure and one holding the epoch bucket each slot currently stands for, so there is no object per bucket
+ * and an update is a division and four array increments. The ring holds the latest {@code buckets} buckets:
+ * a request newer than the window evicts the oldest bucket of its slot, and requests that fall before the
+ * window, as well as evicted ones, are only counted in {@link #requestsOutsideWindow()}.</p>
+ */
+public class TrafficSeriesObserver implements MergeableObserver<TrafficSeriesObserver> {
+
+    /**
+     * Default width of a bucket: one minute.
+     */
+    public static final int DEFAULT_BUCKET_SECONDS = 60;
+
+    /**
+     * Default number of buckets: one day of minutes.
+     */
+    public static final int DEFAULT_BUCKETS = 24 * 60;
+
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final int CLIENT_ERROR_CLASS = 4;
+    private static final int SERVER_ERROR_CLASS = 5;
+    private static final int STATUS_CLASS_DIVISOR = 100;
+
+    private final int bucketSeconds;
+    private final long[] bucketIds;
+    private final long[] requests;
+    private final long[] bytes;
+    private final long[] clientErrors;
+    private final long[] serverErrors;
+    private long untimedRequests;
+    private long requestsOutsideWindow;
+
+    /**
+     * Creates an observer with one-minute buckets over one day.
+     */
+    public TrafficSeriesObserver() {
+        this(DEFAULT_BUCKET_SECONDS, DEFAULT_BUCKETS);
+    }
+
+    /**
+     * Creates an observer with the given bucket width and number of buckets.
+     *
+     * @param bucketSeconds the width of a bucket in seconds, e.g. 1 or 60
+     * @param buckets       the number of buckets kept, i.e. the length of the window in buckets
+     * @throws IllegalArgumentException if the width or the number of buckets is not positive
+     */
+    public TrafficSeriesObserver(int bucketSeconds, int buckets) {
+        if (bucketSeconds <= 0 || buckets <= 0) {
+            throw new IllegalArgumentException("Bucket width and number of buckets must be positive: "
+                + bucketSeconds + ", " + buckets);
+        }
+        this.bucketSeconds = bucketSeconds;
+        this.bucketIds = new long[buckets];
+        Arrays.fill(bucketIds, EMPTY);
+        this.requests = new long[buckets];
+        this.bytes = new long[buckets];
+        this.clientErrors = new long[buckets];
+        this.serverErrors = new long[buckets];
+    }
+
+    @Override
+    public void update(LogReport log) {
+        record(log.epochSecond(), log.httpStatusCode(), log.responseSize());
+    }
+
+    @Override
+    public void updateBatch(LogBatch batch) {
+        long[] epochSeconds = batch.epochSeconds();
+        int[] statusCodes = batch.statusCodes();
+        long[] sizes = batch.responseSizes();
+        for (int i = 0; i < batch.size(); i++) {
+            record(epochSeconds[i], statusCodes[i], sizes[i]);
+        }
+    }
+
+    @Override
+    public TrafficSeriesObserver emptyCopy() {
+        return new TrafficSeriesObserver(bucketSeconds, bucketIds.length);
+    }
+
+    /**
+     * Adds the buckets of another observer to this one. The other observer is not modified.
+     *
+     * @param other an observer with the same bucket width and number of buckets
+     * @throws IllegalArgumentException if the bucket widths or the numbers of buckets differ
+     */
+    @Override
+    public void merge(TrafficSeriesObserver other) {
+        if (other.bucketSeconds != bucketSeconds || other.bucketIds.length != bucketIds.length) {
+            throw new IllegalArgumentException("Cannot merge series with different buckets");
+        }
+        untimedRequests += other.untimedRequests;
+        requestsOutsideWindow += other.requestsOutsideWindow;
+        for (int otherSlot = 0; otherSlot < other.bucketIds.length; otherSlot++) {
+            if (other.bucketIds[otherSlot] == EMPTY) {
+                continue;
+            }
+            int slot = slotFor(other.bucketIds[otherSlot], other.requests[otherSlot]);
+            if (slot >= 0) {
+                requests[slot] += other.requests[otherSlot];
+                bytes[slot] += other.bytes[otherSlot];
+                clientErrors[slot] += other.clientErrors[otherSlot];
+                serverErrors[slot] += other.serverErrors[otherSlot];
+            }
+        }
+    }
+
+    /**
+     * Returns the traffic of every non-empty bucket of the window, in chronological order.
+     *
+     * @return the {@code requests}, {@code bytes}, {@code 4xx} and {@code 5xx} counts, keyed by the UTC start
+     *     time of the bucket, e.g. {@code 2015-05-17T14:05:00Z}
+     */
+    public Map<String, Map<String, Long>> traffic() {
+        int[] slots = new int[bucketIds.length];
+        int used = 0;
+        for (int slot = 0; slot < bucketIds.length; slot++) {
+            if (bucketIds[slot] != EMPTY) {
+                slots[used++] = slot;
+            }
+        }
+        IntArrays.quickSort(slots, 0, used, (left, right) -> Long.compare(bucketIds[left], bucketIds[right]));
+
+        Map<String, Map<String, Long>> traffic = new LinkedHashMap<>();
+        for (int i = 0; i < used; i++) {
+            int slot = slots[i];
+            Map<String, Long> row = new LinkedHashMap<>();
+            row.put("requests", requests[slot]);
+            row.put("bytes", bytes[slot]);
+            row.put("4xx", clientErrors[slot]);
+            row.put("5xx", serverErrors[slot]);
+            traffic.put(Instant.ofEpochSecond(bucketIds[slot] * bucketSeconds).toString(), row);
+        }
+        return traffic;
+    }
+
+    /**
+     * Returns the number of requests without a timestamp, which are not part of the series.
+     *
+     * @return the number of untimed requests
+     */
+    public long untimedRequests() {
+        return untimedRequests;
+    }
+
+    /**
+     * Returns the number of requests older than the window of the series, which are not part of it.
+     *
+     * @return the number of requests outside the window
+     */
+    public long requestsOutsideWindow() {
+        return requestsOutsideWindow;
+    }
+
+    void record(long epochSecond, int statusCode, long size) {
+        if (epochSecond == LogReport.NO_TIMESTAMP) {
+            untimedRequests++;
+            return;
+        }
+
+        int slot = slotFor(Math.floorDiv(epochSecond, bucketSeconds), 1);
+        if (slot < 0) {
+            return;
+        }
+        requests[slot]++;
+        bytes[slot] += size;
+        int statusClass = statusCode / STATUS_CLASS_DIVISOR;
+        if (statusClass == CLIENT_ERROR_CLASS) {
+            clientErrors[slot]++;
+        } else if (statusClass == SERVER_ERROR_CLASS) {
+            serverErrors[slot]++;
+        }
+    }
+
+    /**
+     * Returns the slot holding an epoch bucket, evicting the older bucket held by the slot if needed.
+     *
+     * @param bucketId the epoch bucket
+     * @param count    the number of requests to account for if the bucket is older than the window
+     * @return the slot, or -1 if the bucket is older than the one held by its slot
+     */
+    private int slotFor(long bucketId, long count) {
+        int slot = Math.floorMod(bucketId, bucketIds.length);
+        if (bucketIds[slot] == bucketId) {
+            return slot;
+        }
+        if (bucketIds[slot] != EMPTY && bucketIds[slot] > bucketId) {
+            requestsOutsideWindow += count;
+            return -1;
+        }
+
+        requestsOutsideWindow += requests[slot];
+        bucketIds[slot] = bucketId;
+        requests[slot] = 0;
+        bytes[slot] = 0;
+        clientErrors[slot] = 0;
+        serverErrors[slot] = 0;
+        return slot;
+    }
+}
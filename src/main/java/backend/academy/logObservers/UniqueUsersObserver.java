@@ -1,27 +1,159 @@
 package backend.academy.logObservers;
 
+import backend.academy.logParseComponents.IpAddresses;
+import backend.academy.logParseComponents.LogBatch;
 import backend.academy.logParseComponents.LogReport;
+import it.unimi.dsi.fastutil.ints.Int2LongMap;
+import it.unimi.dsi.fastutil.ints.Int2LongOpenHashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
-import lombok.Getter;
+import java.util.PriorityQueue;
 
-@Getter
-public class UniqueUsersObserver implements LogObserver {
-    private Map<String, Integer> users = new LinkedHashMap<>();
+/**
+ * Observer counting requests per client IP address and reporting the most active clients.
+ *
+ * <p>Addresses are kept in their packed form: IPv4 addresses as {@code int} keys of an open-addressing map,
+ * IPv6 addresses as two {@code long}s in an {@link AddressTable}, with their counts in an array indexed by the
+ * ids of the table, so nothing is allocated per client. Counting is exact and O(1) per request,
+ * and no strings are created per request. Only when {@link #users()} is called are the top K clients selected
+ * with a bounded min-heap, in O(n log K), and only those K are formatted and sorted. Entries without a client
+ * address are not counted.</p>
+ */
+public class UniqueUsersObserver implements MergeableObserver<UniqueUsersObserver> {
+
+    /**
+     * Default number of clients in the report.
+     */
+    public static final int DEFAULT_TOP_USERS = 100;
+
+    private static final long IPV4_MASK = 0xFFFF_FFFFL;
+    private static final int INITIAL_IPV6_CAPACITY = 16;
+    private static final Comparator<Candidate> BY_COUNT = Comparator.comparingLong(Candidate::count);
+
+    private final Int2LongOpenHashMap ipv4Users = new Int2LongOpenHashMap();
+    private final AddressTable ipv6Users = new AddressTable();
+    private long[] ipv6Counts = new long[INITIAL_IPV6_CAPACITY];
+    private final int topUsers;
+
+    /**
+     * Creates an observer reporting the {@link #DEFAULT_TOP_USERS} most active clients.
+     */
+    public UniqueUsersObserver() {
+        this(DEFAULT_TOP_USERS);
+    }
+
+    /**
+     * Creates an observer reporting the given number of most active clients.
+     *
+     * @param topUsers the number of clients in the report
+     * @throws IllegalArgumentException if the number is not positive
+     */
+    public UniqueUsersObserver(int topUsers) {
+        if (topUsers <= 0) {
+            throw new IllegalArgumentException("Number of top users must be positive: " + topUsers);
+        }
+        this.topUsers = topUsers;
+    }
 
     @Override
     public void update(LogReport log) {
-        users.merge(log.ipAddress(), 1, Integer::sum);
-
-        users = users.entrySet()
-            .stream()
-            .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
-            .collect(Collectors.toMap(
-                Map.Entry::getKey,
-                Map.Entry::getValue,
-                (e1, e2) -> e1,
-                LinkedHashMap::new
-            ));
+        if (log.hasAddress()) {
+            count(log.ipHigh(), log.ipLow());
+        }
+    }
+
+    @Override
+    public void updateBatch(LogBatch batch) {
+        long[] highs = batch.ipHighs();
+        long[] lows = batch.ipLows();
+        boolean[] hasAddresses = batch.hasAddresses();
+        for (int i = 0; i < batch.size(); i++) {
+            if (hasAddresses[i]) {
+                count(highs[i], lows[i]);
+            }
+        }
+    }
+
+    void count(long high, long low) {
+        if (IpAddresses.isIpv4(high, low)) {
+            ipv4Users.addTo((int) low, 1);
+        } else {
+            countIpv6(ipv6Users.add(high, low), 1);
+        }
+    }
+
+    private void countIpv6(int id, long count) {
+        if (id == ipv6Counts.length) {
+            ipv6Counts = Arrays.copyOf(ipv6Counts, 2 * id); // Ids are dense, the array grows with the table
+        }
+        ipv6Counts[id] += count;
+    }
+
+    @Override
+    public UniqueUsersObserver emptyCopy() {
+        return new UniqueUsersObserver(topUsers);
+    }
+
+    @Override
+    public void merge(UniqueUsersObserver other) {
+        for (Int2LongMap.Entry entry : other.ipv4Users.int2LongEntrySet()) {
+            ipv4Users.addTo(entry.getIntKey(), entry.getLongValue());
+        }
+        for (int id = 0; id < other.ipv6Users.size(); id++) {
+            countIpv6(ipv6Users.add(other.ipv6Users.high(id), other.ipv6Users.low(id)), other.ipv6Counts[id]);
+        }
+    }
+
+    /**
+     * Returns the number of distinct client addresses.
+     *
+     * @return the number of distinct IPv4 and IPv6 addresses
+     */
+    public long uniqueUsers() {
+        return (long) ipv4Users.size() + ipv6Users.size();
+    }
+
+    /**
+     * Returns the number of requests of the most active clients, the most active first.
+     *
+     * @return the request counts of at most K clients, keyed by textual IP address
+     */
+    public Map<String, Long> users() {
+        // Min-heap of the K largest counts seen so far; its head is the count to beat
+        PriorityQueue<Candidate> top = new PriorityQueue<>(topUsers + 1, BY_COUNT);
+        for (Int2LongMap.Entry entry : ipv4Users.int2LongEntrySet()) {
+            offer(top, entry.getLongValue(), 0, IpAddresses.IPV4_MAPPED_PREFIX | entry.getIntKey() & IPV4_MASK);
+        }
+        for (int id = 0; id < ipv6Users.size(); id++) {
+            offer(top, ipv6Counts[id], ipv6Users.high(id), ipv6Users.low(id));
+        }
+
+        List<Candidate> candidates = new ArrayList<>(top);
+        candidates.sort(BY_COUNT.reversed());
+        Map<String, Long> users = new LinkedHashMap<>();
+        for (Candidate candidate : candidates) {
+            users.put(IpAddresses.format(candidate.high(), candidate.low()), candidate.count());
+        }
+        return users;
+    }
+
+    private void offer(PriorityQueue<Candidate> top, long count, long high, long low) {
+        if (top.size() == topUsers) {
+            if (count <= top.peek().count()) {
+                return; // Not among the top K, nothing is allocated
+            }
+            top.poll();
+        }
+        top.add(new Candidate(count, high, low));
+    }
+
+    /**
+     * A client address and its request count, while selecting the top clients.
+     */
+    private record Candidate(long count, long high, long low) {
     }
 }
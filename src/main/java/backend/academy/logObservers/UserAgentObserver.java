@@ -0,0 +1,126 @@
+package backend.academy.logObservers;
+
+import backend.academy.logParseComponents.LogReport;
+import backend.academy.logParseComponents.UserAgent;
+import backend.academy.logParseComponents.UserAgentClassifier;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import it.unimi.dsi.fastutil.objects.Object2LongLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.Getter;
+
+/**
+ * Observer counting requests by browser family, operating system and bot/non-bot.
+ *
+ * <p>Each distinct user agent is classified once per run: classifications are kept in a bounded Caffeine
+ * cache keyed by the raw user agent string, and the cache hit and miss counts are part of the report.</p>
+ */
+public class UserAgentObserver implements MergeableObserver<UserAgentObserver> {
+
+    /**
+     * Default maximum number of cached user agents.
+     */
+    public static final long DEFAULT_CACHE_SIZE = 10_000;
+
+    private final Cache<String, UserAgent> classifications;
+
+    private final Object2LongLinkedOpenHashMap<String> browserFamilies = new Object2LongLinkedOpenHashMap<>();
+    private final Object2LongLinkedOpenHashMap<String> operatingSystems = new Object2LongLinkedOpenHashMap<>();
+    @Getter
+    private long botRequests = 0;
+
+    /**
+     * Creates an observer with the default cache size.
+     */
+    public UserAgentObserver() {
+        this(DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Creates an observer caching at most the given number of classified user agents.
+     *
+     * @param cacheSize the maximum number of cached user agents
+     */
+    public UserAgentObserver(long cacheSize) {
+        this(Caffeine.newBuilder()
+            .maximumSize(cacheSize)
+            .recordStats()
+            .build());
+    }
+
+    private UserAgentObserver(Cache<String, UserAgent> classifications) {
+        this.classifications = classifications;
+    }
+
+    @Override
+    public void update(LogReport log) {
+        String rawUserAgent = log.userAgent() == null ? "-" : log.userAgent();
+        UserAgent userAgent = classifications.get(rawUserAgent, UserAgentClassifier::classify);
+
+        browserFamilies.addTo(userAgent.browserFamily(), 1);
+        operatingSystems.addTo(userAgent.os(), 1);
+        if (userAgent.isBot()) {
+            botRequests++;
+        }
+    }
+
+    /**
+     * Returns an empty observer sharing the classification cache, which is thread-safe, so that each user agent
+     * is still classified once per run. The cache hit and miss counts are those of the shared cache.
+     *
+     * @return a fresh, empty observer
+     */
+    @Override
+    public UserAgentObserver emptyCopy() {
+        return new UserAgentObserver(classifications);
+    }
+
+    @Override
+    public void merge(UserAgentObserver other) {
+        for (Object2LongMap.Entry<String> entry : other.browserFamilies.object2LongEntrySet()) {
+            browserFamilies.addTo(entry.getKey(), entry.getLongValue());
+        }
+        for (Object2LongMap.Entry<String> entry : other.operatingSystems.object2LongEntrySet()) {
+            operatingSystems.addTo(entry.getKey(), entry.getLongValue());
+        }
+        botRequests += other.botRequests;
+    }
+
+    /**
+     * Returns the number of requests per browser family, in order of first occurrence.
+     *
+     * @return a copy of the request counts keyed by browser family
+     */
+    public Map<String, Long> browserFamilies() {
+        return new LinkedHashMap<>(browserFamilies);
+    }
+
+    /**
+     * Returns the number of requests per operating system, in order of first occurrence.
+     *
+     * @return a copy of the request counts keyed by operating system
+     */
+    public Map<String, Long> operatingSystems() {
+        return new LinkedHashMap<>(operatingSystems);
+    }
+
+    /**
+     * Returns the number of requests whose user agent was already classified.
+     *
+     * @return the cache hit count
+     */
+    public long userAgentCacheHits() {
+        return classifications.stats().hitCount();
+    }
+
+    /**
+     * Returns the number of requests whose user agent had to be classified.
+     *
+     * @return the cache miss count
+     */
+    public long userAgentCacheMisses() {
+        return classifications.stats().missCount();
+    }
+}
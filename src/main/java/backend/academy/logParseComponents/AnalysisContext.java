@@ -0,0 +1,452 @@
+package backend.academy.logParseComponents;
+
+import backend.academy.exceptions.LogParseException;
+import backend.academy.logObservers.LogObserver;
+import backend.academy.logObservers.ObserverFusion;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * One log analysis: its parser configuration, its observers and the symbol table shared by both.
+ *
+ * <p>Every analysis gets its own context, so several analyses can run in one JVM, one after the other or
+ * concurrently, without seeing each other's observers or configuration. Observers are kept in a
+ * copy-on-write array: registering one never blocks a running analysis, which keeps iterating over the array
+ * it started with.</p>
+ *
+ * <p>A context parses on one thread at a time, as its {@link SymbolTable} is not thread-safe. The parsers are
+ * stateless: the context passes its {@link FieldInterner} with each line, so the repeated fields are interned
+ * into its own table once, at parse time, and the observers of the context count them by id.</p>
+ */
+@Log4j2
+public class AnalysisContext {
+
+    private final List<LogObserver> observers = new CopyOnWriteArrayList<>();
+
+    /**
+     * Canonical instances and ids of repeated field values, shared by the parsers and the observers of this
+     * context.
+     */
+    private final SymbolTable symbolTable = new SymbolTable();
+
+    /**
+     * Interns the repeated fields of each parsed line into the symbol table, templating the request paths.
+     */
+    private volatile FieldInterner fieldInterner = new FieldInterner(symbolTable, new PathTemplater(List.of()));
+
+    /**
+     * The active parser behind the line length guard, as returned by {@link #lineParser()}.
+     */
+    private final LogLineParser guardedParser = this::parseGuarded;
+
+    /**
+     * The malformed line reporting of this context, as returned by {@link #malformedLineHandler()}.
+     */
+    private final MalformedLineHandler malformedLineHandler = this::reportMalformed;
+
+    /**
+     * Parser used for every log line. Defaults to the regex parser of {@link LogParser};
+     * replaced by a generated parser when a custom {@code log_format} is configured.
+     */
+    private volatile LogLineParser lineParser = LogParser::getLogReport;
+
+    // Whether the parser was configured explicitly, in which case format detection is skipped
+    private volatile boolean explicitLogFormat = false;
+
+    // Lines longer than this are rejected without being parsed
+    private volatile int maxLineLength = LogParser.DEFAULT_MAX_LINE_LENGTH;
+
+    // Finds the line terminators of the loaded logs, and the field terminators of generated parsers
+    private volatile DelimiterScanner delimiterScanner = DelimiterScanners.defaultScanner();
+
+    // Whether parseLines updates the observers through a generated fused observer
+    private volatile boolean fusedObservers = false;
+
+    // Measures the cost of each observer, if profiling is enabled
+    private volatile ObserverProfiler profiler = null;
+
+    /**
+     * Logs a sample of malformed lines and optionally writes them to a quarantine file.
+     */
+    private volatile MalformedLineReporter malformedLineReporter = new MalformedLineReporter();
+
+    /**
+     * Registers an observer to be notified of each log entry parsed by this context.
+     * Registration does not block analyses that are running; they notify the observers registered when they
+     * started.
+     *
+     * @param observer the {@link LogObserver} to add
+     */
+    public void addObserver(LogObserver observer) {
+        observers.add(observer);
+        log.info("Added observer: {}", observer.getClass().getSimpleName());
+    }
+
+    /**
+     * Returns a copy of the registered observers list.
+     *
+     * @return a new list of the {@link LogObserver} instances registered with this context
+     */
+    public List<LogObserver> observers() {
+        return List.copyOf(observers);
+    }
+
+    /**
+     * Configures the parser to use lines written with the given nginx {@code log_format} directive.
+     * Passing {@code null} or a blank directive restores the default {@code LOG_PATTERN} parser, and
+     * passing {@code json} selects the JSON-lines parser for logs written with {@code escape=json}.
+     *
+     * @param logFormat the nginx {@code log_format} directive, e.g.
+     *                  <code>$remote_addr - $remote_user [$time_local] "$request" $status $body_bytes_sent</code>
+     * @throws IllegalArgumentException if the directive cannot be compiled
+     */
+    public void useLogFormat(String logFormat) {
+        if (logFormat == null || logFormat.isBlank()) {
+            lineParser = LogParser::getLogReport;
+            explicitLogFormat = false;
+            return;
+        }
+        lineParser = withFieldScanner(LogParser.JSON_LOG_FORMAT.equalsIgnoreCase(logFormat)
+            ? JsonLogLineParser.instance()
+            : LogFormatCompiler.compile(logFormat));
+        explicitLogFormat = true;
+        log.info("Using log format: {}", logFormat);
+    }
+
+    /**
+     * Selects the specialized parser for a log source by sniffing its first lines with {@link LogFormatDetector}.
+     * Does nothing if a format was configured explicitly with {@link #useLogFormat(String)}. If no known format
+     * matches, the default {@code LOG_PATTERN} parser is used.
+     *
+     * @param logLines the lines of the log source
+     */
+    public void detectLogFormat(List<String> logLines) {
+        if (!explicitLogFormat) {
+            lineParser = withFieldScanner(LogFormatDetector.parserFor(logLines, LogParser::getLogReport));
+        }
+    }
+
+    /**
+     * Templates the request paths with the given templates before they are interned, so that the path ids of
+     * the parsed entries count endpoints rather than distinct URLs. Observers created from this context capture
+     * the templater, so the templates must be set before the observers are created.
+     *
+     * @param pathTemplates the path templates, e.g. {@code /api/users/{id}}; may be empty
+     * @throws IllegalArgumentException if a template does not start with {@code /}
+     */
+    public void usePathTemplates(List<String> pathTemplates) {
+        fieldInterner = new FieldInterner(symbolTable, new PathTemplater(pathTemplates));
+    }
+
+    /**
+     * Returns the templater applied to the request paths before they are interned.
+     *
+     * @return the {@link PathTemplater} of the path ids
+     */
+    public PathTemplater pathTemplater() {
+        return fieldInterner.pathTemplater();
+    }
+
+    /**
+     * Returns the interner of the repeated fields of this analysis, into its symbol table.
+     *
+     * @return the {@link FieldInterner} passed with each line parsed for the observers
+     */
+    public FieldInterner fieldInterner() {
+        return fieldInterner;
+    }
+
+    /**
+     * Sets the maximum length of a log line. Longer lines are rejected as {@link MalformedReason#LINE_TOO_LONG}
+     * before any parsing, which bounds the cost of a single hostile line.
+     *
+     * @param maxLength the maximum number of characters in a line
+     * @throws IllegalArgumentException if the length is not positive
+     */
+    public void maxLineLength(int maxLength) {
+        if (maxLength <= 0) {
+            throw new IllegalArgumentException("Maximum line length must be positive: " + maxLength);
+        }
+        maxLineLength = maxLength;
+    }
+
+    /**
+     * Returns the maximum length of a log line.
+     *
+     * @return the maximum number of characters in a line
+     */
+    public int maxLineLength() {
+        return maxLineLength;
+    }
+
+    /**
+     * Enables or disables the Vector API backend for splitting the logs of this analysis into lines, and the lines
+     * into fields when they are read by a parser generated from a {@code log_format} directive. The default is set
+     * at startup by the {@value DelimiterScanners#SIMD_PROPERTY} system property.
+     *
+     * @param enabled whether to use the Vector API backend
+     * @return {@code true} if the Vector API backend is used afterwards, which requires the Vector API module
+     */
+    public boolean useVectorScanning(boolean enabled) {
+        delimiterScanner = enabled ? DelimiterScanners.vectorOrScalar() : DelimiterScanners.scalar();
+        lineParser = withFieldScanner(lineParser);
+        return delimiterScanner != DelimiterScanners.scalar();
+    }
+
+    /**
+     * Returns the backend splitting the logs of this analysis into lines, and the fields of generated parsers.
+     *
+     * @return the {@link DelimiterScanner} of this context
+     */
+    public DelimiterScanner delimiterScanner() {
+        return delimiterScanner;
+    }
+
+    /**
+     * Selects how {@link #parseLines(List)} updates the registered observers: one call per observer and batch,
+     * or one call per batch to an observer generated by {@link ObserverFusion}, which updates all the numeric
+     * observers in a single loop. Failures stay isolated either way: a fused observer that fails on an entry
+     * only misses that entry, and an observer that fails on a batch does not keep the others from seeing it.
+     *
+     * @param fused whether to fuse the observers
+     */
+    public void fuseObservers(boolean fused) {
+        fusedObservers = fused;
+    }
+
+    /**
+     * Enables or disables the measurement of the CPU time, allocations and retained memory of each observer,
+     * reported by {@link #profiler()}. Profiling slows parsing down and reports each observer separately, so
+     * observers are not fused while it is enabled. Enabling it again starts a new profile.
+     *
+     * @param enabled whether to profile the observers
+     */
+    public void profileObservers(boolean enabled) {
+        profiler = enabled ? new ObserverProfiler() : null;
+    }
+
+    /**
+     * Returns the profile of the observers, if profiling is enabled.
+     *
+     * @return the {@link ObserverProfiler} of this context, or an empty {@link Optional}
+     */
+    public Optional<ObserverProfiler> profiler() {
+        return Optional.ofNullable(profiler);
+    }
+
+    /**
+     * Returns the parser currently used for log lines, guarded by the maximum line length.
+     * Like any {@link LogLineParser}, it interns the repeated fields only into the interner passed with the
+     * line, e.g. {@link #fieldInterner()}: filters parse without one, so that the fields of the lines they drop
+     * do not grow the symbol table, and only the lines passed on to the observers are interned.
+     *
+     * @return the active {@link LogLineParser}
+     */
+    public LogLineParser lineParser() {
+        return guardedParser;
+    }
+
+    /**
+     * Returns the handler reporting malformed lines in this analysis: logged in samples, written to the
+     * quarantine file, if one is configured, and counted by the observers. It is meant for code that reads the
+     * lines before they are parsed with {@link #parseLines(List)}, e.g. filters, so that the lines it drops are
+     * still counted.
+     *
+     * @return the {@link MalformedLineHandler} of this context
+     */
+    public MalformedLineHandler malformedLineHandler() {
+        return malformedLineHandler;
+    }
+
+    /**
+     * Returns the symbol table holding the methods, templated paths, referrers and user agents seen so far.
+     *
+     * @return the {@link SymbolTable} of this context
+     */
+    public SymbolTable symbolTable() {
+        return symbolTable;
+    }
+
+    /**
+     * Writes every malformed line to the given quarantine file from now on, in addition to sampled logging.
+     * Passing {@code null} disables the quarantine file. The previous quarantine file, if any, is closed.
+     *
+     * @param quarantineFile the path of the quarantine file, or {@code null}
+     * @throws IOException if the quarantine file cannot be opened
+     */
+    public void quarantineMalformedLines(String quarantineFile) throws IOException {
+        MalformedLineReporter previous = malformedLineReporter;
+        malformedLineReporter = quarantineFile == null
+            ? new MalformedLineReporter()
+            : new MalformedLineReporter(Paths.get(quarantineFile));
+        previous.close();
+    }
+
+    /**
+     * Flushes and closes the quarantine file, if one is configured.
+     *
+     * @throws IOException if the quarantine file cannot be closed
+     */
+    public void closeQuarantine() throws IOException {
+        quarantineMalformedLines(null);
+    }
+
+    /**
+     * Parses a single log line with the active {@link LogLineParser} and notifies observers
+     * with the parsed log data.
+     *
+     * <p>Intended for single lines that are expected to be valid. Bulk processing should use
+     * {@link #parseLines(List)}, which does not throw on malformed lines.</p>
+     *
+     * @param logLine the log line to parse; expected format:
+     *                <code>[IP_ADDRESS] - - [TIMESTAMP] "REQUEST" STATUS_CODE SIZE "REFERRER" "USER_AGENT"</code>
+     * @return a {@link LogReport} object containing parsed log data
+     * @throws LogParseException if the log line is null, empty, or does not match the expected format
+     */
+    public LogReport parseLog(String logLine) {
+        LogReport logReport = parseGuarded(logLine, fieldInterner, LogParser.THROW_ON_MALFORMED);
+
+        // Notify all registered observers with the parsed log entry
+        notifyObservers(logReport);
+
+        return logReport;
+    }
+
+    /**
+     * Parses a single log line with the active {@link LogLineParser} and notifies observers.
+     * A malformed line is not an error: it is counted per {@link MalformedReason} by the observers,
+     * logged in samples and written to the quarantine file, if one is configured.
+     *
+     * @param logLine the log line to parse
+     * @return the parsed {@link LogReport}, or {@code null} if the line is malformed
+     */
+    public LogReport parseLine(String logLine) {
+        LogReport logReport = parseGuarded(logLine, fieldInterner, malformedLineHandler);
+        if (logReport != null) {
+            notifyObservers(logReport);
+        }
+        return logReport;
+    }
+
+    /**
+     * Parses log lines with the active {@link LogLineParser} and notifies observers in batches of
+     * {@link LogBatch#DEFAULT_CAPACITY} entries, with one {@link LogObserver#updateBatch(LogBatch)} call per
+     * observer and batch instead of one call per observer and line. Malformed lines are handled as by
+     * {@link #parseLine(String)}, as soon as they are met.
+     *
+     * @param logLines the log lines to parse, in log order
+     * @return the number of lines parsed successfully
+     */
+    public long parseLines(List<String> logLines) {
+        ObserverProfiler activeProfiler = profiler;
+        List<LogObserver> targets = fusedObservers && activeProfiler == null
+            ? List.of(ObserverFusion.fuse(observers()))
+            : observers();
+        FieldInterner interner = fieldInterner;
+        LogBatch batch = new LogBatch();
+        long parsed = 0;
+        for (String logLine : logLines) {
+            LogReport logReport = parseGuarded(logLine, interner, malformedLineHandler);
+            if (logReport != null) {
+                batch.add(logReport);
+                parsed++;
+                if (batch.isFull()) {
+                    notifyObservers(targets, batch, activeProfiler);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            notifyObservers(targets, batch, activeProfiler);
+        }
+        return parsed;
+    }
+
+    /**
+     * Returns the given parser splitting fields with the delimiter scanner of this context, if it is a generated
+     * parser; the regex and JSON parsers are returned unchanged.
+     */
+    private LogLineParser withFieldScanner(LogLineParser parser) {
+        return parser instanceof GeneratedLogLineParser generated
+            ? generated.withFieldScanner(delimiterScanner)
+            : parser;
+    }
+
+    /**
+     * Rejects oversized lines in constant time, then parses the line with the active parser.
+     *
+     * @param logLine     the log line to parse
+     * @param interner    the interner of the repeated fields
+     * @param onMalformed the handler notified if the line is rejected
+     * @return the parsed {@link LogReport}, or {@code null} if the line is malformed
+     */
+    private LogReport parseGuarded(String logLine, FieldInterner interner, MalformedLineHandler onMalformed) {
+        if (logLine != null && logLine.length() > maxLineLength) {
+            onMalformed.onMalformed(MalformedReason.LINE_TOO_LONG, logLine);
+            return null;
+        }
+        return lineParser.parse(logLine, interner, onMalformed);
+    }
+
+    /**
+     * Reports a malformed line to the sampled logger / quarantine and to all registered observers.
+     *
+     * @param reason  the reason the line was rejected
+     * @param logLine the rejected line
+     */
+    private void reportMalformed(MalformedReason reason, String logLine) {
+        malformedLineReporter.onMalformed(reason, logLine);
+        for (LogObserver observer : observers) {
+            observer.updateMalformed(reason);
+        }
+    }
+
+    /**
+     * Notifies all registered observers with the provided log entry.
+     *
+     * @param logReport the parsed log data to send to observers
+     */
+    private void notifyObservers(LogReport logReport) {
+        ObserverProfiler activeProfiler = profiler;
+        for (LogObserver observer : observers) {
+            try {
+                if (activeProfiler == null) {
+                    observer.update(logReport);
+                } else {
+                    activeProfiler.update(observer, logReport);
+                }
+            } catch (Exception e) {
+                log.error("Error notifying observer {}: {}",
+                    observer.getClass().getSimpleName(), e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Notifies observers with a batch of log entries, each in its own error handler. An observer failing on the
+     * batch may have observed part of it, so the batch is not replayed to it; the number of entries it may have
+     * missed is logged.
+     *
+     * @param targets  the registered observers, or the observer fusing them
+     * @param batch    the parsed log entries to send to observers
+     * @param profiler the profiler measuring the updates, or {@code null} if profiling is disabled
+     */
+    private static void notifyObservers(List<LogObserver> targets, LogBatch batch, ObserverProfiler profiler) {
+        for (LogObserver observer : targets) {
+            try {
+                if (profiler == null) {
+                    observer.updateBatch(batch);
+                } else {
+                    profiler.updateBatch(observer, batch);
+                }
+            } catch (Exception e) {
+                log.error("Error notifying observer {}, up to {} entries of the batch are missing from it: {}",
+                    observer.getClass().getSimpleName(), batch.size(), e.getMessage(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package backend.academy.logParseComponents;
+
+/**
+ * Finds delimiter bytes, such as newlines and quotes, in raw log data.
+ *
+ * <p>Two backends exist: a scalar one that inspects one byte at a time, and one built on the JDK Vector API
+ * that compares a whole vector register (32 or 64 bytes, depending on the CPU) per step. The backend is
+ * chosen per analysis, see {@link DelimiterScanners}.</p>
+ *
+ * <p>The backends split the bytes read from a log source into lines. The Vector API backend also splits the
+ * lines read by a {@link GeneratedLogLineParser} into fields, see
+ * {@link GeneratedLogLineParser#withFieldScanner(DelimiterScanner)}; with the scalar backend, fields are found
+ * with {@link String#indexOf(int, int)}, which HotSpot already compiles to SIMD instructions.</p>
+ */
+public interface DelimiterScanner {
+
+    /**
+     * Finds the first occurrence of a delimiter byte in a range of a byte array.
+     *
+     * @param data      the data to scan
+     * @param from      the start of the range (inclusive)
+     * @param to        the end of the range (exclusive)
+     * @param delimiter the byte to find
+     * @return the index of the delimiter, or -1 if the range does not contain it
+     */
+    int indexOf(byte[] data, int from, int to, byte delimiter);
+
+    /**
+     * Returns the name of the backend, for logging.
+     *
+     * @return the backend name
+     */
+    String name();
+}
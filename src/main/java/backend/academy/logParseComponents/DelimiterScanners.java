@@ -0,0 +1,70 @@
+package backend.academy.logParseComponents;
+
+import lombok.experimental.UtilityClass;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Utility class that provides the {@link DelimiterScanner} backends used to split log data into lines and fields.
+ *
+ * <p>The scalar backend is the default. The Vector API backend is opt-in, per analysis with the {@code --simd}
+ * option (see {@link AnalysisContext#useVectorScanning(boolean)}), or as the default of every analysis with the
+ * {@value #SIMD_PROPERTY} system property, which is read once at startup. It falls back to the scalar backend
+ * when the JVM was started without {@code --add-modules jdk.incubator.vector}.</p>
+ */
+@Log4j2
+@UtilityClass
+public final class DelimiterScanners {
+
+    /**
+     * System property enabling the Vector API backend when set to {@code true}.
+     */
+    public static final String SIMD_PROPERTY = "logparser.simd";
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final DelimiterScanner SCALAR = new ScalarDelimiterScanner();
+
+    private static final DelimiterScanner DEFAULT = Boolean.getBoolean(SIMD_PROPERTY) ? vectorOrScalar() : SCALAR;
+
+    /**
+     * Returns the backend selected at startup by the {@value #SIMD_PROPERTY} system property.
+     *
+     * @return the default {@link DelimiterScanner} of new analyses
+     */
+    public static DelimiterScanner defaultScanner() {
+        return DEFAULT;
+    }
+
+    /**
+     * Returns the scalar backend.
+     *
+     * @return the scalar {@link DelimiterScanner}
+     */
+    public static DelimiterScanner scalar() {
+        return SCALAR;
+    }
+
+    /**
+     * Returns whether the Vector API module is available in this JVM.
+     *
+     * @return {@code true} if {@code jdk.incubator.vector} is in the boot layer
+     */
+    public static boolean isVectorApiAvailable() {
+        return ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent();
+    }
+
+    /**
+     * Returns the Vector API backend, or the scalar backend if the Vector API module is not available.
+     *
+     * @return a {@link DelimiterScanner}
+     */
+    public static DelimiterScanner vectorOrScalar() {
+        if (!isVectorApiAvailable()) {
+            log.warn("SIMD scanning requested, but the JVM was started without --add-modules {}; using scalar",
+                VECTOR_MODULE);
+            return SCALAR;
+        }
+        DelimiterScanner vector = new VectorDelimiterScanner();
+        log.info("Using {} delimiter scanning", vector.name());
+        return vector;
+    }
+}
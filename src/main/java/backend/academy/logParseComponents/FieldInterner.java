@@ -0,0 +1,83 @@
+package backend.academy.logParseComponents;
+
+/**
+ * Interns the repeated fields of log lines into a {@link SymbolTable} while they are parsed, so that observers
+ * count them by the ids carried on the {@link LogReport} instead of hashing the strings again on every line.
+ *
+ * <p>Referrers and user agents are interned as they are. The request line is interned as its method and its
+ * path, templated with a {@link PathTemplater}, so that paths with identifiers do not grow the table. Like its
+ * table, an interner is not thread-safe: each {@link AnalysisContext} owns one and parses on one thread at a
+ * time.</p>
+ */
+public final class FieldInterner {
+    private final SymbolTable symbols;
+    private final PathTemplater pathTemplater;
+    private final StringBuilder templatedPath = new StringBuilder();
+
+    /**
+     * Creates an interner.
+     *
+     * @param symbols       the table receiving the field values
+     * @param pathTemplater the templater applied to request paths before they are interned
+     */
+    public FieldInterner(SymbolTable symbols, PathTemplater pathTemplater) {
+        this.symbols = symbols;
+        this.pathTemplater = pathTemplater;
+    }
+
+    /**
+     * Returns the table receiving the field values.
+     *
+     * @return the {@link SymbolTable} the ids refer to
+     */
+    public SymbolTable symbols() {
+        return symbols;
+    }
+
+    /**
+     * Returns the templater applied to request paths.
+     *
+     * @return the {@link PathTemplater} of the path ids
+     */
+    public PathTemplater pathTemplater() {
+        return pathTemplater;
+    }
+
+    /**
+     * Interns a range of a log line.
+     *
+     * @param text the log line
+     * @param from the start of the field (inclusive)
+     * @param to   the end of the field (exclusive)
+     * @return the id of the field value
+     */
+    public int id(String text, int from, int to) {
+        return symbols.id(text, from, to);
+    }
+
+    /**
+     * Interns the method of a request line.
+     *
+     * @param request the request line
+     * @return the id of the method, or {@link LogReport#NO_ID} if the request is not an HTTP request line
+     */
+    public int methodId(String request) {
+        int methodEnd = RequestLine.methodEnd(request);
+        return methodEnd < 0 ? LogReport.NO_ID : symbols.id(request, 0, methodEnd);
+    }
+
+    /**
+     * Interns the templated path of a request line, without the query string.
+     *
+     * @param request the request line
+     * @return the id of the templated path, or the id of the whole request if it is not an HTTP request line
+     */
+    public int pathId(String request) {
+        int methodEnd = RequestLine.methodEnd(request);
+        if (methodEnd < 0) {
+            return symbols.id(request);
+        }
+        return pathTemplater.templateId(request, methodEnd + 1, RequestLine.pathEnd(request, methodEnd), symbols,
+            templatedPath);
+    }
+}
@@ -0,0 +1,191 @@
+package backend.academy.logParseComponents;
+
+import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Base class for the parsers generated by {@link LogFormatCompiler}.
+ *
+ * <p>A generated subclass implements {@link #scan(String, byte[], int[])} as straight-line code: one call to
+ * {@link #literal(String, int, String)} or {@link #field(String, byte[], int, int, int[], int)} per element of the
+ * {@code log_format} directive, with no loops and no interpretation of the format at parse time.
+ * A negative position marks a mismatch and is passed through every following step unchanged.
+ * The scan only records where each field starts and ends; {@link LogReportDecoder} then decodes the fields
+ * straight from the line.</p>
+ *
+ * <p>Field terminators are found with {@link String#indexOf(int, int)} by default. A parser created with
+ * {@link #withFieldScanner(DelimiterScanner)} and a non-scalar backend instead copies each line to its
+ * ISO-8859-1 bytes, one byte per character, and searches them with that {@link DelimiterScanner}.</p>
+ */
+public abstract class GeneratedLogLineParser implements LogLineParser {
+
+    // Slots of the LogReport fields located by the generated code
+    public static final int IP_ADDRESS_SLOT = 0;
+    public static final int TIMESTAMP_SLOT = 1;
+    public static final int REQUEST_SLOT = 2;
+    public static final int STATUS_CODE_SLOT = 3;
+    public static final int SIZE_SLOT = 4;
+    public static final int REFERRER_SLOT = 5;
+    public static final int USER_AGENT_SLOT = 6;
+    public static final int SLOT_COUNT = 7;
+
+    /**
+     * Slot index for variables that are parsed but not stored in a {@link LogReport}.
+     */
+    public static final int SKIPPED_SLOT = -1;
+
+    /**
+     * Terminator value meaning that the field spans to the end of the line.
+     */
+    public static final int END_OF_LINE = -1;
+
+    private static final int MISMATCH = -1;
+    private static final int MAX_LATIN1 = 0xFF;
+
+    private final DelimiterScanner fieldScanner;
+
+    /**
+     * Creates a parser finding field terminators with {@link String#indexOf(int, int)}.
+     */
+    protected GeneratedLogLineParser() {
+        this(null);
+    }
+
+    /**
+     * Creates a parser finding field terminators with the given backend.
+     *
+     * @param fieldScanner the backend searching the bytes of each line, or {@code null} to search the line itself
+     */
+    protected GeneratedLogLineParser(DelimiterScanner fieldScanner) {
+        this.fieldScanner = fieldScanner;
+    }
+
+    /**
+     * Returns a parser for the same format whose fields are split with the given backend. The scalar backend
+     * selects {@link String#indexOf(int, int)}, which HotSpot already compiles to SIMD instructions and which,
+     * unlike a byte scanner, needs no copy of the line.
+     *
+     * @param scanner the delimiter scanning backend of the analysis
+     * @return a parser of the same generated class, this parser if it already uses the backend
+     */
+    public GeneratedLogLineParser withFieldScanner(DelimiterScanner scanner) {
+        DelimiterScanner backend = scanner instanceof ScalarDelimiterScanner ? null : scanner;
+        if (backend == fieldScanner) {
+            return this;
+        }
+        try {
+            return getClass().getConstructor(DelimiterScanner.class).newInstance(backend);
+        } catch (InstantiationException | IllegalAccessException
+                 | InvocationTargetException | NoSuchMethodException e) {
+            throw new IllegalStateException("Failed to instantiate generated parser " + getClass().getName(), e);
+        }
+    }
+
+    /**
+     * Returns the backend splitting the fields of a line.
+     *
+     * @return the {@link DelimiterScanner}, or {@code null} if fields are found with {@link String#indexOf(int, int)}
+     */
+    public DelimiterScanner fieldScanner() {
+        return fieldScanner;
+    }
+
+    @Override
+    public LogReport parse(String logLine, FieldInterner interner, MalformedLineHandler onMalformed) {
+        if (logLine == null || logLine.isEmpty()) {
+            onMalformed.onMalformed(MalformedReason.EMPTY_LINE, logLine);
+            return null;
+        }
+
+        int[] bounds = LogReportDecoder.newBounds();
+        // ISO-8859-1 keeps one byte per character; a character it cannot encode becomes '?'
+        byte[] lineBytes = fieldScanner == null ? null : logLine.getBytes(StandardCharsets.ISO_8859_1);
+        int position = scan(logLine, lineBytes, bounds);
+
+        if (position < 0) {
+            onMalformed.onMalformed(MalformedReason.FORMAT_MISMATCH, logLine);
+            return null;
+        }
+        if (position != logLine.length()) {
+            onMalformed.onMalformed(MalformedReason.TRAILING_DATA, logLine);
+            return null;
+        }
+        return LogReportDecoder.decode(logLine, bounds, interner, onMalformed);
+    }
+
+    /**
+     * Finds the fields of the log line. Implemented by generated code.
+     *
+     * @param logLine   the log line to scan
+     * @param lineBytes the ISO-8859-1 bytes of the line, or {@code null} if there is no field scanner
+     * @param bounds    the array receiving the start and end of each field, at {@code 2 * slot} and
+     *                  {@code 2 * slot + 1} for the {@code *_SLOT} constants
+     * @return the position after the last consumed character, or a negative value on mismatch
+     */
+    protected abstract int scan(String logLine, byte[] lineBytes, int[] bounds);
+
+    /**
+     * Consumes a literal part of the format.
+     *
+     * @param logLine  the log line being scanned
+     * @param position the current position, negative if an earlier step failed
+     * @param literal  the expected literal text
+     * @return the position after the literal, or a negative value on mismatch
+     */
+    protected static int literal(String logLine, int position, String literal) {
+        if (position < 0) {
+            return position;
+        }
+        return logLine.startsWith(literal, position) ? position + literal.length() : MISMATCH;
+    }
+
+    /**
+     * Consumes a variable of the format up to its terminator character.
+     *
+     * @param logLine    the log line being scanned
+     * @param lineBytes  the ISO-8859-1 bytes of the line, or {@code null} if there is no field scanner
+     * @param position   the current position, negative if an earlier step failed
+     * @param terminator the first character of the following literal, or {@link #END_OF_LINE}
+     * @param bounds     the array receiving the start and end of the field
+     * @param slot       the slot of the field, or {@link #SKIPPED_SLOT}
+     * @return the position of the terminator, or a negative value on mismatch
+     */
+    protected final int field(String logLine, byte[] lineBytes, int position, int terminator, int[] bounds,
+        int slot) {
+        if (position < 0) {
+            return position;
+        }
+
+        int end;
+        if (terminator == END_OF_LINE) {
+            end = logLine.length();
+        } else if (lineBytes == null || terminator > MAX_LATIN1) {
+            // A terminator outside ISO-8859-1 has no byte of its own in the line bytes
+            end = logLine.indexOf(terminator, position); // Intrinsified by HotSpot
+        } else {
+            end = indexOf(logLine, lineBytes, position, terminator);
+        }
+        if (end < 0) {
+            return MISMATCH;
+        }
+
+        if (slot != SKIPPED_SLOT) {
+            bounds[2 * slot] = position;
+            bounds[2 * slot + 1] = end;
+        }
+        return end;
+    }
+
+    /**
+     * Finds a terminator with the field scanner. A matching byte is only a candidate: it may stand for a
+     * character outside ISO-8859-1, so it is confirmed on the line itself.
+     */
+    private int indexOf(String logLine, byte[] lineBytes, int from, int terminator) {
+        int index = from;
+        while ((index = fieldScanner.indexOf(lineBytes, index, lineBytes.length, (byte) terminator)) >= 0
+            && logLine.charAt(index) != terminator) {
+            index++;
+        }
+        return index;
+    }
+}
@@ -0,0 +1,278 @@
+package backend.academy.logParseComponents;
+
+import java.util.Arrays;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Utility class for the packed representation of IP addresses.
+ *
+ * <p>An address is packed into 128 bits held by two {@code long}s. IPv6 addresses are stored as is;
+ * IPv4 addresses are stored as IPv4-mapped IPv6 addresses ({@code ::ffff:a.b.c.d}), so the high word is 0
+ * and the low word is {@code 0x0000_FFFF_xxxx_xxxx}, which keeps both families in one key space.</p>
+ */
+@UtilityClass
+public final class IpAddresses {
+
+    /**
+     * Prefix of the low word of an IPv4-mapped address.
+     */
+    public static final long IPV4_MAPPED_PREFIX = 0xFFFF_0000_0000L;
+
+    private static final long IPV4_MASK = 0xFFFF_FFFFL;
+    private static final int IPV4_OCTETS = 4;
+    private static final int IPV6_GROUPS = 8;
+    private static final int GROUPS_PER_WORD = 4;
+    private static final int OCTET_MAX = 255;
+    private static final int GROUP_MAX_DIGITS = 4;
+    private static final int OCTET_MAX_DIGITS = 3;
+    private static final int BITS_PER_OCTET = 8;
+    private static final int BITS_PER_GROUP = 16;
+    private static final int GROUP_MASK = 0xFFFF;
+    private static final int OCTET_MASK = 0xFF;
+    private static final int DECIMAL = 10;
+    private static final int HEX = 16;
+    private static final int MIN_COMPRESSED_GROUPS = 2;
+
+    /**
+     * Parses an IPv4 or IPv6 address from a range of characters, without copying the range.
+     *
+     * @param text   the text containing the address
+     * @param from   the start of the address (inclusive)
+     * @param to     the end of the address (exclusive)
+     * @param packed the array receiving the high word at index 0 and the low word at index 1
+     * @return {@code true} if the range holds a valid address, {@code false} otherwise
+     */
+    public static boolean parse(CharSequence text, int from, int to, long[] packed) {
+        for (int i = from; i < to; i++) {
+            if (text.charAt(i) == ':') {
+                return parseIpv6(text, from, to, packed);
+            }
+        }
+
+        long ipv4 = parseIpv4(text, from, to);
+        if (ipv4 < 0) {
+            return false;
+        }
+        packed[0] = 0;
+        packed[1] = IPV4_MAPPED_PREFIX | ipv4;
+        return true;
+    }
+
+    /**
+     * Parses a dotted-quad IPv4 address.
+     *
+     * @param text the text containing the address
+     * @param from the start of the address (inclusive)
+     * @param to   the end of the address (exclusive)
+     * @return the address as an unsigned 32-bit value, or -1 if the range is not a valid IPv4 address
+     */
+    public static long parseIpv4(CharSequence text, int from, int to) {
+        long address = 0;
+        int octets = 0;
+        int position = from;
+
+        while (octets < IPV4_OCTETS) {
+            int value = 0;
+            int digits = 0;
+            while (position < to && text.charAt(position) >= '0' && text.charAt(position) <= '9') {
+                value = value * DECIMAL + text.charAt(position) - '0';
+                digits++;
+                position++;
+            }
+            if (digits == 0 || digits > OCTET_MAX_DIGITS || value > OCTET_MAX) {
+                return -1;
+            }
+
+            address = address << BITS_PER_OCTET | value;
+            octets++;
+
+            if (octets < IPV4_OCTETS) {
+                if (position >= to || text.charAt(position) != '.') {
+                    return -1;
+                }
+                position++;
+            }
+        }
+        return position == to ? address : -1;
+    }
+
+    /**
+     * Returns whether a packed address is an IPv4 address.
+     *
+     * @param high the high word of the packed address
+     * @param low  the low word of the packed address
+     * @return {@code true} for IPv4-mapped addresses
+     */
+    public static boolean isIpv4(long high, long low) {
+        return high == 0 && (low & ~IPV4_MASK) == IPV4_MAPPED_PREFIX;
+    }
+
+    /**
+     * Formats a packed address: dotted quad for IPv4, RFC 5952 canonical text for IPv6.
+     *
+     * @param high the high word of the packed address
+     * @param low  the low word of the packed address
+     * @return the textual address
+     */
+    public static String format(long high, long low) {
+        if (isIpv4(high, low)) {
+            return formatIpv4((int) low);
+        }
+
+        int[] groups = new int[IPV6_GROUPS];
+        for (int i = 0; i < GROUPS_PER_WORD; i++) {
+            int shift = (GROUPS_PER_WORD - 1 - i) * BITS_PER_GROUP;
+            groups[i] = (int) (high >>> shift) & GROUP_MASK;
+            groups[i + GROUPS_PER_WORD] = (int) (low >>> shift) & GROUP_MASK;
+        }
+
+        // Find the longest run of zero groups to compress with "::"
+        int bestStart = -1;
+        int bestLength = 0;
+        for (int i = 0; i < IPV6_GROUPS; i++) {
+            int length = 0;
+            while (i + length < IPV6_GROUPS && groups[i + length] == 0) {
+                length++;
+            }
+            if (length > bestLength) {
+                bestStart = i;
+                bestLength = length;
+            }
+            i += length;
+        }
+        if (bestLength < MIN_COMPRESSED_GROUPS) {
+            bestStart = -1;
+        }
+
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < IPV6_GROUPS; i++) {
+            if (i == bestStart) {
+                builder.append("::");
+                i += bestLength - 1;
+                continue;
+            }
+            if (!builder.isEmpty() && builder.charAt(builder.length() - 1) != ':') {
+                builder.append(':');
+            }
+            builder.append(Integer.toHexString(groups[i]));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Formats an IPv4 address.
+     *
+     * @param address the address as a 32-bit value
+     * @return the dotted-quad address
+     */
+    public static String formatIpv4(int address) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = IPV4_OCTETS - 1; i >= 0; i--) {
+            builder.append(address >>> (i * BITS_PER_OCTET) & OCTET_MASK);
+            if (i > 0) {
+                builder.append('.');
+            }
+        }
+        return builder.toString();
+    }
+
+    private static boolean parseIpv6(CharSequence text, int from, int to, long[] packed) {
+        int[] groups = new int[IPV6_GROUPS];
+        int count = 0;
+        int compressAt = -1;
+        int position = from;
+
+        if (to - from >= 2 && text.charAt(from) == ':' && text.charAt(from + 1) == ':') {
+            compressAt = 0;
+            position += 2;
+        }
+
+        while (position < to) {
+            if (count == IPV6_GROUPS) {
+                return false;
+            }
+
+            // An embedded IPv4 address may end the address, e.g. ::ffff:10.0.0.1
+            int groupEnd = position;
+            while (groupEnd < to && text.charAt(groupEnd) != ':') {
+                groupEnd++;
+            }
+            if (groupEnd == to && count <= IPV6_GROUPS - 2 && contains(text, position, to, '.')) {
+                long ipv4 = parseIpv4(text, position, to);
+                if (ipv4 < 0) {
+                    return false;
+                }
+                groups[count++] = (int) (ipv4 >>> BITS_PER_GROUP);
+                groups[count++] = (int) ipv4 & GROUP_MASK;
+                position = to;
+                break;
+            }
+
+            int value = 0;
+            int digits = 0;
+            while (position < to && text.charAt(position) != ':') {
+                int digit = hexDigit(text.charAt(position));
+                if (digit < 0 || ++digits > GROUP_MAX_DIGITS) {
+                    return false;
+                }
+                value = value * HEX + digit;
+                position++;
+            }
+            if (digits == 0) {
+                return false;
+            }
+            groups[count++] = value;
+
+            if (position < to) {
+                position++; // Skip ':'
+                if (position < to && text.charAt(position) == ':') {
+                    if (compressAt >= 0) {
+                        return false;
+                    }
+                    compressAt = count;
+                    position++;
+                } else if (position == to) {
+                    return false;
+                }
+            }
+        }
+
+        if (compressAt < 0 && count != IPV6_GROUPS || compressAt >= 0 && count == IPV6_GROUPS) {
+            return false;
+        }
+
+        // Expand "::" by moving the groups after it to the end
+        if (compressAt >= 0) {
+            int tail = count - compressAt;
+            System.arraycopy(groups, compressAt, groups, IPV6_GROUPS - tail, tail);
+            Arrays.fill(groups, compressAt, IPV6_GROUPS - tail, 0);
+        }
+
+        long high = 0;
+        long low = 0;
+        for (int i = 0; i < GROUPS_PER_WORD; i++) {
+            high = high << BITS_PER_GROUP | groups[i];
+            low = low << BITS_PER_GROUP | groups[i + GROUPS_PER_WORD];
+        }
+        packed[0] = high;
+        packed[1] = low;
+        return true;
+    }
+
+    private static int hexDigit(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        char lower = (char) (c | ' ');
+        return lower >= 'a' && lower <= 'f' ? lower - 'a' + DECIMAL : -1;
+    }
+
+    private static boolean contains(CharSequence text, int from, int to, char c) {
+        for (int i = from; i < to; i++) {
+            if (text.charAt(i) == c) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,226 @@
+package backend.academy.logParseComponents;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * {@link LogLineParser} for JSON-lines access logs, written by nginx with {@code log_format ... escape=json},
+ * one JSON object per line, e.g.
+ * <pre>
+ * {"remote_addr":"10.0.0.1","time_local":"17/May/2015:14:05:39 +0000","request":"GET / HTTP/1.1",
+ *  "status":"200","body_bytes_sent":"512","http_referer":"-","http_user_agent":"curl/8.4.0"}
+ * </pre>
+ *
+ * <p>Lines are read with Jackson's streaming {@link JsonParser}, not with databind: the parser walks the
+ * tokens of the object once, keeps the values of the fields observers need and skips everything else,
+ * including nested values. Field names are the nginx variable names; {@code time_iso8601} is accepted in
+ * place of {@code time_local}, and status and size may be JSON numbers or strings. The request and the status
+ * are required, so that other JSON objects are not taken for log entries; the other fields are optional.</p>
+ *
+ * <p>The {@link JsonFactory} is shared, so the parsers created for each line reuse its recycled buffers.
+ * The result is the same {@link LogReport} the other parsers produce.</p>
+ */
+public final class JsonLogLineParser implements LogLineParser {
+
+    private static final JsonLogLineParser INSTANCE = new JsonLogLineParser();
+
+    private static final int STATUS_CODE_LENGTH = 3;
+    private static final int MAX_RESPONSE_SIZE_DIGITS = 18;
+    private static final int DECIMAL = 10;
+    private static final String MISSING_VALUE = "-";
+
+    private final JsonFactory jsonFactory = JsonFactory.builder().build();
+
+    private JsonLogLineParser() {
+    }
+
+    /**
+     * Returns the shared parser instance.
+     *
+     * @return the JSON-lines parser
+     */
+    public static JsonLogLineParser instance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public LogReport parse(String logLine, FieldInterner interner, MalformedLineHandler onMalformed) {
+        if (logLine == null || logLine.isBlank()) {
+            onMalformed.onMalformed(MalformedReason.EMPTY_LINE, logLine);
+            return null;
+        }
+
+        Fields fields = new Fields();
+        MalformedReason reason;
+        try (JsonParser parser = jsonFactory.createParser(logLine)) {
+            reason = readObject(parser, fields);
+        } catch (IOException e) {
+            reason = MalformedReason.FORMAT_MISMATCH; // Jackson reports invalid JSON only with exceptions
+        }
+
+        if (reason == null) {
+            reason = fields.decode();
+        }
+        if (reason != null) {
+            onMalformed.onMalformed(reason, logLine);
+            return null;
+        }
+        return fields.toLogReport(interner);
+    }
+
+    /**
+     * Reads the top-level object of a line into the fields.
+     *
+     * @return the reason the line is malformed, or {@code null} if it is a single JSON object
+     */
+    private static MalformedReason readObject(JsonParser parser, Fields fields) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return MalformedReason.FORMAT_MISMATCH;
+        }
+
+        String name;
+        while ((name = parser.nextFieldName()) != null) {
+            JsonToken value = parser.nextToken();
+            if (value.isStructStart()) {
+                parser.skipChildren();
+                continue;
+            }
+            String text = value == JsonToken.VALUE_NULL ? null : parser.getText();
+            fields.set(name, text);
+        }
+
+        if (parser.currentToken() != JsonToken.END_OBJECT) {
+            return MalformedReason.FORMAT_MISMATCH;
+        }
+        return parser.nextToken() == null ? null : MalformedReason.TRAILING_DATA;
+    }
+
+    /**
+     * Values of the fields used by the observers, before and after decoding.
+     */
+    private static final class Fields {
+        private String ipAddress;
+        private String timeLocal;
+        private String timeIso8601;
+        private String request;
+        private String status;
+        private String size;
+        private String referrer;
+        private String userAgent;
+
+        private final long[] packedIp = new long[2];
+        private long epochSecond = LogReport.NO_TIMESTAMP;
+        private int statusCode;
+        private long responseSize;
+
+        void set(String name, String value) {
+            switch (name) {
+                case "remote_addr" -> ipAddress = value;
+                case "time_local" -> timeLocal = value;
+                case "time_iso8601" -> timeIso8601 = value;
+                case "request" -> request = value;
+                case "status" -> status = value;
+                case "body_bytes_sent", "bytes_sent" -> size = value;
+                case "http_referer" -> referrer = value;
+                case "http_user_agent" -> userAgent = value;
+                default -> {
+                    // Not used by the observers
+                }
+            }
+        }
+
+        /**
+         * Decodes the numeric fields, with the same rules as {@link LogReportDecoder}, and checks that the
+         * required fields are present.
+         *
+         * @return the reason the line is malformed, or {@code null} if every field is valid
+         */
+        MalformedReason decode() {
+            if (ipAddress != null && !IpAddresses.parse(ipAddress, 0, ipAddress.length(), packedIp)) {
+                return MalformedReason.INVALID_IP_ADDRESS;
+            }
+
+            if (timeLocal != null || timeIso8601 != null) {
+                epochSecond = timeLocal != null
+                    ? LogReportDecoder.parseTimestamp(timeLocal, 0, timeLocal.length())
+                    : parseIso8601(timeIso8601);
+                if (epochSecond == LogReportDecoder.INVALID_TIMESTAMP) {
+                    return MalformedReason.INVALID_TIMESTAMP;
+                }
+            }
+
+            if (status != null) {
+                statusCode = status.length() == STATUS_CODE_LENGTH ? (int) parseDigits(status) : -1;
+                if (statusCode < 0) {
+                    return MalformedReason.INVALID_STATUS_CODE;
+                }
+            }
+
+            // nginx writes "-" or an empty string for variables without a value
+            if (size != null && !size.isEmpty() && !MISSING_VALUE.equals(size)) {
+                responseSize = size.length() <= MAX_RESPONSE_SIZE_DIGITS ? parseDigits(size) : -1;
+                if (responseSize < 0) {
+                    return MalformedReason.INVALID_RESPONSE_SIZE;
+                }
+            }
+
+            // Without these, any JSON object, e.g. {}, would be an entry with status 0
+            return request == null || status == null ? MalformedReason.FORMAT_MISMATCH : null;
+        }
+
+        LogReport toLogReport(FieldInterner interner) {
+            String requestLine = orMissing(request);
+            if (interner == null) {
+                return new LogReport(packedIp[0], packedIp[1], ipAddress != null, epochSecond, requestLine,
+                    statusCode, responseSize, orMissing(referrer), orMissing(userAgent));
+            }
+            SymbolTable symbols = interner.symbols();
+            int referrerId = symbols.id(orMissing(referrer));
+            int userAgentId = symbols.id(orMissing(userAgent));
+            return new LogReport(
+                packedIp[0],
+                packedIp[1],
+                ipAddress != null,
+                epochSecond,
+                requestLine,
+                statusCode,
+                responseSize,
+                symbols.symbol(referrerId),
+                symbols.symbol(userAgentId),
+                symbols,
+                interner.methodId(requestLine),
+                interner.pathId(requestLine),
+                referrerId,
+                userAgentId
+            );
+        }
+
+        private static String orMissing(String value) {
+            return value == null ? MISSING_VALUE : value;
+        }
+
+        private static long parseIso8601(String timestamp) {
+            try {
+                return OffsetDateTime.parse(timestamp).toEpochSecond();
+            } catch (DateTimeParseException e) {
+                return LogReportDecoder.INVALID_TIMESTAMP;
+            }
+        }
+
+        private static long parseDigits(String value) {
+            long result = 0;
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c < '0' || c > '9') {
+                    return -1;
+                }
+                result = result * DECIMAL + c - '0';
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package backend.academy.logParseComponents;
+
+import lombok.Getter;
+
+/**
+ * Access log formats recognized by {@link LogFormatDetector}, expressed as nginx {@code log_format} directives.
+ *
+ * <p>Constants are declared from the most to the least specific, which is the order used to break ties
+ * when several formats read the same sample equally well.</p>
+ */
+@Getter
+public enum KnownLogFormat {
+    NGINX_COMBINED_REQUEST_TIME("combined with $request_time",
+        "$remote_addr - $remote_user [$time_local] \"$request\" $status $body_bytes_sent "
+            + "\"$http_referer\" \"$http_user_agent\" $request_time"),
+    NGINX_MAIN("nginx main",
+        "$remote_addr - $remote_user [$time_local] \"$request\" $status $body_bytes_sent "
+            + "\"$http_referer\" \"$http_user_agent\" \"$http_x_forwarded_for\""),
+    NGINX_COMBINED("nginx combined",
+        "$remote_addr - $remote_user [$time_local] \"$request\" $status $body_bytes_sent "
+            + "\"$http_referer\" \"$http_user_agent\""),
+    APACHE_COMBINED("Apache combined",
+        "$remote_addr $remote_ident $remote_user [$time_local] \"$request\" $status $bytes_sent "
+            + "\"$http_referer\" \"$http_user_agent\""),
+    COMMON("common",
+        "$remote_addr - $remote_user [$time_local] \"$request\" $status $body_bytes_sent"),
+    APACHE_COMMON("Apache common",
+        "$remote_addr $remote_ident $remote_user [$time_local] \"$request\" $status $bytes_sent"),
+    JSON_LINES("nginx JSON lines",
+        "escape=json '{\"remote_addr\":\"$remote_addr\",\"time_local\":\"$time_local\",\"request\":\"$request\","
+            + "\"status\":\"$status\",\"body_bytes_sent\":\"$body_bytes_sent\",\"http_referer\":\"$http_referer\","
+            + "\"http_user_agent\":\"$http_user_agent\"}'");
+
+    private final String displayName;
+    private final String logFormat;
+
+    KnownLogFormat(String displayName, String logFormat) {
+        this.displayName = displayName;
+        this.logFormat = logFormat;
+    }
+
+    /**
+     * Returns the specialized parser for this format, compiling it on first use.
+     * JSON lines are read by {@link JsonLogLineParser}; their directive is informational only.
+     *
+     * @return the {@link LogLineParser} for lines written in this format
+     */
+    public LogLineParser parser() {
+        return this == JSON_LINES ? JsonLogLineParser.instance() : LogFormatCompiler.compile(logFormat);
+    }
+}
@@ -0,0 +1,41 @@
+package backend.academy.logParseComponents;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Utility class that splits raw log data into lines with a {@link DelimiterScanner}.
+ *
+ * <p>Lines end with {@code \n} or {@code \r\n}; a final line without a terminator is kept, and a trailing
+ * terminator does not produce an empty last line, like {@link java.io.BufferedReader#readLine()}.</p>
+ */
+@UtilityClass
+public final class LineSplitter {
+    private static final byte NEWLINE = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+
+    /**
+     * Splits UTF-8 encoded data into lines.
+     *
+     * @param data    the data to split
+     * @param scanner the backend used to find the line terminators
+     * @return the decoded lines, without their terminators
+     */
+    public static List<String> split(byte[] data, DelimiterScanner scanner) {
+        List<String> lines = new ArrayList<>();
+        int start = 0;
+        while (start < data.length) {
+            int newline = scanner.indexOf(data, start, data.length, NEWLINE);
+            int next = newline < 0 ? data.length : newline + 1;
+            int end = newline < 0 ? data.length : newline;
+            if (end > start && data[end - 1] == CARRIAGE_RETURN) {
+                end--;
+            }
+            lines.add(new String(data, start, end - start, StandardCharsets.UTF_8));
+            start = next;
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,245 @@
+package backend.academy.logParseComponents;
+
+import java.util.Arrays;
+
+/**
+ * A block of parsed log entries laid out as columns, for observers that process many entries per call.
+ *
+ * <p>The numeric fields of the entries are copied into one primitive array per field (struct of arrays), so an
+ * observer reading a single field runs a tight loop over a contiguous {@code int[]} or {@code long[]} that the
+ * JIT can unroll and vectorize, instead of following one reference per entry. The text fields stay on the
+ * {@link LogReport}s, which are kept alongside for observers that need them; their symbol ids are copied into
+ * columns too, valid for the table returned by {@link #symbols()}.</p>
+ *
+ * <p>The column arrays are exposed directly and only the first {@link #size()} elements are valid. A batch is
+ * reused: {@link #clear()} makes it empty without reallocating, so the arrays must not be kept by observers.</p>
+ */
+public final class LogBatch {
+
+    /**
+     * Default number of entries in a batch: large enough to amortize a call per observer, small enough for the
+     * columns to stay in the L2 cache.
+     */
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private final LogReport[] reports;
+    private final long[] ipHighs;
+    private final long[] ipLows;
+    private final boolean[] hasAddresses;
+    private final long[] epochSeconds;
+    private final int[] statusCodes;
+    private final long[] responseSizes;
+    private final int[] methodIds;
+    private final int[] pathIds;
+    private final int[] referrerIds;
+    private final int[] userAgentIds;
+    private SymbolTable symbols;
+    private boolean mixedSymbols;
+    private int size;
+
+    /**
+     * Creates an empty batch of {@link #DEFAULT_CAPACITY} entries.
+     */
+    public LogBatch() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty batch.
+     *
+     * @param capacity the maximum number of entries
+     * @throws IllegalArgumentException if the capacity is not positive
+     */
+    public LogBatch(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Batch capacity must be positive: " + capacity);
+        }
+        this.reports = new LogReport[capacity];
+        this.ipHighs = new long[capacity];
+        this.ipLows = new long[capacity];
+        this.hasAddresses = new boolean[capacity];
+        this.epochSeconds = new long[capacity];
+        this.statusCodes = new int[capacity];
+        this.responseSizes = new long[capacity];
+        this.methodIds = new int[capacity];
+        this.pathIds = new int[capacity];
+        this.referrerIds = new int[capacity];
+        this.userAgentIds = new int[capacity];
+    }
+
+    /**
+     * Appends an entry to the batch.
+     *
+     * @param report the parsed log entry
+     * @throws IllegalStateException if the batch is full
+     */
+    public void add(LogReport report) {
+        if (isFull()) {
+            throw new IllegalStateException("Batch is full: " + size);
+        }
+        reports[size] = report;
+        ipHighs[size] = report.ipHigh();
+        ipLows[size] = report.ipLow();
+        hasAddresses[size] = report.hasAddress();
+        epochSeconds[size] = report.epochSecond();
+        statusCodes[size] = report.httpStatusCode();
+        responseSizes[size] = report.responseSize();
+        methodIds[size] = report.methodId();
+        pathIds[size] = report.pathId();
+        referrerIds[size] = report.referrerId();
+        userAgentIds[size] = report.userAgentId();
+        if (size == 0) {
+            symbols = report.symbols();
+        } else if (report.symbols() != symbols) {
+            mixedSymbols = true;
+        }
+        size++;
+    }
+
+    /**
+     * Empties the batch, keeping its arrays.
+     */
+    public void clear() {
+        Arrays.fill(reports, 0, size, null); // Lets the reports be collected
+        symbols = null;
+        mixedSymbols = false;
+        size = 0;
+    }
+
+    /**
+     * Returns the number of entries in the batch.
+     *
+     * @return the number of valid elements of each column
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns whether the batch is empty.
+     *
+     * @return {@code true} if the batch holds no entry
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns whether the batch is full.
+     *
+     * @return {@code true} if no entry can be added
+     */
+    public boolean isFull() {
+        return size == reports.length;
+    }
+
+    /**
+     * Returns an entry of the batch.
+     *
+     * @param index the index of the entry, below {@link #size()}
+     * @return the parsed log entry
+     */
+    public LogReport report(int index) {
+        return reports[index];
+    }
+
+    /**
+     * Returns the column of the high 64 bits of the client addresses.
+     *
+     * @return the {@link LogReport#ipHigh()} of each entry
+     */
+    public long[] ipHighs() {
+        return ipHighs;
+    }
+
+    /**
+     * Returns the column of the low 64 bits of the client addresses.
+     *
+     * @return the {@link LogReport#ipLow()} of each entry
+     */
+    public long[] ipLows() {
+        return ipLows;
+    }
+
+    /**
+     * Returns the column telling entries with a client address from entries without one, whose address words
+     * are 0 like those of the unspecified address {@code ::}.
+     *
+     * @return the {@link LogReport#hasAddress()} of each entry
+     */
+    public boolean[] hasAddresses() {
+        return hasAddresses;
+    }
+
+    /**
+     * Returns the column of the request times.
+     *
+     * @return the {@link LogReport#epochSecond()} of each entry
+     */
+    public long[] epochSeconds() {
+        return epochSeconds;
+    }
+
+    /**
+     * Returns the column of the HTTP status codes.
+     *
+     * @return the {@link LogReport#httpStatusCode()} of each entry
+     */
+    public int[] statusCodes() {
+        return statusCodes;
+    }
+
+    /**
+     * Returns the column of the response sizes.
+     *
+     * @return the {@link LogReport#responseSize()} of each entry
+     */
+    public long[] responseSizes() {
+        return responseSizes;
+    }
+
+    /**
+     * Returns the table the id columns refer to, if every entry of the batch was interned into the same table.
+     *
+     * @return the {@link LogReport#symbols()} shared by every entry, or {@code null} if they differ
+     */
+    public SymbolTable symbols() {
+        return mixedSymbols ? null : symbols;
+    }
+
+    /**
+     * Returns the column of the request method ids.
+     *
+     * @return the {@link LogReport#methodId()} of each entry
+     */
+    public int[] methodIds() {
+        return methodIds;
+    }
+
+    /**
+     * Returns the column of the templated request path ids.
+     *
+     * @return the {@link LogReport#pathId()} of each entry
+     */
+    public int[] pathIds() {
+        return pathIds;
+    }
+
+    /**
+     * Returns the column of the referrer ids.
+     *
+     * @return the {@link LogReport#referrerId()} of each entry
+     */
+    public int[] referrerIds() {
+        return referrerIds;
+    }
+
+    /**
+     * Returns the column of the user agent ids.
+     *
+     * @return the {@link LogReport#userAgentId()} of each entry
+     */
+    public int[] userAgentIds() {
+        return userAgentIds;
+    }
+}
@@ -3,17 +3,17 @@ package backend.academy.logParseComponents;
 import backend.academy.exceptions.LogParseException;
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.net.URI;
 import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
-import java.util.regex.Matcher;
 import lombok.experimental.UtilityClass;
 import lombok.extern.log4j.Log4j2;
 
@@ -32,6 +32,7 @@ public final class LogFileLoader {
 
     /**
      * Loads log data from a specified file path or URL, with optional filtering by timestamp range.
+     * The lines are read for a new {@link AnalysisContext} of their own, so nothing is kept between calls.
      *
      * @param fileOrUrl the file path or URL to load logs from. Can be a local file path or a valid HTTP/HTTPS URL.
      * @param startTime the starting timestamp to filter logs (inclusive). If null, no lower bound is applied.
@@ -42,25 +43,44 @@ public final class LogFileLoader {
      */
     public static List<String> loadLogs(String fileOrUrl, LocalDateTime startTime, LocalDateTime endTime)
         throws IOException, LogParseException {
+        return loadLogs(new AnalysisContext(), fileOrUrl, startTime, endTime);
+    }
 
-        validateInputPath(fileOrUrl); // Ensure the path or URL is valid
-        List<String> logLines = new ArrayList<>();
+    /**
+     * Loads log data from a specified file path or URL for an analysis, with optional filtering by timestamp
+     * range. The parser of the analysis is selected from the first lines of the logs, unless configured explicitly.
+     *
+     * @param context   the analysis the logs are loaded for
+     * @param fileOrUrl the file path or URL to load logs from. Can be a local file path or a valid HTTP/HTTPS URL.
+     * @param startTime the starting timestamp to filter logs (inclusive). If null, no lower bound is applied.
+     * @param endTime   the ending timestamp to filter logs (exclusive). If null, no upper bound is applied.
+     * @return a list of log lines that fall within the specified timestamp range.
+     * @throws IOException if an I/O error occurs while reading the file or URL.
+     * @throws LogParseException if the input path is invalid or the file is inaccessible.
+     */
+    public static List<String> loadLogs(AnalysisContext context, String fileOrUrl, LocalDateTime startTime,
+        LocalDateTime endTime) throws IOException, LogParseException {
 
+        validateInputPath(fileOrUrl); // Ensure the path or URL is valid
+        byte[] data;
         if (isUrl(fileOrUrl)) {
-            try (BufferedReader buffer = new BufferedReader(new InputStreamReader(new URL(fileOrUrl).openStream()))) {
-                String line;
-                while ((line = buffer.readLine()) != null) {
-                    logLines.add(line);
-                }
+            try (InputStream stream = URI.create(fileOrUrl).toURL().openStream()) {
+                data = stream.readAllBytes();
             } catch (IOException e) {
                 log.error("Failed to read log data from URL: {}", fileOrUrl, e);
                 throw e;
             }
         } else {
-            logLines = Files.readAllLines(Paths.get(fileOrUrl));
+            data = Files.readAllBytes(Paths.get(fileOrUrl));
         }
 
-        return processLogLines(logLines, startTime, endTime); // Filter logs by timestamps
+        // Line terminators are found with the delimiter scanning backend of the analysis (scalar or SIMD)
+        List<String> logLines = LineSplitter.split(data, context.delimiterScanner());
+
+        context.detectLogFormat(logLines); // Pick the parser for this file once, from its first lines
+
+        // Filter logs by timestamps
+        return processLogLines(logLines, startTime, endTime, context.lineParser());
     }
 
     /**
@@ -85,14 +105,14 @@ public final class LogFileLoader {
     private static void validateInputPath(String path) throws LogParseException {
         if (isUrl(path)) {
             try {
-                URL url = new URL(path);
+                URL url = URI.create(path).toURL();
                 try (BufferedReader reader = new BufferedReader(new InputStreamReader(url.openStream()))) {
                     log.info("URL is valid and accessible: {}", path);
                 } catch (IOException e) {
                     log.error("URL is not accessible: {}", path, e);
                     throw new LogParseException("URL is not accessible: " + path);
                 }
-            } catch (IOException e) {
+            } catch (IOException | IllegalArgumentException e) {
                 log.error("Invalid URL format: {}", path, e);
                 throw new LogParseException("Invalid URL format: " + path);
             }
@@ -107,49 +127,43 @@ public final class LogFileLoader {
 
     /**
      * Processes log entries, applying optional filtering by a specified timestamp range.
+     * Lines that cannot be parsed are kept, so that they are counted as malformed when the logs are parsed.
      *
      * @param logLines the list of log lines to process.
-     * @param startTime the starting timestamp to filter logs (inclusive). If null, no lower bound is applied.
-     * @param endTime the ending timestamp to filter logs (exclusive). If null, no upper bound is applied.
+     * @param startTime the starting timestamp (UTC) to filter logs (inclusive). If null, no lower bound is applied.
+     * @param endTime the ending timestamp (UTC) to filter logs (exclusive). If null, no upper bound is applied.
+     * @param parser the parser reading the timestamps.
      * @return a list of log entries that match the specified timestamp range.
      */
-    private static List<String> processLogLines(List<String> logLines, LocalDateTime startTime, LocalDateTime endTime) {
+    private static List<String> processLogLines(List<String> logLines, LocalDateTime startTime, LocalDateTime endTime,
+        LogLineParser parser) {
+        if (startTime == null && endTime == null) {
+            return logLines; // Nothing to filter, avoid parsing every line twice
+        }
+
+        // The bounds are interpreted as UTC, the log timestamps carry their own offset
+        long start = startTime == null ? Long.MIN_VALUE : startTime.toEpochSecond(ZoneOffset.UTC);
+        long end = endTime == null ? Long.MAX_VALUE : endTime.toEpochSecond(ZoneOffset.UTC);
+
         List<String> filteredLines = new ArrayList<>();
 
         for (String line : logLines) {
-            try {
-                Matcher matcher = LogParser.COMPILED_LOG_PATTERN.matcher(line);
-                if (matcher.matches()) {
-                    String timeStamp = matcher.group(2); // Extract timestamp from log entry
-                    LocalDateTime logTime = parseLogTimestamp(timeStamp);
-
-                    boolean isAfterOrEqualStart = startTime == null || !logTime.isBefore(startTime);
-                    boolean isBeforeEnd = endTime == null || logTime.isBefore(endTime);
-
-                    if (isAfterOrEqualStart && isBeforeEnd) {
-                        filteredLines.add(line);
-                    }
-                } else {
-                    log.warn("Log line does not match the expected pattern: {}", line);
-                }
-            } catch (LogParseException e) {
-                log.error("Failed to parse log line: {}", line, e);
+            LogReport logReport = parser.parse(line);
+            if (logReport == null) {
+                filteredLines.add(line);
+                continue;
+            }
+
+            long logTime = logReport.epochSecond(); // Decoded once by the parser
+            if (logTime == LogReport.NO_TIMESTAMP) {
+                log.debug("Log line has no timestamp: {}", line);
+            } else if (logTime >= start && logTime < end) {
+                filteredLines.add(line);
             }
         }
         return filteredLines;
     }
 
-    /**
-     * Converts a timestamp string from a log entry to a LocalDateTime.
-     *
-     * @param timestamp the timestamp string to parse, expected in the format "dd/MMM/yyyy:HH:mm:ss Z".
-     * @return the parsed LocalDateTime.
-     */
-    private static LocalDateTime parseLogTimestamp(String timestamp) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MMM/yyyy:HH:mm:ss Z", Locale.ENGLISH);
-        return LocalDateTime.parse(timestamp, formatter);
-    }
-
     /**
      * Checks if the provided path is a URL.
      *
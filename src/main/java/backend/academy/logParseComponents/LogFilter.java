@@ -4,8 +4,7 @@ import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.function.Function;
 import lombok.Getter;
 import lombok.experimental.UtilityClass;
 import lombok.extern.log4j.Log4j2;
@@ -21,8 +20,8 @@ public final class LogFilter {
      * If field and value are null or blank, it returns the full list of logs unfiltered.
      * If filtering is successful, it then sorts the filtered entries alphabetically.</p>
      *
-     * @param logs  the list of log entries to filter, where each entry should follow the pattern defined
-     *              in {@link LogParser#COMPILED_LOG_PATTERN}.
+     * @param logs  the list of log entries to filter, where each entry should be readable by the
+     *              default {@link LogParser#lineParser()}.
      *              Expected format includes an IP address, timestamp, request details, status code, response size,
      *              referrer, and user agent.
      *              Must not be null. If empty, an empty list will be returned.
@@ -48,6 +47,28 @@ public final class LogFilter {
      * @throws IllegalArgumentException if an invalid field name is provided.
      */
     public static List<String> sortLogsByInputFields(List<String> logs, String field, String value) {
+        return sortLogsByInputFields(logs, field, value, LogParser.lineParser(), MalformedLineHandler.IGNORE);
+    }
+
+    /**
+     * Filters and sorts log entries based on the specified field and value, reading the entries with the
+     * given parser, e.g. the {@link AnalysisContext#lineParser()} of the analysis the logs belong to.
+     *
+     * <p>Malformed entries cannot match any field, so they are left out of the result; they are passed to the
+     * given handler instead, e.g. {@link AnalysisContext#malformedLineHandler()}, so that filtering does not
+     * change the malformed line counts of the analysis.</p>
+     *
+     * @param logs        the list of log entries to filter
+     * @param field       the name of the field to filter by, as for
+     *                    {@link #sortLogsByInputFields(List, String, String)}
+     * @param value       the substring to search for within the specified field
+     * @param parser      the parser reading the log entries
+     * @param onMalformed the handler notified of each malformed entry, when a filter is applied
+     * @return a sorted list of log entries that contain the specified value in the chosen field
+     * @throws IllegalArgumentException if an invalid field name is provided.
+     */
+    public static List<String> sortLogsByInputFields(List<String> logs, String field, String value,
+        LogLineParser parser, MalformedLineHandler onMalformed) {
         if (logs == null || logs.isEmpty()) {
             log.warn("No logs provided for filtering.");
             return List.of();
@@ -65,16 +86,17 @@ public final class LogFilter {
         }
 
         List<String> filteredLogs = new ArrayList<>();
+        String lowerCaseValue = value.toLowerCase();
         try {
-            Pattern pattern = LogParser.COMPILED_LOG_PATTERN;
             for (String logEntry : logs) {
-                Matcher matcher = pattern.matcher(logEntry);
+                LogReport logReport = parser.parse(logEntry, onMalformed);
+                if (logReport == null) {
+                    continue; // Reported to the handler; a malformed entry cannot match any field
+                }
 
-                if (matcher.find()) {
-                    String fieldValue = extractField(matcher, logFieldOpt.get());
-                    if (fieldValue != null && fieldValue.toLowerCase().contains(value.toLowerCase())) {
-                        filteredLogs.add(logEntry);
-                    }
+                String fieldValue = extractField(logReport, logFieldOpt.get());
+                if (fieldValue != null && fieldValue.toLowerCase().contains(lowerCaseValue)) {
+                    filteredLogs.add(logEntry);
                 }
             }
             filteredLogs.sort(Comparator.naturalOrder()); // Sort alphabetically
@@ -86,30 +108,30 @@ public final class LogFilter {
     }
 
     /**
-     * Extracts the field value based on the given LogField directly from the matcher.
+     * Extracts the field value based on the given LogField from the parsed log entry.
      *
-     * @param matcher the matcher for the log entry pattern
-     * @param field   the log field to extract (e.g., IP address, status code)
+     * @param logReport the parsed log entry
+     * @param field     the log field to extract (e.g., IP address, status code)
      * @return the value of the specified field in the log entry, or null if the field is not found
      */
-    private static String extractField(Matcher matcher, LogField field) {
-        return matcher.group(field.groupIndex());
+    private static String extractField(LogReport logReport, LogField field) {
+        return field.extractor().apply(logReport);
     }
 
     @Getter
     private enum LogField {
-        IP_ADDRESS(1, "ip"),
-        REQUEST(3, "request"),
-        STATUS_CODE(4, "code"),
-        RESPONSE_SIZE(5, "response_size"),
-        REFERRER(6, "referrer"),
-        USER_AGENT(7, "agent");
+        IP_ADDRESS(LogReport::ipAddress, "ip"),
+        REQUEST(LogReport::request, "request"),
+        STATUS_CODE(logReport -> String.valueOf(logReport.httpStatusCode()), "code"),
+        RESPONSE_SIZE(logReport -> String.valueOf(logReport.responseSize()), "response_size"),
+        REFERRER(LogReport::referrer, "referrer"),
+        USER_AGENT(LogReport::userAgent, "agent");
 
-        private final int groupIndex;
+        private final Function<LogReport, String> extractor;
         private final String fieldName;
 
-        LogField(int groupIndex, String fieldName) {
-            this.groupIndex = groupIndex;
+        LogField(Function<LogReport, String> extractor, String fieldName) {
+            this.extractor = extractor;
             this.fieldName = fieldName;
         }
 
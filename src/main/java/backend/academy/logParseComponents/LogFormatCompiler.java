@@ -0,0 +1,253 @@
+package backend.academy.logParseComponents;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.experimental.UtilityClass;
+import lombok.extern.log4j.Log4j2;
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import net.bytebuddy.dynamic.scaffold.subclass.ConstructorStrategy;
+import net.bytebuddy.implementation.Implementation;
+import net.bytebuddy.implementation.bytecode.ByteCodeAppender;
+import net.bytebuddy.jar.asm.MethodVisitor;
+import net.bytebuddy.jar.asm.Opcodes;
+import net.bytebuddy.jar.asm.Type;
+import net.bytebuddy.matcher.ElementMatchers;
+
+/**
+ * Utility class that compiles nginx {@code log_format} directives into specialized log line parsers.
+ *
+ * <p>The directive is split into literals and {@code $variable} references once, and a subclass of
+ * {@link GeneratedLogLineParser} is generated at runtime with Byte Buddy. Its {@code scan} method is
+ * straight-line bytecode with one helper call per element of the directive, so a parse costs no more
+ * than a hand-written parser for the same format.</p>
+ *
+ * <p>Example: {@code $remote_addr - $remote_user [$time_local] "$request" $status $body_bytes_sent}</p>
+ */
+@Log4j2
+@UtilityClass
+public final class LogFormatCompiler {
+
+    /**
+     * nginx variables that are stored in a {@link LogReport}. All other variables are parsed and skipped.
+     * {@code $body_bytes_sent} and {@code $bytes_sent} share the size slot, so a directive may use only one of them.
+     */
+    private static final Map<String, Integer> VARIABLE_SLOTS = Map.of(
+        "remote_addr", GeneratedLogLineParser.IP_ADDRESS_SLOT,
+        "time_local", GeneratedLogLineParser.TIMESTAMP_SLOT,
+        "request", GeneratedLogLineParser.REQUEST_SLOT,
+        "status", GeneratedLogLineParser.STATUS_CODE_SLOT,
+        "body_bytes_sent", GeneratedLogLineParser.SIZE_SLOT,
+        "bytes_sent", GeneratedLogLineParser.SIZE_SLOT,
+        "http_referer", GeneratedLogLineParser.REFERRER_SLOT,
+        "http_user_agent", GeneratedLogLineParser.USER_AGENT_SLOT
+    );
+
+    // Compiled parsers by directive, so each format is generated only once per JVM
+    private static final Map<String, LogLineParser> COMPILED_PARSERS = new ConcurrentHashMap<>();
+    private static final AtomicInteger GENERATED_CLASS_COUNTER = new AtomicInteger();
+
+    // Local variable indices of the generated scan(String, byte[], int[]) method
+    private static final int THIS_VARIABLE = 0;
+    private static final int LOG_LINE_VARIABLE = 1;
+    private static final int LINE_BYTES_VARIABLE = 2;
+    private static final int BOUNDS_VARIABLE = 3;
+    private static final int POSITION_VARIABLE = 4;
+    private static final int MAX_LOCALS = 5;
+    private static final int MAX_STACK = 7;
+
+    /**
+     * Compiles an nginx {@code log_format} directive into a specialized parser.
+     *
+     * @param logFormat the directive, e.g. {@code $remote_addr - $remote_user [$time_local] "$request" ...}
+     * @return a parser producing {@link LogReport}s for lines written with the given format
+     * @throws IllegalArgumentException if the directive is empty or cannot be parsed unambiguously
+     */
+    public static LogLineParser compile(String logFormat) {
+        if (logFormat == null || logFormat.isBlank()) {
+            throw new IllegalArgumentException("Log format is empty or null.");
+        }
+        return COMPILED_PARSERS.computeIfAbsent(logFormat, format -> generate(tokenize(format)));
+    }
+
+    /**
+     * Splits a directive into literals and variables. A variable must be followed by a literal,
+     * whose first character terminates the variable's value.
+     *
+     * @param logFormat the directive to split
+     * @return the elements of the directive in order
+     * @throws IllegalArgumentException if two variables are adjacent, a variable name is empty, or two variables
+     *                                  are stored in the same field of a {@link LogReport}
+     */
+    static List<FormatElement> tokenize(String logFormat) {
+        List<FormatElement> elements = new ArrayList<>();
+        Map<Integer, String> storedVariables = new HashMap<>();
+        StringBuilder literal = new StringBuilder();
+        int i = 0;
+
+        while (i < logFormat.length()) {
+            char c = logFormat.charAt(i);
+            if (c != '$') {
+                literal.append(c);
+                i++;
+                continue;
+            }
+
+            boolean braced = i + 1 < logFormat.length() && logFormat.charAt(i + 1) == '{';
+            int nameStart = braced ? i + 2 : i + 1;
+            int nameEnd = nameStart;
+            while (nameEnd < logFormat.length() && isVariableChar(logFormat.charAt(nameEnd))) {
+                nameEnd++;
+            }
+            boolean unclosed = braced && (nameEnd >= logFormat.length() || logFormat.charAt(nameEnd) != '}');
+            if (nameEnd == nameStart || unclosed) {
+                throw new IllegalArgumentException("Invalid variable at position " + i + " in format: " + logFormat);
+            }
+
+            if (!literal.isEmpty()) {
+                elements.add(FormatElement.literal(literal.toString()));
+                literal.setLength(0);
+            } else if (!elements.isEmpty() && elements.getLast().isVariable()) {
+                throw new IllegalArgumentException("Adjacent variables cannot be separated in format: " + logFormat);
+            }
+
+            String name = logFormat.substring(nameStart, nameEnd);
+            Integer slot = VARIABLE_SLOTS.get(name);
+            String previous = slot == null ? null : storedVariables.putIfAbsent(slot, name);
+            if (previous != null) {
+                // The later value would silently overwrite the earlier one
+                throw new IllegalArgumentException("Variables $" + previous + " and $" + name
+                    + " set the same field in format: " + logFormat);
+            }
+            elements.add(FormatElement.variable(name));
+            i = braced ? nameEnd + 1 : nameEnd;
+        }
+
+        if (!literal.isEmpty()) {
+            elements.add(FormatElement.literal(literal.toString()));
+        }
+        return elements;
+    }
+
+    private static boolean isVariableChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    /**
+     * Generates and instantiates a {@link GeneratedLogLineParser} subclass for the given elements.
+     *
+     * @param elements the elements of the directive
+     * @return a new parser instance
+     */
+    private static LogLineParser generate(List<FormatElement> elements) {
+        String className = GeneratedLogLineParser.class.getName()
+            + "$Format" + GENERATED_CLASS_COUNTER.incrementAndGet();
+
+        try {
+            Class<? extends GeneratedLogLineParser> parserClass = new ByteBuddy()
+                .subclass(GeneratedLogLineParser.class, ConstructorStrategy.Default.IMITATE_SUPER_CLASS_OPENING)
+                .name(className)
+                .method(ElementMatchers.named("scan"))
+                .intercept(new Implementation.Simple(new ScanAppender(elements)))
+                .make()
+                .load(GeneratedLogLineParser.class.getClassLoader(), ClassLoadingStrategy.Default.WRAPPER)
+                .getLoaded();
+
+            log.info("Generated parser {} for {} format elements", className, elements.size());
+            return parserClass.getDeclaredConstructor().newInstance();
+        } catch (InstantiationException | IllegalAccessException
+                 | InvocationTargetException | NoSuchMethodException e) {
+            throw new IllegalStateException("Failed to instantiate generated parser " + className, e);
+        }
+    }
+
+    /**
+     * A literal or a variable reference of a {@code log_format} directive.
+     *
+     * @param text       the literal text or the variable name
+     * @param isVariable whether the element is a variable
+     */
+    record FormatElement(String text, boolean isVariable) {
+        static FormatElement literal(String text) {
+            return new FormatElement(text, false);
+        }
+
+        static FormatElement variable(String name) {
+            return new FormatElement(name, true);
+        }
+    }
+
+    /**
+     * Emits the body of {@code scan(String logLine, byte[] lineBytes, int[] bounds)}:
+     * <pre>
+     * int position = 0;
+     * position = literal(logLine, position, "...");
+     * position = this.field(logLine, lineBytes, position, terminator, bounds, slot);
+     * ...
+     * return position;
+     * </pre>
+     */
+    private static final class ScanAppender implements ByteCodeAppender {
+        private final List<FormatElement> elements;
+        private final String ownerName = Type.getInternalName(GeneratedLogLineParser.class);
+        private final String literalDescriptor = helperDescriptor("literal", String.class, int.class, String.class);
+        private final String fieldDescriptor =
+            helperDescriptor("field", String.class, byte[].class, int.class, int.class, int[].class, int.class);
+
+        ScanAppender(List<FormatElement> elements) {
+            this.elements = List.copyOf(elements);
+        }
+
+        @Override
+        public Size apply(MethodVisitor visitor, Implementation.Context context, MethodDescription method) {
+            visitor.visitInsn(Opcodes.ICONST_0);
+            visitor.visitVarInsn(Opcodes.ISTORE, POSITION_VARIABLE);
+
+            for (int i = 0; i < elements.size(); i++) {
+                FormatElement element = elements.get(i);
+
+                if (element.isVariable()) {
+                    visitor.visitVarInsn(Opcodes.ALOAD, THIS_VARIABLE);
+                    visitor.visitVarInsn(Opcodes.ALOAD, LOG_LINE_VARIABLE);
+                    visitor.visitVarInsn(Opcodes.ALOAD, LINE_BYTES_VARIABLE);
+                    visitor.visitVarInsn(Opcodes.ILOAD, POSITION_VARIABLE);
+                    int terminator = i + 1 < elements.size()
+                        ? elements.get(i + 1).text().charAt(0)
+                        : GeneratedLogLineParser.END_OF_LINE;
+                    visitor.visitLdcInsn(terminator);
+                    visitor.visitVarInsn(Opcodes.ALOAD, BOUNDS_VARIABLE);
+                    visitor.visitLdcInsn(VARIABLE_SLOTS.getOrDefault(element.text(),
+                        GeneratedLogLineParser.SKIPPED_SLOT));
+                    visitor.visitMethodInsn(Opcodes.INVOKEVIRTUAL, ownerName, "field", fieldDescriptor, false);
+                } else {
+                    visitor.visitVarInsn(Opcodes.ALOAD, LOG_LINE_VARIABLE);
+                    visitor.visitVarInsn(Opcodes.ILOAD, POSITION_VARIABLE);
+                    visitor.visitLdcInsn(element.text());
+                    visitor.visitMethodInsn(Opcodes.INVOKESTATIC, ownerName, "literal", literalDescriptor, false);
+                }
+
+                visitor.visitVarInsn(Opcodes.ISTORE, POSITION_VARIABLE);
+            }
+
+            visitor.visitVarInsn(Opcodes.ILOAD, POSITION_VARIABLE);
+            visitor.visitInsn(Opcodes.IRETURN);
+            return new Size(MAX_STACK, MAX_LOCALS);
+        }
+
+        private static String helperDescriptor(String name, Class<?>... parameterTypes) {
+            try {
+                Method helper = GeneratedLogLineParser.class.getDeclaredMethod(name, parameterTypes);
+                return Type.getMethodDescriptor(helper);
+            } catch (NoSuchMethodException e) {
+                throw new IllegalStateException("Missing parser helper: " + name, e);
+            }
+        }
+    }
+}
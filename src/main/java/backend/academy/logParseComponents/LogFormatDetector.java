@@ -0,0 +1,91 @@
+package backend.academy.logParseComponents;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import lombok.experimental.UtilityClass;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Utility class that picks the specialized parser for a log source by sniffing its first lines.
+ *
+ * <p>Every {@link KnownLogFormat} is tried against a sample of at most {@link #SNIFF_BYTES} characters from the
+ * beginning of the input, and the format that reads the most sample lines wins. Detection is done once per
+ * file, so a file in a slightly different format no longer fails the default pattern on every line.</p>
+ */
+@Log4j2
+@UtilityClass
+public final class LogFormatDetector {
+
+    /**
+     * Maximum number of characters taken from the beginning of the input for detection.
+     */
+    public static final int SNIFF_BYTES = 8 * 1024;
+
+    /**
+     * Detects the format of the given log lines.
+     *
+     * @param logLines the lines of the log source; only the first {@link #SNIFF_BYTES} characters are inspected
+     * @return the best matching format, or an empty Optional if no known format reads any of the sample lines
+     */
+    public static Optional<KnownLogFormat> detect(List<String> logLines) {
+        List<String> sample = sample(logLines);
+        if (sample.isEmpty()) {
+            return Optional.empty();
+        }
+
+        KnownLogFormat bestFormat = null;
+        int bestScore = 0;
+        for (KnownLogFormat format : KnownLogFormat.values()) {
+            int score = score(format.parser(), sample);
+            if (score > bestScore) {
+                bestFormat = format;
+                bestScore = score;
+            }
+        }
+
+        if (bestFormat != null) {
+            log.info("Detected log format '{}' ({} of {} sample lines)",
+                bestFormat.displayName(), bestScore, sample.size());
+        } else {
+            log.warn("None of the known log formats matches the first {} lines", sample.size());
+        }
+        return Optional.ofNullable(bestFormat);
+    }
+
+    /**
+     * Returns the parser for the given log lines: the detected format's parser, or the fallback if none matches.
+     *
+     * @param logLines the lines of the log source
+     * @param fallback the parser to use when no known format matches
+     * @return the parser to use for the log source
+     */
+    public static LogLineParser parserFor(List<String> logLines, LogLineParser fallback) {
+        return detect(logLines).map(KnownLogFormat::parser).orElse(fallback);
+    }
+
+    private static List<String> sample(List<String> logLines) {
+        List<String> sample = new ArrayList<>();
+        int sampledChars = 0;
+        for (String line : logLines) {
+            if (sampledChars >= SNIFF_BYTES) {
+                break;
+            }
+            if (!line.isBlank()) {
+                sample.add(line);
+                sampledChars += line.length() + 1;
+            }
+        }
+        return sample;
+    }
+
+    private static int score(LogLineParser parser, List<String> sample) {
+        int matched = 0;
+        for (String line : sample) {
+            if (parser.parse(line) != null) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+}
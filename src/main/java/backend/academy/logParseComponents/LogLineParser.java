@@ -0,0 +1,48 @@
+package backend.academy.logParseComponents;
+
+/**
+ * Strategy for turning a single raw log line into a {@link LogReport}.
+ *
+ * <p>The default implementation is the regex-based parser in {@link LogParser}; specialized implementations
+ * are produced at runtime by {@link LogFormatCompiler} from nginx {@code log_format} directives.</p>
+ *
+ * <p>Malformed lines are not reported with exceptions: the parser returns {@code null} and passes the
+ * {@link MalformedReason} to the given handler, which keeps the cost of a bad line close to that of a good one.</p>
+ *
+ * <p>Parsers are stateless: the repeated fields are interned into the {@link FieldInterner} of the analysis the
+ * line belongs to, which is passed with each line.</p>
+ */
+@FunctionalInterface
+public interface LogLineParser {
+
+    /**
+     * Parses a single log line, interning its repeated fields.
+     *
+     * @param logLine     the raw log line
+     * @param interner    the interner of the analysis, or {@code null} to parse the line without symbol ids
+     * @param onMalformed the handler notified if the line is rejected
+     * @return a {@link LogReport} containing the parsed log data, or {@code null} if the line is malformed
+     */
+    LogReport parse(String logLine, FieldInterner interner, MalformedLineHandler onMalformed);
+
+    /**
+     * Parses a single log line without symbol ids.
+     *
+     * @param logLine     the raw log line
+     * @param onMalformed the handler notified if the line is rejected
+     * @return a {@link LogReport} containing the parsed log data, or {@code null} if the line is malformed
+     */
+    default LogReport parse(String logLine, MalformedLineHandler onMalformed) {
+        return parse(logLine, null, onMalformed);
+    }
+
+    /**
+     * Parses a single log line without symbol ids, ignoring the reason if it is malformed.
+     *
+     * @param logLine the raw log line
+     * @return a {@link LogReport} containing the parsed log data, or {@code null} if the line is malformed
+     */
+    default LogReport parse(String logLine) {
+        return parse(logLine, MalformedLineHandler.IGNORE);
+    }
+}
@@ -1,20 +1,19 @@
 package backend.academy.logParseComponents;
 
 import backend.academy.exceptions.LogParseException;
-import backend.academy.logObservers.LogObserver;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import lombok.experimental.UtilityClass;
-import lombok.extern.log4j.Log4j2;
 
 /**
- * Utility class for parsing NGNIX log entries and notifying registered observers of parsed log data.
+ * Utility class holding the default NGNIX log line parser.
  *
  * <p>This parser supports both IPv4 and IPv6 formats in log entries and follows the NGNIX log entry pattern.</p>
+ *
+ * <p>The static methods are stateless helpers for tools and tests that parse single lines: they hold no
+ * configuration, observers or symbol table. An analysis creates its own {@link AnalysisContext}, which owns its
+ * parser configuration, observers and symbol table.</p>
  */
-@Log4j2
 @UtilityClass
 public final class LogParser {
 
@@ -23,19 +22,20 @@ public final class LogParser {
      * <p>
      * Format of log entry: <code>[IP_ADDRESS] - - [TIMESTAMP] "REQUEST" STATUS_CODE SIZE "REFERRER" "USER_AGENT"</code>
      * </p>
+     * <p>
+     * Every quantifier is possessive over a class that excludes the following delimiter, so the matcher never
+     * backtracks into a field; only the last field may contain quotes, and its greedy group gives back at most
+     * the characters after its closing quote. Matching is therefore linear in the line length, also for lines
+     * that almost match.
+     * </p>
      */
     private static final String LOG_PATTERN =
-        "([\\dA-Fa-f:.]+)\\s+-\\s+-\\s+\\[(.*?)]\\s+\"(.*?)\"\\s+(\\d{3})\\s+(\\d+)\\s+\"(.*?)\"\\s+\"(.*?)\"";
+        "([\\dA-Fa-f:.]++)\\s++-\\s++-\\s++\\[([^\\]]*+)]\\s++\"([^\"]*+)\"\\s++(\\d{3})\\s++(\\d++)\\s++"
+            + "\"([^\"]*+)\"\\s++\"(.*)\"";
 
     // Compiled pattern for log parsing, to avoid recompiling each time
     public static final Pattern COMPILED_LOG_PATTERN = Pattern.compile(LOG_PATTERN);
 
-    /**
-     * List of observers to notify on each log entry parsing.
-     * Observers must implement the {@link LogObserver} interface.
-     */
-    private static final List<LogObserver> OBSERVERS = new ArrayList<>();
-
     // Group indices in the regex pattern for extracting log fields
     private static final int IP_ADDRESS_GROUP = 1;
     private static final int TIMESTAMP_GROUP = 2;
@@ -46,95 +46,108 @@ public final class LogParser {
     private static final int USER_AGENT_GROUP = 7;
 
     /**
-     * Registers an observer to be notified of each parsed log entry.
-     * <p>
-     * <b>Note:</b> Improper use of observers may lead to unintended side effects.
-     * </p>
+     * Default maximum length of a log line, in characters. Longer lines are rejected before parsing.
+     */
+    public static final int DEFAULT_MAX_LINE_LENGTH = 32 * 1024;
+
+    /**
+     * Value of {@link AnalysisContext#useLogFormat(String)} selecting the JSON-lines parser.
+     */
+    public static final String JSON_LOG_FORMAT = "json";
+
+    /**
+     * Handler that fails fast on malformed lines, used by {@link #parseLog(String)}.
+     */
+    static final MalformedLineHandler THROW_ON_MALFORMED = (reason, logLine) -> {
+        throw new LogParseException("Invalid log format (" + reason.description() + "): " + logLine);
+    };
+
+    /**
+     * The regex parser behind the default line length guard, as returned by {@link #lineParser()}.
+     */
+    private static final LogLineParser GUARDED_PARSER = (logLine, interner, onMalformed) -> {
+        if (logLine != null && logLine.length() > DEFAULT_MAX_LINE_LENGTH) {
+            onMalformed.onMalformed(MalformedReason.LINE_TOO_LONG, logLine);
+            return null;
+        }
+        return getLogReport(logLine, interner, onMalformed);
+    };
+
+    /**
+     * Returns the default {@code LOG_PATTERN} parser, guarded by {@link #DEFAULT_MAX_LINE_LENGTH}. It keeps no
+     * state, so it can be shared by any number of threads; the repeated fields are interned only into the
+     * {@link FieldInterner} passed with a line.
      *
-     * @param observer the {@link LogObserver} to add
+     * @return the regex {@link LogLineParser}
      */
-    public static void addObserver(LogObserver observer) {
-        OBSERVERS.add(observer);
-        log.info("Added observer: {}", observer.getClass().getSimpleName());
+    public static LogLineParser lineParser() {
+        return GUARDED_PARSER;
     }
 
     /**
-     * Parses a single log line according to the defined {@code LOG_PATTERN} and notifies observers
-     * with the parsed log data.
+     * Parses a single log line with the default parser, throwing on malformed lines. No observer is notified;
+     * analyses parse through {@link AnalysisContext#parseLog(String)}.
      *
-     * @param logLine the log line to parse; expected format:
-     *                <code>[IP_ADDRESS] - - [TIMESTAMP] "REQUEST" STATUS_CODE SIZE "REFERRER" "USER_AGENT"</code>
-     * @return a {@link LogReport} object containing parsed log data
-     * @throws LogParseException if the log line is null, empty, or does not match the expected format
+     * @param logLine the log line to parse
+     * @return a {@link LogReport} object containing parsed log data, without symbol ids
+     * @throws LogParseException if the log line is malformed
      */
     public static LogReport parseLog(String logLine) {
-        if (logLine == null || logLine.isEmpty()) {
-            throw new LogParseException("Log line is empty or null.");
-        }
-
-        try {
-            LogReport logReport = getLogReport(logLine);
-
-            // Notify all registered observers with the parsed log entry
-            notifyObservers(logReport);
+        return GUARDED_PARSER.parse(logLine, THROW_ON_MALFORMED);
+    }
 
-            return logReport;
-        } catch (LogParseException e) {
-            log.error("Failed to parse log line due to invalid format: {}", logLine, e);
-            throw e;
-        } catch (Exception e) {
-            log.error("Unexpected error while parsing log line: {}", logLine, e);
-            throw new LogParseException("Unexpected error while parsing log line: " + logLine, e);
-        }
+    /**
+     * Parses a single log line with the default parser. No observer is notified.
+     *
+     * @param logLine the log line to parse
+     * @return the parsed {@link LogReport} without symbol ids, or {@code null} if the line is malformed
+     */
+    public static LogReport parseLine(String logLine) {
+        return GUARDED_PARSER.parse(logLine);
     }
 
     /**
      * Extracts log report data from a log line using the compiled regex pattern.
      *
-     * @param logLine the log line to parse; expected to match {@code LOG_PATTERN}
-     * @return a {@link LogReport} containing parsed log data
-     * @throws LogParseException if the log line format is invalid
+     * @param logLine     the log line to parse; expected to match {@code LOG_PATTERN}
+     * @param interner    the interner of the repeated fields, or {@code null} to parse without symbol ids
+     * @param onMalformed the handler notified if the line does not match
+     * @return a {@link LogReport} containing parsed log data, or {@code null} if the log line or a field is invalid
      */
-    private static LogReport getLogReport(String logLine) {
+    static LogReport getLogReport(String logLine, FieldInterner interner, MalformedLineHandler onMalformed) {
+        if (logLine == null || logLine.isEmpty()) {
+            onMalformed.onMalformed(MalformedReason.EMPTY_LINE, logLine);
+            return null;
+        }
+
         Matcher matcher = COMPILED_LOG_PATTERN.matcher(logLine);
 
         if (!matcher.matches()) {
-            throw new LogParseException("Invalid log format: " + logLine);
+            onMalformed.onMalformed(MalformedReason.FORMAT_MISMATCH, logLine);
+            return null;
         }
 
-        return new LogReport(
-            matcher.group(IP_ADDRESS_GROUP),
-            matcher.group(TIMESTAMP_GROUP),
-            matcher.group(REQUEST_GROUP),
-            matcher.group(STATUS_CODE_GROUP),
-            matcher.group(SIZE_GROUP),
-            matcher.group(REFERRER_GROUP),
-            matcher.group(USER_AGENT_GROUP)
-        );
-    }
-
-    /**
-     * Notifies all registered observers with the provided log entry.
-     *
-     * @param logReport the parsed log data to send to observers
-     */
-    private static void notifyObservers(LogReport logReport) {
-        for (LogObserver observer : OBSERVERS) {
-            try {
-                observer.update(logReport);
-            } catch (Exception e) {
-                log.error("Error notifying observer {}: {}",
-                    observer.getClass().getSimpleName(), e.getMessage(), e);
-            }
-        }
+        int[] bounds = LogReportDecoder.newBounds();
+        recordGroup(matcher, IP_ADDRESS_GROUP, bounds, GeneratedLogLineParser.IP_ADDRESS_SLOT);
+        recordGroup(matcher, TIMESTAMP_GROUP, bounds, GeneratedLogLineParser.TIMESTAMP_SLOT);
+        recordGroup(matcher, REQUEST_GROUP, bounds, GeneratedLogLineParser.REQUEST_SLOT);
+        recordGroup(matcher, STATUS_CODE_GROUP, bounds, GeneratedLogLineParser.STATUS_CODE_SLOT);
+        recordGroup(matcher, SIZE_GROUP, bounds, GeneratedLogLineParser.SIZE_SLOT);
+        recordGroup(matcher, REFERRER_GROUP, bounds, GeneratedLogLineParser.REFERRER_SLOT);
+        recordGroup(matcher, USER_AGENT_GROUP, bounds, GeneratedLogLineParser.USER_AGENT_SLOT);
+        return LogReportDecoder.decode(logLine, bounds, interner, onMalformed);
     }
 
     /**
-     * Returns a copy of the registered observers list.
+     * Records the start and end of a matched group in the bounds array used by {@link LogReportDecoder}.
      *
-     * @return a new list of {@link LogObserver} instances currently registered with this parser
+     * @param matcher the matcher of a successful match
+     * @param group   the group index in {@code LOG_PATTERN}
+     * @param bounds  the bounds array
+     * @param slot    the slot of the field
      */
-    public List<LogObserver> observers() {
-        return new ArrayList<>(OBSERVERS);
+    private static void recordGroup(Matcher matcher, int group, int[] bounds, int slot) {
+        bounds[2 * slot] = matcher.start(group);
+        bounds[2 * slot + 1] = matcher.end(group);
     }
 }
@@ -1,9 +1,130 @@
 package backend.academy.logParseComponents;
 
-public record LogReport(String ipAddress,
-                        String timestamp,
+/**
+ * A parsed log entry. Numeric fields are decoded once, at parse time, so observers work on primitives.
+ *
+ * @param ipHigh         the high 64 bits of the client address, packed by {@link IpAddresses};
+ *                       both words are 0 if the format has no client address
+ * @param ipLow          the low 64 bits of the client address, packed by {@link IpAddresses}
+ * @param hasAddress     whether the entry has a client address; needed to tell entries without one from
+ *                       clients of the unspecified address {@code ::}, whose words are also 0
+ * @param epochSecond    the request time in seconds since the epoch, or {@link #NO_TIMESTAMP}
+ * @param request        the request line, e.g. {@code GET /index.html HTTP/1.1}
+ * @param httpStatusCode the HTTP status code, or 0 if the format has no status
+ * @param responseSize   the response body size in bytes
+ * @param referrer       the referrer
+ * @param userAgent      the user agent
+ * @param symbols        the table the ids below refer to, or {@code null} if the entry was parsed without a
+ *                       {@link FieldInterner}
+ * @param methodId       the id of the request method, or {@link #NO_ID}
+ * @param pathId         the id of the templated request path, or of the whole request if it is not an HTTP
+ *                       request line, or {@link #NO_ID}
+ * @param referrerId     the id of the referrer, or {@link #NO_ID}
+ * @param userAgentId    the id of the user agent, or {@link #NO_ID}
+ */
+public record LogReport(long ipHigh,
+                        long ipLow,
+                        boolean hasAddress,
+                        long epochSecond,
                         String request,
-                        String httpStatusCode,
-                        String responseSize,
+                        int httpStatusCode,
+                        long responseSize,
                         String referrer,
-                        String userAgent) {}
+                        String userAgent,
+                        SymbolTable symbols,
+                        int methodId,
+                        int pathId,
+                        int referrerId,
+                        int userAgentId) {
+
+    /**
+     * Value of {@link #epochSecond()} for formats without a timestamp.
+     */
+    public static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    /**
+     * Value of {@link #ipAddress()} for formats without a client address.
+     */
+    public static final String NO_ADDRESS = "-";
+
+    /**
+     * Value of the id fields of entries parsed without a {@link FieldInterner}, and of {@link #methodId()} for
+     * requests that are not HTTP request lines.
+     */
+    public static final int NO_ID = -1;
+
+    /**
+     * Creates an entry with a client address.
+     *
+     * @param ipHigh         the high 64 bits of the client address
+     * @param ipLow          the low 64 bits of the client address
+     * @param epochSecond    the request time in seconds since the epoch, or {@link #NO_TIMESTAMP}
+     * @param request        the request line
+     * @param httpStatusCode the HTTP status code
+     * @param responseSize   the response body size in bytes
+     * @param referrer       the referrer
+     * @param userAgent      the user agent
+     */
+    public LogReport(long ipHigh, long ipLow, long epochSecond, String request, int httpStatusCode,
+        long responseSize, String referrer, String userAgent) {
+        this(ipHigh, ipLow, true, epochSecond, request, httpStatusCode, responseSize, referrer, userAgent);
+    }
+
+    /**
+     * Creates an entry without symbol ids.
+     *
+     * @param ipHigh         the high 64 bits of the client address
+     * @param ipLow          the low 64 bits of the client address
+     * @param hasAddress     whether the entry has a client address
+     * @param epochSecond    the request time in seconds since the epoch, or {@link #NO_TIMESTAMP}
+     * @param request        the request line
+     * @param httpStatusCode the HTTP status code
+     * @param responseSize   the response body size in bytes
+     * @param referrer       the referrer
+     * @param userAgent      the user agent
+     */
+    public LogReport(long ipHigh, long ipLow, boolean hasAddress, long epochSecond, String request,
+        int httpStatusCode, long responseSize, String referrer, String userAgent) {
+        this(ipHigh, ipLow, hasAddress, epochSecond, request, httpStatusCode, responseSize, referrer, userAgent,
+            null, NO_ID, NO_ID, NO_ID, NO_ID);
+    }
+
+    /**
+     * Returns the client address as text. The string is built on each call, so it is meant for reporting
+     * and filtering rather than for the per-line hot path.
+     *
+     * @return the dotted-quad IPv4 or canonical IPv6 address, or {@link #NO_ADDRESS}
+     */
+    public String ipAddress() {
+        return !hasAddress ? NO_ADDRESS : IpAddresses.format(ipHigh, ipLow);
+    }
+
+    /**
+     * Returns whether the client address is an IPv4 address.
+     *
+     * @return {@code true} for IPv4 clients
+     */
+    public boolean isIpv4() {
+        return IpAddresses.isIpv4(ipHigh, ipLow);
+    }
+
+    /**
+     * Returns whether the ids of this entry refer to the given table, i.e. whether an observer counting by ids
+     * of that table can use them instead of interning the fields again.
+     *
+     * @param table the symbol table of the observer
+     * @return {@code true} if the entry was interned into {@code table} at parse time
+     */
+    public boolean hasIdsIn(SymbolTable table) {
+        return symbols != null && symbols == table;
+    }
+
+    /**
+     * Splits the request line into method, path, query string and protocol.
+     *
+     * @return the split request line, or {@code null} if the request is not an HTTP request line
+     */
+    public RequestLine requestLine() {
+        return RequestLine.parse(request);
+    }
+}
@@ -0,0 +1,264 @@
+package backend.academy.logParseComponents;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+import java.util.Arrays;
+import lombok.experimental.UtilityClass;
+import static backend.academy.logParseComponents.GeneratedLogLineParser.IP_ADDRESS_SLOT;
+import static backend.academy.logParseComponents.GeneratedLogLineParser.REFERRER_SLOT;
+import static backend.academy.logParseComponents.GeneratedLogLineParser.REQUEST_SLOT;
+import static backend.academy.logParseComponents.GeneratedLogLineParser.SIZE_SLOT;
+import static backend.academy.logParseComponents.GeneratedLogLineParser.SLOT_COUNT;
+import static backend.academy.logParseComponents.GeneratedLogLineParser.STATUS_CODE_SLOT;
+import static backend.academy.logParseComponents.GeneratedLogLineParser.TIMESTAMP_SLOT;
+import static backend.academy.logParseComponents.GeneratedLogLineParser.USER_AGENT_SLOT;
+
+/**
+ * Utility class that turns the field boundaries found by a parser into a typed {@link LogReport}.
+ *
+ * <p>Parsers only record where each field starts and ends; the numeric fields are decoded here straight from
+ * the line, without intermediate strings, so both the generated parsers and the regex parser share the same
+ * validation and produce identical reports.</p>
+ */
+@UtilityClass
+final class LogReportDecoder {
+
+    /**
+     * Length of the bounds array: a start and an end position for each slot.
+     */
+    static final int BOUNDS_LENGTH = 2 * SLOT_COUNT;
+
+    /**
+     * Value returned by {@link #parseTimestamp(CharSequence, int, int)} for an invalid timestamp.
+     */
+    static final long INVALID_TIMESTAMP = Long.MIN_VALUE;
+
+    private static final int STATUS_CODE_LENGTH = 3;
+    private static final int MAX_RESPONSE_SIZE_DIGITS = 18;
+    private static final String MISSING_VALUE = "-";
+
+    // Layout of "dd/MMM/yyyy:HH:mm:ss +zzzz"
+    private static final int TIMESTAMP_LENGTH = 26;
+    private static final int DAY_OFFSET = 0;
+    private static final int MONTH_OFFSET = 3;
+    private static final int YEAR_OFFSET = 7;
+    private static final int HOUR_OFFSET = 12;
+    private static final int MINUTE_OFFSET = 15;
+    private static final int SECOND_OFFSET = 18;
+    private static final int ZONE_SIGN_OFFSET = 21;
+    private static final int ZONE_HOUR_OFFSET = 22;
+    private static final int ZONE_MINUTE_OFFSET = 24;
+    private static final String TIMESTAMP_SEPARATORS = "//::: ";
+    private static final int[] SEPARATOR_OFFSETS = {2, 6, 11, 14, 17, 20};
+    private static final String MONTHS = "JanFebMarAprMayJunJulAugSepOctNovDec";
+    private static final int MONTH_NAME_LENGTH = 3;
+    private static final int YEAR_DIGITS = 4;
+
+    private static final int HOURS_PER_DAY = 24;
+    private static final int MINUTES_PER_HOUR = 60;
+    private static final int SECONDS_PER_MINUTE = 60;
+    private static final int SECONDS_PER_HOUR = 3600;
+    private static final long SECONDS_PER_DAY = 86_400L;
+    private static final int MAX_ZONE_HOURS = 18;
+    private static final int DECIMAL = 10;
+
+    /**
+     * Creates an empty bounds array, with every slot marked as absent.
+     *
+     * @return a new bounds array of {@link #BOUNDS_LENGTH} elements, all {@code -1}
+     */
+    static int[] newBounds() {
+        int[] bounds = new int[BOUNDS_LENGTH];
+        Arrays.fill(bounds, -1);
+        return bounds;
+    }
+
+    /**
+     * Decodes the fields of a log line.
+     *
+     * @param logLine     the log line
+     * @param bounds      the start (at {@code 2 * slot}) and end (at {@code 2 * slot + 1}) of each field,
+     *                    or {@code -1} for fields the format does not contain
+     * @param interner    the interner of the repeated fields, or {@code null} to copy them without ids
+     * @param onMalformed the handler notified if a field cannot be decoded
+     * @return the decoded {@link LogReport}, or {@code null} if a field is invalid
+     */
+    static LogReport decode(String logLine, int[] bounds, FieldInterner interner, MalformedLineHandler onMalformed) {
+        long ipHigh = 0;
+        long ipLow = 0;
+        int ipStart = bounds[2 * IP_ADDRESS_SLOT];
+        if (ipStart >= 0) {
+            long[] packed = new long[2];
+            if (!IpAddresses.parse(logLine, ipStart, bounds[2 * IP_ADDRESS_SLOT + 1], packed)) {
+                onMalformed.onMalformed(MalformedReason.INVALID_IP_ADDRESS, logLine);
+                return null;
+            }
+            ipHigh = packed[0];
+            ipLow = packed[1];
+        }
+
+        long epochSecond = LogReport.NO_TIMESTAMP;
+        int timestampStart = bounds[2 * TIMESTAMP_SLOT];
+        if (timestampStart >= 0) {
+            epochSecond = parseTimestamp(logLine, timestampStart, bounds[2 * TIMESTAMP_SLOT + 1]);
+            if (epochSecond == INVALID_TIMESTAMP) {
+                onMalformed.onMalformed(MalformedReason.INVALID_TIMESTAMP, logLine);
+                return null;
+            }
+        }
+
+        int statusCode = 0;
+        int statusStart = bounds[2 * STATUS_CODE_SLOT];
+        if (statusStart >= 0) {
+            int statusEnd = bounds[2 * STATUS_CODE_SLOT + 1];
+            statusCode = statusEnd - statusStart == STATUS_CODE_LENGTH
+                ? (int) parseDigits(logLine, statusStart, statusEnd)
+                : -1;
+            if (statusCode < 0) {
+                onMalformed.onMalformed(MalformedReason.INVALID_STATUS_CODE, logLine);
+                return null;
+            }
+        }
+
+        long responseSize = 0;
+        int sizeStart = bounds[2 * SIZE_SLOT];
+        int sizeEnd = bounds[2 * SIZE_SLOT + 1];
+        // Apache writes "-" instead of 0 for responses without a body
+        if (sizeStart >= 0 && !isMissing(logLine, sizeStart, sizeEnd)) {
+            responseSize = sizeEnd - sizeStart <= MAX_RESPONSE_SIZE_DIGITS
+                ? parseDigits(logLine, sizeStart, sizeEnd)
+                : -1;
+            if (responseSize < 0) {
+                onMalformed.onMalformed(MalformedReason.INVALID_RESPONSE_SIZE, logLine);
+                return null;
+            }
+        }
+
+        String request = text(logLine, bounds, REQUEST_SLOT);
+        if (interner == null) {
+            return new LogReport(ipHigh, ipLow, ipStart >= 0, epochSecond, request, statusCode, responseSize,
+                text(logLine, bounds, REFERRER_SLOT), text(logLine, bounds, USER_AGENT_SLOT));
+        }
+        SymbolTable symbols = interner.symbols();
+        int referrerId = symbolId(logLine, bounds, REFERRER_SLOT, interner);
+        int userAgentId = symbolId(logLine, bounds, USER_AGENT_SLOT, interner);
+        return new LogReport(
+            ipHigh,
+            ipLow,
+            ipStart >= 0,
+            epochSecond,
+            request,
+            statusCode,
+            responseSize,
+            symbols.symbol(referrerId),
+            symbols.symbol(userAgentId),
+            symbols,
+            interner.methodId(request),
+            interner.pathId(request),
+            referrerId,
+            userAgentId
+        );
+    }
+
+    /**
+     * Parses a timestamp in the {@code dd/MMM/yyyy:HH:mm:ss Z} format, e.g. {@code 17/May/2015:14:05:39 +0000},
+     * without a {@link java.time.format.DateTimeFormatter}.
+     *
+     * @param text the text containing the timestamp
+     * @param from the start of the timestamp (inclusive)
+     * @param to   the end of the timestamp (exclusive)
+     * @return the timestamp in seconds since the epoch, or {@link #INVALID_TIMESTAMP}
+     */
+    static long parseTimestamp(CharSequence text, int from, int to) {
+        if (to - from != TIMESTAMP_LENGTH) {
+            return INVALID_TIMESTAMP;
+        }
+        for (int i = 0; i < SEPARATOR_OFFSETS.length; i++) {
+            if (text.charAt(from + SEPARATOR_OFFSETS[i]) != TIMESTAMP_SEPARATORS.charAt(i)) {
+                return INVALID_TIMESTAMP;
+            }
+        }
+
+        int month = parseMonth(text, from + MONTH_OFFSET);
+        int day = (int) parseDigits(text, from + DAY_OFFSET, from + DAY_OFFSET + 2);
+        int year = (int) parseDigits(text, from + YEAR_OFFSET, from + YEAR_OFFSET + YEAR_DIGITS);
+        int hour = (int) parseDigits(text, from + HOUR_OFFSET, from + HOUR_OFFSET + 2);
+        int minute = (int) parseDigits(text, from + MINUTE_OFFSET, from + MINUTE_OFFSET + 2);
+        int second = (int) parseDigits(text, from + SECOND_OFFSET, from + SECOND_OFFSET + 2);
+        int zoneHours = (int) parseDigits(text, from + ZONE_HOUR_OFFSET, from + ZONE_HOUR_OFFSET + 2);
+        int zoneMinutes = (int) parseDigits(text, from + ZONE_MINUTE_OFFSET, from + ZONE_MINUTE_OFFSET + 2);
+        char zoneSign = text.charAt(from + ZONE_SIGN_OFFSET);
+
+        boolean fieldsValid = month > 0 && day > 0 && year >= 0
+            && hour >= 0 && hour < HOURS_PER_DAY
+            && minute >= 0 && minute < MINUTES_PER_HOUR
+            && second >= 0 && second < SECONDS_PER_MINUTE
+            && zoneHours >= 0 && zoneHours <= MAX_ZONE_HOURS
+            && zoneMinutes >= 0 && zoneMinutes < MINUTES_PER_HOUR
+            && (zoneSign == '+' || zoneSign == '-');
+        if (!fieldsValid || day > Month.of(month).length(Year.isLeap(year))) {
+            return INVALID_TIMESTAMP;
+        }
+
+        long offsetSeconds = (long) zoneHours * SECONDS_PER_HOUR + (long) zoneMinutes * SECONDS_PER_MINUTE;
+        long localSeconds = LocalDate.of(year, month, day).toEpochDay() * SECONDS_PER_DAY
+            + (long) hour * SECONDS_PER_HOUR + (long) minute * SECONDS_PER_MINUTE + second;
+        return zoneSign == '+' ? localSeconds - offsetSeconds : localSeconds + offsetSeconds;
+    }
+
+    /**
+     * Parses a range of ASCII digits.
+     *
+     * @return the value, or -1 if the range is empty or contains a non-digit
+     */
+    private static long parseDigits(CharSequence text, int from, int to) {
+        if (from >= to) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * DECIMAL + c - '0';
+        }
+        return value;
+    }
+
+    /**
+     * Parses an English three-letter month abbreviation.
+     *
+     * @return the month number from 1 to 12, or -1 if the abbreviation is unknown
+     */
+    private static int parseMonth(CharSequence text, int from) {
+        for (int i = 0; i < MONTHS.length(); i += MONTH_NAME_LENGTH) {
+            if (text.charAt(from) == MONTHS.charAt(i)
+                && text.charAt(from + 1) == MONTHS.charAt(i + 1)
+                && text.charAt(from + 2) == MONTHS.charAt(i + 2)) {
+                return i / MONTH_NAME_LENGTH + 1;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isMissing(String logLine, int from, int to) {
+        return to - from == 1 && logLine.charAt(from) == '-';
+    }
+
+    /**
+     * Interns a field that repeats across lines, copying it only on first sight.
+     */
+    private static int symbolId(String logLine, int[] bounds, int slot, FieldInterner interner) {
+        int start = bounds[2 * slot];
+        return start < 0
+            ? interner.symbols().id(MISSING_VALUE)
+            : interner.id(logLine, start, bounds[2 * slot + 1]);
+    }
+
+    private static String text(String logLine, int[] bounds, int slot) {
+        int start = bounds[2 * slot];
+        return start < 0 ? MISSING_VALUE : logLine.substring(start, bounds[2 * slot + 1]);
+    }
+}
@@ -1,6 +1,8 @@
 package backend.academy.logParseComponents;
 
 import backend.academy.logObservers.LogObserver;
+import backend.academy.logObservers.MergeableObserver;
+import backend.academy.logObservers.StripedObserver;
 import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.io.IOException;
@@ -11,6 +13,7 @@ import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import lombok.experimental.UtilityClass;
 import lombok.extern.log4j.Log4j2;
 
@@ -37,7 +40,7 @@ public class LogReportFormatter {
     private static final String DOUBLE_NEWLINE = "\n\n";
     private static final int DEFAULT_METRIC_WIDTH = 6;
     private static final int DEFAULT_VALUE_WIDTH = 5;
-    private static final int DEFAULT_KEY_WIDTH = 3;
+    private static final String COST_SECTION = "Cost";
 
     /**
      * Generates an AsciiDoc report from the metrics of the provided log observers and writes it to a file.
@@ -46,6 +49,19 @@ public class LogReportFormatter {
      * @param observers the list of log observers whose metrics will be included in the report
      */
     public static void generateAdocReport(String fileName, List<LogObserver> observers) {
+        generateAdocReport(fileName, observers, Optional.empty());
+    }
+
+    /**
+     * Generates an AsciiDoc report from the metrics of the provided log observers, followed by a
+     * {@value #COST_SECTION} section with the cost of each observer if they were profiled.
+     *
+     * @param fileName  the name of the file to save the report (AsciiDoc format)
+     * @param observers the list of log observers whose metrics will be included in the report
+     * @param profiler  the profile of the observers, if profiling was enabled
+     */
+    public static void generateAdocReport(String fileName, List<LogObserver> observers,
+        Optional<ObserverProfiler> profiler) {
         try (BufferedWriter writer = new BufferedWriter(new FileWriter(fileName))) {
             writer.write("## Log Report" + DOUBLE_NEWLINE);
             writer.write("#### General Information" + NEWLINE);
@@ -53,7 +69,7 @@ public class LogReportFormatter {
                 + BACKTICK_LOG_FILE + fileName + BACKTICK_LOG_FILE + NEWLINE + DOUBLE_NEWLINE);
 
             // Process metrics and write reports
-            processAndWriteMetrics(writer, observers, true);
+            processAndWriteMetrics(writer, observers, profiler, true);
 
             log.info("Report successfully written to file: {}", fileName);
         } catch (IOException e) {
@@ -68,6 +84,19 @@ public class LogReportFormatter {
      * @param observers the list of log observers whose metrics will be included in the report
      */
     public static void generateMarkdownReport(String fileName, List<LogObserver> observers) {
+        generateMarkdownReport(fileName, observers, Optional.empty());
+    }
+
+    /**
+     * Generates a Markdown report from the metrics of the provided log observers, followed by a
+     * {@value #COST_SECTION} section with the cost of each observer if they were profiled.
+     *
+     * @param fileName  the name of the file to save the report (Markdown format)
+     * @param observers the list of log observers whose metrics will be included in the report
+     * @param profiler  the profile of the observers, if profiling was enabled
+     */
+    public static void generateMarkdownReport(String fileName, List<LogObserver> observers,
+        Optional<ObserverProfiler> profiler) {
         String markdownFileName = fileName.replace(".adoc", ".md");
 
         try (BufferedWriter writer = new BufferedWriter(new FileWriter(markdownFileName))) {
@@ -77,7 +106,7 @@ public class LogReportFormatter {
                 + BACKTICK_LOG_FILE + fileName + BACKTICK_LOG_FILE + NEWLINE + DOUBLE_NEWLINE);
 
             // Process metrics and write reports
-            processAndWriteMetrics(writer, observers, false);
+            processAndWriteMetrics(writer, observers, profiler, false);
 
             log.info("Markdown report successfully written to file: {}", markdownFileName);
         } catch (IOException e) {
@@ -91,21 +120,26 @@ public class LogReportFormatter {
      *
      * @param writer     the BufferedWriter to which the report will be written
      * @param observers  the list of log observers from which to collect the metrics
+     * @param profiler   the profile of the observers, reported in a last section if present
      * @param isAdoc     flag indicating whether the format is AsciiDoc (true) or Markdown (false)
      * @throws IOException if an I/O error occurs during report writing
      */
     private static void processAndWriteMetrics(
         BufferedWriter writer,
         List<LogObserver> observers,
+        Optional<ObserverProfiler> profiler,
         boolean isAdoc) throws IOException {
         List<String[]> singleValueMetrics = new ArrayList<>();
         Map<String, Map<?, ?>> mapMetrics = new LinkedHashMap<>();
 
         // Collect metrics from each observer
         for (LogObserver observer : observers) {
-            String observerName = observer.getClass().getSimpleName().replace("Observer", "");
-            processObserverMetrics(observer, observerName, singleValueMetrics, mapMetrics);
+            // A striped observer is reported as the merge of its stripes
+            LogObserver reported = observer instanceof StripedObserver<?> striped ? striped.snapshot() : observer;
+            String observerName = reported.getClass().getSimpleName().replace("Observer", "");
+            processObserverMetrics(reported, observerName, singleValueMetrics, mapMetrics);
         }
+        profiler.ifPresent(observerProfiler -> mapMetrics.put(COST_SECTION, observerProfiler.costs()));
 
         // Format and write single-value metrics
         if (isAdoc) {
@@ -136,7 +170,7 @@ public class LogReportFormatter {
         List<String[]> singleValueMetrics,
         Map<String, Map<?, ?>> mapMetrics) {
         for (Method method : observer.getClass().getDeclaredMethods()) {
-            if (Modifier.isPublic(method.getModifiers()) && method.getParameterCount() == 0) {
+            if (isMetric(method)) {
                 try {
                     Object value = method.invoke(observer);
                     String metricName = method.getName();
@@ -154,6 +188,21 @@ public class LogReportFormatter {
         }
     }
 
+    /**
+     * Checks whether a method of an observer reports a metric: it must be public and have no parameters.
+     * Methods returning observers, such as {@link MergeableObserver#emptyCopy()}, and compiler-generated
+     * bridge methods are not metrics.
+     *
+     * @param method the method to check
+     * @return {@code true} if the method should be included in the report
+     */
+    private static boolean isMetric(Method method) {
+        return Modifier.isPublic(method.getModifiers())
+            && method.getParameterCount() == 0
+            && !method.isSynthetic()
+            && !LogObserver.class.isAssignableFrom(method.getReturnType());
+    }
+
     /**
      * Formats and writes the single-value metrics in AsciiDoc format.
      *
@@ -210,26 +259,23 @@ public class LogReportFormatter {
         Map<String, Map<?, ?>> mapMetrics) throws IOException {
         for (Map.Entry<String, Map<?, ?>> entry : mapMetrics.entrySet()) {
             String metricName = entry.getKey();
-            Map<?, ?> map = entry.getValue();
+            List<List<String>> table = toTable(entry.getValue());
 
             writer.write(String.format(ADOC_MAP_HEADER_TEMPLATE, metricName));
 
-            int maxKeyWidth = Math.max(KEY_HEADER.length(),
-                map.keySet().stream().mapToInt(key -> key.toString().length()).max().orElse(DEFAULT_KEY_WIDTH));
-            int maxMapValueWidth = Math.max(VALUE_HEADER.length(),
-                map.values().stream().mapToInt(value -> value.toString().length()).max().orElse(DEFAULT_VALUE_WIDTH));
-
-            writer.write(PIPE_SPACE);
-            writer.write(String.format("%-" + maxKeyWidth + "s", KEY_HEADER));
-            writer.write(PIPE_SPACE);
-            writer.write(String.format("%-" + maxMapValueWidth + "s", VALUE_HEADER));
-            writer.write(PIPE_NEWLINE);
+            // Pad every column to its widest cell, header included
+            int[] widths = new int[table.getFirst().size()];
+            for (List<String> row : table) {
+                for (int column = 0; column < widths.length; column++) {
+                    widths[column] = Math.max(widths[column], row.get(column).length());
+                }
+            }
 
-            for (Map.Entry<?, ?> mapEntry : map.entrySet()) {
-                writer.write(PIPE_SPACE);
-                writer.write(String.format("%-" + maxKeyWidth + "s", mapEntry.getKey()));
-                writer.write(PIPE_SPACE);
-                writer.write(String.format("%-" + maxMapValueWidth + "s", mapEntry.getValue()));
+            for (List<String> row : table) {
+                for (int column = 0; column < widths.length; column++) {
+                    writer.write(PIPE_SPACE);
+                    writer.write(String.format("%-" + widths[column] + "s", row.get(column)));
+                }
                 writer.write(PIPE_NEWLINE);
             }
         }
@@ -246,15 +292,54 @@ public class LogReportFormatter {
         Map<String, Map<?, ?>> mapMetrics) throws IOException {
         for (Map.Entry<String, Map<?, ?>> entry : mapMetrics.entrySet()) {
             String metricName = entry.getKey();
-            Map<?, ?> map = entry.getValue();
+            List<List<String>> table = toTable(entry.getValue());
 
             writer.write(String.format(MARKDOWN_MAP_HEADER_TEMPLATE, metricName));
-            writer.write("| Key | Value |\n");
-            writer.write("|-----|-------|\n");
+            writer.write("| " + String.join(PIPE_SPACE, table.getFirst()) + PIPE_NEWLINE);
+            for (String header : table.getFirst()) {
+                writer.write("|" + "-".repeat(header.length() + 2));
+            }
+            writer.write("|" + NEWLINE);
 
-            for (Map.Entry<?, ?> mapEntry : map.entrySet()) {
-                writer.write("| " + mapEntry.getKey() + PIPE_SPACE + mapEntry.getValue() + PIPE_NEWLINE);
+            for (List<String> row : table.subList(1, table.size())) {
+                writer.write("| " + String.join(PIPE_SPACE, row) + PIPE_NEWLINE);
+            }
+        }
+    }
+
+    /**
+     * Converts a map metric to the rows of a table, the first row being the header.
+     * A map of values gives a Key / Value table. A map of maps, such as a time series, gives one row per key
+     * and one column per key of the inner maps, in the order of the first row.
+     *
+     * @param map the map metric
+     * @return the header and the rows of the table
+     */
+    private static List<List<String>> toTable(Map<?, ?> map) {
+        List<String> header = new ArrayList<>(List.of(KEY_HEADER));
+        List<Object> columnKeys = new ArrayList<>();
+        Object firstValue = map.isEmpty() ? null : map.values().iterator().next();
+        if (firstValue instanceof Map<?, ?> firstRow) {
+            columnKeys.addAll(firstRow.keySet());
+            columnKeys.forEach(column -> header.add(String.valueOf(column)));
+        } else {
+            header.add(VALUE_HEADER);
+        }
+
+        List<List<String>> table = new ArrayList<>();
+        table.add(header);
+        for (Map.Entry<?, ?> mapEntry : map.entrySet()) {
+            List<String> row = new ArrayList<>(header.size());
+            row.add(String.valueOf(mapEntry.getKey()));
+            if (mapEntry.getValue() instanceof Map<?, ?> columns) {
+                for (Object column : columnKeys) {
+                    row.add(String.valueOf(columns.get(column)));
+                }
+            } else {
+                row.add(String.valueOf(mapEntry.getValue()));
             }
+            table.add(row);
         }
+        return table;
     }
 }
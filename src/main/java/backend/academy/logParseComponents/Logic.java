@@ -34,6 +34,7 @@ public final class Logic {
      * Processes the logs by loading them from a file or URL, filtering, parsing,
      * and generating a report based on the provided parameters.
      *
+     * @param context The analysis holding the parser configuration and the observers.
      * @param fileOrUrl The path to the log file or URL to load logs from.
      * @param start Optional start time for filtering logs. If not provided, no start filter is applied.
      * @param end Optional end time for filtering logs. If not provided, no end filter is applied.
@@ -42,31 +43,33 @@ public final class Logic {
      * @param format The format of the report to generate. Can be "markdown" or "adoc" (AsciiDoc).
      * @throws RuntimeException if an error occurs while processing logs or writing the report.
      */
-    public static void startLogic(String fileOrUrl, Optional<LocalDateTime> start, Optional<LocalDateTime> end,
-        String field, String value, String format) {
+    public static void startLogic(AnalysisContext context, String fileOrUrl, Optional<LocalDateTime> start,
+        Optional<LocalDateTime> end, String field, String value, String format) {
         String fileName = extractFileName(fileOrUrl);
         PrintStream out = System.out;
 
         try {
             // Load the logs based on time filters
             List<String> logsBeforeParse =
-                LogFileLoader.loadLogs(fileOrUrl, start.orElse(null), end.orElse(null));
+                LogFileLoader.loadLogs(context, fileOrUrl, start.orElse(null), end.orElse(null));
 
-            // Filter logs by the specified field and value
-            List<String> filteredLogs = LogFilter.sortLogsByInputFields(logsBeforeParse, field, value);
+            // Filter logs by the specified field and value; the malformed lines it drops are still counted
+            List<String> filteredLogs = LogFilter.sortLogsByInputFields(logsBeforeParse, field, value,
+                context.lineParser(), context.malformedLineHandler());
 
-            // Parse each log and notify observers
-            filteredLogs.forEach(LogParser::parseLog);
+            // Parse the logs and notify observers in batches; malformed lines are counted, not thrown
+            context.parseLines(filteredLogs);
+            context.closeQuarantine();
 
             // Generate and save the report if observers are available
-            if (!LogParser.observers().isEmpty()) {
+            if (!context.observers().isEmpty()) {
                 String reportFileName = fileName + "_log_report." + (MARKDOWN.equals(format) ? "md" : "adoc");
 
                 // Generate the report in the specified format
                 if (MARKDOWN.equals(format)) {
-                    LogReportFormatter.generateMarkdownReport(reportFileName, LogParser.observers());
+                    LogReportFormatter.generateMarkdownReport(reportFileName, context.observers(), context.profiler());
                 } else {
-                    LogReportFormatter.generateAdocReport(reportFileName, LogParser.observers());
+                    LogReportFormatter.generateAdocReport(reportFileName, context.observers(), context.profiler());
                 }
 
                 out.println("Report has been successfully generated and saved to " + reportFileName);
@@ -0,0 +1,21 @@
+package backend.academy.logParseComponents;
+
+/**
+ * Receives the log lines rejected by a {@link LogLineParser} together with the reason of the rejection.
+ */
+@FunctionalInterface
+public interface MalformedLineHandler {
+
+    /**
+     * Handler that ignores malformed lines.
+     */
+    MalformedLineHandler IGNORE = (reason, logLine) -> { };
+
+    /**
+     * Called once for every rejected log line.
+     *
+     * @param reason  the reason the line was rejected
+     * @param logLine the raw log line, possibly {@code null}
+     */
+    void onMalformed(MalformedReason reason, String logLine);
+}
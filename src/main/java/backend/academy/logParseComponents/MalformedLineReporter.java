@@ -0,0 +1,120 @@
+package backend.academy.logParseComponents;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * {@link MalformedLineHandler} that logs a rate-limited sample of malformed lines and optionally writes
+ * every malformed line, unchanged, to a quarantine file.
+ *
+ * <p>For each {@link MalformedReason} the first {@link #FIRST_LOGGED_LINES} lines are logged; after that at
+ * most one line per {@link #LOG_INTERVAL_SECONDS} seconds is logged, together with the number of lines
+ * suppressed since the previous message. No stack traces are logged. Lines rejected as
+ * {@link MalformedReason#LINE_TOO_LONG} are logged as their first {@link #LOGGED_PREFIX_LENGTH} characters and
+ * their length; only the quarantine file receives them in full.</p>
+ */
+@Log4j2
+public class MalformedLineReporter implements MalformedLineHandler, Closeable {
+
+    /**
+     * Number of malformed lines logged for each reason before rate limiting applies.
+     */
+    public static final int FIRST_LOGGED_LINES = 5;
+
+    /**
+     * Minimum interval between two logged lines of the same reason once rate limiting applies.
+     */
+    public static final long LOG_INTERVAL_SECONDS = 10;
+
+    /**
+     * Number of leading characters logged of a line that is too long.
+     */
+    public static final int LOGGED_PREFIX_LENGTH = 200;
+
+    private static final long LOG_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(LOG_INTERVAL_SECONDS);
+
+    private final long[] seen = new long[MalformedReason.values().length];
+    private final long[] suppressed = new long[MalformedReason.values().length];
+    private final long[] lastLoggedNanos = new long[MalformedReason.values().length];
+    private final BufferedWriter quarantine;
+
+    /**
+     * Creates a reporter that only logs malformed lines.
+     */
+    public MalformedLineReporter() {
+        this.quarantine = null;
+    }
+
+    /**
+     * Creates a reporter that logs malformed lines and writes them to the given quarantine file.
+     *
+     * @param quarantineFile the file receiving the raw malformed lines; created or truncated
+     * @throws IOException if the file cannot be opened for writing
+     */
+    public MalformedLineReporter(Path quarantineFile) throws IOException {
+        this.quarantine = Files.newBufferedWriter(quarantineFile, StandardCharsets.UTF_8);
+        log.info("Malformed lines will be quarantined to: {}", quarantineFile);
+    }
+
+    @Override
+    public synchronized void onMalformed(MalformedReason reason, String logLine) {
+        int index = reason.ordinal();
+        long count = ++seen[index];
+
+        if (quarantine != null && logLine != null) {
+            writeToQuarantine(logLine);
+        }
+
+        long now = System.nanoTime();
+        if (count <= FIRST_LOGGED_LINES || now - lastLoggedNanos[index] >= LOG_INTERVAL_NANOS) {
+            String loggedLine = loggedLine(reason, logLine);
+            if (suppressed[index] > 0) {
+                log.warn("Malformed log line ({}, {} similar lines suppressed): {}",
+                    reason.description(), suppressed[index], loggedLine);
+            } else {
+                log.warn("Malformed log line ({}): {}", reason.description(), loggedLine);
+            }
+            suppressed[index] = 0;
+            lastLoggedNanos[index] = now;
+        } else {
+            suppressed[index]++;
+        }
+    }
+
+    /**
+     * Returns the form in which a malformed line is logged: unchanged, or abbreviated to its first
+     * {@link #LOGGED_PREFIX_LENGTH} characters and its length if it was rejected as too long.
+     *
+     * @param reason  the reason the line was rejected
+     * @param logLine the rejected line, may be null
+     * @return the line as it appears in the log
+     */
+    public static String loggedLine(MalformedReason reason, String logLine) {
+        if (reason != MalformedReason.LINE_TOO_LONG || logLine == null || logLine.length() <= LOGGED_PREFIX_LENGTH) {
+            return logLine;
+        }
+        return logLine.substring(0, LOGGED_PREFIX_LENGTH) + "... (" + logLine.length() + " characters)";
+    }
+
+    private void writeToQuarantine(String logLine) {
+        try {
+            quarantine.write(logLine);
+            quarantine.newLine();
+        } catch (IOException e) {
+            log.error("Failed to write malformed line to quarantine: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (quarantine != null) {
+            quarantine.close();
+        }
+    }
+}
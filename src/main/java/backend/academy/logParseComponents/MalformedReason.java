@@ -0,0 +1,24 @@
+package backend.academy.logParseComponents;
+
+import lombok.Getter;
+
+/**
+ * Reasons for rejecting a log line. Reported through {@link MalformedLineHandler} instead of exceptions.
+ */
+@Getter
+public enum MalformedReason {
+    EMPTY_LINE("empty line"),
+    LINE_TOO_LONG("line too long"),
+    FORMAT_MISMATCH("format mismatch"),
+    INVALID_IP_ADDRESS("invalid IP address"),
+    INVALID_TIMESTAMP("invalid timestamp"),
+    INVALID_STATUS_CODE("invalid status code"),
+    INVALID_RESPONSE_SIZE("invalid response size"),
+    TRAILING_DATA("trailing data");
+
+    private final String description;
+
+    MalformedReason(String description) {
+        this.description = description;
+    }
+}
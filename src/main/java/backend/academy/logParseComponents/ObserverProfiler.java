@@ -0,0 +1,200 @@
+package backend.academy.logParseComponents;
+
+import backend.academy.logObservers.LogObserver;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Measures what each observer costs an analysis: CPU time and allocated bytes spent in its updates, read from
+ * the {@link ThreadMXBean} of the parsing thread, and the memory reachable from it at the end, estimated by
+ * walking its fields. Structures shared by several observers, such as the {@link SymbolTable}, are counted for
+ * each of them.
+ *
+ * <p>Reading the thread counters costs about a microsecond, as much as many single-entry updates, so only one
+ * single-entry update in {@link #SAMPLE_INTERVAL} is measured and the totals are extrapolated from the sample.
+ * Batch updates are each measured. A profiler is used by one parsing thread at a time, like its
+ * {@link AnalysisContext}.</p>
+ */
+@Log4j2
+public class ObserverProfiler {
+
+    /**
+     * One single-entry update in this many is measured. A power of two.
+     */
+    public static final int SAMPLE_INTERVAL = 64;
+
+    private static final String CALLS_COLUMN = "calls";
+    private static final String CPU_COLUMN = "cpuMicros";
+    private static final String ALLOCATED_COLUMN = "allocatedBytes";
+    private static final String RETAINED_COLUMN = "retainedBytes";
+    private static final long NANOS_PER_MICRO = 1_000;
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final boolean cpuTimeSupported;
+    private final com.sun.management.ThreadMXBean allocations;
+
+    // Costs by observer identity, and in order of first update for the report
+    private final Map<LogObserver, Cost> costs = new IdentityHashMap<>();
+    private final List<Cost> orderedCosts = new ArrayList<>();
+
+    /**
+     * Creates a profiler, enabling thread CPU time and allocation measurement if the JVM supports them.
+     */
+    public ObserverProfiler() {
+        this.cpuTimeSupported = enableCpuTime(threads);
+        this.allocations = enableAllocations(threads);
+    }
+
+    /**
+     * Updates an observer with one entry, measuring the update if it is part of the sample.
+     *
+     * @param observer the observer to update
+     * @param log      the parsed log entry
+     */
+    public void update(LogObserver observer, LogReport log) {
+        Cost cost = cost(observer);
+        if ((cost.calls++ & (SAMPLE_INTERVAL - 1)) != 0) {
+            observer.update(log);
+            return;
+        }
+        long cpuBefore = cpuTime();
+        long allocatedBefore = allocatedBytes();
+        try {
+            observer.update(log);
+        } finally {
+            cost.record(cpuTime() - cpuBefore, allocatedBytes() - allocatedBefore);
+        }
+    }
+
+    /**
+     * Updates an observer with a batch of entries, measuring the update.
+     *
+     * @param observer the observer to update
+     * @param batch    the parsed log entries
+     */
+    public void updateBatch(LogObserver observer, LogBatch batch) {
+        Cost cost = cost(observer);
+        cost.calls++;
+        long cpuBefore = cpuTime();
+        long allocatedBefore = allocatedBytes();
+        try {
+            observer.updateBatch(batch);
+        } finally {
+            cost.record(cpuTime() - cpuBefore, allocatedBytes() - allocatedBefore);
+        }
+    }
+
+    /**
+     * Returns the cost of every observer updated so far, estimating the memory they retain now.
+     * The allocation column is left out if the JVM cannot measure allocations per thread.
+     *
+     * @return the calls, CPU time in microseconds, allocated and retained bytes of each observer, by name
+     */
+    public Map<String, Map<String, Long>> costs() {
+        Map<String, Map<String, Long>> report = new LinkedHashMap<>();
+        for (Cost cost : orderedCosts) {
+            Map<String, Long> row = new LinkedHashMap<>();
+            row.put(CALLS_COLUMN, cost.calls);
+            row.put(CPU_COLUMN, cost.extrapolate(cost.cpuNanos) / NANOS_PER_MICRO);
+            if (allocations != null) {
+                row.put(ALLOCATED_COLUMN, cost.extrapolate(cost.allocatedBytes));
+            }
+            row.put(RETAINED_COLUMN, RetainedSizeEstimator.estimate(cost.observer));
+            report.put(uniqueName(report, cost.observer.getClass().getSimpleName()), row);
+        }
+        return report;
+    }
+
+    private Cost cost(LogObserver observer) {
+        Cost cost = costs.get(observer);
+        if (cost == null) {
+            cost = new Cost(observer);
+            costs.put(observer, cost);
+            orderedCosts.add(cost);
+        }
+        return cost;
+    }
+
+    private long cpuTime() {
+        return cpuTimeSupported ? threads.getCurrentThreadCpuTime() : 0;
+    }
+
+    private long allocatedBytes() {
+        return allocations == null ? 0 : allocations.getCurrentThreadAllocatedBytes();
+    }
+
+    private static boolean enableCpuTime(ThreadMXBean threads) {
+        if (!threads.isCurrentThreadCpuTimeSupported()) {
+            log.warn("Thread CPU time is not supported, observer CPU costs will be zero");
+            return false;
+        }
+        if (!threads.isThreadCpuTimeEnabled()) {
+            threads.setThreadCpuTimeEnabled(true);
+        }
+        return true;
+    }
+
+    private static com.sun.management.ThreadMXBean enableAllocations(ThreadMXBean threads) {
+        if (threads instanceof com.sun.management.ThreadMXBean allocations
+            && allocations.isThreadAllocatedMemorySupported()) {
+            if (!allocations.isThreadAllocatedMemoryEnabled()) {
+                allocations.setThreadAllocatedMemoryEnabled(true);
+            }
+            return allocations;
+        }
+        log.warn("Thread allocation measurement is not supported, observer allocations will not be reported");
+        return null;
+    }
+
+    /**
+     * Numbers the second and later observers of a class, e.g. {@code TotalRequestObserver #2}.
+     *
+     * @param report the rows named so far
+     * @param name   the name of the observer class
+     * @return a name not in the report yet
+     */
+    private static String uniqueName(Map<String, ?> report, String name) {
+        String unique = name;
+        for (int i = 2; report.containsKey(unique); i++) {
+            unique = name + " #" + i;
+        }
+        return unique;
+    }
+
+    /**
+     * Cost of one observer.
+     */
+    private static final class Cost {
+        private final LogObserver observer;
+        private long calls;
+        private long measuredCalls;
+        private long cpuNanos;
+        private long allocatedBytes;
+
+        private Cost(LogObserver observer) {
+            this.observer = observer;
+        }
+
+        private void record(long cpu, long allocated) {
+            measuredCalls++;
+            cpuNanos += cpu;
+            allocatedBytes += allocated;
+        }
+
+        /**
+         * Scales a measured total up to all the calls.
+         *
+         * @param measured the total over the measured calls
+         * @return the estimated total over all the calls
+         */
+        private long extrapolate(long measured) {
+            return measuredCalls == 0 ? 0 : Math.round((double) measured * calls / measuredCalls);
+        }
+    }
+}
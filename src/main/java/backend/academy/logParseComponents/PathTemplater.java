@@ -0,0 +1,206 @@
+package backend.academy.logParseComponents;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the variable parts of request paths with placeholders, so that {@code /api/users/918273} and
+ * {@code /api/users/42} are both counted as {@code /api/users/{id}}.
+ *
+ * <p>Paths are first matched against the configured templates, in order. A template is a path whose segments
+ * are either literals or {@code {name}} placeholders matching any single non-empty segment, e.g.
+ * {@code /api/users/{id}/orders/{orderId}}. Paths matching no template have their numeric, UUID and long
+ * hexadecimal segments replaced with {@link #ID_PLACEHOLDER}.</p>
+ *
+ * <p>Paths are templated in place, as a range of the request line: a path without identifiers is looked up in
+ * the {@link SymbolTable} straight from that range, and a path with identifiers is written to a buffer of the
+ * caller, so templating a known path allocates nothing. Nothing is cached per raw path, since the paths that
+ * need templating are precisely those that rarely repeat. A templater is immutable and can be shared between
+ * threads.</p>
+ */
+public class PathTemplater {
+
+    /**
+     * Placeholder for segments recognized as identifiers.
+     */
+    public static final String ID_PLACEHOLDER = "{id}";
+
+    private static final int UUID_LENGTH = 36;
+    private static final int[] UUID_DASHES = {8, 13, 18, 23};
+    private static final int MIN_HEX_ID_LENGTH = 16;
+
+    private final List<String> templates;
+    private final List<String[]> templateSegments;
+
+    /**
+     * Creates a templater with the given templates.
+     *
+     * @param templates the path templates, e.g. {@code /api/users/{id}}; may be empty
+     * @throws IllegalArgumentException if a template does not start with {@code /}
+     */
+    public PathTemplater(List<String> templates) {
+        this.templates = List.copyOf(templates);
+        this.templateSegments = new ArrayList<>();
+        for (String template : this.templates) {
+            if (!template.startsWith("/")) {
+                throw new IllegalArgumentException("Path template must start with '/': " + template);
+            }
+            templateSegments.add(template.substring(1).split("/", -1));
+        }
+    }
+
+    /**
+     * Returns the templated form of a request path.
+     *
+     * @param path the request path, without the query string
+     * @return the matching template, the path with its identifiers replaced, or the path itself
+     */
+    public String template(String path) {
+        int template = matchingTemplate(path, 0, path.length());
+        if (template >= 0) {
+            return templates.get(template);
+        }
+        StringBuilder templated = new StringBuilder();
+        return replaceIds(path, 0, path.length(), templated) ? templated.toString() : path;
+    }
+
+    /**
+     * Returns the symbol id of the templated form of a path held in a range of a string, e.g. of a request line.
+     *
+     * @param text    the text containing the path
+     * @param from    the start of the path (inclusive)
+     * @param to      the end of the path (exclusive), before the query string
+     * @param symbols the table the id is taken from
+     * @param buffer  a buffer receiving the templated path if it differs from the path; its content is replaced
+     * @return the id of the matching template, of the path with its identifiers replaced, or of the path itself
+     */
+    public int templateId(String text, int from, int to, SymbolTable symbols, StringBuilder buffer) {
+        int template = matchingTemplate(text, from, to);
+        if (template >= 0) {
+            return symbols.id(templates.get(template));
+        }
+        buffer.setLength(0);
+        return replaceIds(text, from, to, buffer) ? symbols.id(buffer, 0, buffer.length()) : symbols.id(text, from, to);
+    }
+
+    private int matchingTemplate(String text, int from, int to) {
+        for (int i = 0; i < templates.size(); i++) {
+            if (matches(text, from, to, templateSegments.get(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Checks a path against the segments of a template, without splitting the path.
+     */
+    private static boolean matches(String text, int from, int to, String[] segments) {
+        if (from == to || text.charAt(from) != '/') {
+            return false;
+        }
+
+        int start = from + 1;
+        for (int i = 0; i < segments.length; i++) {
+            int end = segmentEnd(text, start, to);
+            boolean last = i == segments.length - 1;
+            if (last != (end == to)) {
+                return false; // The path has fewer or more segments than the template
+            }
+
+            String segment = segments[i];
+            boolean placeholder = segment.length() > 2 && segment.startsWith("{") && segment.endsWith("}");
+            boolean segmentMatches = placeholder
+                ? end > start
+                : end - start == segment.length() && text.regionMatches(start, segment, 0, segment.length());
+            if (!segmentMatches) {
+                return false;
+            }
+            start = end + 1;
+        }
+        return true;
+    }
+
+    /**
+     * Writes the path with its identifier segments replaced to the buffer, if it has any.
+     *
+     * @return {@code true} if an identifier was replaced, in which case the buffer holds the whole templated path
+     */
+    private static boolean replaceIds(String text, int from, int to, StringBuilder templated) {
+        boolean replaced = false;
+        int start = from;
+        while (start <= to) {
+            int end = segmentEnd(text, start, to);
+            if (isId(text, start, end)) {
+                if (!replaced) {
+                    templated.append(text, from, start);
+                    replaced = true;
+                }
+                templated.append(ID_PLACEHOLDER);
+            } else if (replaced) {
+                templated.append(text, start, end);
+            }
+            if (replaced && end < to) {
+                templated.append('/');
+            }
+            start = end + 1;
+        }
+        return replaced;
+    }
+
+    private static int segmentEnd(String text, int start, int to) {
+        int end = text.indexOf('/', start);
+        return end < 0 || end > to ? to : end;
+    }
+
+    private static boolean isId(String path, int start, int end) {
+        int length = end - start;
+        if (length == 0) {
+            return false;
+        }
+        return isDigits(path, start, end)
+            || length == UUID_LENGTH && isUuid(path, start)
+            || length >= MIN_HEX_ID_LENGTH && isHex(path, start, end);
+    }
+
+    private static boolean isDigits(String path, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (path.charAt(i) < '0' || path.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isUuid(String path, int start) {
+        int dash = 0;
+        for (int i = 0; i < UUID_LENGTH; i++) {
+            char c = path.charAt(start + i);
+            if (dash < UUID_DASHES.length && i == UUID_DASHES[dash]) {
+                if (c != '-') {
+                    return false;
+                }
+                dash++;
+            } else if (!isHexDigit(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isHex(String path, int start, int end) {
+        boolean hasDigit = false;
+        for (int i = start; i < end; i++) {
+            char c = path.charAt(i);
+            if (!isHexDigit(c)) {
+                return false;
+            }
+            hasDigit |= c >= '0' && c <= '9';
+        }
+        return hasDigit; // Keeps long words made only of the letters a-f
+    }
+
+    private static boolean isHexDigit(char c) {
+        return c >= '0' && c <= '9' || c >= 'a' && c <= 'f' || c >= 'A' && c <= 'F';
+    }
+}
@@ -0,0 +1,108 @@
+package backend.academy.logParseComponents;
+
+/**
+ * The parts of an HTTP request line, e.g. {@code GET /api/users/918273?x=1 HTTP/1.1}, as offsets into the
+ * original string. Splitting the line does not copy it; the parts are only materialized on request.
+ *
+ * @param request       the request line
+ * @param methodEnd     the end of the method (exclusive); the method starts at 0
+ * @param pathStart     the start of the path
+ * @param pathEnd       the end of the path (exclusive), i.e. the position of {@code ?} or of the end of the target
+ * @param targetEnd     the end of the request target (exclusive), including the query string
+ * @param protocolStart the start of the protocol, or the length of the line for requests without one
+ */
+public record RequestLine(String request, int methodEnd, int pathStart, int pathEnd, int targetEnd,
+                          int protocolStart) {
+
+    /**
+     * Splits a request line into method, path, query string and protocol.
+     *
+     * @param request the request line
+     * @return the split request line, or {@code null} if the line does not have a method and a target
+     */
+    public static RequestLine parse(String request) {
+        int methodEnd = methodEnd(request);
+        if (methodEnd < 0) {
+            return null;
+        }
+        int targetEnd = targetEnd(request, methodEnd);
+        int protocolStart = targetEnd < request.length() ? targetEnd + 1 : request.length();
+        return new RequestLine(request, methodEnd, methodEnd + 1, pathEnd(request, methodEnd), targetEnd,
+            protocolStart);
+    }
+
+    /**
+     * Finds the end of the method of a request line, without splitting the line. The path starts after it.
+     *
+     * @param request the request line
+     * @return the end of the method (exclusive), or -1 if the line does not have a method and a target
+     */
+    public static int methodEnd(String request) {
+        if (request == null) {
+            return -1;
+        }
+        int methodEnd = request.indexOf(' ');
+        return methodEnd <= 0 || methodEnd == request.length() - 1 ? -1 : methodEnd;
+    }
+
+    /**
+     * Finds the end of the request target of a request line, including the query string.
+     *
+     * @param request   the request line
+     * @param methodEnd the end of its method, as returned by {@link #methodEnd(String)}
+     * @return the end of the target (exclusive)
+     */
+    public static int targetEnd(String request, int methodEnd) {
+        int lastSpace = request.lastIndexOf(' ');
+        return lastSpace > methodEnd + 1 ? lastSpace : request.length();
+    }
+
+    /**
+     * Finds the end of the path of a request line, i.e. the position of {@code ?} or of the end of the target.
+     *
+     * @param request   the request line
+     * @param methodEnd the end of its method, as returned by {@link #methodEnd(String)}
+     * @return the end of the path (exclusive)
+     */
+    public static int pathEnd(String request, int methodEnd) {
+        int targetEnd = targetEnd(request, methodEnd);
+        int pathEnd = request.indexOf('?', methodEnd + 1);
+        return pathEnd < 0 || pathEnd > targetEnd ? targetEnd : pathEnd;
+    }
+
+    /**
+     * Returns the request method.
+     *
+     * @return the method, e.g. {@code GET}
+     */
+    public String method() {
+        return request.substring(0, methodEnd);
+    }
+
+    /**
+     * Returns the path of the request target, without the query string.
+     *
+     * @return the path, e.g. {@code /api/users/918273}
+     */
+    public String path() {
+        return request.substring(pathStart, pathEnd);
+    }
+
+    /**
+     * Returns the query string of the request target.
+     *
+     * @return the query string without the leading {@code ?}, or an empty string if there is none
+     */
+    public String query() {
+        return pathEnd < targetEnd ? request.substring(pathEnd + 1, targetEnd) : "";
+    }
+
+    /**
+     * Returns the protocol of the request.
+     *
+     * @return the protocol, e.g. {@code HTTP/1.1}, or an empty string if there is none
+     */
+    public String protocol() {
+        return request.substring(protocolStart);
+    }
+}
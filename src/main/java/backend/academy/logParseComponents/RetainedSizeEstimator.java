@@ -0,0 +1,190 @@
+package backend.academy.logParseComponents;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Estimates the memory retained by an object graph, e.g. by an observer, without an agent.
+ *
+ * <p>The graph is walked by reflection from the root, counting each reachable object once with the layout of a
+ * 64-bit JVM with compressed references. Objects of JDK classes whose fields cannot be read are counted with a
+ * fixed overhead per element if they are collections or maps, whose elements are walked through their public
+ * API, and with their shallow size otherwise. Enum constants and classes are shared, so they are not counted.
+ * The walk stops after {@link #MAX_OBJECTS} objects, in which case the estimate is a lower bound.</p>
+ */
+@UtilityClass
+class RetainedSizeEstimator {
+    private static final int MAX_OBJECTS = 1_000_000;
+    private static final int OBJECT_HEADER = 12;
+    private static final int ARRAY_HEADER = 16;
+    private static final int REFERENCE = 4;
+    private static final int ALIGNMENT = 8;
+    private static final int STRING_OVERHEAD = 40;
+    private static final int CONTAINER_OVERHEAD = 48;
+    private static final int ENTRY_OVERHEAD = 32;
+    private static final int ELEMENT_OVERHEAD = 16;
+
+    /**
+     * Instance fields of each class, including the inherited ones.
+     */
+    private static final Map<Class<?>, List<Field>> FIELDS = new ConcurrentHashMap<>();
+
+    /**
+     * Estimates the size of an object and of every object it reaches.
+     *
+     * @param root the object to measure
+     * @return the estimated number of bytes retained by the object
+     */
+    static long estimate(Object root) {
+        Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<Object> pending = new ArrayDeque<>();
+        pending.push(root);
+        long size = 0;
+        while (!pending.isEmpty() && visited.size() < MAX_OBJECTS) {
+            Object object = pending.pop();
+            if (isShared(object) || !visited.add(object)) {
+                continue;
+            }
+            size += align(sizeOf(object, pending));
+        }
+        return size;
+    }
+
+    /**
+     * Returns the size of one object and queues the objects it references.
+     *
+     * @param object  the object to measure
+     * @param pending the objects left to measure
+     * @return the size of the object, before alignment
+     */
+    private static long sizeOf(Object object, Deque<Object> pending) {
+        Class<?> type = object.getClass();
+        if (type.isArray()) {
+            return arraySize(object, type.getComponentType(), pending);
+        }
+        if (object instanceof String string) {
+            return STRING_OVERHEAD + string.length();
+        }
+
+        long size = OBJECT_HEADER;
+        boolean readable = !type.getModule().isNamed();
+        for (Field field : fields(type)) {
+            size += fieldSize(field.getType());
+            if (readable && !field.getType().isPrimitive()) {
+                queueFieldValue(object, field, pending);
+            }
+        }
+        if (!readable) {
+            size += containerSize(object, pending);
+        }
+        return size;
+    }
+
+    private static long arraySize(Object array, Class<?> componentType, Deque<Object> pending) {
+        int length = Array.getLength(array);
+        if (componentType.isPrimitive()) {
+            return ARRAY_HEADER + (long) length * fieldSize(componentType);
+        }
+        for (Object element : (Object[]) array) {
+            if (element != null) {
+                pending.push(element);
+            }
+        }
+        return ARRAY_HEADER + (long) length * REFERENCE;
+    }
+
+    /**
+     * Returns the estimated internal overhead of a JDK collection or map, whose fields cannot be read, and queues
+     * its elements.
+     *
+     * @param object  a JDK object
+     * @param pending the objects left to measure
+     * @return the overhead of the elements, or zero if the object is not a collection or a map
+     */
+    private static long containerSize(Object object, Deque<Object> pending) {
+        if (object instanceof Map<?, ?> map) {
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                queue(entry.getKey(), pending);
+                queue(entry.getValue(), pending);
+            }
+            return CONTAINER_OVERHEAD + (long) map.size() * ENTRY_OVERHEAD;
+        }
+        if (object instanceof Collection<?> collection) {
+            for (Object element : collection) {
+                queue(element, pending);
+            }
+            return CONTAINER_OVERHEAD + (long) collection.size() * ELEMENT_OVERHEAD;
+        }
+        return 0;
+    }
+
+    private static void queueFieldValue(Object object, Field field, Deque<Object> pending) {
+        try {
+            queue(field.get(object), pending);
+        } catch (IllegalAccessException e) {
+            // Counted as a reference only
+        }
+    }
+
+    private static void queue(Object object, Deque<Object> pending) {
+        if (object != null) {
+            pending.push(object);
+        }
+    }
+
+    private static List<Field> fields(Class<?> type) {
+        return FIELDS.computeIfAbsent(type, RetainedSizeEstimator::collectFields);
+    }
+
+    private static List<Field> collectFields(Class<?> type) {
+        List<Field> fields = new ArrayList<>();
+        boolean readable = !type.getModule().isNamed();
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    if (readable) {
+                        field.trySetAccessible();
+                    }
+                    fields.add(field);
+                }
+            }
+        }
+        return fields;
+    }
+
+    private static int fieldSize(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return Long.BYTES;
+        }
+        if (type == int.class || type == float.class) {
+            return Integer.BYTES;
+        }
+        if (type == short.class || type == char.class) {
+            return Short.BYTES;
+        }
+        if (type == byte.class || type == boolean.class) {
+            return Byte.BYTES;
+        }
+        return REFERENCE;
+    }
+
+    private static boolean isShared(Object object) {
+        return object instanceof Enum<?> || object instanceof Class<?>;
+    }
+
+    private static long align(long size) {
+        return (size + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+}
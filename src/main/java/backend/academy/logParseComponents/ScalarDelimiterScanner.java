@@ -0,0 +1,22 @@
+package backend.academy.logParseComponents;
+
+/**
+ * {@link DelimiterScanner} that inspects one byte at a time. Used when the Vector API is not enabled.
+ */
+public final class ScalarDelimiterScanner implements DelimiterScanner {
+
+    @Override
+    public int indexOf(byte[] data, int from, int to, byte delimiter) {
+        for (int i = from; i < to; i++) {
+            if (data[i] == delimiter) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+}
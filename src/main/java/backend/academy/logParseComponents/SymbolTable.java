@@ -0,0 +1,179 @@
+package backend.academy.logParseComponents;
+
+import java.util.Arrays;
+
+/**
+ * Table mapping repeated field values, such as referrers and user agents, to dense {@code int} ids.
+ *
+ * <p>Values are looked up straight from a range of the log line, or of another character sequence such as
+ * a reused buffer: the hash is computed over the range and candidates are compared character by character,
+ * so a value is only copied into a new {@code String} the first time it is seen. Every later occurrence
+ * returns the same id and the same canonical {@code String} instance. Ids are assigned in order of first
+ * appearance, starting at 0.</p>
+ *
+ * <p>The table uses open addressing with linear probing over an {@code int[]} of ids. It is meant to live
+ * for one run and is not thread-safe.</p>
+ */
+public class SymbolTable {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int HASH_MULTIPLIER = 31;
+    private static final int EMPTY = -1;
+
+    private int[] slots;
+    private int mask;
+    private String[] symbols;
+    private int[] hashes;
+    private int size;
+
+    /**
+     * Creates an empty table.
+     */
+    public SymbolTable() {
+        slots = new int[INITIAL_CAPACITY];
+        Arrays.fill(slots, EMPTY);
+        mask = INITIAL_CAPACITY - 1;
+        symbols = new String[INITIAL_CAPACITY / 2];
+        hashes = new int[INITIAL_CAPACITY / 2];
+    }
+
+    /**
+     * Returns the id of the value held in a range of a string, adding the value on first sight.
+     *
+     * @param text the text containing the value, usually the whole log line
+     * @param from the start of the value (inclusive)
+     * @param to   the end of the value (exclusive)
+     * @return the id of the value
+     */
+    public int id(CharSequence text, int from, int to) {
+        int hash = hash(text, from, to);
+        int length = to - from;
+        int slot = spread(hash) & mask;
+        while (slots[slot] != EMPTY) {
+            int id = slots[slot];
+            String symbol = symbols[id];
+            if (hashes[id] == hash && symbol.length() == length && regionEquals(symbol, text, from)) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return add(text.subSequence(from, to).toString(), hash, slot);
+    }
+
+    /**
+     * Returns the id of a value, adding the value on first sight.
+     *
+     * @param value the value
+     * @return the id of the value
+     */
+    public int id(String value) {
+        int hash = value.hashCode(); // Same hash as hash(value, 0, length), but cached by String
+        int slot = spread(hash) & mask;
+        while (slots[slot] != EMPTY) {
+            int id = slots[slot];
+            String symbol = symbols[id];
+            if (symbol == value || hashes[id] == hash && symbol.equals(value)) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return add(value, hash, slot);
+    }
+
+    /**
+     * Returns the canonical instance of the value held in a range of a string.
+     *
+     * @param text the text containing the value
+     * @param from the start of the value (inclusive)
+     * @param to   the end of the value (exclusive)
+     * @return the value, as the same {@code String} instance for every occurrence
+     */
+    public String intern(String text, int from, int to) {
+        return symbols[id(text, from, to)];
+    }
+
+    /**
+     * Returns the value of an id.
+     *
+     * @param id an id returned by this table
+     * @return the value
+     * @throws IndexOutOfBoundsException if the id was not returned by this table
+     */
+    public String symbol(int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("Unknown symbol id: " + id);
+        }
+        return symbols[id];
+    }
+
+    /**
+     * Returns the number of distinct values in the table.
+     *
+     * @return the number of ids assigned so far
+     */
+    public int size() {
+        return size;
+    }
+
+    private int add(String value, int hash, int slot) {
+        int id = size++;
+        if (id == symbols.length) {
+            symbols = Arrays.copyOf(symbols, id * 2);
+            hashes = Arrays.copyOf(hashes, id * 2);
+        }
+        symbols[id] = value;
+        hashes[id] = hash;
+        slots[slot] = id;
+
+        // Keep the load factor at or below 1/2
+        if (size * 2 > slots.length) {
+            rehash(slots.length * 2);
+        }
+        return id;
+    }
+
+    private void rehash(int capacity) {
+        slots = new int[capacity];
+        Arrays.fill(slots, EMPTY);
+        mask = capacity - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = spread(hashes[id]) & mask;
+            while (slots[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = id;
+        }
+    }
+
+    /**
+     * Compares a symbol with the range of the same length starting at {@code from}.
+     */
+    private static boolean regionEquals(String symbol, CharSequence text, int from) {
+        if (text instanceof String string) {
+            return symbol.regionMatches(0, string, from, symbol.length());
+        }
+        for (int i = 0; i < symbol.length(); i++) {
+            if (symbol.charAt(i) != text.charAt(from + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Computes {@link String#hashCode()} of a range without copying it.
+     */
+    private static int hash(CharSequence text, int from, int to) {
+        int hash = 0;
+        for (int i = from; i < to; i++) {
+            hash = HASH_MULTIPLIER * hash + text.charAt(i);
+        }
+        return hash;
+    }
+
+    /**
+     * Mixes the high bits into the low ones, which select the slot.
+     */
+    private static int spread(int hash) {
+        return hash ^ (hash >>> (Integer.SIZE / 2));
+    }
+}
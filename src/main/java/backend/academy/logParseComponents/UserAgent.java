@@ -0,0 +1,11 @@
+package backend.academy.logParseComponents;
+
+/**
+ * Classification of a user agent string.
+ *
+ * @param browserFamily the browser family, e.g. {@code Chrome}, or {@code Other}
+ * @param os            the operating system, e.g. {@code Android}, or {@code Other}
+ * @param isBot         whether the client is a crawler, bot or other automated tool
+ */
+public record UserAgent(String browserFamily, String os, boolean isBot) {
+}
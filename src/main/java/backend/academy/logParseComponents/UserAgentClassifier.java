@@ -0,0 +1,94 @@
+package backend.academy.logParseComponents;
+
+import java.util.List;
+import java.util.Locale;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Utility class that classifies user agent strings by browser family, operating system and bot/non-bot.
+ *
+ * <p>Classification scans the string for a list of known tokens, in an order that resolves the tokens
+ * browsers copy from each other (Edge and Opera also send {@code Chrome/}, Chrome also sends
+ * {@code Safari/}, Android also sends {@code Linux}). It is not cheap, so callers should cache the
+ * results per distinct user agent.</p>
+ */
+@UtilityClass
+public final class UserAgentClassifier {
+
+    /**
+     * Value used when no known browser or operating system token is found.
+     */
+    public static final String OTHER = "Other";
+
+    // Lower-case tokens of crawlers, bots and command-line clients
+    private static final List<String> BOT_TOKENS = List.of(
+        "bot", "crawler", "spider", "slurp", "curl/", "wget/", "python-requests", "python-urllib",
+        "go-http-client", "java/", "okhttp", "apache-httpclient", "apt-http", "headlesschrome"
+    );
+
+    // Token, family pairs; the first matching token wins
+    private static final List<Rule> BROWSER_RULES = List.of(
+        new Rule("Edg", "Edge"),
+        new Rule("OPR/", "Opera"),
+        new Rule("Opera", "Opera"),
+        new Rule("SamsungBrowser/", "Samsung Internet"),
+        new Rule("YaBrowser/", "Yandex Browser"),
+        new Rule("Firefox/", "Firefox"),
+        new Rule("FxiOS/", "Firefox"),
+        new Rule("CriOS/", "Chrome"),
+        new Rule("Chrome/", "Chrome"),
+        new Rule("Chromium/", "Chrome"),
+        new Rule("MSIE ", "Internet Explorer"),
+        new Rule("Trident/", "Internet Explorer"),
+        new Rule("Safari/", "Safari")
+    );
+
+    private static final List<Rule> OS_RULES = List.of(
+        new Rule("Windows", "Windows"),
+        new Rule("Android", "Android"),
+        new Rule("iPhone", "iOS"),
+        new Rule("iPad", "iOS"),
+        new Rule("iPod", "iOS"),
+        new Rule("CrOS", "Chrome OS"),
+        new Rule("Mac OS X", "macOS"),
+        new Rule("Macintosh", "macOS"),
+        new Rule("Linux", "Linux"),
+        new Rule("Debian", "Linux"),
+        new Rule("Ubuntu", "Linux"),
+        new Rule("FreeBSD", "FreeBSD")
+    );
+
+    /**
+     * Classifies a user agent string.
+     *
+     * @param userAgent the raw user agent, as found in the log
+     * @return the classification; unknown or missing user agents are classified as {@link #OTHER}
+     */
+    public static UserAgent classify(String userAgent) {
+        if (userAgent == null || userAgent.isBlank() || "-".equals(userAgent)) {
+            return new UserAgent(OTHER, OTHER, false);
+        }
+
+        String lowerCase = userAgent.toLowerCase(Locale.ROOT);
+        boolean isBot = false;
+        for (String token : BOT_TOKENS) {
+            if (lowerCase.contains(token)) {
+                isBot = true;
+                break;
+            }
+        }
+        return new UserAgent(firstMatch(userAgent, BROWSER_RULES), firstMatch(userAgent, OS_RULES), isBot);
+    }
+
+    private static String firstMatch(String userAgent, List<Rule> rules) {
+        for (Rule rule : rules) {
+            if (userAgent.contains(rule.token())) {
+                return rule.name();
+            }
+        }
+        return OTHER;
+    }
+
+    private record Rule(String token, String name) {
+    }
+}
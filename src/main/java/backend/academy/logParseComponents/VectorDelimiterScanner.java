@@ -0,0 +1,41 @@
+package backend.academy.logParseComponents;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link DelimiterScanner} built on the incubating JDK Vector API. Each step loads a full vector of bytes,
+ * compares all lanes with the delimiter at once and takes the first matching lane from the mask.
+ * The tail that does not fill a whole vector is scanned one byte at a time.
+ *
+ * <p>Requires {@code --add-modules jdk.incubator.vector}; {@link DelimiterScanners} only loads this class
+ * when the module is present.</p>
+ */
+public final class VectorDelimiterScanner implements DelimiterScanner {
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+
+    @Override
+    public int indexOf(byte[] data, int from, int to, byte delimiter) {
+        int i = from;
+        int loopBound = from + SPECIES.loopBound(to - from);
+        for (; i < loopBound; i += SPECIES.length()) {
+            VectorMask<Byte> matches = ByteVector.fromArray(SPECIES, data, i).compare(VectorOperators.EQ, delimiter);
+            if (matches.anyTrue()) {
+                return i + matches.firstTrue();
+            }
+        }
+        for (; i < to; i++) {
+            if (data[i] == delimiter) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String name() {
+        return "vector (" + SPECIES.vectorBitSize() + " bits)";
+    }
+}
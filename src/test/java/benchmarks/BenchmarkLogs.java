@@ -0,0 +1,45 @@
+package benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Builds the log data shared by the parsing benchmarks: nginx combined lines with realistic, long user agents,
+ * as written by browsers embedded in mobile apps.
+ */
+@UtilityClass
+final class BenchmarkLogs {
+    private static final String[] USER_AGENTS = {
+        "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) "
+            + "Chrome/124.0.0.0 Safari/537.36 Edg/124.0.2478.67",
+        "Mozilla/5.0 (iPhone; CPU iPhone OS 17_4_1 like Mac OS X) AppleWebKit/605.1.15 (KHTML, like Gecko) "
+            + "Version/17.4.1 Mobile/15E148 Safari/604.1 [FBAN/FBIOS;FBAV/460.0.0.39.109;FBBV/580385830]",
+        "Mozilla/5.0 (Linux; Android 14; SM-S918B Build/UP1A.231005.007; wv) AppleWebKit/537.36 "
+            + "(KHTML, like Gecko) Version/4.0 Chrome/123.0.6312.118 Mobile Safari/537.36 Instagram 326.0.0.42.90",
+        "Debian APT-HTTP/1.3 (0.9.7.9)"
+    };
+    private static final int SEED = 42;
+    private static final int MAX_ID = 1_000_000;
+    private static final int MAX_PAGE = 100;
+    private static final int OCTETS = 256;
+
+    /**
+     * Returns the UTF-8 bytes of a log with the given number of newline-terminated lines, the same for every call.
+     *
+     * @param lineCount the number of lines
+     * @return the log data
+     */
+    static byte[] combinedLog(int lineCount) {
+        Random random = new Random(SEED);
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < lineCount; i++) {
+            builder.append("91.239.186.").append(random.nextInt(OCTETS))
+                .append(" - - [17/May/2015:14:05:39 +0000] \"GET /api/users/").append(random.nextInt(MAX_ID))
+                .append("?page=").append(random.nextInt(MAX_PAGE)).append(" HTTP/1.1\" 200 ")
+                .append(random.nextInt(MAX_ID)).append(" \"https://example.com/catalog\" \"")
+                .append(USER_AGENTS[random.nextInt(USER_AGENTS.length)]).append("\"\n");
+        }
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
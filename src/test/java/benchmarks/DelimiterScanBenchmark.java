@@ -0,0 +1,83 @@
+package benchmarks;
+
+import backend.academy.logParseComponents.DelimiterScanner;
+import backend.academy.logParseComponents.LineSplitter;
+import backend.academy.logParseComponents.ScalarDelimiterScanner;
+import backend.academy.logParseComponents.VectorDelimiterScanner;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the scalar and the Vector API delimiter scanning backends on nginx combined log lines with
+ * realistic, long user agents. {@link LogParseBenchmark} measures the same backends on the whole parse.
+ *
+ * <p>Run from the IDE, or write the test classpath once with
+ * {@code mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt} and run
+ * {@code java --add-modules jdk.incubator.vector -cp target/test-classes:target/classes:$(cat target/classpath.txt)
+ * benchmarks.DelimiterScanBenchmark}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class DelimiterScanBenchmark {
+    @Param({"10000"})
+    private int lineCount;
+
+    private byte[] data;
+    private final DelimiterScanner scalar = new ScalarDelimiterScanner();
+    private final DelimiterScanner vector = new VectorDelimiterScanner();
+
+    @Setup
+    public void setUp() {
+        data = BenchmarkLogs.combinedLog(lineCount);
+    }
+
+    @Benchmark
+    public List<String> splitLinesScalar() {
+        return LineSplitter.split(data, scalar);
+    }
+
+    @Benchmark
+    public List<String> splitLinesVector() {
+        return LineSplitter.split(data, vector);
+    }
+
+    @Benchmark
+    public void scanQuotesScalar(Blackhole blackhole) {
+        scanQuotes(scalar, blackhole);
+    }
+
+    @Benchmark
+    public void scanQuotesVector(Blackhole blackhole) {
+        scanQuotes(vector, blackhole);
+    }
+
+    private void scanQuotes(DelimiterScanner scanner, Blackhole blackhole) {
+        int position = 0;
+        while ((position = scanner.indexOf(data, position, data.length, (byte) '"')) >= 0) {
+            blackhole.consume(position++);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(DelimiterScanBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,83 @@
+package benchmarks;
+
+import backend.academy.logObservers.TotalRequestObserver;
+import backend.academy.logParseComponents.AnalysisContext;
+import backend.academy.logParseComponents.LineSplitter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the whole parse of nginx combined log data with realistic, long user agents, from the raw bytes to the
+ * observers: the data is split into lines and the lines are read by the parser detected for them, once with the
+ * scalar backend, whose fields are found with {@code String.indexOf}, and once with the Vector API backend.
+ *
+ * <p>Run from the IDE, or write the test classpath once with
+ * {@code mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt} and run
+ * {@code java --add-modules jdk.incubator.vector -cp target/test-classes:target/classes:$(cat target/classpath.txt)
+ * benchmarks.LogParseBenchmark}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class LogParseBenchmark {
+
+    @Param({"10000"})
+    private int lineCount;
+
+    private byte[] data;
+    private AnalysisContext scalar;
+    private AnalysisContext vector;
+
+    @Setup
+    public void setUp() {
+        data = BenchmarkLogs.combinedLog(lineCount);
+        scalar = newContext(false);
+        vector = newContext(true);
+    }
+
+    @Benchmark
+    public long parseScalar() {
+        return parse(scalar);
+    }
+
+    @Benchmark
+    public long parseVector() {
+        return parse(vector);
+    }
+
+    private long parse(AnalysisContext context) {
+        return context.parseLines(LineSplitter.split(data, context.delimiterScanner()));
+    }
+
+    private AnalysisContext newContext(boolean vectorScanning) {
+        AnalysisContext context = new AnalysisContext();
+        if (context.useVectorScanning(vectorScanning) != vectorScanning) {
+            throw new IllegalStateException("The Vector API module is not available");
+        }
+        List<String> lines = LineSplitter.split(data, context.delimiterScanner());
+        context.detectLogFormat(lines); // The generated nginx combined parser, as for a loaded file
+        context.addObserver(new TotalRequestObserver());
+        return context;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(LogParseBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,100 @@
+package benchmarks;
+
+import backend.academy.logObservers.CodeStatusesObserver;
+import backend.academy.logObservers.ConcurrentCodeStatusesObserver;
+import backend.academy.logObservers.ConcurrentTotalRequestObserver;
+import backend.academy.logObservers.StripedObserver;
+import backend.academy.logObservers.TotalRequestObserver;
+import backend.academy.logObservers.UniqueUsersObserver;
+import backend.academy.logParseComponents.IpAddresses;
+import backend.academy.logParseComponents.LogReport;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the throughput of one shared set of observers updated by many threads: the single-threaded observers
+ * behind one global lock, the {@code LongAdder} variants, and {@link StripedObserver}.
+ *
+ * <p>{@link #main(String[])} runs every benchmark with 1, 4, 16 and 64 threads. Run it from the IDE, or with
+ * the test classpath written by
+ * {@code mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt}:
+ * {@code java -cp target/test-classes:target/classes:$(cat target/classpath.txt)
+ * benchmarks.ObserverContentionBenchmark}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ObserverContentionBenchmark {
+    private static final int[] THREAD_COUNTS = {1, 4, 16, 64};
+    private static final int[] STATUS_CODES = {200, 200, 200, 301, 304, 404, 500};
+    private static final int REPORTS = 1024;
+    private static final int CLIENTS = 1 << 16;
+
+    private final LogReport[] reports = new LogReport[REPORTS];
+
+    private final Object lock = new Object();
+    private final TotalRequestObserver lockedTotal = new TotalRequestObserver();
+    private final CodeStatusesObserver lockedStatuses = new CodeStatusesObserver();
+    private final UniqueUsersObserver lockedUsers = new UniqueUsersObserver();
+
+    private final ConcurrentTotalRequestObserver concurrentTotal = new ConcurrentTotalRequestObserver();
+    private final ConcurrentCodeStatusesObserver concurrentStatuses = new ConcurrentCodeStatusesObserver();
+    private final StripedObserver<UniqueUsersObserver> stripedUsers = new StripedObserver<>(new UniqueUsersObserver());
+
+    @Setup
+    public void setUp() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < REPORTS; i++) {
+            reports[i] = new LogReport(0, IpAddresses.IPV4_MAPPED_PREFIX | random.nextInt(CLIENTS),
+                LogReport.NO_TIMESTAMP, "GET / HTTP/1.1", STATUS_CODES[random.nextInt(STATUS_CODES.length)],
+                random.nextInt(100_000), "-", "-");
+        }
+    }
+
+    @Benchmark
+    public void globalLock() {
+        LogReport report = nextReport();
+        synchronized (lock) {
+            lockedTotal.update(report);
+            lockedStatuses.update(report);
+            lockedUsers.update(report);
+        }
+    }
+
+    @Benchmark
+    public void concurrentCounters() {
+        LogReport report = nextReport();
+        concurrentTotal.update(report);
+        concurrentStatuses.update(report);
+        stripedUsers.update(report);
+    }
+
+    private LogReport nextReport() {
+        return reports[ThreadLocalRandom.current().nextInt(REPORTS)];
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : THREAD_COUNTS) {
+            new Runner(new OptionsBuilder()
+                .include(ObserverContentionBenchmark.class.getSimpleName())
+                .threads(threads)
+                .build()).run();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package benchmarks;
+
+import backend.academy.logObservers.AverageResponseSizeObserver;
+import backend.academy.logObservers.CodeStatusesObserver;
+import backend.academy.logObservers.LogObserver;
+import backend.academy.logObservers.MalformedLinesObserver;
+import backend.academy.logObservers.ObserverFusion;
+import backend.academy.logObservers.ResponseSizePercentileObserver;
+import backend.academy.logObservers.TotalRequestObserver;
+import backend.academy.logObservers.TrafficSeriesObserver;
+import backend.academy.logObservers.UniqueUsersObserver;
+import backend.academy.logParseComponents.IpAddresses;
+import backend.academy.logParseComponents.LogBatch;
+import backend.academy.logParseComponents.LogReport;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares notifying the numeric observers once per line, once per {@link LogBatch}, and through one fused
+ * observer generated by {@link ObserverFusion}.
+ *
+ * <p>Run from the IDE, or with the test classpath written by
+ * {@code mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt}:
+ * {@code java -cp target/test-classes:target/classes:$(cat target/classpath.txt) benchmarks.ObserverDispatchBenchmark}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ObserverDispatchBenchmark {
+    private static final int[] STATUS_CODES = {200, 200, 200, 301, 304, 404, 500};
+    private static final long START = 1_431_871_539L;
+    private static final int SEED = 42;
+    private static final int MAX_SIZE = 100_000;
+
+    @Param({"100000"})
+    private int lineCount;
+
+    private List<LogReport> reports;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(SEED);
+        reports = new ArrayList<>(lineCount);
+        for (int i = 0; i < lineCount; i++) {
+            reports.add(new LogReport(0, IpAddresses.IPV4_MAPPED_PREFIX | random.nextInt(1 << 16), START + i / 10,
+                "GET / HTTP/1.1", STATUS_CODES[random.nextInt(STATUS_CODES.length)], random.nextInt(MAX_SIZE),
+                "-", "-"));
+        }
+    }
+
+    @Benchmark
+    public void perLine(Blackhole blackhole) {
+        List<LogObserver> observers = observers();
+        for (LogReport report : reports) {
+            for (LogObserver observer : observers) {
+                observer.update(report);
+            }
+        }
+        blackhole.consume(observers);
+    }
+
+    @Benchmark
+    public void perBatch(Blackhole blackhole) {
+        List<LogObserver> observers = observers();
+        LogBatch batch = new LogBatch();
+        for (LogReport report : reports) {
+            batch.add(report);
+            if (batch.isFull()) {
+                notify(observers, batch);
+            }
+        }
+        notify(observers, batch);
+        blackhole.consume(observers);
+    }
+
+    @Benchmark
+    public void fused(Blackhole blackhole) {
+        List<LogObserver> observers = observers();
+        List<LogObserver> fused = List.of(ObserverFusion.fuse(observers));
+        LogBatch batch = new LogBatch();
+        for (LogReport report : reports) {
+            batch.add(report);
+            if (batch.isFull()) {
+                notify(fused, batch);
+            }
+        }
+        notify(fused, batch);
+        blackhole.consume(observers);
+    }
+
+    private static void notify(List<LogObserver> observers, LogBatch batch) {
+        for (LogObserver observer : observers) {
+            observer.updateBatch(batch);
+        }
+        batch.clear();
+    }
+
+    private static List<LogObserver> observers() {
+        return List.of(new TotalRequestObserver(), new CodeStatusesObserver(), new AverageResponseSizeObserver(),
+            new ResponseSizePercentileObserver(), new UniqueUsersObserver(), new TrafficSeriesObserver(),
+            new MalformedLinesObserver());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ObserverDispatchBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -2,6 +2,8 @@ package logObserversTests;
 
 import backend.academy.logObservers.CodeStatusesObserver;
 import backend.academy.logParseComponents.LogReport;
+import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.mock;
@@ -13,23 +15,35 @@ class CodeStatusesObserverTest {
     void testUpdateWithNewStatusCode() {
         CodeStatusesObserver observer = new CodeStatusesObserver();
         LogReport logMock = mock(LogReport.class);
-        when(logMock.httpStatusCode()).thenReturn("200");
+        when(logMock.httpStatusCode()).thenReturn(200);
 
         observer.update(logMock);
 
-        assertEquals(1, observer.codeStatuses().get("200"));
+        assertEquals(1L, observer.codeStatuses().get(200));
     }
 
     @Test
     void testUpdateWithExistingStatusCode() {
         CodeStatusesObserver observer = new CodeStatusesObserver();
         LogReport logMock = mock(LogReport.class);
-        when(logMock.httpStatusCode()).thenReturn("404");
+        when(logMock.httpStatusCode()).thenReturn(404);
 
         observer.update(logMock);
         observer.update(logMock);
 
-        assertEquals(2, observer.codeStatuses().get("404"));
+        assertEquals(2L, observer.codeStatuses().get(404));
     }
-}
 
+    @Test
+    void testStatusClasses() {
+        CodeStatusesObserver observer = new CodeStatusesObserver();
+        for (int statusCode : new int[] {200, 204, 301, 404, 404, 503}) {
+            LogReport logMock = mock(LogReport.class);
+            when(logMock.httpStatusCode()).thenReturn(statusCode);
+            observer.update(logMock);
+        }
+
+        assertEquals(Map.of("2xx", 2L, "3xx", 1L, "4xx", 2L, "5xx", 1L), observer.statusClasses());
+        assertEquals(List.of(200, 204, 301, 404, 503), List.copyOf(observer.codeStatuses().keySet()));
+    }
+}
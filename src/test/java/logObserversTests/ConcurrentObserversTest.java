@@ -0,0 +1,111 @@
+package logObserversTests;
+
+import backend.academy.logObservers.ConcurrentAverageResponseSizeObserver;
+import backend.academy.logObservers.ConcurrentCodeStatusesObserver;
+import backend.academy.logObservers.ConcurrentTotalRequestObserver;
+import backend.academy.logObservers.LogObserver;
+import backend.academy.logObservers.StripedObserver;
+import backend.academy.logObservers.UniqueUsersObserver;
+import backend.academy.logParseComponents.IpAddresses;
+import backend.academy.logParseComponents.LogBatch;
+import backend.academy.logParseComponents.LogReport;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Shares one set of observers between many threads and checks that no update is lost.
+ */
+class ConcurrentObserversTest {
+    private static final int THREADS = 16;
+    private static final int LINES_PER_THREAD = 20_000;
+    private static final int[] STATUS_CODES = {200, 301, 404, 500};
+
+    @Test
+    void testSharedObserversLoseNoUpdate() throws Exception {
+        ConcurrentTotalRequestObserver total = new ConcurrentTotalRequestObserver();
+        ConcurrentCodeStatusesObserver statuses = new ConcurrentCodeStatusesObserver();
+        ConcurrentAverageResponseSizeObserver average = new ConcurrentAverageResponseSizeObserver();
+        StripedObserver<UniqueUsersObserver> users = new StripedObserver<>(new UniqueUsersObserver(), 4);
+
+        runConcurrently(List.of(total, statuses, average, users));
+
+        long lines = (long) THREADS * LINES_PER_THREAD;
+        assertThat(total.totalRequests()).isEqualTo(lines);
+        assertThat(statuses.codeStatuses()).isEqualTo(Map.of(
+            200, lines / 4, 301, lines / 4, 404, lines / 4, 500, lines / 4));
+        assertThat(average.averageResponseSize()).isEqualTo(10);
+        assertThat(users.snapshot().uniqueUsers()).isEqualTo(THREADS);
+        assertThat(users.snapshot().users()).containsValue((long) LINES_PER_THREAD);
+    }
+
+    @Test
+    void testMergeConcurrentCounters() {
+        ConcurrentCodeStatusesObserver statuses = new ConcurrentCodeStatusesObserver();
+        ConcurrentCodeStatusesObserver other = statuses.emptyCopy();
+        statuses.update(report(0, 404));
+        other.update(report(0, 404));
+
+        statuses.merge(other);
+
+        assertThat(statuses.codeStatuses()).isEqualTo(Map.of(404, 2L));
+    }
+
+    @Test
+    void testStripeCount() {
+        assertThat(new StripedObserver<>(new UniqueUsersObserver(), 1).stripeCount()).isEqualTo(1);
+        assertThat(new StripedObserver<>(new UniqueUsersObserver(), 5).stripeCount()).isEqualTo(8);
+        assertThat(new StripedObserver<>(new UniqueUsersObserver(), 16).stripeCount()).isEqualTo(16);
+        assertThrows(IllegalArgumentException.class, () -> new StripedObserver<>(new UniqueUsersObserver(), 0));
+    }
+
+    /**
+     * Runs one thread per client address; half of the threads update line by line, the others in batches.
+     */
+    private static void runConcurrently(List<LogObserver> observers) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int thread = 0; thread < THREADS; thread++) {
+                int client = thread;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    LogBatch batch = new LogBatch(100);
+                    for (int i = 0; i < LINES_PER_THREAD; i++) {
+                        LogReport report = report(client, STATUS_CODES[i % STATUS_CODES.length]);
+                        if (client % 2 == 0) {
+                            observers.forEach(observer -> observer.update(report));
+                            continue;
+                        }
+                        batch.add(report);
+                        if (batch.isFull()) {
+                            observers.forEach(observer -> observer.updateBatch(batch));
+                            batch.clear();
+                        }
+                    }
+                    observers.forEach(observer -> observer.updateBatch(batch));
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static LogReport report(int client, int statusCode) {
+        return new LogReport(0, IpAddresses.IPV4_MAPPED_PREFIX | client, LogReport.NO_TIMESTAMP, "GET / HTTP/1.1",
+            statusCode, 10, "-", "-");
+    }
+}
@@ -0,0 +1,64 @@
+package logObserversTests;
+
+import backend.academy.logObservers.CountMinSketch;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CountMinSketchTest {
+
+    @Test
+    void testEstimatesWithinErrorBound() {
+        CountMinSketch sketch = new CountMinSketch(0.001, 0.001);
+        SplittableRandom random = new SplittableRandom(3);
+        long[] hashes = random.longs(10_000).toArray();
+        long[] counts = new long[hashes.length];
+        for (int i = 0; i < 200_000; i++) {
+            // Skewed: low indexes are much more frequent
+            int value = (int) (hashes.length * Math.pow(random.nextDouble(), 3));
+            sketch.add(hashes[value]);
+            counts[value]++;
+        }
+
+        assertThat(sketch.totalCount()).isEqualTo(200_000);
+        assertThat(sketch.epsilon()).isLessThanOrEqualTo(0.001);
+        int exceeded = 0;
+        for (int i = 0; i < hashes.length; i++) {
+            long estimate = sketch.estimate(hashes[i]);
+            assertThat(estimate).isGreaterThanOrEqualTo(counts[i]);
+            if (estimate - counts[i] > sketch.errorBound()) {
+                exceeded++;
+            }
+        }
+        assertThat(exceeded).isLessThanOrEqualTo(10); // delta = 0.1% of 10000 values
+    }
+
+    @Test
+    void testMergeEqualsSingleSketch() {
+        CountMinSketch left = new CountMinSketch();
+        CountMinSketch right = left.emptyCopy();
+        CountMinSketch single = left.emptyCopy();
+        SplittableRandom random = new SplittableRandom(5);
+        for (int i = 0; i < 10_000; i++) {
+            long hash = random.nextLong(100);
+            (i % 2 == 0 ? left : right).add(hash);
+            single.add(hash);
+        }
+
+        left.merge(right);
+
+        assertThat(left.totalCount()).isEqualTo(single.totalCount());
+        for (long hash = 0; hash < 100; hash++) {
+            assertThat(left.estimate(hash)).isEqualTo(single.estimate(hash));
+        }
+        assertThrows(IllegalArgumentException.class, () -> left.merge(new CountMinSketch(0.01, 0.01)));
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(0.01, 1));
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(1e-12, 0.01));
+    }
+}
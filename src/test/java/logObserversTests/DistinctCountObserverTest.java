@@ -0,0 +1,72 @@
+package logObserversTests;
+
+import backend.academy.logObservers.DistinctCountObserver;
+import backend.academy.logObservers.DistinctCountObserver.Field;
+import backend.academy.logParseComponents.IpAddresses;
+import backend.academy.logParseComponents.LogReport;
+import java.util.EnumSet;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DistinctCountObserverTest {
+
+    @Test
+    void testCountsDistinctValuesExactly() {
+        DistinctCountObserver observer = new DistinctCountObserver();
+
+        observer.update(report(1, "GET /api/users/1?page=2 HTTP/1.1", "curl/8.4.0"));
+        observer.update(report(1, "GET /api/users/1 HTTP/1.1", "curl/8.4.0"));
+        observer.update(report(2, "POST /api/users/1 HTTP/1.1", "Mozilla/5.0"));
+        observer.update(report(3, "GET /index.html HTTP/1.1", "curl/8.4.0"));
+
+        assertThat(observer.distinctCount(Field.IP)).isEqualTo(3);
+        assertThat(observer.distinctCount(Field.USER_AGENT)).isEqualTo(2);
+        assertThat(observer.distinctCount(Field.PATH)).isEqualTo(2);
+        assertThat(observer.distinctCounts()).containsExactly(
+            entry("ip", "3 (exact)"),
+            entry("user_agent", "2 (exact)"),
+            entry("path", "2 (exact)"));
+    }
+
+    @Test
+    void testSwitchesToSketchAboveThreshold() {
+        DistinctCountObserver observer = new DistinctCountObserver(EnumSet.of(Field.IP), 14, 1_000);
+        DistinctCountObserver other = observer.emptyCopy();
+        for (int i = 0; i < 100_000; i++) {
+            (i % 2 == 0 ? observer : other).update(report(i, "GET / HTTP/1.1", "-"));
+        }
+
+        observer.merge(other);
+
+        assertThat(observer.distinctCount(Field.IP)).isBetween(97_000L, 103_000L);
+        assertThat(observer.distinctCount(Field.PATH)).isZero();
+        assertThat(observer.distinctCounts()).containsOnlyKeys("ip");
+        assertThat(observer.distinctCounts().get("ip")).endsWith(" ± 0.81%");
+    }
+
+    @Test
+    void testFieldNames() {
+        assertThat(Field.fromName("USER_AGENT")).isEqualTo(Field.USER_AGENT);
+        assertThrows(IllegalArgumentException.class, () -> Field.fromName("referrer"));
+        assertThrows(IllegalArgumentException.class, () -> new DistinctCountObserver(Set.of(Field.IP), 2, 0));
+    }
+
+    @Test
+    void testEntriesWithoutAddressAreNotCountedAsIps() {
+        DistinctCountObserver observer = new DistinctCountObserver();
+
+        observer.update(new LogReport(0, 0, false, LogReport.NO_TIMESTAMP, "GET / HTTP/1.1", 200, 0, "-", "-"));
+        observer.update(new LogReport(0, 0, false, LogReport.NO_TIMESTAMP, "GET / HTTP/1.1", 200, 0, "-", "-"));
+
+        assertThat(observer.distinctCount(Field.IP)).isZero();
+        assertThat(observer.distinctCount(Field.PATH)).isEqualTo(1);
+    }
+
+    private static LogReport report(int address, String request, String userAgent) {
+        return new LogReport(0, IpAddresses.IPV4_MAPPED_PREFIX | address, LogReport.NO_TIMESTAMP, request, 200, 0,
+            "-", userAgent);
+    }
+}
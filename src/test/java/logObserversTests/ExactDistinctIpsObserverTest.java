@@ -0,0 +1,117 @@
+package logObserversTests;
+
+import backend.academy.logObservers.DistinctIpSet;
+import backend.academy.logObservers.ExactDistinctIpsObserver;
+import backend.academy.logParseComponents.IpAddresses;
+import backend.academy.logParseComponents.LogBatch;
+import backend.academy.logParseComponents.LogReport;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExactDistinctIpsObserverTest {
+    private static final LocalDate MONDAY = LocalDate.of(2015, 5, 18);
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void testCountsPerDay() {
+        ExactDistinctIpsObserver observer = new ExactDistinctIpsObserver();
+        LogBatch batch = new LogBatch();
+        for (int i = 0; i < 1_000; i++) {
+            batch.add(ipv4Log(MONDAY, i % 300));
+            batch.add(ipv4Log(MONDAY.plusDays(1), i % 50));
+        }
+        observer.updateBatch(batch);
+        observer.update(ipv6Log(MONDAY, 1));
+        observer.update(ipv6Log(MONDAY, 1));
+        observer.update(new LogReport(0, IpAddresses.IPV4_MAPPED_PREFIX | 999, LogReport.NO_TIMESTAMP,
+            "GET / HTTP/1.1", 200, 0, "-", "-"));
+
+        assertThat(observer.exactDistinctIpsPerDay()).isEqualTo(Map.of(
+            "2015-05-18", 301L, "2015-05-19", 50L));
+        assertThat(observer.exactDistinctIps()).isEqualTo(302);
+        assertThat(observer.daySet(MONDAY).ipv6Cardinality()).isEqualTo(1);
+        assertThat(observer.daySet(MONDAY.minusDays(1)).cardinality()).isZero();
+    }
+
+    @Test
+    void testMerge() {
+        ExactDistinctIpsObserver left = new ExactDistinctIpsObserver();
+        ExactDistinctIpsObserver right = left.emptyCopy();
+        for (int i = 0; i < 100; i++) {
+            left.update(ipv4Log(MONDAY, i));
+            right.update(ipv4Log(MONDAY, i + 50));
+            right.update(ipv4Log(MONDAY.plusDays(2), i));
+        }
+
+        left.merge(right);
+
+        assertThat(left.exactDistinctIpsPerDay()).isEqualTo(Map.of("2015-05-18", 150L, "2015-05-20", 100L));
+        assertThat(left.exactDistinctIps()).isEqualTo(150);
+    }
+
+    @Test
+    void testDailySetsAddUpToWeeklyCount() throws IOException {
+        // Two log files of the same days, saved one after the other
+        for (int file = 0; file < 2; file++) {
+            ExactDistinctIpsObserver observer = new ExactDistinctIpsObserver();
+            for (int day = 0; day < 7; day++) {
+                for (int i = 0; i < 1_000; i++) {
+                    observer.update(ipv4Log(MONDAY.plusDays(day), file * 10_000 + day * 100 + i));
+                }
+                observer.update(ipv6Log(MONDAY.plusDays(day), day));
+            }
+            observer.saveDays(tempDir);
+        }
+
+        DistinctIpSet week = new DistinctIpSet();
+        for (int day = 0; day < 7; day++) {
+            String fileName = ExactDistinctIpsObserver.DAY_FILE_PREFIX + MONDAY.plusDays(day)
+                + ExactDistinctIpsObserver.DAY_FILE_SUFFIX;
+            DistinctIpSet daySet = DistinctIpSet.load(tempDir.resolve(fileName));
+            assertThat(daySet.cardinality()).isEqualTo(2_001);
+            week.or(daySet);
+        }
+
+        // Days overlap by 900 addresses per file: 1000 + 6 * 100 per file, and one IPv6 address per day
+        assertThat(week.cardinality()).isEqualTo(2 * 1_600 + 7);
+        assertThat(week.contains(0, IpAddresses.IPV4_MAPPED_PREFIX | 10_000)).isTrue();
+        assertThat(week.contains(0x2001_0DB8_0000_0000L, 6)).isTrue();
+    }
+
+    @Test
+    void testEntriesWithoutAddressAreNotCounted() {
+        ExactDistinctIpsObserver observer = new ExactDistinctIpsObserver();
+        LogReport withoutAddress = new LogReport(0, 0, false, epochSecond(MONDAY), "GET / HTTP/1.1", 200, 0, "-",
+            "-");
+        LogBatch batch = new LogBatch();
+        batch.add(withoutAddress);
+        batch.add(ipv4Log(MONDAY, 1));
+
+        observer.update(withoutAddress);
+        observer.updateBatch(batch);
+
+        assertThat(observer.exactDistinctIps()).isEqualTo(1);
+        assertThat(observer.daySet(MONDAY).contains(0, 0)).isFalse();
+    }
+
+    private static LogReport ipv4Log(LocalDate day, int address) {
+        return new LogReport(0, IpAddresses.IPV4_MAPPED_PREFIX | address, epochSecond(day), "GET / HTTP/1.1",
+            200, 0, "-", "-");
+    }
+
+    private static LogReport ipv6Log(LocalDate day, long low) {
+        return new LogReport(0x2001_0DB8_0000_0000L, low, epochSecond(day), "GET / HTTP/1.1", 200, 0, "-", "-");
+    }
+
+    private static long epochSecond(LocalDate day) {
+        return day.atTime(12, 0).toEpochSecond(ZoneOffset.UTC);
+    }
+}
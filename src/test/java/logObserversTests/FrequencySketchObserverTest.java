@@ -0,0 +1,59 @@
+package logObserversTests;
+
+import backend.academy.logObservers.FrequencySketchObserver;
+import backend.academy.logParseComponents.LogReport;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FrequencySketchObserverTest {
+
+    @Test
+    void testReportsMostFrequentUrlsAndReferrers() {
+        FrequencySketchObserver observer = new FrequencySketchObserver(0.001, 0.001, 2);
+        for (int i = 0; i < 1_000; i++) {
+            observer.update(report("GET /crawl/" + i + " HTTP/1.1", "https://spam.example/" + i));
+            if (i % 2 == 0) {
+                observer.update(report("GET /index.html?lang=en HTTP/1.1", "-"));
+            }
+            if (i % 4 == 0) {
+                observer.update(report("POST /api/login HTTP/1.1", "https://example.com/"));
+            }
+        }
+
+        Map<String, Long> topUrls = observer.topUrls();
+        assertThat(List.copyOf(topUrls.keySet())).containsExactly("/index.html?lang=en", "/api/login");
+        assertThat(topUrls.get("/index.html?lang=en")).isBetween(500L, 502L);
+        assertThat(observer.topReferrers()).containsOnlyKeys("-", "https://example.com/");
+        assertThat(observer.frequencyErrorBound()).matches("\\+0\\.\\.\\d+ with probability 99\\.9%");
+    }
+
+    @Test
+    void testMergeReranksCandidates() {
+        FrequencySketchObserver left = new FrequencySketchObserver(0.001, 0.001, 1);
+        FrequencySketchObserver right = left.emptyCopy();
+        left.update(report("GET /a HTTP/1.1", "-"));
+        left.update(report("GET /a HTTP/1.1", "-"));
+        right.update(report("GET /b HTTP/1.1", "-"));
+        right.update(report("GET /b HTTP/1.1", "-"));
+        right.update(report("GET /b HTTP/1.1", "-"));
+        left.update(report("GET /b HTTP/1.1", "-"));
+
+        left.merge(right);
+
+        assertThat(left.topUrls()).containsExactly(entry("/b", 4L));
+        assertThat(left.topReferrers()).containsExactly(entry("-", 6L));
+    }
+
+    @Test
+    void testInvalidTopN() {
+        assertThrows(IllegalArgumentException.class, () -> new FrequencySketchObserver(0.001, 0.001, 0));
+    }
+
+    private static LogReport report(String request, String referrer) {
+        return new LogReport(0, 0, LogReport.NO_TIMESTAMP, request, 200, 0, referrer, "-");
+    }
+}
@@ -0,0 +1,187 @@
+package logObserversTests;
+
+import backend.academy.logObservers.GroupByObserver;
+import backend.academy.logObservers.GroupByObserver.Aggregate;
+import backend.academy.logObservers.GroupByObserver.Dimension;
+import backend.academy.logParseComponents.AnalysisContext;
+import backend.academy.logParseComponents.IpAddresses;
+import backend.academy.logParseComponents.LogReport;
+import backend.academy.logParseComponents.PathTemplater;
+import backend.academy.logParseComponents.SymbolTable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GroupByObserverTest {
+    private static final List<Aggregate> ALL_AGGREGATES = List.of(
+        Aggregate.parse("count"), Aggregate.parse("sum(size)"), Aggregate.parse(" avg( size ) "),
+        Aggregate.parse("MIN(size)"), Aggregate.parse("max(size)"));
+
+    @Test
+    void testGroupsByStatusAndPath() {
+        GroupByObserver observer = new GroupByObserver(List.of(Dimension.STATUS, Dimension.PATH), ALL_AGGREGATES,
+            10, new SymbolTable());
+        observer.update(log(200, "GET /a?page=1 HTTP/1.1", 100));
+        observer.update(log(200, "POST /a HTTP/1.1", 300));
+        observer.update(log(200, "GET /a HTTP/1.1", 201));
+        observer.update(log(404, "GET /a HTTP/1.1", 10));
+        observer.update(log(404, "garbage", 5));
+
+        assertThat(observer.groupCount()).isEqualTo(3);
+        assertThat(observer.groups()).containsExactly(
+            Map.entry("200, /a", Map.of("count", 3L, "sum(size)", 601L, "avg(size)", 200L,
+                "min(size)", 100L, "max(size)", 300L)),
+            Map.entry("404, /a", Map.of("count", 1L, "sum(size)", 10L, "avg(size)", 10L,
+                "min(size)", 10L, "max(size)", 10L)),
+            Map.entry("404, garbage", Map.of("count", 1L, "sum(size)", 5L, "avg(size)", 5L,
+                "min(size)", 5L, "max(size)", 5L)));
+    }
+
+    @Test
+    void testGroupsByTemplatedPath() {
+        GroupByObserver observer = new GroupByObserver(List.of(Dimension.PATH), List.of(Aggregate.parse("count")),
+            10, new PathTemplater(List.of("/shop/{category}")), new SymbolTable());
+        for (int i = 0; i < 5_000; i++) {
+            observer.update(log(200, "GET /api/users/" + i + " HTTP/1.1", 0));
+        }
+        observer.update(log(200, "GET /shop/books HTTP/1.1", 0));
+
+        assertThat(observer.foldedEntries()).isZero();
+        assertThat(observer.groups()).containsExactly(
+            Map.entry("/api/users/{id}", Map.of("count", 5_000L)),
+            Map.entry("/shop/{category}", Map.of("count", 1L)));
+    }
+
+    @Test
+    void testBatchesUseParseTimeIds() {
+        AnalysisContext context = new AnalysisContext();
+        context.usePathTemplates(List.of("/shop/{category}"));
+        List<Dimension> dimensions = List.of(Dimension.METHOD, Dimension.PATH, Dimension.USER_AGENT);
+        GroupByObserver fromContext = new GroupByObserver(dimensions, ALL_AGGREGATES, 10, context);
+        GroupByObserver perEntry = new GroupByObserver(dimensions, ALL_AGGREGATES, 10,
+            new PathTemplater(List.of("/shop/{category}")), new SymbolTable());
+        context.addObserver(fromContext);
+        context.addObserver(perEntry);
+
+        context.parseLines(List.of(
+            "10.0.0.1 - - [17/May/2015:14:05:39 +0000] \"GET /shop/books?page=2 HTTP/1.1\" 200 512 \"-\" \"curl\"",
+            "10.0.0.2 - - [17/May/2015:14:05:40 +0000] \"GET /shop/music HTTP/1.1\" 200 128 \"-\" \"curl\"",
+            "10.0.0.3 - - [17/May/2015:14:05:41 +0000] \"GET /users/42 HTTP/1.1\" 404 0 \"-\" \"-\"",
+            "10.0.0.4 - - [17/May/2015:14:05:42 +0000] \"\\x16\\x03\\x01\" 400 0 \"-\" \"-\""));
+
+        assertThat(fromContext.groups()).isEqualTo(perEntry.groups()).containsExactly(
+            Map.entry("GET, /shop/{category}, curl", Map.of("count", 2L, "sum(size)", 640L, "avg(size)", 320L,
+                "min(size)", 128L, "max(size)", 512L)),
+            Map.entry("-, \\x16\\x03\\x01, -", Map.of("count", 1L, "sum(size)", 0L, "avg(size)", 0L,
+                "min(size)", 0L, "max(size)", 0L)),
+            Map.entry("GET, /users/{id}, -", Map.of("count", 1L, "sum(size)", 0L, "avg(size)", 0L,
+                "min(size)", 0L, "max(size)", 0L)));
+    }
+
+    @Test
+    void testTopGroupsByFirstAggregate() {
+        GroupByObserver observer = new GroupByObserver(List.of(Dimension.METHOD, Dimension.IP),
+            List.of(Aggregate.parse("sum(size)"), Aggregate.parse("count")), 2, new SymbolTable());
+        for (int i = 0; i < 5_000; i++) {
+            observer.update(log(200, "GET / HTTP/1.1", i % 1_000, i % 1_000));
+        }
+        observer.update(new LogReport(0x2001_0DB8_0000_0000L, 1, LogReport.NO_TIMESTAMP, "PUT / HTTP/1.1", 200,
+            1_000_000, "-", "-"));
+
+        // Groups are ranked by the sum, not by the count
+        assertThat(observer.groupCount()).isEqualTo(1_001);
+        assertThat(observer.groups()).containsExactly(
+            Map.entry("PUT, 2001:db8::1", Map.of("sum(size)", 1_000_000L, "count", 1L)),
+            Map.entry("GET, 0.0.3.231", Map.of("sum(size)", 4_995L, "count", 5L)));
+    }
+
+    @Test
+    void testMergeEqualsSingleObserver() {
+        List<Dimension> dimensions = List.of(Dimension.IP, Dimension.STATUS, Dimension.USER_AGENT);
+        GroupByObserver single = new GroupByObserver(dimensions, ALL_AGGREGATES, 50, new SymbolTable());
+        GroupByObserver merged = single.emptyCopy();
+        List<GroupByObserver> partitions = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            partitions.add(single.emptyCopy());
+        }
+        for (int i = 0; i < 30_000; i++) {
+            LogReport log = new LogReport(0, IpAddresses.IPV4_MAPPED_PREFIX | i % 7, LogReport.NO_TIMESTAMP,
+                "GET / HTTP/1.1", i % 3 == 0 ? 200 : 500, i % 101, "-", "agent-" + i % 5);
+            single.update(log);
+            partitions.get(i % partitions.size()).update(log);
+        }
+        for (GroupByObserver partition : partitions) {
+            merged.merge(partition);
+        }
+
+        assertThat(merged.groupCount()).isEqualTo(single.groupCount()).isEqualTo(7 * 2 * 5);
+        assertThat(merged.groups()).isEqualTo(single.groups());
+    }
+
+    @Test
+    void testValuesBeyondKeyBitsAreGroupedAsOther() {
+        // Six fields leave 10 bits to each field but the status, so paths past the 1023rd share a group
+        GroupByObserver observer = new GroupByObserver(List.of(Dimension.values()),
+            List.of(Aggregate.parse("count")), 1, new SymbolTable());
+        for (int i = 0; i < 3_000; i++) {
+            observer.update(log(200, "GET /page-" + i + " HTTP/1.1", 0));
+        }
+
+        String other = "200, GET, " + GroupByObserver.OTHER + ", 0.0.0.0, -, -";
+        assertThat(observer.groupCount()).isLessThan(3_000);
+        assertThat(observer.groups()).containsOnlyKeys(other);
+        assertThat(observer.foldedEntries()).isEqualTo(observer.groups().get(other).get("count"));
+
+        GroupByObserver merged = observer.emptyCopy();
+        merged.merge(observer);
+        assertThat(merged.foldedEntries()).isEqualTo(observer.foldedEntries());
+    }
+
+    @Test
+    void testEntriesWithoutAddressAreGroupedApart() {
+        GroupByObserver observer = new GroupByObserver(List.of(Dimension.IP), List.of(Aggregate.parse("count")),
+            10, new SymbolTable());
+        observer.update(new LogReport(0, 0, false, LogReport.NO_TIMESTAMP, "GET / HTTP/1.1", 200, 0, "-", "-"));
+        observer.update(new LogReport(0, 0, false, LogReport.NO_TIMESTAMP, "GET / HTTP/1.1", 200, 0, "-", "-"));
+        observer.update(new LogReport(0, 0, LogReport.NO_TIMESTAMP, "GET / HTTP/1.1", 200, 0, "-", "-"));
+
+        GroupByObserver merged = observer.emptyCopy();
+        merged.merge(observer);
+
+        assertThat(merged.groups()).containsExactly(
+            Map.entry(LogReport.NO_ADDRESS, Map.of("count", 2L)),
+            Map.entry("::", Map.of("count", 1L)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"count(size)", "sum", "sum(status)", "median(size)", "sum(size", ""})
+    void testInvalidAggregates(String text) {
+        assertThrows(IllegalArgumentException.class, () -> Aggregate.parse(text));
+    }
+
+    @Test
+    void testInvalidGrouping() {
+        List<Aggregate> count = List.of(Aggregate.parse("count"));
+        assertThrows(IllegalArgumentException.class, () -> Dimension.fromName("host"));
+        SymbolTable symbols = new SymbolTable();
+        assertThrows(IllegalArgumentException.class, () -> new GroupByObserver(List.of(), count, 1, symbols));
+        assertThrows(IllegalArgumentException.class,
+            () -> new GroupByObserver(List.of(Dimension.PATH, Dimension.PATH), count, 1, symbols));
+        assertThrows(IllegalArgumentException.class,
+            () -> new GroupByObserver(List.of(Dimension.PATH), count, 0, symbols));
+    }
+
+    private static LogReport log(int status, String request, long size) {
+        return log(status, request, size, 0);
+    }
+
+    private static LogReport log(int status, String request, long size, int address) {
+        return new LogReport(0, IpAddresses.IPV4_MAPPED_PREFIX | address, LogReport.NO_TIMESTAMP, request, status,
+            size, "-", "-");
+    }
+}
@@ -0,0 +1,76 @@
+package logObserversTests;
+
+import backend.academy.logObservers.HyperLogLog;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HyperLogLogTest {
+
+    @Test
+    void testExactBelowThreshold() {
+        HyperLogLog counter = new HyperLogLog(HyperLogLog.DEFAULT_PRECISION, 100);
+        SplittableRandom random = new SplittableRandom(1);
+        long[] hashes = random.longs(100).toArray();
+        for (int i = 0; i < 3; i++) {
+            for (long hash : hashes) {
+                counter.add(hash);
+            }
+        }
+
+        assertThat(counter.isExact()).isTrue();
+        assertThat(counter.estimate()).isEqualTo(100);
+        assertThat(counter.relativeStandardError()).isZero();
+
+        counter.add(random.nextLong());
+        assertThat(counter.isExact()).isFalse();
+        assertThat(counter.estimate()).isCloseTo(101, within(3L));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1_000, 50_000, 1_000_000})
+    void testEstimateWithinErrorBound(int cardinality) {
+        HyperLogLog counter = new HyperLogLog(HyperLogLog.DEFAULT_PRECISION, 0);
+        SplittableRandom random = new SplittableRandom(cardinality);
+        for (int i = 0; i < cardinality; i++) {
+            counter.add(random.nextLong());
+        }
+
+        // Four standard errors: fails for a correct sketch once in about 15 thousand runs, and the seed is fixed
+        double error = Math.abs(counter.estimate() - cardinality) / (double) cardinality;
+        assertThat(error).isLessThan(4 * counter.relativeStandardError());
+    }
+
+    @Test
+    void testMergeEqualsSingleCounter() {
+        HyperLogLog left = new HyperLogLog(12, 1_000);
+        HyperLogLog right = new HyperLogLog(12, 1_000);
+        HyperLogLog single = new HyperLogLog(12, 0);
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < 20_000; i++) {
+            long hash = random.nextLong();
+            (i % 3 == 0 ? left : right).add(hash);
+            single.add(hash);
+        }
+        HyperLogLog exact = new HyperLogLog(12, 1_000);
+        exact.add(42);
+
+        left.merge(right);
+        left.merge(exact);
+        single.add(42);
+
+        assertThat(left.estimate()).isEqualTo(single.estimate());
+        assertThrows(IllegalArgumentException.class, () -> left.merge(new HyperLogLog()));
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(HyperLogLog.MIN_PRECISION - 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(HyperLogLog.MAX_PRECISION + 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(HyperLogLog.DEFAULT_PRECISION, -1));
+    }
+}
@@ -0,0 +1,110 @@
+package logObserversTests;
+
+import backend.academy.logObservers.Ipv4Bitmap;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class Ipv4BitmapTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = {1 << 8, 1 << 12, 1 << 16})
+    void testMatchesHashSet(int range) {
+        // Addresses spread over a few chunks, sparse or dense depending on the range
+        Ipv4Bitmap bitmap = new Ipv4Bitmap();
+        Set<Integer> expected = new HashSet<>();
+        SplittableRandom random = new SplittableRandom(range);
+        for (int i = 0; i < 50_000; i++) {
+            int address = random.nextInt(4) << 24 | random.nextInt(range);
+            assertThat(bitmap.add(address)).isEqualTo(expected.add(address));
+        }
+
+        assertThat(bitmap.cardinality()).isEqualTo(expected.size());
+        for (int address : expected) {
+            assertThat(bitmap.contains(address)).isTrue();
+        }
+        assertThat(bitmap.contains(0x7F00_0001)).isFalse();
+    }
+
+    @Test
+    void testContainerSwitchesToBitmap() {
+        Ipv4Bitmap bitmap = new Ipv4Bitmap();
+        for (int i = 0; i <= Ipv4Bitmap.ARRAY_CONTAINER_MAX; i++) {
+            bitmap.add(0x0A00_0000 | i * 2);
+        }
+
+        // One chunk: its key, its cardinality and 8 KB of bitmap words
+        assertThat(bitmap.cardinality()).isEqualTo(Ipv4Bitmap.ARRAY_CONTAINER_MAX + 1);
+        assertThat(bitmap.serializedSize()).isEqualTo(Integer.BYTES + 2 * Character.BYTES + 8192);
+        assertThat(bitmap.contains(0x0A00_0002)).isTrue();
+        assertThat(bitmap.contains(0x0A00_0003)).isFalse();
+    }
+
+    @Test
+    void testOr() {
+        Ipv4Bitmap left = new Ipv4Bitmap();
+        Ipv4Bitmap right = new Ipv4Bitmap();
+        Set<Integer> expected = new HashSet<>();
+        SplittableRandom random = new SplittableRandom(3);
+        for (int i = 0; i < 30_000; i++) {
+            // Some chunks only on one side, some on both, in array and bitmap form
+            int address = random.nextInt(8) << 16 | random.nextInt(i % 2 == 0 ? 1 << 16 : 1 << 10);
+            (random.nextBoolean() ? left : right).add(address);
+            expected.add(address);
+        }
+
+        left.or(right);
+        left.or(left);
+
+        assertThat(left.cardinality()).isEqualTo(expected.size());
+        for (int address : expected) {
+            assertThat(left.contains(address)).isTrue();
+        }
+        assertThat(right.cardinality()).isLessThan(expected.size());
+        left.or(new Ipv4Bitmap());
+        assertThat(left.cardinality()).isEqualTo(expected.size());
+    }
+
+    @Test
+    void testSerialization() throws IOException {
+        Ipv4Bitmap bitmap = new Ipv4Bitmap();
+        SplittableRandom random = new SplittableRandom(5);
+        for (int i = 0; i < 20_000; i++) {
+            bitmap.add(random.nextInt());
+            bitmap.add(0xC0A8_0000 | i); // A dense range
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        bitmap.writeTo(new DataOutputStream(bytes));
+        assertThat((long) bytes.size()).isEqualTo(bitmap.serializedSize());
+
+        Ipv4Bitmap copy = Ipv4Bitmap.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        assertThat(copy.cardinality()).isEqualTo(bitmap.cardinality());
+        assertThat(copy.contains(0xC0A8_0000 | 19_999)).isTrue();
+
+        // Written again, the copy gives the same bytes
+        ByteArrayOutputStream copyBytes = new ByteArrayOutputStream();
+        copy.writeTo(new DataOutputStream(copyBytes));
+        assertThat(copyBytes.toByteArray()).isEqualTo(bytes.toByteArray());
+    }
+
+    @Test
+    void testInvalidInput() {
+        byte[] unsorted = {0, 0, 0, 2, 0, 1, 0, 0, 0, 1, 0, 0, 0, 0, 0, 1};
+        assertThrows(IOException.class,
+            () -> Ipv4Bitmap.readFrom(new DataInputStream(new ByteArrayInputStream(unsorted))));
+        byte[] truncated = {0, 0, 0, 1, 0, 1};
+        assertThrows(IOException.class,
+            () -> Ipv4Bitmap.readFrom(new DataInputStream(new ByteArrayInputStream(truncated))));
+    }
+}
@@ -0,0 +1,59 @@
+package logObserversTests;
+
+import backend.academy.logObservers.LogBucketHistogram;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LogBucketHistogramTest {
+
+    @Test
+    void testSmallValuesAreExact() {
+        LogBucketHistogram histogram = new LogBucketHistogram(8);
+        for (long value = 0; value < 256; value++) {
+            histogram.record(value);
+        }
+
+        assertThat(histogram.totalCount()).isEqualTo(256);
+        assertThat(histogram.valueAtQuantile(0)).isZero();
+        assertThat(histogram.valueAtQuantile(0.5)).isEqualTo(127);
+        assertThat(histogram.valueAtQuantile(1)).isEqualTo(255);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 4, 8, 14})
+    void testRelativeErrorIsBounded(int precisionBits) {
+        for (long value = 1; value > 0 && value < Long.MAX_VALUE / 3; value = value * 3 + 1) {
+            LogBucketHistogram histogram = new LogBucketHistogram(precisionBits);
+            histogram.record(0);
+            histogram.record(value);
+            histogram.record(Long.MAX_VALUE);
+
+            long reported = histogram.valueAtQuantile(0.5);
+            assertThat(reported).isGreaterThanOrEqualTo(value);
+            assertThat((double) (reported - value) / value).isLessThanOrEqualTo(histogram.maxRelativeError());
+        }
+    }
+
+    @Test
+    void testLargestValues() {
+        LogBucketHistogram histogram = new LogBucketHistogram(8);
+        histogram.record(Long.MAX_VALUE);
+        histogram.record(Long.MAX_VALUE - 1);
+
+        assertThat(histogram.valueAtQuantile(1)).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void testMergeRequiresSamePrecision() {
+        LogBucketHistogram histogram = new LogBucketHistogram(8);
+
+        assertThrows(IllegalArgumentException.class, () -> histogram.merge(new LogBucketHistogram(7)));
+        assertThrows(IllegalArgumentException.class, () -> histogram.record(-1));
+        assertThrows(IllegalArgumentException.class, () -> histogram.valueAtQuantile(1.5));
+        assertThrows(IllegalArgumentException.class, () -> new LogBucketHistogram(0));
+        assertThat(histogram.valueAtQuantile(0.99)).isZero();
+    }
+}
@@ -0,0 +1,33 @@
+package logObserversTests;
+
+import backend.academy.logObservers.MalformedLinesObserver;
+import backend.academy.logParseComponents.MalformedReason;
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+class MalformedLinesObserverTest {
+
+    @Test
+    void testCountsPerReason() {
+        MalformedLinesObserver observer = new MalformedLinesObserver();
+
+        observer.updateMalformed(MalformedReason.FORMAT_MISMATCH);
+        observer.updateMalformed(MalformedReason.FORMAT_MISMATCH);
+        observer.updateMalformed(MalformedReason.TRAILING_DATA);
+
+        assertThat(observer.malformedLines()).isEqualTo(3);
+        assertThat(observer.malformedLinesByReason())
+            .containsExactly(
+                entry("format mismatch", 2L),
+                entry("trailing data", 1L));
+    }
+
+    @Test
+    void testNoMalformedLines() {
+        MalformedLinesObserver observer = new MalformedLinesObserver();
+
+        assertThat(observer.malformedLines()).isZero();
+        assertThat(observer.malformedLinesByReason()).isEmpty();
+    }
+}
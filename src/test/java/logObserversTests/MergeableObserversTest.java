@@ -0,0 +1,179 @@
+package logObserversTests;
+
+import backend.academy.logObservers.AverageResponseSizeObserver;
+import backend.academy.logObservers.CodeStatusesObserver;
+import backend.academy.logObservers.DistinctCountObserver;
+import backend.academy.logObservers.FrequencySketchObserver;
+import backend.academy.logObservers.MalformedLinesObserver;
+import backend.academy.logObservers.MergeableObserver;
+import backend.academy.logObservers.ParallelAggregation;
+import backend.academy.logObservers.RecourseRequestsObserver;
+import backend.academy.logObservers.RequestLineObserver;
+import backend.academy.logObservers.RequestsObservers;
+import backend.academy.logObservers.ResponseSizePercentileObserver;
+import backend.academy.logObservers.TotalRequestObserver;
+import backend.academy.logObservers.UniqueUsersObserver;
+import backend.academy.logObservers.UserAgentObserver;
+import backend.academy.logParseComponents.IpAddresses;
+import backend.academy.logParseComponents.LogReport;
+import backend.academy.logParseComponents.MalformedReason;
+import backend.academy.logParseComponents.PathTemplater;
+import backend.academy.logParseComponents.SymbolTable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Property tests of the {@link MergeableObserver} contract: for random logs and random partitionings,
+ * merging the partial observers gives the same result as observing the whole log sequentially.
+ */
+class MergeableObserversTest {
+    private static final String[] REQUESTS = {
+        "GET /index.html HTTP/1.1", "GET /api/users/42 HTTP/1.1", "POST /api/users/7 HTTP/2.0",
+        "DELETE /api/orders/1?force=true HTTP/1.1", "\\x16\\x03\\x01"
+    };
+    private static final String[] REFERRERS = {"-", "https://example.com/", "https://search.example.org/?q=logs"};
+    private static final String[] USER_AGENTS = {
+        "Mozilla/5.0 (Windows NT 10.0; Win64; x64) Chrome/124.0.0.0 Safari/537.36",
+        "Mozilla/5.0 (iPhone; CPU iPhone OS 17_4_1 like Mac OS X) Version/17.4.1 Mobile/15E148 Safari/604.1",
+        "Debian APT-HTTP/1.3 (0.9.7.9)", "curl/8.4.0", "-"
+    };
+    private static final int[] STATUS_CODES = {200, 200, 200, 301, 304, 404, 500, 503};
+    private static final int MAX_LINES = 500;
+    private static final int MAX_PARTITIONS = 17;
+
+    @ParameterizedTest
+    @ValueSource(longs = {1, 2, 3, 5, 8, 13, 21, 34})
+    void testParallelAggregationEqualsSequentialRun(long seed) {
+        Random random = new Random(seed);
+        List<LogReport> reports = randomReports(random, random.nextInt(MAX_LINES));
+        int partitions = 1 + random.nextInt(MAX_PARTITIONS);
+
+        assertMergedEqualsSequential(new TotalRequestObserver(), reports, partitions,
+            TotalRequestObserver::totalRequests);
+        assertMergedEqualsSequential(new CodeStatusesObserver(), reports, partitions,
+            CodeStatusesObserver::codeStatuses);
+        assertMergedEqualsSequential(new RequestLineObserver(), reports, partitions,
+            observer -> List.of(observer.httpMethods(), observer.protocols()));
+        assertMergedEqualsSequential(new AverageResponseSizeObserver(), reports, partitions,
+            AverageResponseSizeObserver::averageResponseSize);
+        assertMergedEqualsSequential(new ResponseSizePercentileObserver(), reports, partitions,
+            ResponseSizePercentileObserver::percentile95);
+        assertMergedEqualsSequential(new UniqueUsersObserver(), reports, partitions,
+            UniqueUsersObserver::users);
+        assertMergedEqualsSequential(new RecourseRequestsObserver(new SymbolTable()), reports, partitions,
+            RecourseRequestsObserver::resourceRequests);
+        assertMergedEqualsSequential(new RequestsObservers(new PathTemplater(List.of()), new SymbolTable()), reports,
+            partitions, observer -> List.copyOf(observer.requests().entrySet())); // Order of first appearance is kept
+        assertMergedEqualsSequential(new DistinctCountObserver(), reports, partitions,
+            DistinctCountObserver::distinctCounts);
+        assertMergedEqualsSequential(new FrequencySketchObserver(), reports, partitions,
+            observer -> List.of(observer.topUrls(), observer.topReferrers()));
+        assertMergedEqualsSequential(new UserAgentObserver(), reports, partitions,
+            observer -> List.of(observer.browserFamilies(), observer.operatingSystems(), observer.botRequests()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {1, 2, 3, 5, 8})
+    void testMergeIsAssociative(long seed) {
+        Random random = new Random(seed);
+        List<LogReport> reports = randomReports(random, MAX_LINES);
+        int first = random.nextInt(reports.size());
+        int second = first + random.nextInt(reports.size() - first);
+
+        CodeStatusesObserver prototype = new CodeStatusesObserver();
+        CodeStatusesObserver leftFirst = observe(prototype, reports, 0, first);
+        leftFirst.merge(observe(prototype, reports, first, second));
+        leftFirst.merge(observe(prototype, reports, second, reports.size()));
+
+        CodeStatusesObserver rightFirst = observe(prototype, reports, first, second);
+        rightFirst.merge(observe(prototype, reports, second, reports.size()));
+        CodeStatusesObserver grouped = observe(prototype, reports, 0, first);
+        grouped.merge(rightFirst);
+
+        assertThat(grouped.codeStatuses()).isEqualTo(leftFirst.codeStatuses());
+    }
+
+    @Test
+    void testMergeMalformedLines() {
+        MalformedLinesObserver left = new MalformedLinesObserver();
+        MalformedLinesObserver right = left.emptyCopy();
+        left.updateMalformed(MalformedReason.FORMAT_MISMATCH);
+        right.updateMalformed(MalformedReason.FORMAT_MISMATCH);
+        right.updateMalformed(MalformedReason.LINE_TOO_LONG);
+
+        left.merge(right);
+
+        assertThat(left.malformedLines()).isEqualTo(3);
+        assertThat(right.malformedLines()).isEqualTo(2);
+    }
+
+    @Test
+    void testReduceKeepsPartitionOrder() {
+        List<RequestsObservers> partials = new ArrayList<>();
+        RequestsObservers prototype = new RequestsObservers(new PathTemplater(List.of()), new SymbolTable());
+        for (String request : REQUESTS) {
+            RequestsObservers partial = prototype.emptyCopy();
+            partial.update(new LogReport(0, 0, LogReport.NO_TIMESTAMP, request, 200, 0, "-", "-"));
+            partials.add(partial);
+        }
+
+        RequestsObservers merged = ParallelAggregation.reduce(partials);
+
+        assertThat(merged.requests().keySet()).containsExactly(
+            "GET /index.html", "GET /api/users/{id}", "POST /api/users/{id}", "DELETE /api/orders/{id}",
+            "\\x16\\x03\\x01");
+    }
+
+    @Test
+    void testInvalidArguments() {
+        TotalRequestObserver prototype = new TotalRequestObserver();
+
+        assertThrows(IllegalArgumentException.class, () -> ParallelAggregation.aggregate(prototype, List.of(), 0));
+        assertThrows(IllegalArgumentException.class, () -> ParallelAggregation.reduce(List.<TotalRequestObserver>of()));
+        assertThat(ParallelAggregation.aggregate(prototype, List.of(), 4).totalRequests()).isZero();
+    }
+
+    private static <T extends MergeableObserver<T>> void assertMergedEqualsSequential(
+        T prototype, List<LogReport> reports, int partitions, Function<T, Object> result) {
+        T sequential = observe(prototype, reports, 0, reports.size());
+        T merged = ParallelAggregation.aggregate(prototype, reports, partitions);
+
+        assertThat(result.apply(merged))
+            .as("%s over %d lines in %d partitions", prototype.getClass().getSimpleName(), reports.size(), partitions)
+            .isEqualTo(result.apply(sequential));
+    }
+
+    private static <T extends MergeableObserver<T>> T observe(T prototype, List<LogReport> reports, int from, int to) {
+        T observer = prototype.emptyCopy();
+        for (LogReport report : reports.subList(from, to)) {
+            observer.update(report);
+        }
+        return observer;
+    }
+
+    private static List<LogReport> randomReports(Random random, int count) {
+        List<LogReport> reports = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            boolean ipv4 = random.nextInt(4) > 0;
+            long high = ipv4 ? 0 : 0x2001_0DB8_0000_0000L;
+            long low = ipv4 ? IpAddresses.IPV4_MAPPED_PREFIX | random.nextInt(32) : random.nextInt(8);
+            reports.add(new LogReport(
+                high,
+                low,
+                LogReport.NO_TIMESTAMP,
+                REQUESTS[random.nextInt(REQUESTS.length)],
+                STATUS_CODES[random.nextInt(STATUS_CODES.length)],
+                random.nextInt(100_000),
+                REFERRERS[random.nextInt(REFERRERS.length)],
+                USER_AGENTS[random.nextInt(USER_AGENTS.length)]));
+        }
+        return reports;
+    }
+}
@@ -0,0 +1,131 @@
+package logObserversTests;
+
+import backend.academy.logObservers.AverageResponseSizeObserver;
+import backend.academy.logObservers.CodeStatusesObserver;
+import backend.academy.logObservers.LogObserver;
+import backend.academy.logObservers.MalformedLinesObserver;
+import backend.academy.logObservers.ObserverFusion;
+import backend.academy.logObservers.RequestLineObserver;
+import backend.academy.logObservers.ResponseSizePercentileObserver;
+import backend.academy.logObservers.TotalRequestObserver;
+import backend.academy.logObservers.TrafficSeriesObserver;
+import backend.academy.logObservers.UniqueUsersObserver;
+import backend.academy.logParseComponents.IpAddresses;
+import backend.academy.logParseComponents.LogBatch;
+import backend.academy.logParseComponents.LogReport;
+import backend.academy.logParseComponents.MalformedReason;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ObserverFusionTest {
+    private static final String[] REQUESTS = {"GET / HTTP/1.1", "POST /api/login HTTP/2.0", "\\x16\\x03\\x01"};
+    private static final int[] STATUS_CODES = {200, 200, 301, 404, 500, 503};
+    private static final long START = 1_431_871_539L;
+    private static final int LINES = 10_000;
+
+    @Test
+    void testFusedObserverMatchesSeparateObservers() {
+        List<LogReport> reports = randomReports(new Random(42));
+        List<LogObserver> fused = observers();
+        List<LogObserver> separate = observers();
+
+        observeInBatches(List.of(ObserverFusion.fuse(fused)), reports);
+        observeInBatches(separate, reports);
+
+        assertThat(results(fused)).isEqualTo(results(separate));
+        assertThat(((TotalRequestObserver) fused.getFirst()).totalRequests()).isEqualTo(LINES);
+        // Entries without an address are not counted as clients of ::
+        assertThat(((UniqueUsersObserver) fused.get(5)).users()).doesNotContainKey("::");
+    }
+
+    @Test
+    void testSubclassesAreNotFused() {
+        List<Integer> statusCodes = new ArrayList<>();
+        CodeStatusesObserver subclass = new CodeStatusesObserver() {
+            @Override
+            public void updateBatch(LogBatch batch) {
+                statusCodes.add(batch.statusCodes()[0]);
+            }
+        };
+        LogBatch batch = new LogBatch();
+        batch.add(new LogReport(0, 0, LogReport.NO_TIMESTAMP, "GET / HTTP/1.1", 404, 0, "-", "-"));
+
+        ObserverFusion.fuse(List.of(subclass)).updateBatch(batch);
+
+        assertThat(statusCodes).containsExactly(404);
+        assertThat(subclass.codeStatuses()).isEmpty();
+    }
+
+    @Test
+    void testSingleEntriesAndMalformedLinesArePassedOn() {
+        TotalRequestObserver total = new TotalRequestObserver();
+        MalformedLinesObserver malformed = new MalformedLinesObserver();
+        LogObserver fused = ObserverFusion.fuse(List.of(total, malformed));
+
+        fused.update(new LogReport(0, 0, LogReport.NO_TIMESTAMP, "GET / HTTP/1.1", 200, 0, "-", "-"));
+        fused.updateMalformed(MalformedReason.FORMAT_MISMATCH);
+        fused.updateBatch(new LogBatch());
+
+        assertThat(total.totalRequests()).isEqualTo(1);
+        assertThat(malformed.malformedLines()).isEqualTo(1);
+    }
+
+    private static List<LogObserver> observers() {
+        return List.of(new TotalRequestObserver(), new CodeStatusesObserver(), new RequestLineObserver(),
+            new AverageResponseSizeObserver(), new ResponseSizePercentileObserver(), new UniqueUsersObserver(),
+            new TrafficSeriesObserver(), new AverageResponseSizeObserver(), new MalformedLinesObserver());
+    }
+
+    private static List<Object> results(List<LogObserver> observers) {
+        List<Function<LogObserver, Object>> results = List.of(
+            observer -> ((TotalRequestObserver) observer).totalRequests(),
+            observer -> ((CodeStatusesObserver) observer).codeStatuses(),
+            observer -> ((RequestLineObserver) observer).httpMethods(),
+            observer -> ((AverageResponseSizeObserver) observer).averageResponseSize(),
+            observer -> ((ResponseSizePercentileObserver) observer).responseSizePercentiles(),
+            observer -> ((UniqueUsersObserver) observer).users(),
+            observer -> ((TrafficSeriesObserver) observer).traffic(),
+            observer -> ((AverageResponseSizeObserver) observer).averageResponseSize(),
+            observer -> ((MalformedLinesObserver) observer).malformedLines());
+        List<Object> values = new ArrayList<>();
+        for (int i = 0; i < observers.size(); i++) {
+            values.add(results.get(i).apply(observers.get(i)));
+        }
+        return values;
+    }
+
+    private static void observeInBatches(List<LogObserver> observers, List<LogReport> reports) {
+        LogBatch batch = new LogBatch(1000);
+        for (LogReport report : reports) {
+            batch.add(report);
+            if (batch.isFull()) {
+                observers.forEach(observer -> observer.updateBatch(batch));
+                batch.clear();
+            }
+        }
+        observers.forEach(observer -> observer.updateBatch(batch));
+    }
+
+    private static List<LogReport> randomReports(Random random) {
+        List<LogReport> reports = new ArrayList<>(LINES);
+        for (int i = 0; i < LINES; i++) {
+            boolean ipv4 = random.nextInt(4) > 0;
+            boolean hasAddress = random.nextInt(20) > 0;
+            reports.add(new LogReport(
+                !hasAddress || ipv4 ? 0 : 0x2001_0DB8_0000_0000L,
+                !hasAddress ? 0 : ipv4 ? IpAddresses.IPV4_MAPPED_PREFIX | random.nextInt(64) : random.nextInt(8),
+                hasAddress,
+                random.nextInt(10) == 0 ? LogReport.NO_TIMESTAMP : START + random.nextInt(3600),
+                REQUESTS[random.nextInt(REQUESTS.length)],
+                STATUS_CODES[random.nextInt(STATUS_CODES.length)],
+                random.nextInt(100_000),
+                "-",
+                "-"));
+        }
+        return reports;
+    }
+}
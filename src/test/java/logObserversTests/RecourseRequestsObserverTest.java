@@ -2,6 +2,7 @@ package logObserversTests;
 
 import backend.academy.logObservers.RecourseRequestsObserver;
 import backend.academy.logParseComponents.LogReport;
+import backend.academy.logParseComponents.SymbolTable;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.mock;
@@ -11,25 +12,25 @@ class RecourseRequestsObserverTest {
 
     @Test
     void testUpdateWithNewReferrer() {
-        RecourseRequestsObserver observer = new RecourseRequestsObserver();
+        RecourseRequestsObserver observer = new RecourseRequestsObserver(new SymbolTable());
         LogReport logMock = mock(LogReport.class);
         when(logMock.referrer()).thenReturn("example.com");
 
         observer.update(logMock);
 
-        assertEquals(1, observer.resourceRequests().get("example.com"));
+        assertEquals(1L, observer.resourceRequests().get("example.com"));
     }
 
     @Test
     void testUpdateWithExistingReferrer() {
-        RecourseRequestsObserver observer = new RecourseRequestsObserver();
+        RecourseRequestsObserver observer = new RecourseRequestsObserver(new SymbolTable());
         LogReport logMock = mock(LogReport.class);
         when(logMock.referrer()).thenReturn("example.com");
 
         observer.update(logMock);
         observer.update(logMock);
 
-        assertEquals(2, observer.resourceRequests().get("example.com"));
+        assertEquals(2L, observer.resourceRequests().get("example.com"));
     }
 }
 
@@ -0,0 +1,49 @@
+package logObserversTests;
+
+import backend.academy.logObservers.RequestLineObserver;
+import backend.academy.logParseComponents.LogReport;
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RequestLineObserverTest {
+
+    @Test
+    void testCountsMethodsAndProtocols() {
+        RequestLineObserver observer = new RequestLineObserver();
+
+        observer.update(mockRequest("GET /index.html HTTP/1.1"));
+        observer.update(mockRequest("GET /api/users?page=2 HTTP/2.0"));
+        observer.update(mockRequest("POST /api/login HTTP/1.1"));
+        observer.update(mockRequest("PROPFIND /webdav HTTP/1.1"));
+        observer.update(mockRequest("GET /"));
+        observer.update(mockRequest("\\x16\\x03\\x01"));
+
+        assertThat(observer.httpMethods()).containsExactly(
+            entry("GET", 3L), entry("POST", 1L), entry(RequestLineObserver.OTHER, 2L));
+        assertThat(observer.protocols()).containsExactly(
+            entry("HTTP/1.1", 3L), entry("HTTP/2.0", 1L), entry(RequestLineObserver.NO_PROTOCOL, 1L),
+            entry(RequestLineObserver.OTHER, 1L));
+    }
+
+    @Test
+    void testMerge() {
+        RequestLineObserver observer = new RequestLineObserver();
+        RequestLineObserver other = observer.emptyCopy();
+        observer.update(mockRequest("GET / HTTP/1.0"));
+        other.update(mockRequest("GET / HTTP/1.0"));
+
+        observer.merge(other);
+
+        assertThat(observer.httpMethods()).containsExactly(entry("GET", 2L));
+        assertThat(observer.protocols()).containsExactly(entry("HTTP/1.0", 2L));
+    }
+
+    private static LogReport mockRequest(String request) {
+        LogReport log = mock(LogReport.class);
+        when(log.request()).thenReturn(request);
+        return log;
+    }
+}
@@ -1,8 +1,15 @@
 package logObserversTests;
 
 import backend.academy.logObservers.RequestsObservers;
+import backend.academy.logParseComponents.AnalysisContext;
 import backend.academy.logParseComponents.LogReport;
+import backend.academy.logParseComponents.MalformedLineHandler;
+import backend.academy.logParseComponents.PathTemplater;
+import backend.academy.logParseComponents.SymbolTable;
+import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -11,25 +18,61 @@ class RequestsObserversTest {
 
     @Test
     void testUpdateWithNewRequest() {
-        RequestsObservers observer = new RequestsObservers();
+        RequestsObservers observer = new RequestsObservers(new PathTemplater(List.of()), new SymbolTable());
         LogReport logMock = mock(LogReport.class);
         when(logMock.request()).thenReturn("GET /index");
 
         observer.update(logMock);
 
-        assertEquals(1, observer.requests().get("GET /index"));
+        assertEquals(1L, observer.requests().get("GET /index"));
     }
 
     @Test
     void testUpdateWithExistingRequest() {
-        RequestsObservers observer = new RequestsObservers();
+        RequestsObservers observer = new RequestsObservers(new PathTemplater(List.of()), new SymbolTable());
         LogReport logMock = mock(LogReport.class);
         when(logMock.request()).thenReturn("POST /submit");
 
         observer.update(logMock);
         observer.update(logMock);
 
-        assertEquals(2, observer.requests().get("POST /submit"));
+        assertEquals(2L, observer.requests().get("POST /submit"));
+    }
+
+    @Test
+    void testUpdateGroupsRequestsByTemplatedPath() {
+        RequestsObservers observer = new RequestsObservers(new PathTemplater(List.of()), new SymbolTable());
+        LogReport log1 = mock(LogReport.class);
+        LogReport log2 = mock(LogReport.class);
+        when(log1.request()).thenReturn("GET /api/users/918273?x=1 HTTP/1.1");
+        when(log2.request()).thenReturn("GET /api/users/42 HTTP/2.0");
+
+        observer.update(log1);
+        observer.update(log2);
+
+        assertEquals(1, observer.requests().size());
+        assertEquals(2L, observer.requests().get("GET /api/users/{id}"));
     }
-}
 
+    @Test
+    void testUpdateWithIdsInternedAtParseTime() {
+        AnalysisContext context = new AnalysisContext();
+        context.usePathTemplates(List.of("/shop/{category}/items"));
+        RequestsObservers observer = new RequestsObservers(context);
+        context.addObserver(observer);
+
+        context.parseLines(List.of(
+            "10.0.0.1 - - [17/May/2015:14:05:39 +0000] \"GET /shop/books/items?page=2 HTTP/1.1\" 200 512 \"-\" \"-\"",
+            "10.0.0.2 - - [17/May/2015:14:05:40 +0000] \"GET /shop/music/items HTTP/1.1\" 200 128 \"-\" \"-\"",
+            "10.0.0.3 - - [17/May/2015:14:05:41 +0000] \"\\x16\\x03\\x01\" 400 0 \"-\" \"-\""));
+        LogReport report = context.lineParser().parse(
+            "10.0.0.4 - - [17/May/2015:14:05:42 +0000] \"GET /shop/toys/items HTTP/1.1\" 200 64 \"-\" \"-\"",
+            context.fieldInterner(), MalformedLineHandler.IGNORE);
+
+        assertThat(observer.requests()).containsExactly(
+            Map.entry("GET /shop/{category}/items", 2L), Map.entry("\\x16\\x03\\x01", 1L));
+        assertThat(report.hasIdsIn(context.symbolTable())).isTrue();
+        assertThat(context.symbolTable().symbol(report.pathId())).isEqualTo("/shop/{category}/items");
+        assertThat(context.symbolTable().symbol(report.methodId())).isEqualTo("GET");
+    }
+}
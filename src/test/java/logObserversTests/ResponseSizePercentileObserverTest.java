@@ -2,9 +2,12 @@ package logObserversTests;
 
 import backend.academy.logObservers.ResponseSizePercentileObserver;
 import backend.academy.logParseComponents.LogReport;
+import java.util.Arrays;
+import java.util.Random;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.withinPercentage;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -20,9 +23,7 @@ class ResponseSizePercentileObserverTest {
     @Test
     void shouldCalculatePercentile95WithSingleResponseSize() {
         LogReport logReport = mock(LogReport.class);
-        when(logReport.responseSize()).thenReturn("100");
-
-
+        when(logReport.responseSize()).thenReturn(100L);
 
         observer.update(logReport);
 
@@ -35,9 +36,9 @@ class ResponseSizePercentileObserverTest {
         LogReport logReport2 = mock(LogReport.class);
         LogReport logReport3 = mock(LogReport.class);
 
-        when(logReport1.responseSize()).thenReturn("100");
-        when(logReport2.responseSize()).thenReturn("200");
-        when(logReport3.responseSize()).thenReturn("300");
+        when(logReport1.responseSize()).thenReturn(100L);
+        when(logReport2.responseSize()).thenReturn(200L);
+        when(logReport3.responseSize()).thenReturn(300L);
 
         observer.update(logReport1);
         observer.update(logReport2);
@@ -48,19 +49,43 @@ class ResponseSizePercentileObserverTest {
     }
 
     @Test
-    void shouldHandleInvalidResponseSize() {
-        LogReport logReport = mock(LogReport.class);
-        when(logReport.responseSize()).thenReturn("invalid");
-
-        observer.update(logReport);
-
-        // Since "invalid" responseSize is ignored, percentile should remain at its default or previous value
+    void shouldCalculatePercentile95WithEmptyList() {
+        // If no response sizes are added, percentile95 should be 0 by default
         assertThat(observer.percentile95()).isEqualTo(0);
     }
 
     @Test
-    void shouldCalculatePercentile95WithEmptyList() {
-        // If no response sizes are added, percentile95 should be 0 by default
-        assertThat(observer.percentile95()).isEqualTo(0);
+    void shouldReportPercentilesWithinRelativeError() {
+        Random random = new Random(42);
+        long[] sizes = new long[100_000];
+        for (int i = 0; i < sizes.length; i++) {
+            // Log-normal sizes, from a few bytes to a few megabytes
+            sizes[i] = (long) Math.exp(8 + 2 * random.nextGaussian());
+            observer.update(new LogReport(0, 0, LogReport.NO_TIMESTAMP, "GET / HTTP/1.1", 200, sizes[i], "-", "-"));
+        }
+        Arrays.sort(sizes);
+
+        for (double percentile : new double[] {50, 90, 99, 99.9}) {
+            long exact = sizes[(int) Math.ceil(percentile / 100 * sizes.length) - 1];
+            assertThat((double) observer.percentile(percentile)).isCloseTo(exact, withinPercentage(1));
+        }
+        assertThat(observer.responseSizePercentiles()).containsOnlyKeys("p50", "p90", "p95", "p99", "p99.9");
+    }
+
+    @Test
+    void shouldMergeHistograms() {
+        ResponseSizePercentileObserver other = observer.emptyCopy();
+        LogReport small = mock(LogReport.class);
+        LogReport large = mock(LogReport.class);
+        when(small.responseSize()).thenReturn(10L);
+        when(large.responseSize()).thenReturn(1_000_000L);
+
+        observer.update(small);
+        other.update(large);
+        observer.merge(other);
+
+        assertThat(observer.percentile(50)).isEqualTo(10);
+        assertThat(observer.percentile(100)).isEqualTo(1_000_000);
+        assertThat(other.percentile(50)).isEqualTo(1_000_000);
     }
 }
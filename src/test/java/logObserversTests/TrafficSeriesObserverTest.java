@@ -0,0 +1,83 @@
+package logObserversTests;
+
+import backend.academy.logObservers.TrafficSeriesObserver;
+import backend.academy.logParseComponents.LogReport;
+import java.time.Instant;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TrafficSeriesObserverTest {
+    private static final long START = Instant.parse("2015-05-17T14:05:00Z").getEpochSecond();
+
+    @Test
+    void testBucketsPerMinute() {
+        TrafficSeriesObserver observer = new TrafficSeriesObserver();
+
+        observer.update(report(START + 1, 200, 100));
+        observer.update(report(START + 59, 404, 20));
+        observer.update(report(START + 60, 503, 0));
+        observer.update(report(START + 5, 200, 30)); // Out of order within the window
+
+        assertThat(observer.traffic()).containsExactly(
+            entry("2015-05-17T14:05:00Z", Map.of("requests", 3L, "bytes", 150L, "4xx", 1L, "5xx", 0L)),
+            entry("2015-05-17T14:06:00Z", Map.of("requests", 1L, "bytes", 0L, "4xx", 0L, "5xx", 1L)));
+        assertThat(observer.traffic().values().iterator().next().keySet())
+            .containsExactly("requests", "bytes", "4xx", "5xx");
+    }
+
+    @Test
+    void testWindowEviction() {
+        TrafficSeriesObserver observer = new TrafficSeriesObserver(1, 2);
+
+        observer.update(report(START, 200, 1));
+        observer.update(report(START + 1, 200, 1));
+        observer.update(report(START + 2, 200, 1)); // Evicts START
+        observer.update(report(START, 200, 1)); // Older than the window
+
+        assertThat(observer.traffic().keySet()).containsExactly("2015-05-17T14:05:01Z", "2015-05-17T14:05:02Z");
+        assertThat(observer.requestsOutsideWindow()).isEqualTo(2);
+    }
+
+    @Test
+    void testUntimedRequests() {
+        TrafficSeriesObserver observer = new TrafficSeriesObserver();
+
+        observer.update(report(LogReport.NO_TIMESTAMP, 200, 10));
+
+        assertThat(observer.traffic()).isEmpty();
+        assertThat(observer.untimedRequests()).isEqualTo(1);
+    }
+
+    @Test
+    void testMerge() {
+        TrafficSeriesObserver observer = new TrafficSeriesObserver(60, 2);
+        TrafficSeriesObserver other = observer.emptyCopy();
+        observer.update(report(START, 200, 10));
+        other.update(report(START + 30, 404, 5));
+        other.update(report(START + 60, 200, 1));
+        other.update(report(LogReport.NO_TIMESTAMP, 200, 1));
+
+        observer.merge(other);
+
+        assertThat(observer.traffic()).containsExactly(
+            entry("2015-05-17T14:05:00Z", Map.of("requests", 2L, "bytes", 15L, "4xx", 1L, "5xx", 0L)),
+            entry("2015-05-17T14:06:00Z", Map.of("requests", 1L, "bytes", 1L, "4xx", 0L, "5xx", 0L)));
+        assertThat(observer.untimedRequests()).isEqualTo(1);
+        assertThat(other.traffic()).hasSize(2);
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new TrafficSeriesObserver(0, 10));
+        assertThrows(IllegalArgumentException.class, () -> new TrafficSeriesObserver(60, 0));
+        assertThrows(IllegalArgumentException.class,
+            () -> new TrafficSeriesObserver(60, 10).merge(new TrafficSeriesObserver(1, 10)));
+    }
+
+    private static LogReport report(long epochSecond, int status, long size) {
+        return new LogReport(0, 0, epochSecond, "GET / HTTP/1.1", status, size, "-", "-");
+    }
+}
@@ -1,10 +1,14 @@
 package logObserversTests;
 
 import backend.academy.logObservers.UniqueUsersObserver;
+import backend.academy.logParseComponents.IpAddresses;
+import backend.academy.logParseComponents.LogBatch;
 import backend.academy.logParseComponents.LogReport;
+import java.util.List;
 import java.util.Map;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -13,26 +17,106 @@ class UniqueUsersObserverTest {
     @Test
     void testUpdateCountsAndSortsUsers() {
         UniqueUsersObserver observer = new UniqueUsersObserver();
-        LogReport log1 = mock(LogReport.class);
-        LogReport log2 = mock(LogReport.class);
-        LogReport log3 = mock(LogReport.class);
-
-        when(log1.ipAddress()).thenReturn("192.168.1.1");
-        when(log2.ipAddress()).thenReturn("192.168.1.2");
-        when(log3.ipAddress()).thenReturn("192.168.1.1");
+        LogReport log1 = mockAddress("192.168.1.1");
+        LogReport log2 = mockAddress("192.168.1.2");
+        LogReport log3 = mockAddress("192.168.1.1");
 
         observer.update(log1);
         observer.update(log2);
         observer.update(log3);
 
-        Map<String, Integer> users = observer.users();
+        Map<String, Long> users = observer.users();
 
         assertEquals(2, users.size());
-        assertEquals(2, users.get("192.168.1.1"));
-        assertEquals(1, users.get("192.168.1.2"));
+        assertEquals(2L, users.get("192.168.1.1"));
+        assertEquals(1L, users.get("192.168.1.2"));
 
         String firstKey = users.keySet().iterator().next();
         assertEquals("192.168.1.1", firstKey);
     }
-}
 
+    @Test
+    void testUpdateCountsIpv6Users() {
+        UniqueUsersObserver observer = new UniqueUsersObserver();
+
+        observer.update(mockAddress("10.0.0.1"));
+        observer.update(mockAddress("2001:db8::1"));
+        observer.update(mockAddress("2001:DB8:0:0:0:0:0:1"));
+        observer.update(mockAddress("2001:db8::2"));
+
+        Map<String, Long> users = observer.users();
+
+        assertEquals(3, users.size());
+        assertEquals(2L, users.get("2001:db8::1"));
+        assertEquals("2001:db8::1", users.keySet().iterator().next());
+    }
+
+    @Test
+    void testCountsManyIpv6PrefixesAcrossMerges() {
+        // Privacy addresses: every client has its own high word
+        UniqueUsersObserver left = new UniqueUsersObserver(1);
+        UniqueUsersObserver right = left.emptyCopy();
+        for (int i = 0; i < 10_000; i++) {
+            LogReport log = new LogReport(0x2001_0DB8_0000_0000L | i, i, LogReport.NO_TIMESTAMP, "GET / HTTP/1.1",
+                200, 0, "-", "-");
+            left.update(log);
+            right.update(log);
+            if (i == 4_321) {
+                right.update(log);
+            }
+        }
+
+        left.merge(right);
+
+        assertEquals(10_000, left.uniqueUsers());
+        assertEquals(Map.of("2001:db8:0:10e1::10e1", 3L), left.users());
+    }
+
+    @Test
+    void testReportsOnlyTopUsers() {
+        UniqueUsersObserver observer = new UniqueUsersObserver(2);
+        for (int i = 1; i <= 10; i++) {
+            LogReport log = mockAddress("10.0.0." + i);
+            for (int j = 0; j < i; j++) {
+                observer.update(log);
+            }
+        }
+
+        Map<String, Long> users = observer.users();
+
+        assertEquals(List.of("10.0.0.10", "10.0.0.9"), List.copyOf(users.keySet()));
+        assertEquals(10L, users.get("10.0.0.10"));
+        assertEquals(10, observer.uniqueUsers());
+        assertThrows(IllegalArgumentException.class, () -> new UniqueUsersObserver(0));
+    }
+
+    @Test
+    void testEntriesWithoutAddressAreNotUsers() {
+        UniqueUsersObserver observer = new UniqueUsersObserver();
+        LogReport withoutAddress = new LogReport(0, 0, false, LogReport.NO_TIMESTAMP, "GET / HTTP/1.1", 200, 0,
+            "-", "-");
+        LogBatch batch = new LogBatch();
+        batch.add(withoutAddress);
+        batch.add(withoutAddress);
+
+        observer.update(withoutAddress);
+        observer.updateBatch(batch);
+        assertEquals(0, observer.uniqueUsers());
+        assertEquals(Map.of(), observer.users());
+
+        // The unspecified address itself is still a client
+        observer.update(new LogReport(0, 0, LogReport.NO_TIMESTAMP, "GET / HTTP/1.1", 200, 0, "-", "-"));
+        assertEquals(Map.of("::", 1L), observer.users());
+    }
+
+    private static LogReport mockAddress(String address) {
+        long[] packed = new long[2];
+        IpAddresses.parse(address, 0, address.length(), packed);
+
+        LogReport log = mock(LogReport.class);
+        when(log.ipHigh()).thenReturn(packed[0]);
+        when(log.ipLow()).thenReturn(packed[1]);
+        when(log.hasAddress()).thenReturn(true);
+        return log;
+    }
+}
@@ -0,0 +1,64 @@
+package logObserversTests;
+
+import backend.academy.logObservers.UserAgentObserver;
+import backend.academy.logParseComponents.LogReport;
+import backend.academy.logParseComponents.UserAgent;
+import backend.academy.logParseComponents.UserAgentClassifier;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserAgentObserverTest {
+    private static final String CHROME_WINDOWS = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 "
+        + "(KHTML, like Gecko) Chrome/124.0.0.0 Safari/537.36";
+    private static final String GOOGLEBOT =
+        "Mozilla/5.0 (compatible; Googlebot/2.1; +http://www.google.com/bot.html)";
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+        "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/124.0.0.0 "
+            + "Safari/537.36 Edg/124.0.2478.67 | Edge | Windows | false",
+        "Mozilla/5.0 (iPhone; CPU iPhone OS 17_4_1 like Mac OS X) AppleWebKit/605.1.15 (KHTML, like Gecko) "
+            + "Version/17.4.1 Mobile/15E148 Safari/604.1 | Safari | iOS | false",
+        "Mozilla/5.0 (Linux; Android 14; SM-S918B) AppleWebKit/537.36 (KHTML, like Gecko) "
+            + "Chrome/123.0.6312.118 Mobile Safari/537.36 | Chrome | Android | false",
+        "Mozilla/5.0 (X11; Ubuntu; Linux x86_64; rv:125.0) Gecko/20100101 Firefox/125.0 | Firefox | Linux | false",
+        "Mozilla/5.0 (compatible; Googlebot/2.1; +http://www.google.com/bot.html) | Other | Other | true",
+        "Debian APT-HTTP/1.3 (0.9.7.9) | Other | Linux | true",
+        "curl/8.4.0 | Other | Other | true",
+        "- | Other | Other | false"
+    })
+    void testClassify(String userAgent, String browserFamily, String os, boolean isBot) {
+        assertThat(UserAgentClassifier.classify(userAgent)).isEqualTo(new UserAgent(browserFamily, os, isBot));
+    }
+
+    @Test
+    void testCountsAndCachesClassifications() {
+        UserAgentObserver observer = new UserAgentObserver();
+        LogReport chrome = mock(LogReport.class);
+        LogReport bot = mock(LogReport.class);
+        when(chrome.userAgent()).thenReturn(CHROME_WINDOWS);
+        when(bot.userAgent()).thenReturn(GOOGLEBOT);
+
+        observer.update(chrome);
+        observer.update(chrome);
+        observer.update(chrome);
+        observer.update(bot);
+
+        assertThat(observer.browserFamilies()).containsExactly(entry("Chrome", 3L), entry("Other", 1L));
+        assertThat(observer.operatingSystems()).containsEntry("Windows", 3L);
+        assertThat(observer.botRequests()).isEqualTo(1);
+        assertThat(observer.userAgentCacheMisses()).isEqualTo(2);
+        assertThat(observer.userAgentCacheHits()).isEqualTo(2);
+
+        // The reported counts are copies, not the live counters
+        observer.browserFamilies().clear();
+        observer.operatingSystems().put("Windows", 0L);
+        assertThat(observer.browserFamilies()).containsEntry("Chrome", 3L);
+        assertThat(observer.operatingSystems()).containsEntry("Windows", 3L);
+    }
+}
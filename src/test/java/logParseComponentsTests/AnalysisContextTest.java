@@ -0,0 +1,129 @@
+package logParseComponentsTests;
+
+import backend.academy.logObservers.CodeStatusesObserver;
+import backend.academy.logObservers.LogObserver;
+import backend.academy.logObservers.TotalRequestObserver;
+import backend.academy.logParseComponents.AnalysisContext;
+import dataForTesting.TestDataProvider;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AnalysisContextTest {
+    private static final int ANALYSES = 8;
+    private static final int LINES = 10_000;
+    private static final String JSON_LOG = "{\"remote_addr\":\"91.239.186.133\","
+        + "\"time_local\":\"17/May/2015:14:05:39 +0000\",\"request\":\"GET /downloads/product_2 HTTP/1.1\","
+        + "\"status\":\"304\",\"body_bytes_sent\":\"1234\",\"http_referer\":\"-\","
+        + "\"http_user_agent\":\"Debian APT-HTTP/1.3 (0.9.7.9)\"}";
+
+    @Test
+    @DisplayName("Analyses in one JVM do not share observers")
+    void testContextsAreIsolated() {
+        AnalysisContext first = new AnalysisContext();
+        AnalysisContext second = new AnalysisContext();
+        TotalRequestObserver firstTotal = new TotalRequestObserver();
+        TotalRequestObserver secondTotal = new TotalRequestObserver();
+        first.addObserver(firstTotal);
+        second.addObserver(secondTotal);
+
+        first.parseLines(Collections.nCopies(3, TestDataProvider.SAMPLE_EARLY_LOG));
+        second.parseLog(TestDataProvider.SAMPLE_LATE_LOG);
+
+        assertThat(firstTotal.totalRequests()).isEqualTo(3);
+        assertThat(secondTotal.totalRequests()).isEqualTo(1);
+        assertThat(first.observers()).containsExactly(firstTotal);
+        assertThat(second.observers()).containsExactly(secondTotal);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    @DisplayName("An observer failing on a batch does not keep the others from seeing it")
+    void testFailingObserverIsIsolated(boolean fused) {
+        AnalysisContext context = new AnalysisContext();
+        LogObserver failing = log -> {
+            throw new IllegalStateException("Broken observer");
+        };
+        TotalRequestObserver total = new TotalRequestObserver();
+        AtomicLong seen = new AtomicLong();
+        context.addObserver(failing);
+        context.addObserver(total);
+        context.addObserver(log -> seen.incrementAndGet());
+        context.fuseObservers(fused);
+
+        long parsed = context.parseLines(Collections.nCopies(LINES, TestDataProvider.SAMPLE_EARLY_LOG));
+
+        assertThat(parsed).isEqualTo(LINES);
+        assertThat(total.totalRequests()).isEqualTo(LINES);
+        assertThat(seen).hasValue(LINES);
+    }
+
+    @Test
+    @DisplayName("Concurrent analyses count only their own lines")
+    void testConcurrentAnalyses() throws Exception {
+        List<AnalysisContext> contexts = new ArrayList<>();
+        List<CodeStatusesObserver> statuses = new ArrayList<>();
+        for (int i = 0; i < ANALYSES; i++) {
+            AnalysisContext context = new AnalysisContext();
+            CodeStatusesObserver observer = new CodeStatusesObserver();
+            context.addObserver(observer);
+            context.fuseObservers(i % 2 == 0);
+            contexts.add(context);
+            statuses.add(observer);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(ANALYSES);
+        try {
+            List<Future<Long>> parsed = new ArrayList<>();
+            for (int i = 0; i < ANALYSES; i++) {
+                List<String> lines = Collections.nCopies(LINES * (i + 1), TestDataProvider.SAMPLE_EARLY_LOG);
+                AnalysisContext context = contexts.get(i);
+                parsed.add(executor.submit(() -> context.parseLines(lines)));
+            }
+            for (int i = 0; i < ANALYSES; i++) {
+                long expected = (long) LINES * (i + 1);
+                assertThat(parsed.get(i).get()).isEqualTo(expected);
+                assertThat(statuses.get(i).codeStatuses()).isEqualTo(Map.of(304, expected));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Observers registered while parsing take effect from the next analysis")
+    void testRegistrationDuringParsing() {
+        AnalysisContext context = new AnalysisContext();
+        TotalRequestObserver late = new TotalRequestObserver();
+        context.addObserver(log -> context.addObserver(late));
+
+        context.parseLines(List.of(TestDataProvider.SAMPLE_EARLY_LOG));
+        assertThat(late.totalRequests()).isZero();
+
+        context.parseLine(TestDataProvider.SAMPLE_EARLY_LOG);
+        assertThat(late.totalRequests()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Each analysis interns values into its own symbol table")
+    void testSymbolTablePerContext() {
+        AnalysisContext first = new AnalysisContext();
+        AnalysisContext second = new AnalysisContext();
+        first.useLogFormat("json");
+
+        first.parseLine(JSON_LOG);
+
+        assertThat(first.symbolTable().size()).isPositive();
+        assertThat(second.symbolTable().size()).isZero();
+    }
+}
@@ -0,0 +1,91 @@
+package logParseComponentsTests;
+
+import backend.academy.logParseComponents.AnalysisContext;
+import backend.academy.logParseComponents.DelimiterScanner;
+import backend.academy.logParseComponents.DelimiterScanners;
+import backend.academy.logParseComponents.GeneratedLogLineParser;
+import backend.academy.logParseComponents.LineSplitter;
+import backend.academy.logParseComponents.LogFormatCompiler;
+import backend.academy.logParseComponents.LogReport;
+import backend.academy.logParseComponents.ScalarDelimiterScanner;
+import backend.academy.logParseComponents.VectorDelimiterScanner;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DelimiterScannerTest {
+    private final DelimiterScanner scalar = new ScalarDelimiterScanner();
+    private final DelimiterScanner vector = new VectorDelimiterScanner();
+
+    @Test
+    @DisplayName("Vector and scalar backends find the same delimiters at every offset and length")
+    void testVectorMatchesScalar() {
+        Random random = new Random(7);
+        byte[] data = new byte[300];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (random.nextInt(20) == 0 ? '"' : 'a' + random.nextInt(26));
+        }
+
+        for (int from = 0; from < 80; from++) {
+            for (int to = from; to <= data.length; to += 7) {
+                assertThat(vector.indexOf(data, from, to, (byte) '"'))
+                    .isEqualTo(scalar.indexOf(data, from, to, (byte) '"'));
+            }
+        }
+        assertThat(vector.indexOf(data, 0, data.length, (byte) '\n')).isEqualTo(-1);
+    }
+
+    @Test
+    @DisplayName("Lines are split on \\n and \\r\\n without a trailing empty line")
+    void testSplitLines() {
+        byte[] data = "first\r\nsecond\n\nthird – ünïcode\n".getBytes(StandardCharsets.UTF_8);
+
+        for (DelimiterScanner scanner : List.of(scalar, vector)) {
+            assertThat(LineSplitter.split(data, scanner))
+                .containsExactly("first", "second", "", "third – ünïcode");
+        }
+        assertThat(LineSplitter.split("last".getBytes(StandardCharsets.UTF_8), scalar)).containsExactly("last");
+    }
+
+    @Test
+    @DisplayName("Generated parsers split fields with the vector backend like with String.indexOf")
+    void testFieldSplitting() {
+        GeneratedLogLineParser parser = (GeneratedLogLineParser) LogFormatCompiler.compile(
+            "$remote_addr - $remote_user [$time_local] \"$request\" $status $body_bytes_sent "
+                + "\"$http_referer\" \"$http_user_agent\"");
+        GeneratedLogLineParser vectorParser = parser.withFieldScanner(vector);
+        assertThat(parser.fieldScanner()).isNull();
+        assertThat(parser.withFieldScanner(scalar).fieldScanner()).isNull();
+        assertThat(vectorParser.fieldScanner()).isSameAs(vector);
+
+        // U+0122 is encoded as '?' in the line bytes and U+2022 has the low byte of '"'
+        String line = "10.0.0.1 - - [17/May/2015:14:05:39 +0000] \"GET /caf\u00e9?q=\u0122 HTTP/1.1\" 200 512 "
+            + "\"https://example.com/\u2022\" \"Mozilla/5.0 " + "(KHTML, like Gecko) ".repeat(10) + "\"";
+        LogReport expected = parser.parse(line);
+        LogReport actual = vectorParser.parse(line);
+
+        assertThat(expected).isNotNull();
+        assertThat(actual.request()).isEqualTo(expected.request()).isEqualTo("GET /caf\u00e9?q=\u0122 HTTP/1.1");
+        assertThat(actual.referrer()).isEqualTo(expected.referrer()).isEqualTo("https://example.com/\u2022");
+        assertThat(actual.userAgent()).isEqualTo(expected.userAgent());
+        assertThat(actual.responseSize()).isEqualTo(512);
+        assertThat(vectorParser.parse(line.substring(0, line.length() - 1))).isNull();
+    }
+
+    @Test
+    @DisplayName("The Vector API backend is opt-in, per analysis")
+    void testVectorScanningIsOptIn() {
+        AnalysisContext vectorContext = new AnalysisContext();
+        AnalysisContext scalarContext = new AnalysisContext();
+        assertThat(DelimiterScanners.defaultScanner()).isSameAs(DelimiterScanners.scalar());
+        assertThat(vectorContext.delimiterScanner()).isSameAs(DelimiterScanners.scalar());
+
+        boolean enabled = vectorContext.useVectorScanning(true);
+
+        assertThat(enabled).isEqualTo(DelimiterScanners.isVectorApiAvailable());
+        assertThat(scalarContext.delimiterScanner()).isSameAs(DelimiterScanners.scalar());
+    }
+}
@@ -0,0 +1,53 @@
+package logParseComponentsTests;
+
+import backend.academy.logParseComponents.IpAddresses;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class IpAddressesTest {
+
+    @ParameterizedTest
+    @CsvSource({
+        "91.239.186.133, 91.239.186.133",
+        "0.0.0.0, 0.0.0.0",
+        "255.255.255.255, 255.255.255.255",
+        "::ffff:10.0.0.1, 10.0.0.1",
+        "2001:0DB8:0000:0000:0000:0000:0000:0001, 2001:db8::1",
+        "fe80::1:2, fe80::1:2",
+        "::1, ::1",
+        "1:0:0:2:0:0:0:3, 1:0:0:2::3",
+        "1:2:3:4:5:6:7:8, 1:2:3:4:5:6:7:8",
+        "1:0:2:3:4:5:6:7, 1:0:2:3:4:5:6:7"
+    })
+    @DisplayName("Addresses survive packing and are formatted canonically")
+    void testRoundTrip(String address, String expected) {
+        long[] packed = new long[2];
+
+        assertThat(IpAddresses.parse(address, 0, address.length(), packed)).isTrue();
+        assertThat(IpAddresses.format(packed[0], packed[1])).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "1.2.3", "1.2.3.4.5", "256.1.1.1", "1..2.3", "1.2.3.4a", "1:2:3", "1::2::3",
+        "12345::1", "1:2:3:4:5:6:7:8:9", "g::1", ":1:2:3:4:5:6:7", "1:2:3:4:5:6:7:"})
+    @DisplayName("Invalid addresses are rejected")
+    void testInvalidAddresses(String address) {
+        assertThat(IpAddresses.parse(address, 0, address.length(), new long[2])).isFalse();
+    }
+
+    @Test
+    @DisplayName("IPv4 addresses are stored as IPv4-mapped IPv6 addresses")
+    void testIpv4IsMapped() {
+        long[] packed = new long[2];
+
+        IpAddresses.parse("[10.0.0.1]", 1, 9, packed);
+
+        assertThat(packed[0]).isZero();
+        assertThat(packed[1]).isEqualTo(IpAddresses.IPV4_MAPPED_PREFIX | 0x0A00_0001L);
+        assertThat(IpAddresses.isIpv4(packed[0], packed[1])).isTrue();
+    }
+}
@@ -0,0 +1,83 @@
+package logParseComponentsTests;
+
+import backend.academy.logParseComponents.JsonLogLineParser;
+import backend.academy.logParseComponents.KnownLogFormat;
+import backend.academy.logParseComponents.LogFormatDetector;
+import backend.academy.logParseComponents.LogReport;
+import backend.academy.logParseComponents.MalformedReason;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JsonLogLineParserTest {
+    private static final String JSON_LOG = "{\"remote_addr\":\"91.239.186.133\","
+        + "\"time_local\":\"17/May/2015:14:05:39 +0000\",\"request\":\"GET /downloads/product_2 HTTP/1.1\","
+        + "\"status\":\"304\",\"body_bytes_sent\":\"1234\",\"http_referer\":\"-\","
+        + "\"http_user_agent\":\"Debian APT-HTTP/1.3 (0.9.7.9)\",\"request_time\":0.042,"
+        + "\"upstream\":{\"addr\":\"10.0.0.2:8080\",\"times\":[0.01,0.02]}}";
+
+    @Test
+    @DisplayName("JSON lines are mapped to the same record as text lines")
+    void testParse() {
+        LogReport logReport = JsonLogLineParser.instance().parse(JSON_LOG);
+
+        assertThat(logReport.ipAddress()).isEqualTo("91.239.186.133");
+        assertThat(logReport.epochSecond()).isEqualTo(Instant.parse("2015-05-17T14:05:39Z").getEpochSecond());
+        assertThat(logReport.request()).isEqualTo("GET /downloads/product_2 HTTP/1.1");
+        assertThat(logReport.httpStatusCode()).isEqualTo(304);
+        assertThat(logReport.responseSize()).isEqualTo(1234);
+        assertThat(logReport.referrer()).isEqualTo("-");
+        assertThat(logReport.userAgent()).isEqualTo("Debian APT-HTTP/1.3 (0.9.7.9)");
+    }
+
+    @Test
+    @DisplayName("Numbers, ISO 8601 timestamps and missing optional fields are accepted")
+    void testAlternativeFields() {
+        LogReport logReport = JsonLogLineParser.instance().parse("{\"request\":\"GET / HTTP/1.1\",\"status\":200,"
+            + "\"bytes_sent\":17,\"time_iso8601\":\"2015-05-17T16:05:39+02:00\"}");
+
+        assertThat(logReport.httpStatusCode()).isEqualTo(200);
+        assertThat(logReport.responseSize()).isEqualTo(17);
+        assertThat(logReport.epochSecond()).isEqualTo(Instant.parse("2015-05-17T14:05:39Z").getEpochSecond());
+        assertThat(logReport.ipAddress()).isEqualTo(LogReport.NO_ADDRESS);
+        assertThat(logReport.userAgent()).isEqualTo("-");
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+        "'   ' | EMPTY_LINE",
+        "not json | FORMAT_MISMATCH",
+        "[1, 2] | FORMAT_MISMATCH",
+        "{\"status\":\"200\" | FORMAT_MISMATCH",
+        "{\"status\":\"200\"} {} | TRAILING_DATA",
+        "{\"status\":\"2x0\"} | INVALID_STATUS_CODE",
+        "{\"body_bytes_sent\":\"-5\"} | INVALID_RESPONSE_SIZE",
+        "{\"remote_addr\":\"999.1.1.1\"} | INVALID_IP_ADDRESS",
+        "{\"time_local\":\"yesterday\"} | INVALID_TIMESTAMP",
+        "{} | FORMAT_MISMATCH",
+        "{\"id\":42,\"name\":\"widget\",\"tags\":[\"a\"]} | FORMAT_MISMATCH",
+        "{\"status\":\"200\"} | FORMAT_MISMATCH",
+        "{\"request\":\"GET / HTTP/1.1\"} | FORMAT_MISMATCH"
+    })
+    @DisplayName("Invalid JSON lines are rejected with a reason")
+    void testInvalidLines(String logLine, MalformedReason expectedReason) {
+        List<MalformedReason> reasons = new ArrayList<>();
+
+        LogReport logReport = JsonLogLineParser.instance().parse(logLine, (reason, line) -> reasons.add(reason));
+
+        assertThat(logReport).isNull();
+        assertThat(reasons).containsExactly(expectedReason);
+    }
+
+    @Test
+    @DisplayName("JSON lines are detected automatically")
+    void testDetection() {
+        assertThat(LogFormatDetector.detect(List.of(JSON_LOG, JSON_LOG))).contains(KnownLogFormat.JSON_LINES);
+        assertThat(LogFormatDetector.detect(List.of("{}", "{\"id\":42}"))).isEmpty();
+    }
+}
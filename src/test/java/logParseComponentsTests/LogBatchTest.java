@@ -0,0 +1,52 @@
+package logParseComponentsTests;
+
+import backend.academy.logParseComponents.LogBatch;
+import backend.academy.logParseComponents.LogReport;
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LogBatchTest {
+
+    @Test
+    void testColumnsHoldTheNumericFields() {
+        LogBatch batch = new LogBatch(4);
+        LogReport withoutAddress = new LogReport(0, 0, false, 102, "GET / HTTP/1.1", 200, 0, "-", "-");
+        LogReport first = new LogReport(0, 0xFFFF_0A00_0001L, 100, "GET / HTTP/1.1", 200, 512, "-", "curl/8.4.0");
+        LogReport second = new LogReport(0x2001_0DB8_0000_0000L, 1, 101, "GET / HTTP/1.1", 404, 0, "-", "-");
+
+        batch.add(first);
+        batch.add(second);
+        batch.add(withoutAddress);
+
+        assertThat(batch.size()).isEqualTo(3);
+        assertThat(batch.report(1)).isSameAs(second);
+        assertThat(batch.ipHighs()).startsWith(0, 0x2001_0DB8_0000_0000L);
+        assertThat(batch.ipLows()).startsWith(0xFFFF_0A00_0001L, 1);
+        assertThat(batch.hasAddresses()).startsWith(true, true, false);
+        assertThat(batch.epochSeconds()).startsWith(100, 101);
+        assertThat(batch.statusCodes()).startsWith(200, 404);
+        assertThat(batch.responseSizes()).startsWith(512, 0);
+    }
+
+    @Test
+    void testFullAndClear() {
+        LogBatch batch = new LogBatch(1);
+        LogReport report = new LogReport(0, 0, LogReport.NO_TIMESTAMP, "-", 200, 0, "-", "-");
+
+        batch.add(report);
+
+        assertThat(batch.isFull()).isTrue();
+        assertThrows(IllegalStateException.class, () -> batch.add(report));
+
+        batch.clear();
+
+        assertThat(batch.isEmpty()).isTrue();
+        assertThat(batch.report(0)).isNull();
+    }
+
+    @Test
+    void testInvalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new LogBatch(0));
+    }
+}
@@ -1,8 +1,13 @@
 package logParseComponentsTests;
 
+import backend.academy.logParseComponents.AnalysisContext;
 import backend.academy.logParseComponents.LogFileLoader;
 import backend.academy.logParseComponents.LogFilter;
+import backend.academy.logParseComponents.LogParser;
+import backend.academy.logParseComponents.MalformedLineHandler;
+import backend.academy.logParseComponents.MalformedReason;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.DisplayName;
@@ -58,6 +63,32 @@ public class LogFilterTest {
         assertThat(logsAfterFilter.size()).isEqualTo(0);
     }
 
+    @Test
+    @DisplayName("Malformed entries dropped by a filter are still reported")
+    void testMalformedEntriesAreReported() {
+        List<String> logs = new ArrayList<>(logsBeforeFilter);
+        logs.add("Invalid log");
+        List<MalformedReason> reasons = new ArrayList<>();
+
+        List<String> logsAfterFilter = LogFilter.sortLogsByInputFields(logs, "agent", "Debian",
+            LogParser.lineParser(), (reason, line) -> reasons.add(reason));
+
+        assertThat(logsAfterFilter.size()).isEqualTo(4);
+        assertThat(reasons).isEqualTo(List.of(MalformedReason.FORMAT_MISMATCH));
+    }
+
+    @Test
+    @DisplayName("Filters do not intern the fields of the entries they read")
+    void testFilteringDoesNotIntern() {
+        AnalysisContext context = new AnalysisContext();
+
+        List<String> logsAfterFilter = LogFilter.sortLogsByInputFields(logsBeforeFilter, "agent", "Debian",
+            context.lineParser(), MalformedLineHandler.IGNORE);
+
+        assertThat(logsAfterFilter.size()).isEqualTo(4);
+        assertThat(context.symbolTable().size()).isZero();
+    }
+
     @Test
     @DisplayName("Invalid input throws IllegalArgumentException")
     void testInvalidInput() {
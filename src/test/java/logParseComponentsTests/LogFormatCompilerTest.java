@@ -0,0 +1,124 @@
+package logParseComponentsTests;
+
+import backend.academy.logParseComponents.LogFormatCompiler;
+import backend.academy.logParseComponents.LogLineParser;
+import backend.academy.logParseComponents.LogReport;
+import backend.academy.logParseComponents.MalformedReason;
+import dataForTesting.TestDataProvider;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LogFormatCompilerTest {
+    private static final String COMBINED_FORMAT = "$remote_addr - $remote_user [$time_local] "
+        + "\"$request\" $status $body_bytes_sent \"$http_referer\" \"$http_user_agent\"";
+
+    private static final String EXTENDED_FORMAT = "$remote_addr - $remote_user [$time_local] "
+        + "\"$request\" $status $body_bytes_sent \"$http_referer\" \"$http_user_agent\" "
+        + "rt=$request_time uct=\"${upstream_connect_time}\"";
+
+    @Test
+    @DisplayName("Compiled combined format parses the same fields as the default pattern")
+    void testCombinedFormat() {
+        LogLineParser parser = LogFormatCompiler.compile(COMBINED_FORMAT);
+
+        LogReport logReport = parser.parse(TestDataProvider.SAMPLE_EARLY_LOG);
+
+        assertThat(logReport.ipAddress()).isEqualTo("91.239.186.133");
+        assertThat(logReport.epochSecond()).isEqualTo(Instant.parse("2015-05-17T14:05:39Z").getEpochSecond());
+        assertThat(logReport.request()).isEqualTo("GET /downloads/product_2 HTTP/1.1");
+        assertThat(logReport.httpStatusCode()).isEqualTo(304);
+        assertThat(logReport.responseSize()).isEqualTo(1234);
+        assertThat(logReport.referrer()).isEqualTo("-");
+        assertThat(logReport.userAgent()).isEqualTo("Debian APT-HTTP/1.3 (0.9.7.9)");
+    }
+
+    @Test
+    @DisplayName("Compiled format with extra fields skips unknown variables")
+    void testExtendedFormat() {
+        LogLineParser parser = LogFormatCompiler.compile(EXTENDED_FORMAT);
+
+        LogReport logReport = parser.parse(TestDataProvider.SAMPLE_EARLY_LOG + " rt=0.042 uct=\"0.001\"");
+
+        assertThat(logReport.ipAddress()).isEqualTo("91.239.186.133");
+        assertThat(logReport.userAgent()).isEqualTo("Debian APT-HTTP/1.3 (0.9.7.9)");
+    }
+
+    @Test
+    @DisplayName("Variables missing from the format are reported as '-', a missing size as 0")
+    void testMissingVariables() {
+        LogLineParser parser = LogFormatCompiler.compile("$remote_addr [$time_local] $status");
+
+        LogReport logReport = parser.parse("10.0.0.1 [17/May/2015:14:05:39 +0000] 200");
+
+        assertThat(logReport.httpStatusCode()).isEqualTo(200);
+        assertThat(logReport.responseSize()).isZero();
+        assertThat(logReport.userAgent()).isEqualTo("-");
+    }
+
+    @Test
+    @DisplayName("The unspecified address is an address, unlike a missing one")
+    void testUnspecifiedAddress() {
+        LogReport withAddress = LogFormatCompiler.compile("$remote_addr $status").parse(":: 200");
+        LogReport withoutAddress = LogFormatCompiler.compile("$status").parse("200");
+
+        assertThat(withAddress.hasAddress()).isTrue();
+        assertThat(withAddress.ipAddress()).isEqualTo("::");
+        assertThat(withoutAddress.hasAddress()).isFalse();
+        assertThat(withoutAddress.ipAddress()).isEqualTo(LogReport.NO_ADDRESS);
+    }
+
+    @Test
+    @DisplayName("Same directive is compiled only once")
+    void testCompiledParserIsCached() {
+        assertThat(LogFormatCompiler.compile(COMBINED_FORMAT)).isSameAs(LogFormatCompiler.compile(COMBINED_FORMAT));
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+        "'' | EMPTY_LINE",
+        "Invalid log | FORMAT_MISMATCH",
+        "91.239.186.133 - - [17/May/2015:14:05:39 +0000] \"GET / HTTP/1.1\" abc 1234 \"-\" \"agent\" "
+            + "| INVALID_STATUS_CODE",
+        "91.239.186.133 - - [17/May/2015:14:05:39 +0000] \"GET / HTTP/1.1\" 304 12a \"-\" \"agent\" "
+            + "| INVALID_RESPONSE_SIZE",
+        "91.239.186.999 - - [17/May/2015:14:05:39 +0000] \"GET / HTTP/1.1\" 304 1234 \"-\" \"agent\" "
+            + "| INVALID_IP_ADDRESS",
+        "91.239.186.133 - - [31/Apr/2015:14:05:39 +0000] \"GET / HTTP/1.1\" 304 1234 \"-\" \"agent\" "
+            + "| INVALID_TIMESTAMP",
+        "91.239.186.133 - - [17/Foo/2015:14:05:39 +0000] \"GET / HTTP/1.1\" 304 1234 \"-\" \"agent\" "
+            + "| INVALID_TIMESTAMP",
+        "91.239.186.133 - - [17/May/2015:14:05:39 +0000] \"GET / HTTP/1.1\" 304 1234 \"-\" \"agent\" trailing "
+            + "| TRAILING_DATA"
+    })
+    @DisplayName("Lines that do not match the directive are rejected with a reason")
+    void testInvalidLines(String logLine, MalformedReason expectedReason) {
+        LogLineParser parser = LogFormatCompiler.compile(COMBINED_FORMAT);
+        List<MalformedReason> reasons = new ArrayList<>();
+
+        LogReport logReport = parser.parse(logLine, (reason, line) -> reasons.add(reason));
+
+        assertThat(logReport).isNull();
+        assertThat(reasons).containsExactly(expectedReason);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "$remote_addr$remote_user",
+        "$remote_addr ${time_local",
+        "$ - $status",
+        "$remote_addr $body_bytes_sent $bytes_sent",
+        "$status [$time_local] $status"
+    })
+    @DisplayName("Ambiguous or malformed directives are rejected")
+    void testInvalidFormats(String logFormat) {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> LogFormatCompiler.compile(logFormat));
+    }
+}
@@ -0,0 +1,61 @@
+package logParseComponentsTests;
+
+import backend.academy.logParseComponents.KnownLogFormat;
+import backend.academy.logParseComponents.LogFileLoader;
+import backend.academy.logParseComponents.LogFormatDetector;
+import dataForTesting.TestDataProvider;
+import java.io.IOException;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LogFormatDetectorTest {
+    private static final String COMMON_LOG =
+        "10.0.0.1 - frank [17/May/2015:14:05:39 +0000] \"GET /index.html HTTP/1.1\" 200 512";
+
+    private static final String APACHE_COMBINED_LOG =
+        "10.0.0.1 identd frank [17/May/2015:14:05:39 +0000] \"GET /index.html HTTP/1.1\" 304 - \"-\" \"curl/8.0\"";
+
+    @Test
+    @DisplayName("Sample file is detected as nginx combined")
+    void testDetectCombined() throws IOException {
+        List<String> logLines = LogFileLoader.loadLogs(TestDataProvider.SAMPLE_FILE);
+
+        assertThat(LogFormatDetector.detect(logLines)).contains(KnownLogFormat.NGINX_COMBINED);
+    }
+
+    @Test
+    @DisplayName("Trailing $request_time selects the more specific format")
+    void testDetectCombinedWithRequestTime() {
+        List<String> logLines = List.of(
+            TestDataProvider.SAMPLE_EARLY_LOG + " 0.004",
+            TestDataProvider.SAMPLE_LATE_LOG + " 1.250"
+        );
+
+        assertThat(LogFormatDetector.detect(logLines)).contains(KnownLogFormat.NGINX_COMBINED_REQUEST_TIME);
+    }
+
+    @Test
+    @DisplayName("Common and Apache formats are told apart from combined")
+    void testDetectCommonAndApache() {
+        assertThat(LogFormatDetector.detect(List.of(COMMON_LOG))).contains(KnownLogFormat.COMMON);
+        assertThat(LogFormatDetector.detect(List.of(APACHE_COMBINED_LOG))).contains(KnownLogFormat.APACHE_COMBINED);
+    }
+
+    @Test
+    @DisplayName("Format matching most sample lines wins over junk lines")
+    void testDetectWithJunkLines() {
+        List<String> logLines = List.of("garbage", TestDataProvider.SAMPLE_EARLY_LOG, "", COMMON_LOG,
+            TestDataProvider.SAMPLE_LATE_LOG);
+
+        assertThat(LogFormatDetector.detect(logLines)).contains(KnownLogFormat.NGINX_COMBINED);
+    }
+
+    @Test
+    @DisplayName("Unknown format is not detected")
+    void testDetectUnknown() {
+        assertThat(LogFormatDetector.detect(List.of("Invalid log", "another invalid line"))).isEmpty();
+        assertThat(LogFormatDetector.detect(List.of())).isEmpty();
+    }
+}
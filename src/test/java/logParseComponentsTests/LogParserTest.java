@@ -1,12 +1,20 @@
 package logParseComponentsTests;
 
 import backend.academy.exceptions.LogParseException;
+import backend.academy.logParseComponents.AnalysisContext;
 import backend.academy.logParseComponents.LogParser;
 import backend.academy.logParseComponents.LogReport;
+import backend.academy.logParseComponents.MalformedReason;
 import dataForTesting.TestDataProvider;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class LogParserTest {
@@ -20,10 +28,10 @@ public class LogParserTest {
         assertThat(logReport).isNotNull();
 
         assertThat(logReport.ipAddress()).isEqualTo("91.239.186.133");
-        assertThat(logReport.timestamp()).isEqualTo("17/May/2015:14:05:39 +0000");
+        assertThat(logReport.epochSecond()).isEqualTo(Instant.parse("2015-05-17T14:05:39Z").getEpochSecond());
         assertThat(logReport.request()).isEqualTo("GET /downloads/product_2 HTTP/1.1");
-        assertThat(logReport.httpStatusCode()).isEqualTo("304");
-        assertThat(logReport.responseSize()).isEqualTo("1234");
+        assertThat(logReport.httpStatusCode()).isEqualTo(304);
+        assertThat(logReport.responseSize()).isEqualTo(1234);
         assertThat(logReport.referrer()).isEqualTo("-");
         assertThat(logReport.userAgent()).isEqualTo("Debian APT-HTTP/1.3 (0.9.7.9)");
     }
@@ -43,4 +51,80 @@ public class LogParserTest {
             LogParser.parseLog(emptyLog);
         });
     }
+
+    @Test
+    @DisplayName("Test Parsing Invalid Log Entries Without Exceptions")
+    void testInvalidLogParseLine() {
+        // Malformed lines are reported through the return value instead of an exception
+        assertThat(LogParser.parseLine("Invalid log")).isNull();
+        assertThat(LogParser.parseLine("")).isNull();
+        assertThat(LogParser.parseLine(TestDataProvider.SAMPLE_EARLY_LOG)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Test Parsing Lines In Batches")
+    void testParseLines() {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            lines.add(i % 1000 == 0 ? "Invalid log" : TestDataProvider.SAMPLE_EARLY_LOG);
+        }
+
+        // Valid lines span more than one batch; malformed ones are skipped without an exception
+        AnalysisContext context = new AnalysisContext();
+        assertThat(context.parseLines(lines)).isEqualTo(4995);
+        assertThat(context.parseLines(List.of())).isZero();
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "17/May/2015:14:05:39 +0000, 2015-05-17T14:05:39Z",
+        "17/May/2015:14:05:39 +0300, 2015-05-17T11:05:39Z",
+        "01/Jan/2016:00:30:00 -0130, 2016-01-01T02:00:00Z",
+        "29/Feb/2016:23:59:59 +0000, 2016-02-29T23:59:59Z"
+    })
+    @DisplayName("Timestamps are decoded to epoch seconds, honoring the offset")
+    void testTimestampDecoding(String timestamp, String expectedInstant) {
+        LogReport logReport = LogParser.lineParser().parse(
+            "10.0.0.1 - - [" + timestamp + "] \"GET / HTTP/1.1\" 200 0 \"-\" \"agent\"");
+
+        assertThat(logReport.epochSecond()).isEqualTo(Instant.parse(expectedInstant).getEpochSecond());
+    }
+
+    @Test
+    @DisplayName("IPv6 client addresses are packed and formatted canonically")
+    void testIpv6Address() {
+        LogReport logReport = LogParser.lineParser().parse(
+            "2001:DB8:0:0:0:0:0:1 - - [17/May/2015:14:05:39 +0000] \"GET / HTTP/1.1\" 200 0 \"-\" \"agent\"");
+
+        assertThat(logReport.isIpv4()).isFalse();
+        assertThat(logReport.ipAddress()).isEqualTo("2001:db8::1");
+    }
+
+    @Test
+    @DisplayName("Lines longer than the maximum length are rejected before parsing")
+    void testLineTooLong() {
+        List<MalformedReason> reasons = new ArrayList<>();
+        AnalysisContext context = new AnalysisContext();
+        context.maxLineLength(TestDataProvider.SAMPLE_EARLY_LOG.length() - 1);
+
+        assertThat(context.lineParser().parse(TestDataProvider.SAMPLE_EARLY_LOG,
+            (reason, line) -> reasons.add(reason))).isNull();
+        assertThat(reasons).containsExactly(MalformedReason.LINE_TOO_LONG);
+        assertThat(LogParser.lineParser().parse(TestDataProvider.SAMPLE_EARLY_LOG)).isNotNull();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> context.maxLineLength(0));
+    }
+
+    @Test
+    @DisplayName("Lines that almost match are rejected in linear time")
+    void testPathologicalLines() {
+        String prefix = "10.0.0.1 - - [17/May/2015:14:05:39 +0000] \"GET / HTTP/1.1\" 200 0 \"-\" \"";
+        String unterminatedAgent = prefix + "a".repeat(LogParser.DEFAULT_MAX_LINE_LENGTH - prefix.length());
+        String quotedRequest = "10.0.0.1 - - [17/May/2015:14:05:39 +0000] \""
+            + "\" \"".repeat(LogParser.DEFAULT_MAX_LINE_LENGTH / 4);
+
+        Assertions.assertTimeout(Duration.ofSeconds(1), () -> {
+            assertThat(LogParser.parseLine(unterminatedAgent)).isNull();
+            assertThat(LogParser.parseLine(quotedRequest)).isNull();
+        });
+    }
 }
@@ -2,15 +2,16 @@ package logParseComponentsTests;
 
 import backend.academy.logObservers.CodeStatusesObserver;
 import backend.academy.logObservers.TotalRequestObserver;
+import backend.academy.logObservers.TrafficSeriesObserver;
+import backend.academy.logParseComponents.AnalysisContext;
 import backend.academy.logParseComponents.LogFileLoader;
-import backend.academy.logParseComponents.LogParser;
+import backend.academy.logParseComponents.LogReport;
 import backend.academy.logParseComponents.LogReportFormatter;
 import dataForTesting.TestDataProvider;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
-import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -26,18 +27,17 @@ class LogReportFormatterTest {
 
     private Path adocReportPath;
     private Path mdReportPath;
-
-    @BeforeAll
-    static void setUpObservers() {
-        // Add observers to LogParser once before all tests
-        LogParser.addObserver(new TotalRequestObserver());
-        LogParser.addObserver(new CodeStatusesObserver());
-    }
+    private AnalysisContext context;
 
     @BeforeEach
     void setUp() throws IOException {
+        // Each test runs its own analysis, so the counts do not add up across tests
+        context = new AnalysisContext();
+        context.addObserver(new TotalRequestObserver());
+        context.addObserver(new CodeStatusesObserver());
+
         // Prepare log data for each test
-        List<String> logLines = LogFileLoader.loadLogs(TestDataProvider.SAMPLE_FILE);
+        List<String> logLines = LogFileLoader.loadLogs(context, TestDataProvider.SAMPLE_FILE, null, null);
 
         // Create temporary files for the reports inside tempDir
         adocReportPath = Files.createFile(tempDir.resolve(BASE_FILE_NAME + ".adoc"));
@@ -45,7 +45,7 @@ class LogReportFormatterTest {
 
         // Parse each log line to populate data for observers
         for (String line : logLines) {
-            LogParser.parseLog(line);
+            context.parseLog(line);
         }
     }
 
@@ -53,7 +53,7 @@ class LogReportFormatterTest {
     @DisplayName("Test Adoc Report Content")
     void testAdocReportContent() throws IOException {
         // Generate the .adoc report using LogReportFormatter
-        LogReportFormatter.generateAdocReport(adocReportPath.toString(), LogParser.observers());
+        LogReportFormatter.generateAdocReport(adocReportPath.toString(), context.observers());
 
         // Read the content from the generated .adoc file
         String adocContent = Files.readString(adocReportPath);
@@ -67,7 +67,7 @@ class LogReportFormatterTest {
     @DisplayName("Test Markdown Report Content")
     void testMarkdownReportContent() throws IOException {
         // Generate the .md report using LogReportFormatter
-        LogReportFormatter.generateMarkdownReport(mdReportPath.toString(), LogParser.observers());
+        LogReportFormatter.generateMarkdownReport(mdReportPath.toString(), context.observers());
 
         // Read the content from the generated .md file
         String mdContent = Files.readString(mdReportPath);
@@ -76,4 +76,21 @@ class LogReportFormatterTest {
         assertThat(mdContent).contains("totalRequests", "4");
         assertThat(mdContent).contains("codeStatuses", "404", "3", "206", "1");
     }
+
+    @Test
+    @DisplayName("Test Time Series Table")
+    void testTimeSeriesTable() throws IOException {
+        TrafficSeriesObserver series = new TrafficSeriesObserver();
+        series.update(new LogReport(0, 0, 1_431_871_500L, "GET / HTTP/1.1", 404, 12, "-", "-"));
+
+        LogReportFormatter.generateMarkdownReport(mdReportPath.toString(), List.of(series));
+        LogReportFormatter.generateAdocReport(adocReportPath.toString(), List.of(series));
+
+        assertThat(Files.readString(mdReportPath)).contains(
+            "| Key | requests | bytes | 4xx | 5xx |",
+            "| 2015-05-17T14:05:00Z | 1 | 12 | 1 | 0 |");
+        assertThat(Files.readString(adocReportPath)).contains(
+            "| Key                  | requests | bytes | 4xx | 5xx |",
+            "| 2015-05-17T14:05:00Z | 1        | 12    | 1   | 0   |");
+    }
 }
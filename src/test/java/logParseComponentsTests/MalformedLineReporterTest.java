@@ -0,0 +1,53 @@
+package logParseComponentsTests;
+
+import backend.academy.logParseComponents.MalformedLineReporter;
+import backend.academy.logParseComponents.MalformedReason;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MalformedLineReporterTest {
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    @DisplayName("Malformed lines are written unchanged to the quarantine file")
+    void testQuarantineFile() throws IOException {
+        Path quarantineFile = tempDir.resolve("quarantine.log");
+
+        try (MalformedLineReporter reporter = new MalformedLineReporter(quarantineFile)) {
+            for (int i = 0; i < MalformedLineReporter.FIRST_LOGGED_LINES * 2; i++) {
+                reporter.onMalformed(MalformedReason.FORMAT_MISMATCH, "junk line " + i);
+            }
+            reporter.onMalformed(MalformedReason.INVALID_STATUS_CODE, "bad status");
+            reporter.onMalformed(MalformedReason.EMPTY_LINE, null);
+        }
+
+        assertThat(Files.readAllLines(quarantineFile))
+            .hasSize(MalformedLineReporter.FIRST_LOGGED_LINES * 2 + 1)
+            .startsWith("junk line 0")
+            .endsWith("bad status");
+    }
+
+    @Test
+    @DisplayName("Lines that are too long are logged abbreviated and quarantined in full")
+    void testLongLinesAreAbbreviated() throws IOException {
+        Path quarantineFile = tempDir.resolve("quarantine.log");
+        String longLine = "x".repeat(1_000_000);
+
+        try (MalformedLineReporter reporter = new MalformedLineReporter(quarantineFile)) {
+            reporter.onMalformed(MalformedReason.LINE_TOO_LONG, longLine);
+        }
+
+        assertThat(MalformedLineReporter.loggedLine(MalformedReason.LINE_TOO_LONG, longLine))
+            .isEqualTo("x".repeat(MalformedLineReporter.LOGGED_PREFIX_LENGTH) + "... (1000000 characters)");
+        assertThat(MalformedLineReporter.loggedLine(MalformedReason.FORMAT_MISMATCH, "junk")).isEqualTo("junk");
+        assertThat(MalformedLineReporter.loggedLine(MalformedReason.LINE_TOO_LONG, "short")).isEqualTo("short");
+        assertThat(Files.readAllLines(quarantineFile)).containsExactly(longLine);
+    }
+}
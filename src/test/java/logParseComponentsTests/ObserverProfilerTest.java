@@ -0,0 +1,112 @@
+package logParseComponentsTests;
+
+import backend.academy.logObservers.LogObserver;
+import backend.academy.logObservers.TotalRequestObserver;
+import backend.academy.logObservers.UserAgentObserver;
+import backend.academy.logParseComponents.AnalysisContext;
+import backend.academy.logParseComponents.LogReport;
+import backend.academy.logParseComponents.LogReportFormatter;
+import backend.academy.logParseComponents.ObserverProfiler;
+import dataForTesting.TestDataProvider;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ObserverProfilerTest {
+    private static final int LINES = 10_000;
+    private static final int RETAINED_LONGS = 1 << 20;
+    private static final int ALLOCATION_SIZE = 1024;
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    @DisplayName("Each observer gets its calls, CPU time, allocations and retained memory")
+    void testCosts() {
+        AnalysisContext context = new AnalysisContext();
+        context.addObserver(new TotalRequestObserver());
+        context.addObserver(new RetainingObserver());
+        context.addObserver(new AllocatingObserver());
+        context.profileObservers(true);
+
+        context.parseLines(Collections.nCopies(LINES, TestDataProvider.SAMPLE_EARLY_LOG));
+        for (int i = 0; i < ObserverProfiler.SAMPLE_INTERVAL; i++) {
+            context.parseLine(TestDataProvider.SAMPLE_EARLY_LOG);
+        }
+
+        Map<String, Map<String, Long>> costs = context.profiler().orElseThrow().costs();
+        assertThat(costs).containsOnlyKeys("TotalRequestObserver", "RetainingObserver", "AllocatingObserver");
+
+        // Three batches, then one call per line
+        Map<String, Long> total = costs.get("TotalRequestObserver");
+        assertThat(total.get("calls")).isEqualTo(3 + ObserverProfiler.SAMPLE_INTERVAL);
+        assertThat(total.get("cpuMicros")).isNotNegative();
+
+        assertThat(costs.get("RetainingObserver").get("retainedBytes"))
+            .isGreaterThanOrEqualTo((long) RETAINED_LONGS * Long.BYTES)
+            .isGreaterThan(total.get("retainedBytes"));
+        if (costs.get("AllocatingObserver").containsKey("allocatedBytes")) {
+            assertThat(costs.get("AllocatingObserver").get("allocatedBytes"))
+                .isGreaterThanOrEqualTo((long) LINES * ALLOCATION_SIZE);
+        }
+    }
+
+    @Test
+    @DisplayName("Observers of the same class are reported separately")
+    void testDuplicateNames() {
+        AnalysisContext context = new AnalysisContext();
+        context.addObserver(new TotalRequestObserver());
+        context.addObserver(new TotalRequestObserver());
+        context.profileObservers(true);
+
+        context.parseLines(List.of(TestDataProvider.SAMPLE_EARLY_LOG));
+
+        assertThat(context.profiler().orElseThrow().costs())
+            .containsOnlyKeys("TotalRequestObserver", "TotalRequestObserver #2");
+    }
+
+    @Test
+    @DisplayName("Profiling is opt-in and adds a Cost section to the report")
+    void testCostSection() throws IOException {
+        AnalysisContext context = new AnalysisContext();
+        context.addObserver(new TotalRequestObserver());
+        context.addObserver(new UserAgentObserver());
+        assertThat(context.profiler()).isEmpty();
+
+        context.profileObservers(true);
+        context.fuseObservers(true);
+        context.parseLines(List.of(TestDataProvider.SAMPLE_EARLY_LOG));
+
+        Path report = tempDir.resolve("report.md");
+        LogReportFormatter.generateMarkdownReport(report.toString(), context.observers(), context.profiler());
+
+        // Observers are not fused while profiled, so they are reported by their own names
+        assertThat(Files.readString(report))
+            .contains("## Cost", "retainedBytes", "TotalRequestObserver", "UserAgentObserver");
+    }
+
+    private static final class RetainingObserver implements LogObserver {
+        private final long[] retained = new long[RETAINED_LONGS];
+
+        @Override
+        public void update(LogReport log) {
+            retained[0]++;
+        }
+    }
+
+    private static final class AllocatingObserver implements LogObserver {
+        private byte[] lastBuffer;
+
+        @Override
+        public void update(LogReport log) {
+            lastBuffer = new byte[ALLOCATION_SIZE];
+        }
+    }
+}
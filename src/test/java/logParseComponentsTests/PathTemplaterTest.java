@@ -0,0 +1,93 @@
+package logParseComponentsTests;
+
+import backend.academy.logParseComponents.PathTemplater;
+import backend.academy.logParseComponents.RequestLine;
+import backend.academy.logParseComponents.SymbolTable;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PathTemplaterTest {
+    private static final List<String> TEMPLATES = List.of("/api/users/{id}/orders/{orderId}", "/files/{name}");
+
+    @ParameterizedTest
+    @CsvSource({
+        "/api/users/918273/orders/5, /api/users/{id}/orders/{orderId}",
+        "/files/report.pdf, /files/{name}",
+        "/files/a/b, /files/a/b",
+        "/api/users/918273, /api/users/{id}",
+        "/api/users/918273/, /api/users/{id}/",
+        "/items/3f2a9c1e-8b7d-4c6a-9e5f-1a2b3c4d5e6f/view, /items/{id}/view",
+        "/blobs/0123456789abcdef0123, /blobs/{id}",
+        "/downloads/product_2, /downloads/product_2",
+        "/, /"
+    })
+    @DisplayName("Templates are matched first, then identifier segments are replaced")
+    void testTemplate(String path, String expected) {
+        PathTemplater templater = new PathTemplater(TEMPLATES);
+
+        assertThat(templater.template(path)).isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("Paths without identifiers are returned unchanged")
+    void testUnchangedPathIsNotCopied() {
+        PathTemplater templater = new PathTemplater(List.of());
+        String path = "/static/main.css";
+
+        assertThat(templater.template(path)).isSameAs(path);
+    }
+
+    @Test
+    @DisplayName("Paths are templated in place, within their range of the request line")
+    void testTemplateIdOfRange() {
+        PathTemplater templater = new PathTemplater(TEMPLATES);
+        SymbolTable symbols = new SymbolTable();
+        StringBuilder buffer = new StringBuilder();
+        String first = "GET /api/users/918273?x=1 HTTP/1.1";
+        String second = "GET /api/users/42 HTTP/1.1";
+        String third = "GET /files/a.txt HTTP/1.1";
+
+        int firstId = templater.templateId(first, 4, first.indexOf('?'), symbols, buffer);
+        int secondId = templater.templateId(second, 4, second.lastIndexOf(' '), symbols, buffer);
+        int thirdId = templater.templateId(third, 4, third.lastIndexOf(' '), symbols, buffer);
+
+        assertThat(secondId).isEqualTo(firstId);
+        assertThat(symbols.symbol(firstId)).isEqualTo("/api/users/{id}");
+        assertThat(symbols.symbol(thirdId)).isEqualTo("/files/{name}");
+        assertThat(symbols.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Templates must be absolute paths")
+    void testInvalidTemplate() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PathTemplater(List.of("api/{id}")));
+    }
+
+    @Test
+    @DisplayName("Request lines are split into method, path, query and protocol")
+    void testRequestLine() {
+        RequestLine requestLine = RequestLine.parse("GET /api/users/918273?x=1&y=2 HTTP/1.1");
+
+        assertThat(requestLine.method()).isEqualTo("GET");
+        assertThat(requestLine.path()).isEqualTo("/api/users/918273");
+        assertThat(requestLine.query()).isEqualTo("x=1&y=2");
+        assertThat(requestLine.protocol()).isEqualTo("HTTP/1.1");
+    }
+
+    @Test
+    @DisplayName("Request lines without a query string or protocol")
+    void testShortRequestLine() {
+        RequestLine requestLine = RequestLine.parse("GET /index.html");
+
+        assertThat(requestLine.path()).isEqualTo("/index.html");
+        assertThat(requestLine.query()).isEmpty();
+        assertThat(requestLine.protocol()).isEmpty();
+        assertThat(RequestLine.parse("-")).isNull();
+        assertThat(RequestLine.parse("GET ")).isNull();
+    }
+}
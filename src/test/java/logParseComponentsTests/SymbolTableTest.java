@@ -0,0 +1,53 @@
+package logParseComponentsTests;
+
+import backend.academy.logParseComponents.SymbolTable;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SymbolTableTest {
+
+    @Test
+    @DisplayName("Values read from a line slice get dense ids in order of first appearance")
+    void testIdsFromSlices() {
+        SymbolTable table = new SymbolTable();
+        String line = "\"https://example.com\" \"curl/8.4.0\" \"https://example.com\"";
+
+        int first = table.id(line, 1, 20);
+        int second = table.id(line, 23, 33);
+        int third = table.id(line, 36, 55);
+
+        assertThat(first).isZero();
+        assertThat(second).isEqualTo(1);
+        assertThat(third).isEqualTo(first);
+        assertThat(table.size()).isEqualTo(2);
+        assertThat(table.symbol(first)).isEqualTo("https://example.com");
+        assertThat(table.id("curl/8.4.0")).isEqualTo(second);
+    }
+
+    @Test
+    @DisplayName("Repeated values return the same canonical instance")
+    void testInternReturnsCanonicalInstance() {
+        SymbolTable table = new SymbolTable();
+
+        String first = table.intern("a-b-a", 0, 1);
+        String second = table.intern("a-b-a", 4, 5);
+
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    @DisplayName("The table grows beyond its initial capacity")
+    void testGrowth() {
+        SymbolTable table = new SymbolTable();
+        for (int i = 0; i < 100_000; i++) {
+            assertThat(table.id("value-" + i)).isEqualTo(i);
+        }
+        for (int i = 0; i < 100_000; i += 997) {
+            String value = "value-" + i;
+            assertThat(table.id("x" + value + "x", 1, value.length() + 1)).isEqualTo(i);
+        }
+        assertThatThrownBy(() -> table.symbol(100_000)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+}